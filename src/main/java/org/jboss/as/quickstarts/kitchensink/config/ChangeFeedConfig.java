@@ -0,0 +1,31 @@
+package org.jboss.as.quickstarts.kitchensink.config;
+
+import org.jboss.as.quickstarts.kitchensink.data.changes.JdbcMemberChangeLog;
+import org.jboss.as.quickstarts.kitchensink.data.changes.MemberChangeLog;
+import org.jboss.as.quickstarts.kitchensink.data.changes.MongoMemberChangeLog;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Member change log, activated when members.changes.enabled=true
+ * The log lives next to the members: in MongoDB when mongodb.enabled=true, in the relational database otherwise.
+ */
+@Configuration
+@ConditionalOnProperty(name = "members.changes.enabled", havingValue = "true")
+public class ChangeFeedConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "mongodb.enabled", havingValue = "false", matchIfMissing = true)
+    public MemberChangeLog jdbcMemberChangeLog(JdbcTemplate jdbcTemplate) {
+        return new JdbcMemberChangeLog(jdbcTemplate);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "mongodb.enabled", havingValue = "true")
+    public MemberChangeLog mongoMemberChangeLog(MongoOperations mongoOperations) {
+        return new MongoMemberChangeLog(mongoOperations);
+    }
+}
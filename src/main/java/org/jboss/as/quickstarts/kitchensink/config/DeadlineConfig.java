@@ -0,0 +1,32 @@
+package org.jboss.as.quickstarts.kitchensink.config;
+
+import org.jboss.as.quickstarts.kitchensink.data.deadline.DeadlineDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Request deadline configuration that is only activated when members.deadline.enabled=true
+ * The DataSource used by JPA and JDBC is wrapped so its statements follow the request deadline.
+ */
+@Configuration
+@ConditionalOnProperty(name = "members.deadline.enabled", havingValue = "true")
+public class DeadlineConfig {
+
+    @Bean
+    public static BeanPostProcessor deadlineDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource
+                        && !(bean instanceof DeadlineDataSource)) {
+                    return new DeadlineDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,48 @@
+package org.jboss.as.quickstarts.kitchensink.config;
+
+import com.mongodb.ConnectionString;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.jboss.as.quickstarts.kitchensink.data.JpaMemberStore;
+import org.jboss.as.quickstarts.kitchensink.data.MemberStore;
+import org.jboss.as.quickstarts.kitchensink.data.migration.DualWriteMemberStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+/**
+ * JPA to MongoDB migration configuration that is only activated when migration.enabled=true
+ * The application keeps running on JPA; MongoDB at migration.mongodb.uri is only the copy target.
+ */
+@Configuration
+@ConditionalOnProperty(name = "migration.enabled", havingValue = "true")
+public class MigrationConfig {
+
+    @Bean
+    public MongoClient migrationMongoClient(@Value("${migration.mongodb.uri}") String uri) {
+        return MongoClients.create(uri);
+    }
+
+    @Bean
+    public MongoTemplate migrationMongoTemplate(MongoClient migrationMongoClient,
+                                                @Value("${migration.mongodb.uri}") String uri) {
+        String database = new ConnectionString(uri).getDatabase();
+        return new MongoTemplate(migrationMongoClient, database == null ? "kitchensink" : database);
+    }
+
+    /**
+     * Mirror member writes into MongoDB during the cutover, when migration.dual-write=true
+     */
+    @Bean
+    @Primary
+    @ConditionalOnProperty(name = "migration.dual-write", havingValue = "true")
+    public MemberStore dualWriteMemberStore(JpaMemberStore jpaMemberStore,
+                                            MongoTemplate migrationMongoTemplate,
+                                            MeterRegistry meterRegistry) {
+        return new DualWriteMemberStore(jpaMemberStore, migrationMongoTemplate, meterRegistry);
+    }
+}
@@ -2,13 +2,22 @@ package org.jboss.as.quickstarts.kitchensink.config;
 
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoClients;
+import org.jboss.as.quickstarts.kitchensink.data.deadline.DeadlineMongoTemplate;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.SimpleMongoClientDatabaseFactory;
+import org.springframework.data.mongodb.core.convert.DefaultDbRefResolver;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
 import org.springframework.data.mongodb.repository.config.EnableMongoRepositories;
 
+import java.util.List;
+
 /**
  * MongoDB configuration that is only activated when mongodb.enabled=true
  */
@@ -41,6 +50,26 @@ public class MongoConfig {
                 }
             }
         }
-        return new MongoTemplate(mongoClient(), databaseName);
+        // Applies request deadlines as maxTimeMS; without one it behaves as a plain MongoTemplate
+        MongoDatabaseFactory databaseFactory = new SimpleMongoClientDatabaseFactory(mongoClient(), databaseName);
+        return new DeadlineMongoTemplate(databaseFactory, indexingConverter(databaseFactory));
+    }
+
+    /**
+     * Converter whose mapping context creates the indexes declared on the documents
+     * A template built from a client alone never creates them, whatever
+     * spring.data.mongodb.auto-index-creation says, and the unique email index is what keeps
+     * registrations from storing an email twice.
+     */
+    static MappingMongoConverter indexingConverter(MongoDatabaseFactory databaseFactory) {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.setAutoIndexCreation(true);
+        mappingContext.afterPropertiesSet();
+        MappingMongoConverter converter = new MappingMongoConverter(new DefaultDbRefResolver(databaseFactory), mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        return converter;
     }
 }
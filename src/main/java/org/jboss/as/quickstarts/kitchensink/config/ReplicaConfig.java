@@ -0,0 +1,66 @@
+package org.jboss.as.quickstarts.kitchensink.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.jboss.as.quickstarts.kitchensink.data.deadline.DeadlineDataSource;
+import org.jboss.as.quickstarts.kitchensink.data.replica.ReplicaLagMonitor;
+import org.jboss.as.quickstarts.kitchensink.data.replica.ReplicaRoutingDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+
+/**
+ * Read-replica routing for the relational backends, activated when replica.enabled=true
+ * The primary is the spring.datasource.* database; read-only transactions go to the replica.urls databases.
+ */
+@Configuration
+@ConditionalOnProperty(name = "replica.enabled", havingValue = "true")
+public class ReplicaConfig {
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(DataSourceProperties properties,
+                                                             @Value("${replica.urls}") List<String> urls,
+                                                             @Value("${replica.username:${spring.datasource.username:}}") String username,
+                                                             @Value("${replica.password:${spring.datasource.password:}}") String password) {
+        DataSource primary = properties.initializeDataSourceBuilder().build();
+        List<DataSource> replicas = new ArrayList<>();
+        for (String url : urls) {
+            replicas.add(DataSourceBuilder.create()
+                    .driverClassName(properties.determineDriverClassName())
+                    .url(url.trim())
+                    .username(username)
+                    .password(password)
+                    .build());
+        }
+        return new ReplicaRoutingDataSource(primary, replicas);
+    }
+
+    /**
+     * The DataSource used by JPA and JDBC
+     * Connections are fetched lazily so the routing sees whether the transaction is read-only.
+     * Hedged reads cancel their losing attempt through its statements, which the deadline wrapper tracks.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource,
+                                 @Value("${replica.hedge.enabled:false}") boolean hedgeEnabled) {
+        DataSource lazy = new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+        return hedgeEnabled ? new DeadlineDataSource(lazy) : lazy;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(ReplicaRoutingDataSource replicaRoutingDataSource,
+                                               @Value("${replica.max-lag-ms:5000}") long maxLagMillis,
+                                               @Value("${replica.check-interval-ms:1000}") long checkIntervalMillis,
+                                               MeterRegistry meterRegistry) {
+        return new ReplicaLagMonitor(replicaRoutingDataSource, maxLagMillis, checkIntervalMillis, meterRegistry);
+    }
+}
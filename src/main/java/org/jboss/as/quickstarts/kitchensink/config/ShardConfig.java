@@ -0,0 +1,69 @@
+package org.jboss.as.quickstarts.kitchensink.config;
+
+import org.jboss.as.quickstarts.kitchensink.data.jdbc.JdbcMemberStore;
+import org.jboss.as.quickstarts.kitchensink.data.shard.ShardedMemberStore;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.init.DatabasePopulatorUtils;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+
+/**
+ * Sharded storage configuration that is only activated when shard.enabled=true
+ * Every shard.urls database gets the member table on startup and is served by its own JDBC store.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shard.enabled", havingValue = "true")
+public class ShardConfig implements DisposableBean {
+
+    private final List<DataSource> dataSources = new ArrayList<>();
+
+    @Bean
+    public ShardedMemberStore shardedMemberStore(DataSourceProperties properties,
+                                                 @Value("${shard.urls}") List<String> urls,
+                                                 @Value("${shard.username:${spring.datasource.username:}}") String username,
+                                                 @Value("${shard.password:${spring.datasource.password:}}") String password,
+                                                 @Value("${shard.virtual-nodes:128}") int virtualNodes,
+                                                 @Value("${shard.fan-out-threads:16}") int fanOutThreads,
+                                                 @Value("${shard.async-threads-per-shard:2}") int threadsPerShard,
+                                                 @Value("${members.store.async-threads:8}") int asyncThreads) {
+        ResourceDatabasePopulator schema = new ResourceDatabasePopulator(new ClassPathResource("shard-schema.sql"));
+        List<JdbcMemberStore> shards = new ArrayList<>();
+        for (String url : urls) {
+            DataSource dataSource = DataSourceBuilder.create()
+                    .driverClassName(properties.determineDriverClassName())
+                    .url(url.trim())
+                    .username(username)
+                    .password(password)
+                    .build();
+            dataSources.add(dataSource);
+            DatabasePopulatorUtils.execute(schema, dataSource);
+            shards.add(new JdbcMemberStore(new JdbcTemplate(dataSource),
+                    new DataSourceTransactionManager(dataSource), threadsPerShard));
+        }
+        return new ShardedMemberStore(shards, virtualNodes, fanOutThreads, asyncThreads);
+    }
+
+    /**
+     * Close the shard connection pools once the store has shut down
+     */
+    @Override
+    public void destroy() throws Exception {
+        for (DataSource dataSource : dataSources) {
+            if (dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
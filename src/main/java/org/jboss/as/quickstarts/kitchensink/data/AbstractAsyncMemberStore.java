@@ -0,0 +1,136 @@
+package org.jboss.as.quickstarts.kitchensink.data;
+
+import org.jboss.as.quickstarts.kitchensink.data.changes.MemberChangeLog;
+import org.jboss.as.quickstarts.kitchensink.data.deadline.QueryDeadline;
+import org.jboss.as.quickstarts.kitchensink.model.Member;
+import org.jboss.as.quickstarts.kitchensink.model.MemberView;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Base class for stores backed by a blocking driver
+ * The async operations run on a bounded pool owned by the store, so callers never block on I/O
+ * and a slow backend cannot exhaust the request threads. The caller's query deadline, if any, applies on the pool.
+ */
+public abstract class AbstractAsyncMemberStore implements MemberStore, DisposableBean {
+
+    private final ExecutorService executor;
+    private MemberChangeLog changeLog;
+
+    protected AbstractAsyncMemberStore(String name, int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Record every insert and delete in a change log, present when members.changes.enabled=true
+     */
+    @Autowired(required = false)
+    public void setChangeLog(MemberChangeLog changeLog) {
+        this.changeLog = changeLog;
+    }
+
+    /**
+     * Append the inserts to the change log, if there is one
+     * Stores with transactions call this inside the transaction of the insert, the others right after it.
+     */
+    protected void recordInserted(Collection<Member> members) {
+        if (changeLog != null) {
+            members.forEach(changeLog::appendInserted);
+        }
+    }
+
+    /**
+     * Append a deletion to the change log, if there is one; only for a member that was actually removed
+     */
+    protected void recordDeleted(long id) {
+        if (changeLog != null) {
+            changeLog.appendDeleted(id);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Optional<MemberView>> findViewByIdAsync(Long id) {
+        return CompletableFuture.supplyAsync(QueryDeadline.propagate(() -> findViewById(id)), executor);
+    }
+
+    @Override
+    public CompletableFuture<List<MemberView>> findViewsByIdInAsync(Collection<Long> ids) {
+        return CompletableFuture.supplyAsync(QueryDeadline.propagate(() -> findViewsByIdIn(ids)), executor);
+    }
+
+    @Override
+    public CompletableFuture<List<Member>> insertAllAsync(List<Member> members) {
+        return CompletableFuture.supplyAsync(QueryDeadline.propagate(() -> insertAll(members)), executor);
+    }
+
+    /**
+     * {@link #insertAllIfEmailAbsent(List)} for backends whose {@link #insertAll(List)} is one transaction
+     * The members with distinct emails are committed with a single insertAll. When that is rolled back
+     * because an email is taken, the taken emails are looked up in one query and the rest are committed
+     * together again; only if a concurrent insert wins a race in between are they inserted one by one.
+     * @param conflict whether an exception thrown by insertAll is a violation of the unique email constraint
+     * @param takenEmails which of the given emails are already stored
+     */
+    protected boolean[] insertAllOrEach(List<Member> members, Predicate<RuntimeException> conflict,
+                                        Function<List<String>, Collection<String>> takenEmails) {
+        boolean[] inserted = new boolean[members.size()];
+        List<Integer> candidates = new ArrayList<>(members.size());
+        Set<String> emails = new HashSet<>();
+        for (int i = 0; i < members.size(); i++) {
+            if (emails.add(members.get(i).getEmail())) {
+                candidates.add(i);
+            }
+        }
+        if (!insertAllUnlessConflict(members, candidates, conflict)) {
+            List<String> candidateEmails = candidates.stream().map(i -> members.get(i).getEmail()).toList();
+            Set<String> taken = new HashSet<>(takenEmails.apply(candidateEmails));
+            candidates.removeIf(i -> taken.contains(members.get(i).getEmail()));
+            if (!insertAllUnlessConflict(members, candidates, conflict)) {
+                for (int i : candidates) {
+                    inserted[i] = insertIfEmailAbsent(members.get(i));
+                }
+                return inserted;
+            }
+        }
+        candidates.forEach(i -> inserted[i] = true);
+        return inserted;
+    }
+
+    private boolean insertAllUnlessConflict(List<Member> members, List<Integer> positions,
+                                            Predicate<RuntimeException> conflict) {
+        try {
+            insertAll(positions.stream().map(members::get).toList());
+            return true;
+        } catch (RuntimeException e) {
+            // The IDs handed out before the rollback are void
+            positions.forEach(i -> members.get(i).setId(null));
+            if (!conflict.test(e)) {
+                throw e;
+            }
+            return false;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
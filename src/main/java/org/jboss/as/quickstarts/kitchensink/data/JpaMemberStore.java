@@ -0,0 +1,192 @@
+package org.jboss.as.quickstarts.kitchensink.data;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceException;
+import org.jboss.as.quickstarts.kitchensink.data.jdbc.MemberBatchInsert;
+import org.jboss.as.quickstarts.kitchensink.model.Member;
+import org.jboss.as.quickstarts.kitchensink.model.MemberCursor;
+import org.jboss.as.quickstarts.kitchensink.model.MemberKeys;
+import org.jboss.as.quickstarts.kitchensink.model.MemberView;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * MemberStore on top of JPA
+ * This is used whenever the JPA MemberRepository is, unless jdbc.enabled or shard.enabled is true
+ * <p>
+ * Multi-gets use IN-list projections in chunks, bulk inserts bypass the persistence context with
+ * JDBC batches in one transaction, since Hibernate cannot batch the INSERTs of IDENTITY entities,
+ * and scans page through the primary key
+ * so no connection is held while the caller consumes the stream. Writes run in their own
+ * transaction template, so they also work when called from the async pool.
+ */
+@Component
+@ConditionalOnProperty(name = {"mongodb.enabled", "memory.enabled", "logstore.enabled", "jdbc.enabled", "shard.enabled"}, havingValue = "false", matchIfMissing = true)
+public class JpaMemberStore extends AbstractAsyncMemberStore {
+
+    /**
+     * IDs per IN-list query and rows per scan batch
+     */
+    static final int BATCH_SIZE = 1000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final MemberRepository memberRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public JpaMemberStore(MemberRepository memberRepository,
+                          JdbcTemplate jdbcTemplate,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${members.store.async-threads:8}") int asyncThreads) {
+        super("jpa-member-store", asyncThreads);
+        this.memberRepository = memberRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public Optional<Member> findById(Long id) {
+        return memberRepository.findById(id);
+    }
+
+    @Override
+    public Optional<MemberView> findViewById(Long id) {
+        return memberRepository.findViewById(id);
+    }
+
+    @Override
+    public Optional<Member> findByEmail(String email) {
+        return memberRepository.findByEmail(email);
+    }
+
+    @Override
+    public List<MemberView> findViewsByIdIn(Collection<Long> ids) {
+        if (ids.size() <= BATCH_SIZE) {
+            return memberRepository.findViewsByIdIn(ids);
+        }
+        List<Long> all = new ArrayList<>(ids);
+        List<MemberView> views = new ArrayList<>(all.size());
+        for (int from = 0; from < all.size(); from += BATCH_SIZE) {
+            views.addAll(memberRepository.findViewsByIdIn(all.subList(from, Math.min(all.size(), from + BATCH_SIZE))));
+        }
+        views.sort(MemberKeys.NAME_ORDER);
+        return views;
+    }
+
+    @Override
+    public List<MemberView> findAllViewsOrderedByName() {
+        return memberRepository.findAllViewsOrderedByName();
+    }
+
+    @Override
+    public List<MemberView> findViewsByNameContaining(String name) {
+        return memberRepository.findViewsByNameContaining(name);
+    }
+
+    @Override
+    public List<MemberView> findViewsAfter(MemberCursor after, int limit) {
+        PageRequest slice = PageRequest.ofSize(limit);
+        return after == null
+                ? memberRepository.findFirstViewsByName(slice)
+                : memberRepository.findViewsByNameAfter(after.nameKey(), after.id(), slice);
+    }
+
+    @Override
+    public Stream<MemberView> streamViews() {
+        return Stream.iterate(viewsAfterId(Long.MIN_VALUE),
+                        batch -> !batch.isEmpty(),
+                        batch -> batch.size() < BATCH_SIZE ? List.of() : viewsAfterId(batch.get(batch.size() - 1).id()))
+                .flatMap(List::stream);
+    }
+
+    @Override
+    public long count() {
+        return memberRepository.count();
+    }
+
+    @Override
+    public boolean insertIfEmailAbsent(Member member) {
+        try {
+            return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                if (memberRepository.findByEmail(member.getEmail()).isPresent()) {
+                    return false;
+                }
+                entityManager.persist(member);
+                entityManager.flush();
+                recordInserted(List.of(member));
+                return true;
+            }));
+        } catch (PersistenceException | DataIntegrityViolationException e) {
+            // A concurrent insert took the email between the check and ours; the unique constraint rejected this one
+            member.setId(null);
+            if (memberRepository.findByEmail(member.getEmail()).isPresent()) {
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public List<Member> insertAll(List<Member> members) {
+        // The JPA transaction manager exposes its connection, so the batch commits with the transaction
+        transactionTemplate.executeWithoutResult(status -> {
+            MemberBatchInsert.insertAll(jdbcTemplate, members);
+            recordInserted(members);
+        });
+        return members;
+    }
+
+    @Override
+    public boolean[] insertAllIfEmailAbsent(List<Member> members) {
+        return insertAllOrEach(members, MemberBatchInsert::isEmailConflict, this::takenEmails);
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        // A single statement instead of the repository's load-then-remove
+        transactionTemplate.executeWithoutResult(status -> {
+            int deleted = entityManager
+                    .createQuery("DELETE FROM Member m WHERE m.id = :id")
+                    .setParameter("id", id)
+                    .executeUpdate();
+            if (deleted > 0) {
+                recordDeleted(id);
+            }
+        });
+    }
+
+    private List<String> takenEmails(List<String> emails) {
+        List<String> taken = new ArrayList<>();
+        for (int from = 0; from < emails.size(); from += BATCH_SIZE) {
+            taken.addAll(entityManager
+                    .createQuery("SELECT m.email FROM Member m WHERE m.email IN :emails", String.class)
+                    .setParameter("emails", emails.subList(from, Math.min(emails.size(), from + BATCH_SIZE)))
+                    .getResultList());
+        }
+        return taken;
+    }
+
+    private List<MemberView> viewsAfterId(long after) {
+        return entityManager
+                .createQuery("SELECT new org.jboss.as.quickstarts.kitchensink.model.MemberView(m.id, m.name, m.email, m.phoneNumber) "
+                        + "FROM Member m WHERE m.id > :after ORDER BY m.id", MemberView.class)
+                .setParameter("after", after)
+                .setMaxResults(BATCH_SIZE)
+                .getResultList();
+    }
+}
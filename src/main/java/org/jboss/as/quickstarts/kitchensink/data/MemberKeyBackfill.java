@@ -0,0 +1,98 @@
+package org.jboss.as.quickstarts.kitchensink.data;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.jboss.as.quickstarts.kitchensink.model.MemberKeys;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+/**
+ * Populates derived key columns on member rows written before those columns existed
+ * New and updated rows get their keys from the entity lifecycle callbacks
+ */
+@Component
+@ConditionalOnProperty(name = {"mongodb.enabled", "memory.enabled", "logstore.enabled"}, havingValue = "false", matchIfMissing = true)
+public class MemberKeyBackfill {
+
+    private static final Logger log = Logger.getLogger(MemberKeyBackfill.class.getName());
+
+    /**
+     * Rows read and updated per transaction when keys must be computed in Java
+     */
+    static final int BATCH_SIZE = 1000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public MemberKeyBackfill(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Fill in missing keys once the application is ready
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        int updated = backfill();
+        if (updated > 0) {
+            log.info("Backfilled derived keys for " + updated + " members");
+        }
+    }
+
+    /**
+     * Fill in missing derived keys
+     * @return the number of rows updated
+     */
+    public int backfill() {
+        return backfill("nameKey", "name", MemberKeys::nameKey)
+                + backfill("emailDomainKey", "email", MemberKeys::emailDomainKey);
+    }
+
+    /**
+     * Keys are computed in Java by {@link MemberKeys}, the same code that computes them on write;
+     * SQL such as LOWER() can disagree with it on non-ASCII text, and email domain keys have no
+     * portable SQL form at all. Rows are processed one batch (and one transaction) at a time.
+     */
+    private int backfill(String keyField, String sourceField, Function<String, String> key) {
+        int updated = 0;
+        long after = Long.MIN_VALUE;
+        while (true) {
+            long from = after;
+            List<Object[]> rows = transactionTemplate.execute(status -> entityManager
+                    .createQuery("SELECT m.id, m." + sourceField + " FROM Member m "
+                            + "WHERE m." + keyField + " IS NULL AND m.id > :after ORDER BY m.id", Object[].class)
+                    .setParameter("after", from)
+                    .setMaxResults(BATCH_SIZE)
+                    .getResultList());
+            if (rows == null || rows.isEmpty()) {
+                return updated;
+            }
+            Integer batch = transactionTemplate.execute(status -> {
+                int count = 0;
+                for (Object[] row : rows) {
+                    String value = key.apply((String) row[1]);
+                    if (value != null) {
+                        count += entityManager
+                                .createQuery("UPDATE Member m SET m." + keyField + " = :key WHERE m.id = :id")
+                                .setParameter("key", value)
+                                .setParameter("id", row[0])
+                                .executeUpdate();
+                    }
+                }
+                return count;
+            });
+            updated += batch == null ? 0 : batch;
+            after = (Long) rows.get(rows.size() - 1)[0];
+        }
+    }
+}
@@ -1,12 +1,21 @@
 package org.jboss.as.quickstarts.kitchensink.data;
 
-import org.jboss.as.quickstarts.kitchensink.model.Member;
+import org.jboss.as.quickstarts.kitchensink.model.InvalidContinuationTokenException;
+import org.jboss.as.quickstarts.kitchensink.model.MemberCursor;
+import org.jboss.as.quickstarts.kitchensink.model.MemberPage;
+import org.jboss.as.quickstarts.kitchensink.model.MemberView;
+import org.jboss.as.quickstarts.kitchensink.service.MemberDeletedEvent;
 import org.jboss.as.quickstarts.kitchensink.service.MemberRegisteredEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.event.ContextRefreshedEvent;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Logger;
 
 /**
@@ -18,11 +27,36 @@ public class MemberListProducer {
 
     private static final Logger log = Logger.getLogger(MemberListProducer.class.getName());
 
-    private final MemberRepository memberRepository;
-    private List<Member> members;
+    private final MemberStore memberStore;
+    private final ApplicationEventPublisher eventPublisher;
+    private volatile List<MemberView> members = List.of();
+    private final AtomicLong version = new AtomicLong();
+    private MemberReadCircuitBreaker readBreaker;
+    private volatile boolean refreshSkipped;
+    private TransactionTemplate readOnlyTransaction;
 
-    public MemberListProducer(MemberRepository memberRepository) {
-        this.memberRepository = memberRepository;
+    public MemberListProducer(MemberStore memberStore, ApplicationEventPublisher eventPublisher) {
+        this.memberStore = memberStore;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Keep the current list instead of waiting on the store while member reads are failing
+     * @param readBreaker the breaker, absent unless members.breaker.enabled=true
+     */
+    @Autowired(required = false)
+    public void setReadBreaker(MemberReadCircuitBreaker readBreaker) {
+        this.readBreaker = readBreaker;
+    }
+
+    /**
+     * Read the member list in a read-only transaction, ended inside the read breaker
+     * @param transactionManager the transaction manager, absent only when the producer is built by hand
+     */
+    @Autowired(required = false)
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
     }
 
     /**
@@ -42,19 +76,97 @@ public class MemberListProducer {
         retrieveAllMembersOrderedByName();
     }
 
+    /**
+     * Update the member list when a member is deleted
+     */
+    @EventListener
+    public void onMemberDeleted(MemberDeletedEvent event) {
+        retrieveAllMembersOrderedByName();
+    }
+
+    /**
+     * Catch up on the changes missed while member reads were failing
+     */
+    @EventListener
+    public void onReadsRecovered(MemberReadsRecoveredEvent event) {
+        if (refreshSkipped) {
+            retrieveAllMembersOrderedByName();
+        }
+    }
+
     /**
      * Get the current list of members
+     * The returned snapshot is immutable and ordered by name
      */
-    public List<Member> getMembers() {
+    public List<MemberView> getMembers() {
         return members;
     }
 
+    /**
+     * Version of the current snapshot, increased on every refresh
+     * Read before {@link #getPage}, it never names a newer snapshot than the one the page comes from.
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Get one page of the cached listing, using the same continuation tokens as the REST API
+     * The start of the page is found by binary search, so deep pages cost the same as the first
+     * @param continuationToken token returned with the previous page, or null for the first page
+     * @param size the page size
+     * @return the page and the token for the next one
+     * @throws InvalidContinuationTokenException if the continuation token is malformed
+     */
+    public MemberPage getPage(String continuationToken, int size) {
+        List<MemberView> snapshot = members;
+        int from = 0;
+        if (continuationToken != null && !continuationToken.isBlank()) {
+            from = firstIndexAfter(snapshot, MemberCursor.decode(continuationToken));
+        }
+        int to = Math.min(snapshot.size(), from + size + 1);
+        return MemberPage.of(snapshot.subList(from, to), size);
+    }
+
+    private static int firstIndexAfter(List<MemberView> snapshot, MemberCursor cursor) {
+        int low = 0;
+        int high = snapshot.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cursor.isBefore(snapshot.get(mid))) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
     /**
      * Refresh the list of all members ordered by name
      */
     public void retrieveAllMembersOrderedByName() {
-        this.members = memberRepository.findAll();
-        // Sort members by name
-        this.members.sort((m1, m2) -> m1.getName().compareToIgnoreCase(m2.getName()));
+        refreshSkipped = false;
+        // The projection query already returns the members sorted by name
+        List<MemberView> views = readBreaker == null
+                ? readAllViews()
+                : readBreaker.read(this::readAllViews, () -> null);
+        if (views == null) {
+            log.warning("Keeping the cached member list until member reads recover");
+            refreshSkipped = true;
+            return;
+        }
+        List<MemberView> snapshot = List.copyOf(views);
+        this.members = snapshot;
+        version.incrementAndGet();
+
+        // Let views derived from the snapshot follow it
+        eventPublisher.publishEvent(new MemberListRefreshedEvent(this, snapshot));
+    }
+
+    private List<MemberView> readAllViews() {
+        return readOnlyTransaction == null
+                ? memberStore.findAllViewsOrderedByName()
+                : readOnlyTransaction.execute(status -> memberStore.findAllViewsOrderedByName());
     }
 }
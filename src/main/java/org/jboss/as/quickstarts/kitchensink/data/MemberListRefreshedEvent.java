@@ -0,0 +1,26 @@
+package org.jboss.as.quickstarts.kitchensink.data;
+
+import org.jboss.as.quickstarts.kitchensink.model.MemberView;
+import org.springframework.context.ApplicationEvent;
+
+import java.util.List;
+
+/**
+ * Event that is fired when the cached member list has been reloaded
+ */
+public class MemberListRefreshedEvent extends ApplicationEvent {
+
+    private final List<MemberView> members;
+
+    public MemberListRefreshedEvent(Object source, List<MemberView> members) {
+        super(source);
+        this.members = members;
+    }
+
+    /**
+     * The new snapshot, immutable and ordered by name
+     */
+    public List<MemberView> getMembers() {
+        return members;
+    }
+}
@@ -0,0 +1,276 @@
+package org.jboss.as.quickstarts.kitchensink.data;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletResponse;
+import org.jboss.as.quickstarts.kitchensink.data.deadline.QueryDeadline;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Circuit breaker around reads from the member store
+ * Enabled with members.breaker.enabled=true
+ * <p>
+ * Reads that fail with a data access error, or take longer than the slow-call threshold, count as
+ * failures over a sliding window of recent reads. A read cut short by a request deadline shorter than
+ * the slow-call threshold says nothing about the store, so it is passed on without counting. Once the failure rate crosses the threshold the
+ * breaker opens and reads stop reaching the store: they are answered at once from the fallback,
+ * normally the cached member list, and the response is marked with the {@value #STALE_HEADER}
+ * header. After the open period one read at a time is let through as a probe; it closes the
+ * breaker when it succeeds and reopens it when it fails. A {@link MemberReadsRecoveredEvent} is
+ * published when the breaker closes.
+ */
+@Component
+@ConditionalOnProperty(name = "members.breaker.enabled", havingValue = "true")
+public class MemberReadCircuitBreaker {
+
+    private static final Logger log = Logger.getLogger(MemberReadCircuitBreaker.class.getName());
+
+    /**
+     * Response header set when the response was served from the cached member list
+     */
+    public static final String STALE_HEADER = "X-Members-Stale";
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private enum Permit { REJECTED, CALL, PROBE }
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final LongSupplier nanoTime;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long slowCallNanos;
+    private final long openNanos;
+
+    // Outcomes of the most recent reads while closed, true for a failure
+    private final boolean[] window;
+    private int next;
+    private int recorded;
+    private int failures;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private boolean probing;
+
+    private final Counter fallbacks;
+
+    @Autowired
+    public MemberReadCircuitBreaker(ApplicationEventPublisher eventPublisher,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${members.breaker.window-size:20}") int windowSize,
+                                    @Value("${members.breaker.minimum-calls:10}") int minimumCalls,
+                                    @Value("${members.breaker.failure-rate-threshold:0.5}") double failureRateThreshold,
+                                    @Value("${members.breaker.slow-call-ms:2000}") long slowCallMillis,
+                                    @Value("${members.breaker.open-ms:10000}") long openMillis) {
+        this(eventPublisher, meterRegistry, windowSize, minimumCalls, failureRateThreshold,
+                slowCallMillis, openMillis, System::nanoTime);
+    }
+
+    MemberReadCircuitBreaker(ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry,
+                             int windowSize, int minimumCalls, double failureRateThreshold,
+                             long slowCallMillis, long openMillis, LongSupplier nanoTime) {
+        this.eventPublisher = eventPublisher;
+        this.nanoTime = nanoTime;
+        this.window = new boolean[windowSize];
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(slowCallMillis);
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMillis);
+
+        Gauge.builder("members.breaker.state", this, breaker -> breaker.getState().ordinal())
+                .description("Member read circuit breaker state: 0 closed, 1 open, 2 half-open")
+                .register(meterRegistry);
+        this.fallbacks = Counter.builder("members.breaker.fallbacks")
+                .description("Member reads answered from the cached member list")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Run a read against the store, or answer it from the fallback when the store is failing
+     * Errors other than data access errors are passed on and do not count against the store, and so are
+     * timeouts of a request deadline shorter than the slow-call threshold.
+     * @param read the store read
+     * @param fallback answers the read without the store; called when the breaker is open or the read fails
+     * @return the result of the read or of the fallback
+     */
+    public <T> T read(Supplier<T> read, Supplier<T> fallback) {
+        Permit permit = permit();
+        if (permit == Permit.REJECTED) {
+            return fallback(fallback);
+        }
+        long start = nanoTime.getAsLong();
+        T result;
+        try {
+            result = read.get();
+        } catch (DataAccessException | TransactionException e) {
+            if (expiredBeforeSlowCall()) {
+                onIgnored(permit);
+                throw e;
+            }
+            log.warning("Member read failed, serving the cached member list: " + e.getMessage());
+            onFailure(permit);
+            return fallback(fallback);
+        } catch (RuntimeException | Error e) {
+            onIgnored(permit);
+            throw e;
+        }
+        if (nanoTime.getAsLong() - start > slowCallNanos) {
+            onFailure(permit);
+        } else {
+            onSuccess(permit);
+        }
+        return result;
+    }
+
+    /**
+     * Mark the current response as stale unless the breaker is closed
+     * For views rendered from the cached member list, which may miss changes while the store is unreachable.
+     */
+    public void markStaleIfNotClosed() {
+        if (getState() != State.CLOSED) {
+            markStale();
+        }
+    }
+
+    /**
+     * Whether the request deadline has passed although it was shorter than a slow read
+     */
+    private boolean expiredBeforeSlowCall() {
+        QueryDeadline deadline = QueryDeadline.current();
+        return deadline != null && deadline.isExpired()
+                && TimeUnit.MILLISECONDS.toNanos(deadline.timeoutMillis()) < slowCallNanos;
+    }
+
+    synchronized State getState() {
+        return state;
+    }
+
+    private <T> T fallback(Supplier<T> fallback) {
+        fallbacks.increment();
+        markStale();
+        return fallback.get();
+    }
+
+    /**
+     * Mark the current response as answered from the cached member list
+     */
+    public static void markStale() {
+        HttpServletResponse response = currentResponse();
+        if (response != null && !response.isCommitted()) {
+            response.setHeader(STALE_HEADER, "true");
+        }
+    }
+
+    /**
+     * Whether the current response has been marked stale
+     */
+    public static boolean isMarkedStale() {
+        HttpServletResponse response = currentResponse();
+        return response != null && response.containsHeader(STALE_HEADER);
+    }
+
+    private static HttpServletResponse currentResponse() {
+        return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+                ? attributes.getResponse()
+                : null;
+    }
+
+    private synchronized Permit permit() {
+        switch (state) {
+            case CLOSED:
+                return Permit.CALL;
+            case OPEN:
+                if (nanoTime.getAsLong() - openedAt < openNanos) {
+                    return Permit.REJECTED;
+                }
+                log.info("Member read circuit breaker half-open, probing the store");
+                state = State.HALF_OPEN;
+                probing = true;
+                return Permit.PROBE;
+            default:
+                if (probing) {
+                    return Permit.REJECTED;
+                }
+                probing = true;
+                return Permit.PROBE;
+        }
+    }
+
+    private void onSuccess(Permit permit) {
+        boolean recovered;
+        synchronized (this) {
+            recovered = permit == Permit.PROBE && state == State.HALF_OPEN;
+            if (recovered) {
+                log.info("Member read circuit breaker closed");
+                state = State.CLOSED;
+                probing = false;
+                clearWindow();
+            } else if (state == State.CLOSED) {
+                record(false);
+            }
+        }
+        if (recovered) {
+            eventPublisher.publishEvent(new MemberReadsRecoveredEvent(this));
+        }
+    }
+
+    private synchronized void onFailure(Permit permit) {
+        if (permit == Permit.PROBE && state == State.HALF_OPEN) {
+            open();
+        } else if (state == State.CLOSED) {
+            record(true);
+            if (recorded >= minimumCalls && failures >= failureRateThreshold * recorded) {
+                open();
+            }
+        }
+    }
+
+    private synchronized void onIgnored(Permit permit) {
+        if (permit == Permit.PROBE && state == State.HALF_OPEN) {
+            // Let the next read probe instead
+            probing = false;
+        }
+    }
+
+    private void open() {
+        log.warning("Member read circuit breaker open, serving reads from the cached member list");
+        state = State.OPEN;
+        openedAt = nanoTime.getAsLong();
+        probing = false;
+        clearWindow();
+    }
+
+    private void record(boolean failed) {
+        if (recorded == window.length) {
+            if (window[next]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        window[next] = failed;
+        if (failed) {
+            failures++;
+        }
+        next = (next + 1) % window.length;
+    }
+
+    private void clearWindow() {
+        next = 0;
+        recorded = 0;
+        failures = 0;
+    }
+}
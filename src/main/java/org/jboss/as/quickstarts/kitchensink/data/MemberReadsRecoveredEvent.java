@@ -0,0 +1,13 @@
+package org.jboss.as.quickstarts.kitchensink.data;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Event that is fired when the member read circuit breaker closes again after a successful probe
+ */
+public class MemberReadsRecoveredEvent extends ApplicationEvent {
+
+    public MemberReadsRecoveredEvent(Object source) {
+        super(source);
+    }
+}
@@ -1,12 +1,20 @@
 package org.jboss.as.quickstarts.kitchensink.data;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.jboss.as.quickstarts.kitchensink.model.Member;
+import org.jboss.as.quickstarts.kitchensink.model.MemberKeys;
+import org.jboss.as.quickstarts.kitchensink.model.MemberView;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,7 +22,7 @@ import java.util.Optional;
  * Repository for Member entities
  */
 @Repository
-@ConditionalOnProperty(name = "mongodb.enabled", havingValue = "false", matchIfMissing = true)
+@ConditionalOnProperty(name = {"mongodb.enabled", "memory.enabled", "logstore.enabled"}, havingValue = "false", matchIfMissing = true)
 public interface MemberRepository extends JpaRepository<Member, Long> {
 
     /**
@@ -22,20 +30,124 @@ public interface MemberRepository extends JpaRepository<Member, Long> {
      * @param email the email to search for
      * @return the member with the given email, if any
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     Optional<Member> findByEmail(String email);
 
+    /**
+     * Find members by phone number
+     * @param phoneNumber the phone number to search for
+     * @return list of matching members
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<Member> findByPhoneNumber(String phoneNumber);
+
     /**
      * Find members with a name containing the given string (case insensitive)
      * @param name the name fragment to search for
      * @return list of matching members
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     List<Member> findByNameContainingIgnoreCase(String name);
 
     /**
-     * Custom query to find members with email domain
+     * Find members with email domain
+     * "@example.com" matches that domain only; "example.com" also matches its subdomains.
+     * Both are answered from the indexed email domain key rather than a leading-wildcard scan.
      * @param domain the email domain to search for
      * @return list of matching members
      */
-    @Query("SELECT m FROM Member m WHERE m.email LIKE %:domain")
-    List<Member> findByEmailDomain(@Param("domain") String domain);
+    default List<Member> findByEmailDomain(String domain) {
+        String key = MemberKeys.domainKey(domain);
+        return MemberKeys.isAnchoredDomain(domain)
+                ? findByEmailDomainKey(key)
+                : findByEmailDomainKeyStartingWith(key);
+    }
+
+    /**
+     * Find members by exact email domain key
+     * @param emailDomainKey the key, see {@link MemberKeys#emailDomainKey(String)}
+     * @return list of matching members
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<Member> findByEmailDomainKey(String emailDomainKey);
+
+    /**
+     * Find members whose email domain key starts with the given key, i.e. a domain and its subdomains
+     * @param emailDomainKey the key prefix, see {@link MemberKeys#emailDomainKey(String)}
+     * @return list of matching members
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<Member> findByEmailDomainKeyStartingWith(String emailDomainKey);
+
+    /**
+     * Read-only projection of all members ordered by name (case insensitive)
+     * @return list of member views
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT new org.jboss.as.quickstarts.kitchensink.model.MemberView(m.id, m.name, m.email, m.phoneNumber) "
+            + "FROM Member m ORDER BY m.nameKey, m.id")
+    List<MemberView> findAllViewsOrderedByName();
+
+    /**
+     * Read-only projection of a single member
+     * @param id the member ID
+     * @return the member view, if found
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT new org.jboss.as.quickstarts.kitchensink.model.MemberView(m.id, m.name, m.email, m.phoneNumber) "
+            + "FROM Member m WHERE m.id = :id")
+    Optional<MemberView> findViewById(@Param("id") Long id);
+
+    /**
+     * Read-only projection of members with a name containing the given string (case insensitive)
+     * @param name the name fragment to search for
+     * @return list of matching member views ordered by name
+     */
+    default List<MemberView> findViewsByNameContaining(String name) {
+        return findViewsByNameKeyContaining(MemberKeys.nameKey(name));
+    }
+
+    /**
+     * Read-only projection of members with a name key containing the given key fragment
+     * LIKE wildcards in the fragment are escaped, so "%" and "_" match themselves.
+     * @param nameKey the fragment, see {@link MemberKeys#nameKey(String)}
+     * @return list of matching member views ordered by name
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT new org.jboss.as.quickstarts.kitchensink.model.MemberView(m.id, m.name, m.email, m.phoneNumber) "
+            + "FROM Member m WHERE m.nameKey LIKE %:#{escape(#nameKey)}% ESCAPE :#{escapeCharacter()} ORDER BY m.nameKey, m.id")
+    List<MemberView> findViewsByNameKeyContaining(@Param("nameKey") String nameKey);
+
+    /**
+     * Read-only projection of the members with the given IDs
+     * @param ids the member IDs
+     * @return the member views ordered by name
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT new org.jboss.as.quickstarts.kitchensink.model.MemberView(m.id, m.name, m.email, m.phoneNumber) "
+            + "FROM Member m WHERE m.id IN :ids ORDER BY m.nameKey, m.id")
+    List<MemberView> findViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * First page of the keyset (cursor) listing ordered by name key and id
+     * @param pageable page size only; the offset is always zero
+     * @return the first members in listing order
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT new org.jboss.as.quickstarts.kitchensink.model.MemberView(m.id, m.name, m.email, m.phoneNumber) "
+            + "FROM Member m ORDER BY m.nameKey, m.id")
+    List<MemberView> findFirstViewsByName(Pageable pageable);
+
+    /**
+     * Next page of the keyset (cursor) listing, seeking on the (name_key, id) index
+     * @param nameKey name key of the last member already returned
+     * @param id id of the last member already returned
+     * @param pageable page size only; the offset is always zero
+     * @return the members that sort strictly after the given position
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT new org.jboss.as.quickstarts.kitchensink.model.MemberView(m.id, m.name, m.email, m.phoneNumber) "
+            + "FROM Member m WHERE m.nameKey >= :nameKey AND (m.nameKey > :nameKey OR m.id > :id) "
+            + "ORDER BY m.nameKey, m.id")
+    List<MemberView> findViewsByNameAfter(@Param("nameKey") String nameKey, @Param("id") Long id, Pageable pageable);
 }
@@ -2,6 +2,8 @@ package org.jboss.as.quickstarts.kitchensink.data;
 
 import org.jboss.as.quickstarts.kitchensink.data.mongo.MongoMemberRepository;
 import org.jboss.as.quickstarts.kitchensink.model.Member;
+import org.jboss.as.quickstarts.kitchensink.model.MemberKeys;
+import org.jboss.as.quickstarts.kitchensink.model.MemberView;
 import org.jboss.as.quickstarts.kitchensink.model.MongoMember;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -13,6 +15,7 @@ import org.springframework.data.repository.query.FluentQuery;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Function;
@@ -26,6 +29,8 @@ import java.util.stream.Collectors;
 @ConditionalOnProperty(name = "mongodb.enabled", havingValue = "true")
 public class MemberRepositoryAdapter implements MemberRepository {
 
+    private static final Sort NAME_KEY_ORDER = Sort.by("nameKey", "memberId");
+
     private final MongoMemberRepository mongoRepository;
 
     @Autowired
@@ -39,6 +44,14 @@ public class MemberRepositoryAdapter implements MemberRepository {
                 .map(MongoMember::toMember);
     }
 
+    @Override
+    public List<Member> findByPhoneNumber(String phoneNumber) {
+        return mongoRepository.findByPhoneNumber(phoneNumber)
+                .stream()
+                .map(MongoMember::toMember)
+                .collect(Collectors.toList());
+    }
+
     @Override
     public List<Member> findByNameContainingIgnoreCase(String name) {
         return mongoRepository.findByNameContainingIgnoreCase(name)
@@ -55,6 +68,70 @@ public class MemberRepositoryAdapter implements MemberRepository {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public List<Member> findByEmailDomainKey(String emailDomainKey) {
+        return mongoRepository.findByEmailDomainKey(emailDomainKey)
+                .stream()
+                .map(MongoMember::toMember)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Member> findByEmailDomainKeyStartingWith(String emailDomainKey) {
+        return mongoRepository.findByEmailDomainKeyStartingWith(emailDomainKey)
+                .stream()
+                .map(MongoMember::toMember)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<MemberView> findAllViewsOrderedByName() {
+        return toViews(mongoRepository.findAll(NAME_KEY_ORDER));
+    }
+
+    @Override
+    public Optional<MemberView> findViewById(Long id) {
+        return findById(id).map(MemberView::of);
+    }
+
+    @Override
+    public List<MemberView> findViewsByNameContaining(String name) {
+        List<MemberView> views = toViews(mongoRepository.findByNameContainingIgnoreCase(name));
+        views.sort(MemberKeys.NAME_ORDER);
+        return views;
+    }
+
+    @Override
+    public List<MemberView> findViewsByNameKeyContaining(String nameKey) {
+        // The name search is case insensitive, so the key matches like the name would
+        return findViewsByNameContaining(nameKey);
+    }
+
+    @Override
+    public List<MemberView> findViewsByIdIn(Collection<Long> ids) {
+        List<MemberView> views = toViews(mongoRepository.findByMemberIdIn(ids));
+        views.sort(MemberKeys.NAME_ORDER);
+        return views;
+    }
+
+    @Override
+    public List<MemberView> findFirstViewsByName(Pageable pageable) {
+        return toViews(mongoRepository.findAllByOrderByNameKeyAscMemberIdAsc(pageable));
+    }
+
+    @Override
+    public List<MemberView> findViewsByNameAfter(String nameKey, Long id, Pageable pageable) {
+        return toViews(mongoRepository.findPageAfter(nameKey, id, pageable));
+    }
+
+    private static List<MemberView> toViews(List<MongoMember> mongoMembers) {
+        List<MemberView> views = new ArrayList<>(mongoMembers.size());
+        for (MongoMember mongoMember : mongoMembers) {
+            views.add(MemberView.of(mongoMember.toMember()));
+        }
+        return views;
+    }
+
     @Override
     public List<Member> findAll() {
         List<MongoMember> mongoMembers = mongoRepository.findAll();
@@ -83,21 +160,12 @@ public class MemberRepositoryAdapter implements MemberRepository {
 
     @Override
     public List<Member> findAllById(Iterable<Long> ids) {
-        // Since we can't directly map between Long and String IDs,
-        // we'll find all members and filter by ID
-        List<Member> allMembers = findAll();
-        List<Member> result = new ArrayList<>();
-
-        for (Long id : ids) {
-            for (Member member : allMembers) {
-                if (member.getId() != null && member.getId().equals(id)) {
-                    result.add(member);
-                    break;
-                }
-            }
-        }
-
-        return result;
+        List<Long> memberIds = new ArrayList<>();
+        ids.forEach(memberIds::add);
+        return mongoRepository.findByMemberIdIn(memberIds)
+                .stream()
+                .map(MongoMember::toMember)
+                .collect(Collectors.toList());
     }
 
     @Override
@@ -107,9 +175,7 @@ public class MemberRepositoryAdapter implements MemberRepository {
 
     @Override
     public void deleteById(Long id) {
-        // Since we can't directly map between Long and String IDs,
-        // we'll find the member by ID first and then delete it
-        findById(id).ifPresent(this::delete);
+        mongoRepository.findByMemberId(id).ifPresent(mongoRepository::delete);
     }
 
     @Override
@@ -144,6 +210,7 @@ public class MemberRepositoryAdapter implements MemberRepository {
         MongoMember saved = mongoRepository.save(mongoMember);
 
         // Copy back any generated values
+        entity.setId(saved.getMemberId());
         entity.setEmail(saved.getEmail());
         entity.setName(saved.getName());
         entity.setPhoneNumber(saved.getPhoneNumber());
@@ -162,23 +229,13 @@ public class MemberRepositoryAdapter implements MemberRepository {
 
     @Override
     public Optional<Member> findById(Long id) {
-        // Since we can't directly map between Long and String IDs,
-        // we'll find all members and filter by ID
-        List<Member> allMembers = findAll();
-
-        for (Member member : allMembers) {
-            if (member.getId() != null && member.getId().equals(id)) {
-                return Optional.of(member);
-            }
-        }
-
-        return Optional.empty();
+        return mongoRepository.findByMemberId(id)
+                .map(MongoMember::toMember);
     }
 
     @Override
     public boolean existsById(Long id) {
-        // Use findById to check if the member exists
-        return findById(id).isPresent();
+        return mongoRepository.findByMemberId(id).isPresent();
     }
 
     @Override
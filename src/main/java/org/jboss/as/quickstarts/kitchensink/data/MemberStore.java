@@ -0,0 +1,151 @@
+package org.jboss.as.quickstarts.kitchensink.data;
+
+import org.jboss.as.quickstarts.kitchensink.model.Member;
+import org.jboss.as.quickstarts.kitchensink.model.MemberCursor;
+import org.jboss.as.quickstarts.kitchensink.model.MemberKeys;
+import org.jboss.as.quickstarts.kitchensink.model.MemberView;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Backend-neutral storage SPI for members
+ * <p>
+ * Unlike {@link MemberRepository}, which every backend has to emulate in full, this only holds the
+ * operations the application needs, with batch and async variants as first-class methods so each
+ * backend can answer them with its own bulk primitives. Listings are ordered by
+ * {@link MemberKeys#NAME_ORDER} unless stated otherwise.
+ */
+public interface MemberStore {
+
+    /**
+     * Find a member by ID
+     * @param id the member ID
+     * @return a detached member, if found
+     */
+    Optional<Member> findById(Long id);
+
+    /**
+     * Find a read-only view of a member by ID
+     * @param id the member ID
+     * @return the member view, if found
+     */
+    Optional<MemberView> findViewById(Long id);
+
+    /**
+     * Find a member by email
+     * @param email the email to search for
+     * @return the member with the given email, if any
+     */
+    Optional<Member> findByEmail(String email);
+
+    /**
+     * Multi-get: read-only views of the members with the given IDs, in as few round trips as the backend allows
+     * @param ids the member IDs; unknown IDs are skipped
+     * @return the member views ordered by name
+     */
+    List<MemberView> findViewsByIdIn(Collection<Long> ids);
+
+    /**
+     * Read-only views of all members ordered by name
+     * @return list of member views
+     */
+    List<MemberView> findAllViewsOrderedByName();
+
+    /**
+     * Read-only views of members with a name containing the given string (case insensitive)
+     * @param name the name fragment to search for
+     * @return list of matching member views ordered by name
+     */
+    List<MemberView> findViewsByNameContaining(String name);
+
+    /**
+     * One page of the keyset (cursor) listing ordered by name key and id
+     * @param after position of the last member already returned, or null for the first page
+     * @param limit the maximum number of members to return
+     * @return the members that sort strictly after the given position
+     */
+    List<MemberView> findViewsAfter(MemberCursor after, int limit);
+
+    /**
+     * Streaming scan of all members in ascending id order
+     * Members are fetched in batches as the stream is consumed; close the stream when done.
+     * @return stream of member views
+     */
+    Stream<MemberView> streamViews();
+
+    /**
+     * @return the number of stored members
+     */
+    long count();
+
+    /**
+     * Conditional insert: store a new member unless one with the same email exists
+     * The check and the insert are atomic with respect to other inserts.
+     * @param member the member to insert; its ID is assigned on success
+     * @return true if the member was inserted, false if the email is taken
+     */
+    boolean insertIfEmailAbsent(Member member);
+
+    /**
+     * Bulk insert of new members
+     * @param members the members to insert; their IDs are assigned
+     * @return the inserted members
+     */
+    List<Member> insertAll(List<Member> members);
+
+    /**
+     * Bulk conditional insert: {@link #insertIfEmailAbsent(Member)} for each member, committed together where the backend allows
+     * Each member gets the outcome it would have had on its own; of several members sharing an email, one is inserted.
+     * @param members the members to insert; the IDs of the inserted ones are assigned
+     * @return for each member, in order, true if it was inserted, false if its email is taken
+     * @throws RuntimeException if storing fails; the members stored before the failure keep their ID, the others have none
+     */
+    default boolean[] insertAllIfEmailAbsent(List<Member> members) {
+        boolean[] inserted = new boolean[members.size()];
+        for (int i = 0; i < members.size(); i++) {
+            inserted[i] = insertIfEmailAbsent(members.get(i));
+        }
+        return inserted;
+    }
+
+    /**
+     * Delete a member; unknown IDs are ignored
+     * @param id the member ID
+     */
+    void deleteById(Long id);
+
+    /**
+     * Asynchronous {@link #findViewById(Long)}
+     * Backends that never block complete the future in the calling thread.
+     */
+    default CompletableFuture<Optional<MemberView>> findViewByIdAsync(Long id) {
+        return complete(() -> findViewById(id));
+    }
+
+    /**
+     * Asynchronous {@link #findViewsByIdIn(Collection)}
+     */
+    default CompletableFuture<List<MemberView>> findViewsByIdInAsync(Collection<Long> ids) {
+        return complete(() -> findViewsByIdIn(ids));
+    }
+
+    /**
+     * Asynchronous {@link #insertAll(List)}
+     */
+    default CompletableFuture<List<Member>> insertAllAsync(List<Member> members) {
+        return complete(() -> insertAll(members));
+    }
+
+    private static <T> CompletableFuture<T> complete(Supplier<T> operation) {
+        try {
+            return CompletableFuture.completedFuture(operation.get());
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package org.jboss.as.quickstarts.kitchensink.data.changes;
+
+import org.jboss.as.quickstarts.kitchensink.model.MemberChange;
+import org.jboss.as.quickstarts.kitchensink.model.MemberView;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Sequence assignment shared by the change log backends
+ * <p>
+ * Sequences are not taken from a database sequence or identity column: those hand out numbers
+ * before the rows commit, so a reader could see change 12 before change 11 and skip it for good.
+ * Instead each change is stored under the sequence as its primary key, one append at a time in
+ * this process. When another instance has taken the number, the insert fails on the key and is
+ * retried after the last sequence is reloaded.
+ * <p>
+ * An append inside a transaction keeps the log to itself until that transaction completes, so the
+ * next sequence is not handed out while this one may still be rolled back or become visible late.
+ */
+public abstract class AbstractMemberChangeLog implements MemberChangeLog {
+
+    static final int MAX_ATTEMPTS = 10;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private long last = -1;
+
+    @Override
+    public MemberChange append(MemberChange.Type type, long memberId, MemberView member) {
+        lock.lock();
+        boolean held = false;
+        try {
+            if (last < 0) {
+                last = loadLastSequence();
+            }
+            for (int attempt = 1; ; attempt++) {
+                MemberChange change = new MemberChange(last + 1, type, memberId, member);
+                try {
+                    insert(change);
+                    last = change.sequence();
+                    held = holdUntilCompletion();
+                    return change;
+                } catch (DuplicateKeyException e) {
+                    if (attempt == MAX_ATTEMPTS) {
+                        throw e;
+                    }
+                    last = loadLastSequence();
+                }
+            }
+        } finally {
+            if (!held) {
+                lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public long lastSequence() {
+        return loadLastSequence();
+    }
+
+    /**
+     * Keep the lock until the surrounding transaction completes, if there is one
+     * @return whether the lock is now released by the transaction
+     */
+    private boolean holdUntilCompletion() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return false;
+        }
+        if (lock.getHoldCount() > 1) {
+            // An earlier append of this transaction already holds the lock until it completes
+            return false;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    // The sequences of this transaction were never stored
+                    last = -1;
+                }
+                lock.unlock();
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Store a change under its sequence
+     * @throws DuplicateKeyException if the sequence is taken
+     */
+    protected abstract void insert(MemberChange change);
+
+    /**
+     * Read the highest stored sequence, 0 if the log is empty
+     */
+    protected abstract long loadLastSequence();
+}
@@ -0,0 +1,58 @@
+package org.jboss.as.quickstarts.kitchensink.data.changes;
+
+import org.jboss.as.quickstarts.kitchensink.model.MemberChange;
+import org.jboss.as.quickstarts.kitchensink.model.MemberView;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.util.List;
+
+/**
+ * Member change log in a {@code member_change} table of the relational database
+ * Used with every backend except MongoDB; the table is created on startup if missing.
+ */
+public class JdbcMemberChangeLog extends AbstractMemberChangeLog {
+
+    static final String CREATE_TABLE = "CREATE TABLE IF NOT EXISTS member_change ("
+            + "seq BIGINT PRIMARY KEY, change_type VARCHAR(16) NOT NULL, member_id BIGINT NOT NULL, "
+            + "name VARCHAR(255), email VARCHAR(255), phone_number VARCHAR(32))";
+
+    private static final RowMapper<MemberChange> CHANGE_MAPPER = (rs, rowNum) -> {
+        MemberChange.Type type = MemberChange.Type.valueOf(rs.getString("change_type"));
+        long memberId = rs.getLong("member_id");
+        MemberView member = type == MemberChange.Type.INSERTED
+                ? new MemberView(memberId, rs.getString("name"), rs.getString("email"), rs.getString("phone_number"))
+                : null;
+        return new MemberChange(rs.getLong("seq"), type, memberId, member);
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JdbcMemberChangeLog(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        jdbcTemplate.execute(CREATE_TABLE);
+    }
+
+    @Override
+    public List<MemberChange> findAfter(long sequence, int limit) {
+        return jdbcTemplate.query("SELECT seq, change_type, member_id, name, email, phone_number FROM member_change "
+                + "WHERE seq > ? ORDER BY seq LIMIT ?", CHANGE_MAPPER, sequence, limit);
+    }
+
+    @Override
+    protected void insert(MemberChange change) {
+        MemberView member = change.member();
+        jdbcTemplate.update("INSERT INTO member_change (seq, change_type, member_id, name, email, phone_number) "
+                        + "VALUES (?, ?, ?, ?, ?, ?)",
+                change.sequence(), change.type().name(), change.memberId(),
+                member == null ? null : member.name(),
+                member == null ? null : member.email(),
+                member == null ? null : member.phoneNumber());
+    }
+
+    @Override
+    protected long loadLastSequence() {
+        Long last = jdbcTemplate.queryForObject("SELECT MAX(seq) FROM member_change", Long.class);
+        return last == null ? 0 : last;
+    }
+}
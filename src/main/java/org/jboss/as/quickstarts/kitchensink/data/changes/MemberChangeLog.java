@@ -0,0 +1,53 @@
+package org.jboss.as.quickstarts.kitchensink.data.changes;
+
+import org.jboss.as.quickstarts.kitchensink.model.Member;
+import org.jboss.as.quickstarts.kitchensink.model.MemberChange;
+import org.jboss.as.quickstarts.kitchensink.model.MemberView;
+
+import java.util.List;
+
+/**
+ * Append-only log of member inserts and deletes, numbered by a gap-free increasing sequence
+ * <p>
+ * A reader that has seen every change up to some sequence never finds an earlier one appearing
+ * later, so it can resume from the last sequence it read. The member stores append in the
+ * transaction of the write when there is one, so a change is visible exactly when the write is.
+ */
+public interface MemberChangeLog {
+
+    /**
+     * Record a change
+     * @param type the kind of change
+     * @param memberId the ID of the member
+     * @param member the inserted member, or null for a deletion
+     * @return the recorded change with its sequence
+     */
+    MemberChange append(MemberChange.Type type, long memberId, MemberView member);
+
+    /**
+     * Record the insert of a member that has its ID
+     */
+    default MemberChange appendInserted(Member member) {
+        return append(MemberChange.Type.INSERTED, member.getId(), MemberView.of(member));
+    }
+
+    /**
+     * Record the deletion of a member
+     */
+    default MemberChange appendDeleted(long memberId) {
+        return append(MemberChange.Type.DELETED, memberId, null);
+    }
+
+    /**
+     * The changes after a position
+     * @param sequence the last sequence already seen, 0 for the start of the log
+     * @param limit the maximum number of changes to return
+     * @return the changes in sequence order
+     */
+    List<MemberChange> findAfter(long sequence, int limit);
+
+    /**
+     * The sequence of the latest change, 0 if there is none
+     */
+    long lastSequence();
+}
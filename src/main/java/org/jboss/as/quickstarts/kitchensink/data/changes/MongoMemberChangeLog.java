@@ -0,0 +1,67 @@
+package org.jboss.as.quickstarts.kitchensink.data.changes;
+
+import org.bson.Document;
+import org.jboss.as.quickstarts.kitchensink.model.MemberChange;
+import org.jboss.as.quickstarts.kitchensink.model.MemberView;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Member change log in a {@code member_changes} collection, keyed by sequence
+ * Used when mongodb.enabled=true.
+ */
+public class MongoMemberChangeLog extends AbstractMemberChangeLog {
+
+    static final String CHANGES_COLLECTION = "member_changes";
+
+    private final MongoOperations mongoOperations;
+
+    public MongoMemberChangeLog(MongoOperations mongoOperations) {
+        this.mongoOperations = mongoOperations;
+    }
+
+    @Override
+    public List<MemberChange> findAfter(long sequence, int limit) {
+        Query query = Query.query(where("_id").gt(sequence)).with(Sort.by(Sort.Direction.ASC, "_id")).limit(limit);
+        return mongoOperations.find(query, Document.class, CHANGES_COLLECTION).stream()
+                .map(MongoMemberChangeLog::toChange)
+                .toList();
+    }
+
+    @Override
+    protected void insert(MemberChange change) {
+        Document document = new Document("_id", change.sequence())
+                .append("type", change.type().name())
+                .append("member_id", change.memberId());
+        MemberView member = change.member();
+        if (member != null) {
+            document.append("name", member.name())
+                    .append("email", member.email())
+                    .append("phone_number", member.phoneNumber());
+        }
+        mongoOperations.insert(document, CHANGES_COLLECTION);
+    }
+
+    @Override
+    protected long loadLastSequence() {
+        Query query = new Query().with(Sort.by(Sort.Direction.DESC, "_id")).limit(1);
+        query.fields().include("_id");
+        Document last = mongoOperations.findOne(query, Document.class, CHANGES_COLLECTION);
+        return last == null ? 0 : ((Number) last.get("_id")).longValue();
+    }
+
+    private static MemberChange toChange(Document document) {
+        MemberChange.Type type = MemberChange.Type.valueOf(document.getString("type"));
+        long memberId = ((Number) document.get("member_id")).longValue();
+        MemberView member = type == MemberChange.Type.INSERTED
+                ? new MemberView(memberId, document.getString("name"), document.getString("email"),
+                        document.getString("phone_number"))
+                : null;
+        return new MemberChange(((Number) document.get("_id")).longValue(), type, memberId, member);
+    }
+}
@@ -0,0 +1,71 @@
+package org.jboss.as.quickstarts.kitchensink.data.deadline;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.Set;
+import javax.sql.DataSource;
+
+/**
+ * DataSource applying the current {@link QueryDeadline} to every statement
+ * <p>
+ * Connections are proxied so that each statement they create, whether by Hibernate, a JdbcTemplate or
+ * plain JDBC, gets the remaining time as its query timeout and can be cancelled with the request.
+ * Statements are refused with a {@link SQLTimeoutException} once the deadline has passed. Without a
+ * bound deadline statements are left alone.
+ */
+public class DeadlineDataSource extends DelegatingDataSource {
+
+    private static final Set<String> STATEMENT_FACTORIES = Set.of("createStatement", "prepareStatement", "prepareCall");
+
+    public DeadlineDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return withDeadline(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return withDeadline(super.getConnection(username, password));
+    }
+
+    private static Connection withDeadline(Connection target) {
+        return (Connection) Proxy.newProxyInstance(DeadlineDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("equals")) {
+                        return proxy == args[0];
+                    }
+                    if (method.getName().equals("hashCode")) {
+                        return System.identityHashCode(proxy);
+                    }
+                    QueryDeadline deadline = QueryDeadline.current();
+                    if (deadline == null || !STATEMENT_FACTORIES.contains(method.getName())) {
+                        return invoke(target, method, args);
+                    }
+                    if (deadline.isExpired()) {
+                        throw new SQLTimeoutException("Query deadline exceeded");
+                    }
+                    Statement statement = (Statement) invoke(target, method, args);
+                    deadline.apply(statement);
+                    return statement;
+                });
+    }
+
+    private static Object invoke(Connection target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package org.jboss.as.quickstarts.kitchensink.data.deadline;
+
+import com.mongodb.client.AggregateIterable;
+import com.mongodb.client.DistinctIterable;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.CountOptions;
+import com.mongodb.client.model.EstimatedDocumentCountOptions;
+import com.mongodb.client.model.FindOneAndDeleteOptions;
+import com.mongodb.client.model.FindOneAndReplaceOptions;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import org.bson.Document;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MongoTemplate applying the current {@link QueryDeadline} as maxTimeMS
+ * <p>
+ * Every operation of the template and of the repositories built on it goes through
+ * {@link #prepareCollection}, so the collection handed out there is wrapped: finds, aggregations,
+ * distincts, counts and find-and-modify operations get the remaining time as maxTimeMS, which makes
+ * the server abort them once the request has run out of time. Operations are refused once the
+ * deadline has passed. Without a bound deadline the collection is returned unchanged.
+ */
+public class DeadlineMongoTemplate extends MongoTemplate {
+
+    public DeadlineMongoTemplate(MongoDatabaseFactory databaseFactory, MongoConverter converter) {
+        super(databaseFactory, converter);
+    }
+
+    @Override
+    protected MongoCollection<Document> prepareCollection(MongoCollection<Document> collection) {
+        MongoCollection<Document> prepared = super.prepareCollection(collection);
+        QueryDeadline deadline = QueryDeadline.current();
+        return deadline == null ? prepared : withDeadline(prepared, deadline);
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> MongoCollection<T> withDeadline(MongoCollection<T> target, QueryDeadline deadline) {
+        return (MongoCollection<T>) Proxy.newProxyInstance(DeadlineMongoTemplate.class.getClassLoader(),
+                new Class<?>[]{MongoCollection.class},
+                (proxy, method, args) -> {
+                    String name = method.getName();
+                    if (name.equals("equals")) {
+                        return proxy == args[0];
+                    }
+                    if (name.equals("hashCode")) {
+                        return System.identityHashCode(proxy);
+                    }
+                    boolean operation = !name.startsWith("get") && !name.startsWith("with") && !name.equals("toString");
+                    if (operation && deadline.isExpired()) {
+                        throw new QueryTimeoutException("Query deadline exceeded");
+                    }
+                    long maxTime = deadline.remainingMillis();
+                    if (args != null) {
+                        for (Object arg : args) {
+                            limitOptions(arg, maxTime);
+                        }
+                    }
+                    Object result;
+                    try {
+                        result = method.invoke(target, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                    if (result instanceof FindIterable<?> find) {
+                        return find.maxTime(maxTime, TimeUnit.MILLISECONDS);
+                    }
+                    if (result instanceof AggregateIterable<?> aggregate) {
+                        return aggregate.maxTime(maxTime, TimeUnit.MILLISECONDS);
+                    }
+                    if (result instanceof DistinctIterable<?> distinct) {
+                        return distinct.maxTime(maxTime, TimeUnit.MILLISECONDS);
+                    }
+                    if (result instanceof MongoCollection<?> collection) {
+                        // withReadPreference(), withDocumentClass() and friends
+                        return withDeadline(collection, deadline);
+                    }
+                    return result;
+                });
+    }
+
+    private static void limitOptions(Object arg, long maxTime) {
+        if (arg instanceof CountOptions options) {
+            options.maxTime(maxTime, TimeUnit.MILLISECONDS);
+        } else if (arg instanceof EstimatedDocumentCountOptions options) {
+            options.maxTime(maxTime, TimeUnit.MILLISECONDS);
+        } else if (arg instanceof FindOneAndUpdateOptions options) {
+            options.maxTime(maxTime, TimeUnit.MILLISECONDS);
+        } else if (arg instanceof FindOneAndReplaceOptions options) {
+            options.maxTime(maxTime, TimeUnit.MILLISECONDS);
+        } else if (arg instanceof FindOneAndDeleteOptions options) {
+            options.maxTime(maxTime, TimeUnit.MILLISECONDS);
+        }
+    }
+}
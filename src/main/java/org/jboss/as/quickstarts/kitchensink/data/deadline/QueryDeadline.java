@@ -0,0 +1,166 @@
+package org.jboss.as.quickstarts.kitchensink.data.deadline;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Time budget for the datastore queries made on behalf of one request
+ * <p>
+ * A deadline is bound to the thread serving the request. JDBC statements created while it is bound
+ * get the remaining time as their query timeout, and MongoDB operations get it as maxTimeMS, so the
+ * database gives up on work nobody is waiting for any more. Once the deadline has passed, new queries
+ * fail at once and {@link #cancel()} cancels the JDBC statements that are still running.
+ */
+public final class QueryDeadline implements AutoCloseable {
+
+    private static final Logger log = Logger.getLogger(QueryDeadline.class.getName());
+
+    private static final ThreadLocal<QueryDeadline> CURRENT = new ThreadLocal<>();
+
+    private final long timeoutMillis;
+    private final long deadlineNanos;
+    private final QueryDeadline previous;
+    private final Set<Statement> statements = ConcurrentHashMap.newKeySet();
+    private volatile boolean cancelled;
+
+    private QueryDeadline(long timeoutMillis, QueryDeadline previous) {
+        this.timeoutMillis = timeoutMillis;
+        this.deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        this.previous = previous;
+    }
+
+    /**
+     * Bind a new deadline to the current thread until it is closed
+     * @param timeoutMillis the time budget from now
+     * @return the deadline
+     */
+    public static QueryDeadline start(long timeoutMillis) {
+        QueryDeadline deadline = new QueryDeadline(timeoutMillis, CURRENT.get());
+        CURRENT.set(deadline);
+        return deadline;
+    }
+
+    /**
+     * The deadline bound to the current thread
+     * @return the deadline, or null outside a request with a deadline
+     */
+    public static QueryDeadline current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * A deadline for one piece of work handed to another thread, which can be cancelled on its own
+     * <p>
+     * It has the time left on the current thread's deadline, or no practical limit without one.
+     * Cancelling it cancels the statements of that work only, not the rest of the request.
+     * @return the deadline, not bound to any thread; see {@link #bind(Supplier)}
+     */
+    public static QueryDeadline cancellable() {
+        QueryDeadline current = CURRENT.get();
+        return new QueryDeadline(current == null ? Integer.MAX_VALUE : current.remainingMillis(), null);
+    }
+
+    /**
+     * Carry the current thread's deadline over to the thread that runs the task
+     * @param task work handed to another thread
+     * @return the task, bound to the current deadline while it runs
+     */
+    public static <T> Supplier<T> propagate(Supplier<T> task) {
+        QueryDeadline deadline = CURRENT.get();
+        return deadline == null ? task : deadline.bind(task);
+    }
+
+    /**
+     * Bind this deadline to whichever thread runs the task, for as long as it runs
+     * @param task the work to run under this deadline
+     * @return the bound task
+     */
+    public <T> Supplier<T> bind(Supplier<T> task) {
+        return () -> {
+            QueryDeadline outer = CURRENT.get();
+            CURRENT.set(this);
+            try {
+                return task.get();
+            } finally {
+                restore(outer);
+            }
+        };
+    }
+
+    /**
+     * The whole time budget the deadline was started with
+     */
+    public long timeoutMillis() {
+        return timeoutMillis;
+    }
+
+    /**
+     * Time left, never less than one millisecond so it can be handed to a driver as a timeout
+     */
+    public long remainingMillis() {
+        return Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime()));
+    }
+
+    /**
+     * Whether the deadline has passed or the request was cancelled
+     */
+    public boolean isExpired() {
+        return cancelled || System.nanoTime() - deadlineNanos >= 0;
+    }
+
+    /**
+     * Give a JDBC statement the remaining time as its query timeout and track it for cancellation
+     * A shorter timeout already set on the statement is kept. JDBC timeouts are whole seconds, so the
+     * remaining time is rounded up.
+     * @param statement a statement created under this deadline
+     */
+    void apply(Statement statement) throws SQLException {
+        int seconds = (int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(remainingMillis() + 999));
+        int current = statement.getQueryTimeout();
+        if (current == 0 || current > seconds) {
+            statement.setQueryTimeout(seconds);
+        }
+        statements.add(statement);
+    }
+
+    /**
+     * Expire the deadline now and cancel the statements that are still running
+     * May be called from any thread.
+     */
+    public void cancel() {
+        cancelled = true;
+        for (Statement statement : statements) {
+            try {
+                if (!statement.isClosed()) {
+                    statement.cancel();
+                }
+            } catch (SQLException e) {
+                log.fine("Could not cancel statement: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Unbind the deadline from the current thread, restoring the one it replaced
+     */
+    @Override
+    public void close() {
+        statements.clear();
+        if (CURRENT.get() == this) {
+            restore(previous);
+        }
+    }
+
+    private static void restore(QueryDeadline deadline) {
+        if (deadline == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(deadline);
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package org.jboss.as.quickstarts.kitchensink.data.jdbc;
+
+import org.jboss.as.quickstarts.kitchensink.data.AbstractAsyncMemberStore;
+import org.jboss.as.quickstarts.kitchensink.model.Member;
+import org.jboss.as.quickstarts.kitchensink.model.MemberCursor;
+import org.jboss.as.quickstarts.kitchensink.model.MemberKeys;
+import org.jboss.as.quickstarts.kitchensink.model.MemberView;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * MemberStore on plain JDBC, bypassing Hibernate for member reads and writes
+ * This is used when jdbc.enabled=true
+ * <p>
+ * Member is a flat table, so rows are mapped by hand and no persistence context, dirty checking or
+ * proxies are involved. Derived keys are computed here, as the entity callbacks do for JPA. The schema
+ * is still created by Hibernate and the JPA MemberRepository remains available to the key backfill.
+ */
+@Component
+@ConditionalOnProperty(name = "jdbc.enabled", havingValue = "true")
+public class JdbcMemberStore extends AbstractAsyncMemberStore {
+
+    /**
+     * IDs per IN-list query and rows per scan batch
+     */
+    static final int BATCH_SIZE = 1000;
+
+    private static final String VIEW_COLUMNS = "SELECT id, name, email, phone_number FROM member ";
+    private static final String NAME_ORDER = " ORDER BY name_key, id";
+
+    private static final RowMapper<MemberView> VIEW_MAPPER = (rs, rowNum) ->
+            new MemberView(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4));
+
+    private static final RowMapper<Member> MEMBER_MAPPER = (rs, rowNum) -> {
+        Member member = new Member();
+        member.setId(rs.getLong(1));
+        member.setName(rs.getString(2));
+        member.setEmail(rs.getString(3));
+        member.setPhoneNumber(rs.getString(4));
+        return member;
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public JdbcMemberStore(JdbcTemplate jdbcTemplate,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${members.store.async-threads:8}") int asyncThreads) {
+        super("jdbc-member-store", asyncThreads);
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public Optional<Member> findById(Long id) {
+        return first(jdbcTemplate.query(VIEW_COLUMNS + "WHERE id = ?", MEMBER_MAPPER, id));
+    }
+
+    @Override
+    public Optional<MemberView> findViewById(Long id) {
+        return first(jdbcTemplate.query(VIEW_COLUMNS + "WHERE id = ?", VIEW_MAPPER, id));
+    }
+
+    @Override
+    public Optional<Member> findByEmail(String email) {
+        return first(jdbcTemplate.query(VIEW_COLUMNS + "WHERE email = ?", MEMBER_MAPPER, email));
+    }
+
+    @Override
+    public List<MemberView> findViewsByIdIn(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<Long> all = new ArrayList<>(ids);
+        List<MemberView> views = new ArrayList<>(all.size());
+        for (int from = 0; from < all.size(); from += BATCH_SIZE) {
+            List<Long> chunk = all.subList(from, Math.min(all.size(), from + BATCH_SIZE));
+            views.addAll(namedJdbcTemplate.query(VIEW_COLUMNS + "WHERE id IN (:ids)" + NAME_ORDER,
+                    Map.of("ids", chunk), VIEW_MAPPER));
+        }
+        if (all.size() > BATCH_SIZE) {
+            views.sort(MemberKeys.NAME_ORDER);
+        }
+        return views;
+    }
+
+    @Override
+    public List<MemberView> findAllViewsOrderedByName() {
+        return jdbcTemplate.query(VIEW_COLUMNS + NAME_ORDER, VIEW_MAPPER);
+    }
+
+    @Override
+    public List<MemberView> findViewsByNameContaining(String name) {
+        return jdbcTemplate.query(VIEW_COLUMNS + "WHERE name_key LIKE CONCAT('%', ?, '%') ESCAPE '\\'" + NAME_ORDER,
+                VIEW_MAPPER, escapeLike(MemberKeys.nameKey(name)));
+    }
+
+    @Override
+    public List<MemberView> findViewsAfter(MemberCursor after, int limit) {
+        if (after == null) {
+            return jdbcTemplate.query(VIEW_COLUMNS + NAME_ORDER + " LIMIT ?", VIEW_MAPPER, limit);
+        }
+        return jdbcTemplate.query(VIEW_COLUMNS + "WHERE name_key >= ? AND (name_key > ? OR id > ?)" + NAME_ORDER + " LIMIT ?",
+                VIEW_MAPPER, after.nameKey(), after.nameKey(), after.id(), limit);
+    }
+
+    @Override
+    public Stream<MemberView> streamViews() {
+        return Stream.iterate(viewsAfterId(Long.MIN_VALUE),
+                        batch -> !batch.isEmpty(),
+                        batch -> batch.size() < BATCH_SIZE ? List.of() : viewsAfterId(batch.get(batch.size() - 1).id()))
+                .flatMap(List::stream);
+    }
+
+    @Override
+    public long count() {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM member", Long.class);
+        return count == null ? 0 : count;
+    }
+
+    @Override
+    public boolean insertIfEmailAbsent(Member member) {
+        // A single round trip: uk_member_email decides, instead of a check before the insert
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.update(connection -> {
+                    PreparedStatement statement = connection.prepareStatement(MemberBatchInsert.INSERT, new String[] {"id"});
+                    MemberBatchInsert.bind(statement, member);
+                    return statement;
+                }, keyHolder);
+                member.setId(keyHolder.getKey().longValue());
+                recordInserted(List.of(member));
+            });
+        } catch (RuntimeException e) {
+            member.setId(null);
+            if (MemberBatchInsert.isEmailConflict(e)) {
+                return false;
+            }
+            throw e;
+        }
+        return true;
+    }
+
+    @Override
+    public List<Member> insertAll(List<Member> members) {
+        transactionTemplate.executeWithoutResult(status -> {
+            MemberBatchInsert.insertAll(jdbcTemplate, members);
+            recordInserted(members);
+        });
+        return members;
+    }
+
+    @Override
+    public boolean[] insertAllIfEmailAbsent(List<Member> members) {
+        return insertAllOrEach(members, MemberBatchInsert::isEmailConflict, this::takenEmails);
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        deleteIfPresent(id);
+    }
+
+    /**
+     * Delete a member, reporting whether this call removed it
+     * Of concurrent deletes of the same member exactly one returns true.
+     * @param id the member ID
+     * @return whether a row was removed
+     */
+    public boolean deleteIfPresent(Long id) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            if (jdbcTemplate.update("DELETE FROM member WHERE id = ?", id) == 0) {
+                return false;
+            }
+            recordDeleted(id);
+            return true;
+        }));
+    }
+
+    private List<String> takenEmails(List<String> emails) {
+        List<String> taken = new ArrayList<>();
+        for (int from = 0; from < emails.size(); from += BATCH_SIZE) {
+            taken.addAll(namedJdbcTemplate.queryForList("SELECT email FROM member WHERE email IN (:emails)",
+                    Map.of("emails", emails.subList(from, Math.min(emails.size(), from + BATCH_SIZE))), String.class));
+        }
+        return taken;
+    }
+
+    private List<MemberView> viewsAfterId(long after) {
+        return jdbcTemplate.query(VIEW_COLUMNS + "WHERE id > ? ORDER BY id LIMIT ?", VIEW_MAPPER, after, BATCH_SIZE);
+    }
+
+    /**
+     * Escape the LIKE wildcards of a search fragment, for a pattern with ESCAPE '\'
+     */
+    private static String escapeLike(String fragment) {
+        return fragment == null ? null : fragment.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static <T> Optional<T> first(List<T> rows) {
+        return rows.isEmpty() ? Optional.empty() : Optional.of(rows.get(0));
+    }
+}
@@ -0,0 +1,95 @@
+package org.jboss.as.quickstarts.kitchensink.data.jdbc;
+
+import org.jboss.as.quickstarts.kitchensink.model.Member;
+import org.jboss.as.quickstarts.kitchensink.model.MemberKeys;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Member INSERTs sent as JDBC batches, shared by the JDBC and JPA stores
+ * <p>
+ * Member IDs are IDENTITY columns, which makes Hibernate send one INSERT per persisted entity, so
+ * bulk inserts bypass the persistence context and go through a JdbcTemplate batch instead. The
+ * generated keys are read back in batch order. Derived keys are computed here, as the entity
+ * callbacks do for JPA. The caller provides the transaction.
+ */
+public final class MemberBatchInsert {
+
+    /**
+     * Statements per JDBC batch
+     */
+    public static final int BATCH_SIZE = 1000;
+
+    /**
+     * Name of the unique constraint on member emails, as declared on the entity
+     */
+    static final String EMAIL_CONSTRAINT = "uk_member_email";
+
+    static final String INSERT =
+            "INSERT INTO member (name, email, phone_number, name_key, email_domain_key) VALUES (?, ?, ?, ?, ?)";
+
+    private MemberBatchInsert() {
+    }
+
+    /**
+     * Insert new members, {@link #BATCH_SIZE} rows per round trip
+     * @param members the members to insert; their IDs are assigned
+     */
+    public static void insertAll(JdbcTemplate jdbcTemplate, List<Member> members) {
+        for (int from = 0; from < members.size(); from += BATCH_SIZE) {
+            List<Member> chunk = members.subList(from, Math.min(members.size(), from + BATCH_SIZE));
+            KeyHolder keyHolder = new GeneratedKeyHolder();
+            jdbcTemplate.batchUpdate(
+                    connection -> connection.prepareStatement(INSERT, new String[] {"id"}),
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement statement, int i) throws SQLException {
+                            bind(statement, chunk.get(i));
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return chunk.size();
+                        }
+                    },
+                    keyHolder);
+            List<Map<String, Object>> keys = keyHolder.getKeyList();
+            for (int i = 0; i < chunk.size(); i++) {
+                chunk.get(i).setId(((Number) keys.get(i).values().iterator().next()).longValue());
+            }
+        }
+    }
+
+    /**
+     * Whether an insert was rejected because an email is taken
+     * Other integrity violations, such as a missing name or an overlong phone number, are real failures.
+     */
+    public static boolean isEmailConflict(RuntimeException e) {
+        if (!(e instanceof DuplicateKeyException)) {
+            return false;
+        }
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause.getMessage() != null && cause.getMessage().toLowerCase(Locale.ROOT).contains(EMAIL_CONSTRAINT)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static void bind(PreparedStatement statement, Member member) throws SQLException {
+        statement.setString(1, member.getName());
+        statement.setString(2, member.getEmail());
+        statement.setString(3, member.getPhoneNumber());
+        statement.setString(4, MemberKeys.nameKey(member.getName()));
+        statement.setString(5, MemberKeys.emailDomainKey(member.getEmail()));
+    }
+}
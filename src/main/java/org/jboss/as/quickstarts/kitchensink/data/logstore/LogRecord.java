@@ -0,0 +1,113 @@
+package org.jboss.as.quickstarts.kitchensink.data.logstore;
+
+import org.jboss.as.quickstarts.kitchensink.model.Member;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * One entry of the member log: a member written, a member deleted or the whole store cleared
+ * <p>
+ * Checkpoints start with a {@link Type#LAST_ID} record holding the highest id assigned so far, so ids
+ * of members deleted before the checkpoint are not handed out again after a restart.
+ * <p>
+ * Encoded as a type byte, the member id and, for writes, the member fields as length-prefixed UTF-8
+ * (length -1 for null). Framing and checksums are added by {@link MemberLog}.
+ */
+record LogRecord(Type type, long id, String name, String email, String phoneNumber) {
+
+    enum Type {
+        PUT, DELETE, CLEAR, LAST_ID
+    }
+
+    static LogRecord put(Member member) {
+        return new LogRecord(Type.PUT, member.getId(), member.getName(), member.getEmail(), member.getPhoneNumber());
+    }
+
+    static LogRecord delete(long id) {
+        return new LogRecord(Type.DELETE, id, null, null, null);
+    }
+
+    static LogRecord clear() {
+        return new LogRecord(Type.CLEAR, 0, null, null, null);
+    }
+
+    static LogRecord lastId(long id) {
+        return new LogRecord(Type.LAST_ID, id, null, null, null);
+    }
+
+    Member toMember() {
+        Member member = new Member();
+        member.setId(id);
+        member.setName(name);
+        member.setEmail(email);
+        member.setPhoneNumber(phoneNumber);
+        return member;
+    }
+
+    byte[] encode() {
+        byte[] nameBytes = bytes(name);
+        byte[] emailBytes = bytes(email);
+        byte[] phoneBytes = bytes(phoneNumber);
+        int size = 1 + Long.BYTES;
+        if (type == Type.PUT) {
+            size += 3 * Integer.BYTES + length(nameBytes) + length(emailBytes) + length(phoneBytes);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.put((byte) type.ordinal());
+        buffer.putLong(id);
+        if (type == Type.PUT) {
+            putString(buffer, nameBytes);
+            putString(buffer, emailBytes);
+            putString(buffer, phoneBytes);
+        }
+        return buffer.array();
+    }
+
+    /**
+     * @throws IllegalArgumentException if the payload is not a valid record
+     */
+    static LogRecord decode(ByteBuffer payload) {
+        try {
+            int typeIndex = payload.get();
+            if (typeIndex < 0 || typeIndex >= Type.values().length) {
+                throw new IllegalArgumentException("Unknown log record type " + typeIndex);
+            }
+            Type type = Type.values()[typeIndex];
+            long id = payload.getLong();
+            if (type != Type.PUT) {
+                return new LogRecord(type, id, null, null, null);
+            }
+            return new LogRecord(type, id, getString(payload), getString(payload), getString(payload));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Malformed log record", e);
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int length(byte[] bytes) {
+        return bytes == null ? 0 : bytes.length;
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] bytes) {
+        if (bytes == null) {
+            buffer.putInt(-1);
+        } else {
+            buffer.putInt(bytes.length);
+            buffer.put(bytes);
+        }
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
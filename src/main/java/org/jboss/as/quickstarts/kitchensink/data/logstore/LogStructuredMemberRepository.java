@@ -0,0 +1,381 @@
+package org.jboss.as.quickstarts.kitchensink.data.logstore;
+
+import org.jboss.as.quickstarts.kitchensink.data.memory.InMemoryMemberRepository;
+import org.jboss.as.quickstarts.kitchensink.model.Member;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Persistent MemberRepository backed by an embedded, log-structured store
+ * This is used when logstore.enabled=true
+ * <p>
+ * Every write is appended to a memory-mapped segment log ({@link MemberLog}) and applied to the
+ * in-memory indexes of {@link InMemoryMemberRepository}, which serve all reads. On startup the indexes
+ * are rebuilt by replaying the latest checkpoint and the segments written after it.
+ * <p>
+ * Writes return once their record is on disk. A background thread syncs the log every
+ * {@code logstore.fsync-interval-ms}, so concurrent writers share one msync; with an interval of 0
+ * each write syncs on its own. A write whose sync fails or times out is undone in memory before the
+ * caller sees the error, unless a later write has replaced it already. Another background thread compacts the log when most of its records
+ * are overwritten or deleted, replacing the sealed segments with a checkpoint of the live members.
+ */
+@Component
+@ConditionalOnProperty(name = "logstore.enabled", havingValue = "true")
+public class LogStructuredMemberRepository extends InMemoryMemberRepository implements DisposableBean {
+
+    private static final Logger log = Logger.getLogger(LogStructuredMemberRepository.class.getName());
+
+    /** Logs smaller than this are not worth compacting */
+    private static final long MIN_COMPACTION_RECORDS = 1024;
+
+    private final MemberLog memberLog;
+    private final long fsyncIntervalMillis;
+    private final long syncTimeoutMillis;
+    private final double compactionGarbageRatio;
+    private final ScheduledExecutorService background;
+
+    // Orders log appends with the in-memory updates they describe
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private long logRecords;
+
+    public LogStructuredMemberRepository(@Value("${logstore.directory}") Path directory,
+                                         @Value("${logstore.segment-size:67108864}") int segmentSize,
+                                         @Value("${logstore.fsync-interval-ms:5}") long fsyncIntervalMillis,
+                                         @Value("${logstore.sync-timeout-ms:30000}") long syncTimeoutMillis,
+                                         @Value("${logstore.compaction.garbage-ratio:0.5}") double compactionGarbageRatio,
+                                         @Value("${logstore.compaction.interval-seconds:60}") long compactionIntervalSeconds) {
+        this.memberLog = new MemberLog(directory, segmentSize);
+        this.fsyncIntervalMillis = fsyncIntervalMillis;
+        this.syncTimeoutMillis = syncTimeoutMillis;
+        this.compactionGarbageRatio = compactionGarbageRatio;
+
+        long start = System.nanoTime();
+        try {
+            logRecords = memberLog.recover(this::replay);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot recover the member log in " + directory, e);
+        }
+        log.info("Recovered " + super.count() + " members from " + logRecords + " log records in "
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+
+        background = Executors.newScheduledThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "member-log");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (fsyncIntervalMillis > 0) {
+            background.scheduleWithFixedDelay(memberLog::sync, fsyncIntervalMillis, fsyncIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+        if (compactionIntervalSeconds > 0) {
+            background.scheduleWithFixedDelay(this::compactIfNeeded, compactionIntervalSeconds, compactionIntervalSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    @Override
+    public <S extends Member> S save(S entity) {
+        Long originalId = entity.getId();
+        List<Change> changes = new ArrayList<>(1);
+        long sequence;
+        writeLock.lock();
+        try {
+            sequence = append(entity, changes);
+        } finally {
+            writeLock.unlock();
+        }
+        try {
+            awaitDurable(sequence, changes);
+        } catch (RuntimeException e) {
+            entity.setId(originalId);
+            throw e;
+        }
+        return entity;
+    }
+
+    @Override
+    public <S extends Member> List<S> saveAll(Iterable<S> entities) {
+        // Append the whole batch, then wait once for the sync that covers its last record
+        List<S> result = new ArrayList<>();
+        entities.forEach(result::add);
+        List<Long> originalIds = result.stream().map(Member::getId).toList();
+        List<Change> changes = new ArrayList<>(result.size());
+        long sequence = 0;
+        writeLock.lock();
+        try {
+            // A taken email anywhere in the batch rejects it before the first record is appended
+            super.checkEmailsAvailable(result);
+            for (S entity : result) {
+                sequence = append(entity, changes);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        try {
+            awaitDurable(sequence, changes);
+        } catch (RuntimeException e) {
+            for (int i = 0; i < result.size(); i++) {
+                result.get(i).setId(originalIds.get(i));
+            }
+            throw e;
+        }
+        return result;
+    }
+
+    @Override
+    public boolean insertIfEmailAbsent(Member member) {
+        Long originalId = member.getId();
+        List<Change> changes = new ArrayList<>(1);
+        long sequence;
+        writeLock.lock();
+        try {
+            // All writes hold the write lock, so the email cannot be taken between the check and the append
+            if (super.findByEmail(member.getEmail()).isPresent()) {
+                return false;
+            }
+            sequence = append(member, changes);
+        } finally {
+            writeLock.unlock();
+        }
+        try {
+            awaitDurable(sequence, changes);
+        } catch (RuntimeException e) {
+            member.setId(originalId);
+            throw e;
+        }
+        recordInserted(List.of(member));
+        return true;
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        List<Change> changes = new ArrayList<>(1);
+        long sequence;
+        writeLock.lock();
+        try {
+            Optional<Member> previous = super.findById(id);
+            if (previous.isEmpty()) {
+                return;
+            }
+            sequence = append(LogRecord.delete(id));
+            super.remove(id);
+            changes.add(new Change(LogRecord.delete(id), LogRecord.put(previous.get())));
+        } finally {
+            writeLock.unlock();
+        }
+        awaitDurable(sequence, changes);
+        recordDeleted(id);
+    }
+
+    @Override
+    public void deleteAll() {
+        List<Change> changes = new ArrayList<>();
+        long sequence;
+        writeLock.lock();
+        try {
+            sequence = append(LogRecord.clear());
+            for (Member member : super.findAll()) {
+                changes.add(new Change(LogRecord.delete(member.getId()), LogRecord.put(member)));
+            }
+            super.deleteAll();
+        } finally {
+            writeLock.unlock();
+        }
+        awaitDurable(sequence, changes);
+    }
+
+    @Override
+    public void flush() {
+        memberLog.sync();
+    }
+
+    /**
+     * Replace the sealed segments with a checkpoint of the live members
+     * Writes continue into a new segment while the checkpoint is written.
+     */
+    public void compact() {
+        List<LogRecord> snapshot = new ArrayList<>();
+        long checkpoint;
+        writeLock.lock();
+        try {
+            // Ids of deleted members are not in the snapshot, so it starts with the highest id handed out
+            snapshot.add(LogRecord.lastId(super.lastId()));
+            for (Member member : super.findAll()) {
+                snapshot.add(LogRecord.put(member));
+            }
+            checkpoint = memberLog.seal();
+            logRecords = snapshot.size();
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException("Cannot seal the member log", e);
+        } finally {
+            writeLock.unlock();
+        }
+
+        long start = System.nanoTime();
+        try {
+            memberLog.writeCheckpoint(checkpoint, snapshot);
+        } catch (IOException e) {
+            // The sealed segments are still in place, so nothing is lost; the next compaction retries
+            throw new DataAccessResourceFailureException("Cannot write member log checkpoint", e);
+        }
+        log.info("Compacted member log to " + snapshot.size() + " records in "
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+    }
+
+    /**
+     * Number of segment files on disk, including the one being written
+     */
+    public int segmentCount() {
+        try {
+            return memberLog.segmentCount();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        background.shutdownNow();
+        memberLog.close();
+    }
+
+    void compactIfNeeded() {
+        long records;
+        long live;
+        writeLock.lock();
+        try {
+            records = logRecords;
+            live = super.count();
+        } finally {
+            writeLock.unlock();
+        }
+        if (records < MIN_COMPACTION_RECORDS || records - live < records * compactionGarbageRatio) {
+            return;
+        }
+        try {
+            compact();
+        } catch (RuntimeException e) {
+            log.log(Level.WARNING, "Member log compaction failed", e);
+        }
+    }
+
+    /**
+     * Apply a save to memory and append it to the log; the caller holds the write lock
+     * The id is assigned by the in-memory save, so the record is appended after it and the
+     * change is undone if the append fails. Once appended, the change is added to {@code changes}
+     * so it can be undone if the sync fails.
+     */
+    private long append(Member entity, List<Change> changes) {
+        Long originalId = entity.getId();
+        Optional<Member> previous = originalId == null ? Optional.empty() : super.findById(originalId);
+        super.save(entity);
+        try {
+            LogRecord written = LogRecord.put(entity);
+            long sequence = append(written);
+            changes.add(new Change(written, previous.map(LogRecord::put).orElse(LogRecord.delete(entity.getId()))));
+            return sequence;
+        } catch (RuntimeException e) {
+            if (previous.isPresent()) {
+                super.save(previous.get());
+            } else {
+                super.remove(entity.getId());
+            }
+            entity.setId(originalId);
+            throw e;
+        }
+    }
+
+    private long append(LogRecord record) {
+        try {
+            long sequence = memberLog.append(record);
+            logRecords++;
+            return sequence;
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException("Cannot append to the member log", e);
+        }
+    }
+
+    /**
+     * Wait for the sync covering a write, undoing its changes if the sync fails
+     */
+    private void awaitDurable(long sequence, List<Change> changes) {
+        try {
+            awaitDurable(sequence);
+        } catch (DataAccessResourceFailureException e) {
+            undo(changes);
+            throw e;
+        }
+    }
+
+    private void awaitDurable(long sequence) {
+        try {
+            if (fsyncIntervalMillis > 0) {
+                memberLog.awaitDurable(sequence, syncTimeoutMillis, TimeUnit.MILLISECONDS);
+            } else {
+                memberLog.awaitDurable(sequence);
+            }
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException("Member log sync failed", e);
+        }
+    }
+
+    /**
+     * Revert the changes of a write whose sync failed, latest first
+     * A change that a later write has already replaced is left alone. The reverting record is appended
+     * too, as the failed records may still reach the disk.
+     */
+    private void undo(List<Change> changes) {
+        writeLock.lock();
+        try {
+            for (Change change : changes.reversed()) {
+                if (!isCurrent(change.written())) {
+                    continue;
+                }
+                try {
+                    replay(change.undo());
+                    append(change.undo());
+                } catch (RuntimeException e) {
+                    log.log(Level.WARNING, "Cannot undo the unsynced write of member " + change.written().id(), e);
+                }
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private boolean isCurrent(LogRecord written) {
+        if (written.type() == LogRecord.Type.DELETE) {
+            return !super.existsById(written.id());
+        }
+        return super.findById(written.id()).map(LogRecord::put).filter(written::equals).isPresent();
+    }
+
+    private void replay(LogRecord record) {
+        switch (record.type()) {
+            case PUT -> super.save(record.toMember());
+            case DELETE -> super.remove(record.id());
+            case CLEAR -> super.deleteAll();
+            case LAST_ID -> super.reserveIds(record.id());
+        }
+    }
+
+    /**
+     * A record appended by a write and the record that reverts it
+     */
+    private record Change(LogRecord written, LogRecord undo) {
+    }
+}
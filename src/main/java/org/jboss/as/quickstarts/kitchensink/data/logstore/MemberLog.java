@@ -0,0 +1,403 @@
+package org.jboss.as.quickstarts.kitchensink.data.logstore;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only log of member records in fixed-size, memory-mapped segment files
+ * <p>
+ * Each record is framed as {@code [int length][int crc32c][payload]}; a zero length marks the end of
+ * the written part of a segment, and a record whose checksum does not match (a write torn by a crash)
+ * ends recovery of that segment. When the active segment is full a new one is started.
+ * <p>
+ * A checkpoint {@code checkpoint-N} holds the complete state as of the start of segment N, so recovery
+ * reads the latest checkpoint and then only the segments numbered N and above; older files are deleted.
+ * <p>
+ * Appends only copy into the mapped buffer. Durability is batched: {@link #sync()} forces everything
+ * appended so far with one msync, and {@link #awaitDurable(long)} waits for the sync covering a record.
+ */
+final class MemberLog implements Closeable {
+
+    private static final Logger log = Logger.getLogger(MemberLog.class.getName());
+
+    private static final Pattern SEGMENT = Pattern.compile("segment-(\\d{20})\\.log");
+    private static final Pattern CHECKPOINT = Pattern.compile("checkpoint-(\\d{20})\\.log");
+    private static final int HEADER_BYTES = 2 * Integer.BYTES;
+    private static final int CHECKPOINT_BUFFER_BYTES = 1 << 16;
+
+    private final Path directory;
+    private final int segmentSize;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // Held for a whole sync, so a record is only reported durable once the msync covering it returned
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final Condition synced = lock.newCondition();
+    private FileChannel activeChannel;
+    private MappedByteBuffer active;
+    private long activeSegment;
+    private int unsyncedFrom;
+    private long appended;
+    private long durable;
+    private boolean closed;
+
+    MemberLog(Path directory, int segmentSize) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Replay the latest checkpoint and all later segments, then open the last segment for appending
+     * @param replay receives every recovered record in log order
+     * @return the number of records replayed
+     */
+    long recover(Consumer<LogRecord> replay) throws IOException {
+        Files.createDirectories(directory);
+        deleteFiles(Pattern.compile(".*\\.tmp"), Long.MAX_VALUE);
+
+        List<Long> checkpoints = sequences(CHECKPOINT);
+        long firstSegment = 0;
+        long records = 0;
+        if (!checkpoints.isEmpty()) {
+            firstSegment = checkpoints.get(checkpoints.size() - 1);
+            records += read(checkpointPath(firstSegment), replay).records;
+            deleteFiles(CHECKPOINT, firstSegment);
+            deleteFiles(SEGMENT, firstSegment);
+        }
+
+        List<Long> segments = sequences(SEGMENT);
+        ReadResult last = null;
+        long lastSegment = firstSegment;
+        for (long segment : segments) {
+            last = read(segmentPath(segment), replay);
+            records += last.records;
+            lastSegment = segment;
+        }
+        openSegment(lastSegment, last == null ? 0 : last.end);
+        if (last != null && last.torn) {
+            // Pages may reach the disk out of order, so stale records can follow a torn one;
+            // clear them so that they cannot be replayed once new records are appended before them
+            clearTail();
+        }
+        return records;
+    }
+
+    /**
+     * Append a record to the active segment
+     * @return the record's sequence number, to pass to {@link #awaitDurable(long)}
+     */
+    long append(LogRecord record) throws IOException {
+        byte[] payload = record.encode();
+        int needed = HEADER_BYTES + payload.length;
+        if (needed > segmentSize) {
+            throw new IOException("Log record of " + needed + " bytes exceeds the segment size");
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+
+        lock.lock();
+        try {
+            ensureOpen();
+            if (active.remaining() < needed) {
+                roll();
+            }
+            active.putInt(payload.length);
+            active.putInt((int) crc.getValue());
+            active.put(payload);
+            return ++appended;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Force everything appended so far to disk with a single msync, then release the waiting writers
+     */
+    void sync() {
+        syncLock.lock();
+        try {
+            MappedByteBuffer buffer;
+            int from;
+            int to;
+            long target;
+            lock.lock();
+            try {
+                if (closed || durable == appended) {
+                    return;
+                }
+                buffer = active;
+                from = unsyncedFrom;
+                to = active.position();
+                target = appended;
+                unsyncedFrom = to;
+            } finally {
+                lock.unlock();
+            }
+
+            // Forcing outside the append lock lets writers keep appending while the disk catches up
+            buffer.force(from, to - from);
+
+            lock.lock();
+            try {
+                durable = Math.max(durable, target);
+                synced.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /**
+     * Wait until the record with the given sequence number is on disk
+     * @throws IOException if the log is closed or the wait times out
+     */
+    void awaitDurable(long sequence, long timeout, TimeUnit unit) throws IOException {
+        long remaining = unit.toNanos(timeout);
+        lock.lock();
+        try {
+            while (durable < sequence) {
+                if (closed) {
+                    throw new IOException("Member log closed before the record was synced");
+                }
+                if (remaining <= 0) {
+                    throw new IOException("Timed out waiting for the member log to sync");
+                }
+                remaining = synced.awaitNanos(remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the member log to sync", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Sync and wait in the calling thread, for deployments that disable batching
+     */
+    void awaitDurable(long sequence) throws IOException {
+        sync();
+        awaitDurable(sequence, 0, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Start a new segment so that all records appended so far are in sealed segments
+     * @return the number of the new active segment, to name the checkpoint taken at this point
+     */
+    long seal() throws IOException {
+        lock.lock();
+        try {
+            ensureOpen();
+            roll();
+            return activeSegment;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Write a checkpoint of the complete state as of the start of the given segment, then delete
+     * the segments and checkpoints it replaces
+     */
+    void writeCheckpoint(long segment, Iterable<LogRecord> records) throws IOException {
+        Path target = checkpointPath(segment);
+        Path temporary = directory.resolve(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(CHECKPOINT_BUFFER_BYTES);
+            for (LogRecord record : records) {
+                byte[] payload = record.encode();
+                if (buffer.remaining() < HEADER_BYTES + payload.length) {
+                    drain(channel, buffer);
+                    if (buffer.remaining() < HEADER_BYTES + payload.length) {
+                        buffer = ByteBuffer.allocate(HEADER_BYTES + payload.length);
+                    }
+                }
+                CRC32C crc = new CRC32C();
+                crc.update(payload);
+                buffer.putInt(payload.length);
+                buffer.putInt((int) crc.getValue());
+                buffer.put(payload);
+            }
+            drain(channel, buffer);
+            channel.force(true);
+        }
+        Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+        syncDirectory();
+
+        deleteFiles(SEGMENT, segment);
+        deleteFiles(CHECKPOINT, segment);
+    }
+
+    /**
+     * Number of segment files currently on disk, including the active one
+     */
+    int segmentCount() throws IOException {
+        return sequences(SEGMENT).size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        sync();
+        lock.lock();
+        try {
+            if (!closed) {
+                closed = true;
+                synced.signalAll();
+                activeChannel.close();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void roll() throws IOException {
+        active.force();
+        durable = appended;
+        synced.signalAll();
+        activeChannel.close();
+        openSegment(activeSegment + 1, 0);
+    }
+
+    private void openSegment(long segment, int position) throws IOException {
+        activeChannel = FileChannel.open(segmentPath(segment),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        // A segment left by a run with a larger segment size is mapped whole
+        long size = Math.max(segmentSize, activeChannel.size());
+        active = activeChannel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        active.position(position);
+        activeSegment = segment;
+        unsyncedFrom = position;
+    }
+
+    private void clearTail() {
+        int position = active.position();
+        byte[] zeros = new byte[CHECKPOINT_BUFFER_BYTES];
+        while (active.hasRemaining()) {
+            active.put(zeros, 0, Math.min(zeros.length, active.remaining()));
+        }
+        active.force();
+        active.position(position);
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Member log is closed");
+        }
+    }
+
+    private ReadResult read(Path file, Consumer<LogRecord> replay) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Log file too large: " + file);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            long records = 0;
+            boolean torn = false;
+            while (buffer.remaining() >= HEADER_BYTES) {
+                int start = buffer.position();
+                int length = buffer.getInt();
+                int checksum = buffer.getInt();
+                if (length == 0) {
+                    buffer.position(start);
+                    break;
+                }
+                if (length < 0 || length > buffer.remaining()) {
+                    log.warning("Truncated record at " + file.getFileName() + ":" + start + ", ignoring the rest of the file");
+                    buffer.position(start);
+                    torn = true;
+                    break;
+                }
+                ByteBuffer payload = buffer.slice(buffer.position(), length);
+                CRC32C crc = new CRC32C();
+                crc.update(payload.duplicate());
+                if ((int) crc.getValue() != checksum) {
+                    log.warning("Corrupt record at " + file.getFileName() + ":" + start + ", ignoring the rest of the file");
+                    buffer.position(start);
+                    torn = true;
+                    break;
+                }
+                replay.accept(LogRecord.decode(payload));
+                buffer.position(buffer.position() + length);
+                records++;
+            }
+            return new ReadResult(records, buffer.position(), torn);
+        }
+    }
+
+    private List<Long> sequences(Pattern pattern) throws IOException {
+        List<Long> sequences = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> {
+                Matcher matcher = pattern.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    sequences.add(Long.parseLong(matcher.group(1)));
+                }
+            });
+        }
+        sequences.sort(null);
+        return sequences;
+    }
+
+    /**
+     * Delete files of the given kind numbered below the given sequence
+     */
+    private void deleteFiles(Pattern pattern, long below) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Matcher matcher = pattern.matcher(file.getFileName().toString());
+                if (matcher.matches() && (matcher.groupCount() == 0 || Long.parseLong(matcher.group(1)) < below)) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    private void syncDirectory() {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Not every platform can sync a directory; the rename itself is still atomic
+            log.fine("Cannot sync directory " + directory + ": " + e.getMessage());
+        }
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private Path segmentPath(long segment) {
+        return directory.resolve(String.format("segment-%020d.log", segment));
+    }
+
+    private Path checkpointPath(long segment) {
+        return directory.resolve(String.format("checkpoint-%020d.log", segment));
+    }
+
+    private record ReadResult(long records, int end, boolean torn) {
+    }
+}
@@ -0,0 +1,49 @@
+package org.jboss.as.quickstarts.kitchensink.data.memory;
+
+/**
+ * Shared arithmetic for the open-addressing tables in this package
+ */
+final class HashTables {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private HashTables() {
+    }
+
+    /**
+     * Power-of-two table size holding the expected number of entries under the load factor
+     */
+    static int capacityFor(int expectedSize, float loadFactor) {
+        int capacity = MIN_CAPACITY;
+        while (capacity * loadFactor < expectedSize) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    /**
+     * Spread a long key over the table (Fibonacci hashing)
+     */
+    static int mix(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    /**
+     * Spread an object hash code over the table
+     */
+    static int mix(int hashCode) {
+        int hash = hashCode * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Whether the entry at {@code slot}, whose probe run starts at {@code home}, may move back to {@code gap}
+     * during backward-shift deletion: true unless {@code home} lies cyclically in (gap, slot]
+     */
+    static boolean canMoveTo(int gap, int slot, int home) {
+        return slot > gap
+                ? home <= gap || home > slot
+                : home <= gap && home > slot;
+    }
+}
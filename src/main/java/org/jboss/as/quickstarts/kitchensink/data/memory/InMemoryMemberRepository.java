@@ -0,0 +1,846 @@
+package org.jboss.as.quickstarts.kitchensink.data.memory;
+
+import jakarta.persistence.EntityNotFoundException;
+import org.jboss.as.quickstarts.kitchensink.data.MemberRepository;
+import org.jboss.as.quickstarts.kitchensink.data.MemberStore;
+import org.jboss.as.quickstarts.kitchensink.data.changes.MemberChangeLog;
+import org.jboss.as.quickstarts.kitchensink.model.Member;
+import org.jboss.as.quickstarts.kitchensink.model.MemberCursor;
+import org.jboss.as.quickstarts.kitchensink.model.MemberKeys;
+import org.jboss.as.quickstarts.kitchensink.model.MemberView;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.repository.query.FluentQuery;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * In-memory MemberRepository for latency-critical deployments and benchmarks
+ * This is used when memory.enabled=true; data does not survive a restart
+ * <p>
+ * Members are stored as immutable records in a primitive long-keyed hash map, with open-addressing
+ * hash indexes for email, phone number and email domain key and a sorted index for the name listing.
+ * Id, email and phone lookups neither box keys nor allocate beyond the returned entities.
+ * Entities returned by the repository are detached copies: changes are stored only when saved.
+ * Emails are unique as in the other backends: saving a taken one throws a {@link DuplicateKeyException}.
+ * It is also the {@link MemberStore}; none of its operations block, so async calls complete in the caller.
+ * Its inserts and deletes are recorded in the change log, if there is one, right after they are applied.
+ */
+@Component
+@ConditionalOnProperty(name = "memory.enabled", havingValue = "true")
+public class InMemoryMemberRepository implements MemberRepository, MemberStore {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final LongObjectHashMap<MemberRecord> byId = new LongObjectHashMap<>(INITIAL_CAPACITY);
+    private final StringLongMultiIndex byEmail = new StringLongMultiIndex(INITIAL_CAPACITY);
+    private final StringLongMultiIndex byPhoneNumber = new StringLongMultiIndex(INITIAL_CAPACITY);
+    private final StringLongMultiIndex byEmailDomainKey = new StringLongMultiIndex(INITIAL_CAPACITY);
+    private final TreeMap<MemberRecord.NameOrder, MemberRecord> byName = new TreeMap<>();
+    private long lastId;
+    private MemberChangeLog changeLog;
+
+    /**
+     * Record every insert and delete in a change log, present when members.changes.enabled=true
+     */
+    @Autowired(required = false)
+    public void setChangeLog(MemberChangeLog changeLog) {
+        this.changeLog = changeLog;
+    }
+
+    @Override
+    public Optional<Member> findByEmail(String email) {
+        lock.readLock().lock();
+        try {
+            long[] ids = byEmail.get(email);
+            return ids.length == 0 ? Optional.empty() : Optional.of(byId.get(ids[0]).toMember());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Member> findByPhoneNumber(String phoneNumber) {
+        lock.readLock().lock();
+        try {
+            return toMembers(byPhoneNumber.get(phoneNumber));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Member> findByNameContainingIgnoreCase(String name) {
+        String fragment = MemberKeys.nameKey(name == null ? "" : name);
+        return scan(record -> record.nameKey() != null && record.nameKey().contains(fragment), MemberRecord::toMember);
+    }
+
+    @Override
+    public List<Member> findByEmailDomainKey(String emailDomainKey) {
+        lock.readLock().lock();
+        try {
+            return toMembers(byEmailDomainKey.get(emailDomainKey));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Member> findByEmailDomainKeyStartingWith(String emailDomainKey) {
+        return scan(record -> record.emailDomainKey() != null && record.emailDomainKey().startsWith(emailDomainKey),
+                MemberRecord::toMember);
+    }
+
+    @Override
+    public List<MemberView> findAllViewsOrderedByName() {
+        return scan(record -> true, MemberRecord::toView);
+    }
+
+    @Override
+    public Optional<MemberView> findViewById(Long id) {
+        lock.readLock().lock();
+        try {
+            return Optional.ofNullable(byId.get(id)).map(MemberRecord::toView);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<MemberView> findViewsByNameContaining(String name) {
+        return MemberRepository.super.findViewsByNameContaining(name);
+    }
+
+    @Override
+    public List<MemberView> findViewsByNameKeyContaining(String nameKey) {
+        String fragment = nameKey == null ? "" : nameKey;
+        return scan(record -> record.nameKey() != null && record.nameKey().contains(fragment), MemberRecord::toView);
+    }
+
+    @Override
+    public List<MemberView> findViewsByIdIn(Collection<Long> ids) {
+        List<MemberView> views = new ArrayList<>(ids.size());
+        lock.readLock().lock();
+        try {
+            for (Long id : ids) {
+                MemberRecord record = byId.get(id);
+                if (record != null) {
+                    views.add(record.toView());
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        views.sort(MemberKeys.NAME_ORDER);
+        return views;
+    }
+
+    @Override
+    public List<MemberView> findFirstViewsByName(Pageable pageable) {
+        lock.readLock().lock();
+        try {
+            return firstViews(byName.values(), pageable.getPageSize());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<MemberView> findViewsByNameAfter(String nameKey, Long id, Pageable pageable) {
+        lock.readLock().lock();
+        try {
+            MemberRecord.NameOrder after = new MemberRecord.NameOrder(nameKey == null ? "" : nameKey, id);
+            return firstViews(byName.tailMap(after, false).values(), pageable.getPageSize());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static List<MemberView> firstViews(Collection<MemberRecord> records, int limit) {
+        List<MemberView> views = new ArrayList<>(Math.min(limit, records.size()));
+        for (MemberRecord record : records) {
+            if (views.size() == limit) {
+                break;
+            }
+            views.add(record.toView());
+        }
+        return views;
+    }
+
+    @Override
+    public <S extends Member> S save(S entity) {
+        lock.writeLock().lock();
+        try {
+            checkEmailAvailable(entity, Map.of());
+            put(entity);
+            return entity;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<MemberView> findViewsAfter(MemberCursor after, int limit) {
+        PageRequest slice = PageRequest.ofSize(limit);
+        return after == null ? findFirstViewsByName(slice) : findViewsByNameAfter(after.nameKey(), after.id(), slice);
+    }
+
+    @Override
+    public Stream<MemberView> streamViews() {
+        List<MemberView> views = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            byId.forEachValue(record -> views.add(record.toView()));
+        } finally {
+            lock.readLock().unlock();
+        }
+        views.sort(Comparator.comparing(MemberView::id));
+        return views.stream();
+    }
+
+    @Override
+    public boolean insertIfEmailAbsent(Member member) {
+        lock.writeLock().lock();
+        try {
+            if (byEmail.get(member.getEmail()).length > 0) {
+                return false;
+            }
+            put(member);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        recordInserted(List.of(member));
+        return true;
+    }
+
+    @Override
+    public List<Member> insertAll(List<Member> members) {
+        List<Member> inserted = saveAll(members);
+        recordInserted(inserted);
+        return inserted;
+    }
+
+    @Override
+    public <S extends Member> List<S> saveAll(Iterable<S> entities) {
+        List<S> result = new ArrayList<>();
+        entities.forEach(result::add);
+        lock.writeLock().lock();
+        try {
+            // Check the whole batch first, so a duplicate leaves nothing half saved
+            checkEmailsAvailable(result);
+            result.forEach(this::put);
+            return result;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<Member> findById(Long id) {
+        requireId(id);
+        lock.readLock().lock();
+        try {
+            return Optional.ofNullable(byId.get(id)).map(MemberRecord::toMember);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        requireId(id);
+        lock.readLock().lock();
+        try {
+            return byId.containsKey(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Member> findAll() {
+        return scan(record -> true, MemberRecord::toMember);
+    }
+
+    @Override
+    public List<Member> findAllById(Iterable<Long> ids) {
+        List<Member> members = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Long id : ids) {
+                MemberRecord record = byId.get(id);
+                if (record != null) {
+                    members.add(record.toMember());
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return members;
+    }
+
+    @Override
+    public long count() {
+        lock.readLock().lock();
+        try {
+            return byId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        requireId(id);
+        if (remove(id)) {
+            recordDeleted(id);
+        }
+    }
+
+    /**
+     * Remove a member without recording the change
+     * @return whether the member was stored
+     */
+    protected boolean remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            MemberRecord record = byId.get(id);
+            if (record == null) {
+                return false;
+            }
+            unindex(record);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Highest id assigned so far, including the ids of members deleted since
+     */
+    protected long lastId() {
+        lock.readLock().lock();
+        try {
+            return lastId;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Never assign ids up to the given one, e.g. the ids of members deleted before a restart
+     */
+    protected void reserveIds(long id) {
+        lock.writeLock().lock();
+        try {
+            lastId = Math.max(lastId, id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Append the inserts to the change log, if there is one
+     */
+    protected void recordInserted(Collection<? extends Member> members) {
+        if (changeLog != null) {
+            members.forEach(changeLog::appendInserted);
+        }
+    }
+
+    /**
+     * Append a deletion to the change log, if there is one
+     */
+    protected void recordDeleted(long id) {
+        if (changeLog != null) {
+            changeLog.appendDeleted(id);
+        }
+    }
+
+    @Override
+    public void delete(Member entity) {
+        if (entity.getId() != null) {
+            deleteById(entity.getId());
+        }
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends Long> ids) {
+        for (Long id : ids) {
+            deleteById(id);
+        }
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends Member> entities) {
+        for (Member member : entities) {
+            delete(member);
+        }
+    }
+
+    @Override
+    public void deleteAll() {
+        lock.writeLock().lock();
+        try {
+            byId.clear();
+            byEmail.clear();
+            byPhoneNumber.clear();
+            byEmailDomainKey.clear();
+            byName.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Member> findAll(Sort sort) {
+        List<Member> members = findAll();
+        members.sort(comparator(sort));
+        return members;
+    }
+
+    @Override
+    public Page<Member> findAll(Pageable pageable) {
+        return page(findAll(pageable.getSort()), pageable);
+    }
+
+    @Override
+    public void flush() {
+        // Writes are applied immediately
+    }
+
+    @Override
+    public <S extends Member> S saveAndFlush(S entity) {
+        return save(entity);
+    }
+
+    @Override
+    public <S extends Member> List<S> saveAllAndFlush(Iterable<S> entities) {
+        return saveAll(entities);
+    }
+
+    @Override
+    public void deleteAllInBatch(Iterable<Member> entities) {
+        deleteAll(entities);
+    }
+
+    @Override
+    public void deleteAllByIdInBatch(Iterable<Long> ids) {
+        deleteAllById(ids);
+    }
+
+    @Override
+    public void deleteAllInBatch() {
+        deleteAll();
+    }
+
+    @Override
+    public Member getOne(Long id) {
+        return getReferenceById(id);
+    }
+
+    @Override
+    public Member getById(Long id) {
+        return getReferenceById(id);
+    }
+
+    @Override
+    public Member getReferenceById(Long id) {
+        return findById(id).orElseThrow(() -> new EntityNotFoundException("No member with id " + id));
+    }
+
+    @Override
+    public <S extends Member> Optional<S> findOne(Example<S> example) {
+        List<S> results = findAll(example);
+        return results.isEmpty() ? Optional.empty() : Optional.of(results.get(0));
+    }
+
+    @Override
+    public <S extends Member> List<S> findAll(Example<S> example) {
+        List<S> result = new ArrayList<>();
+        for (Member member : scan(ExampleMatching.predicate(example), MemberRecord::toMember)) {
+            @SuppressWarnings("unchecked")
+            S match = (S) member;
+            result.add(match);
+        }
+        return result;
+    }
+
+    @Override
+    public <S extends Member> List<S> findAll(Example<S> example, Sort sort) {
+        List<S> result = findAll(example);
+        result.sort(comparator(sort));
+        return result;
+    }
+
+    @Override
+    public <S extends Member> Page<S> findAll(Example<S> example, Pageable pageable) {
+        return page(findAll(example, pageable.getSort()), pageable);
+    }
+
+    @Override
+    public <S extends Member> long count(Example<S> example) {
+        return findAll(example).size();
+    }
+
+    @Override
+    public <S extends Member> boolean exists(Example<S> example) {
+        return findOne(example).isPresent();
+    }
+
+    @Override
+    public <S extends Member, R> R findBy(Example<S> example, Function<FluentQuery.FetchableFluentQuery<S>, R> queryFunction) {
+        @SuppressWarnings("unchecked")
+        Function<Member, S> asProbeType = member -> (S) member;
+        return queryFunction.apply(
+                new ExampleQuery<>(ExampleMatching.predicate(example), Sort.unsorted(), Integer.MAX_VALUE, asProbeType));
+    }
+
+    /**
+     * Check that a batch can be saved as a whole: no email is taken by another stored member
+     * or used twice in the batch. Callers hold a lock that excludes concurrent writes.
+     * @throws DuplicateKeyException for the first email that is not available
+     */
+    protected void checkEmailsAvailable(Collection<? extends Member> entities) {
+        lock.readLock().lock();
+        try {
+            Map<String, Member> batchEmails = new HashMap<>();
+            for (Member entity : entities) {
+                checkEmailAvailable(entity, batchEmails);
+                if (entity.getEmail() != null) {
+                    batchEmails.put(entity.getEmail(), entity);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Enforce the unique email constraint of the other backends; the caller holds a lock
+     * @param batchEmails members saved before this one in the same batch, by email
+     */
+    private void checkEmailAvailable(Member entity, Map<String, Member> batchEmails) {
+        String email = entity.getEmail();
+        Member sameBatch = email == null ? null : batchEmails.get(email);
+        boolean taken = sameBatch != null && (sameBatch.getId() == null || !sameBatch.getId().equals(entity.getId()));
+        for (long id : byEmail.get(email)) {
+            taken |= entity.getId() == null || id != entity.getId();
+        }
+        if (taken) {
+            throw new DuplicateKeyException("Email " + email + " already exists");
+        }
+    }
+
+    /**
+     * Store an entity, assigning its id if new; the caller holds the write lock
+     */
+    private void put(Member entity) {
+        long id;
+        if (entity.getId() == null) {
+            id = ++lastId;
+        } else {
+            id = entity.getId();
+            lastId = Math.max(lastId, id);
+        }
+        MemberRecord previous = byId.get(id);
+        if (previous != null) {
+            unindex(previous);
+        }
+        index(MemberRecord.of(id, entity));
+        entity.setId(id);
+    }
+
+    private void index(MemberRecord record) {
+        byId.put(record.id(), record);
+        byEmail.add(record.email(), record.id());
+        byPhoneNumber.add(record.phoneNumber(), record.id());
+        byEmailDomainKey.add(record.emailDomainKey(), record.id());
+        byName.put(record.nameOrder(), record);
+    }
+
+    private void unindex(MemberRecord record) {
+        byId.remove(record.id());
+        byEmail.remove(record.email(), record.id());
+        byPhoneNumber.remove(record.phoneNumber(), record.id());
+        byEmailDomainKey.remove(record.emailDomainKey(), record.id());
+        byName.remove(record.nameOrder());
+    }
+
+    /**
+     * Members in listing order, read under the read lock
+     */
+    private List<Member> toMembers(long[] ids) {
+        List<Member> members = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            members.add(byId.get(id).toMember());
+        }
+        return members;
+    }
+
+    /**
+     * Map the records accepted by the filter, in listing order
+     */
+    private <T> List<T> scan(Predicate<MemberRecord> filter, Function<MemberRecord, T> mapper) {
+        lock.readLock().lock();
+        try {
+            List<T> result = new ArrayList<>();
+            for (MemberRecord record : byName.values()) {
+                if (filter.test(record)) {
+                    result.add(mapper.apply(record));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Reject a null ID the way Spring Data repositories do, instead of failing on unboxing
+     */
+    private static void requireId(Long id) {
+        if (id == null) {
+            throw new IllegalArgumentException("The given id must not be null");
+        }
+    }
+
+    private static <T> Page<T> page(List<T> sorted, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(sorted);
+        }
+        int from = (int) Math.min(pageable.getOffset(), sorted.size());
+        int to = Math.min(from + pageable.getPageSize(), sorted.size());
+        return new PageImpl<>(new ArrayList<>(sorted.subList(from, to)), pageable, sorted.size());
+    }
+
+    private static Comparator<Member> comparator(Sort sort) {
+        Comparator<Member> comparator = (left, right) -> 0;
+        for (Sort.Order order : sort) {
+            Function<Member, String> property = stringProperty(order.getProperty());
+            Comparator<Member> next;
+            if (property == null) {
+                next = Comparator.comparing(Member::getId, Comparator.nullsFirst(Comparator.naturalOrder()));
+            } else {
+                Function<Member, String> key = order.isIgnoreCase()
+                        ? member -> MemberKeys.nameKey(property.apply(member))
+                        : property;
+                next = Comparator.comparing(key, Comparator.nullsFirst(Comparator.naturalOrder()));
+            }
+            comparator = comparator.thenComparing(order.isDescending() ? next.reversed() : next);
+        }
+        return comparator;
+    }
+
+    /**
+     * Accessor for a sortable string property, or null for the id
+     * @throws IllegalArgumentException if the property does not exist
+     */
+    private static Function<Member, String> stringProperty(String property) {
+        return switch (property) {
+            case "id" -> null;
+            case "name" -> Member::getName;
+            case "email" -> Member::getEmail;
+            case "phoneNumber" -> Member::getPhoneNumber;
+            case "nameKey" -> member -> MemberKeys.nameKey(member.getName());
+            case "emailDomainKey" -> member -> MemberKeys.emailDomainKey(member.getEmail());
+            default -> throw new IllegalArgumentException("No property '" + property + "' found for type 'Member'");
+        };
+    }
+
+    /**
+     * Fluent query-by-example over the stored records
+     * Projections by property name are only a fetch hint, so whole members are returned; result types
+     * other than Member and MemberView are not supported.
+     */
+    private final class ExampleQuery<T> implements FluentQuery.FetchableFluentQuery<T> {
+
+        private final Predicate<MemberRecord> filter;
+        private final Sort sort;
+        private final int limit;
+        private final Function<Member, T> mapper;
+
+        ExampleQuery(Predicate<MemberRecord> filter, Sort sort, int limit, Function<Member, T> mapper) {
+            this.filter = filter;
+            this.sort = sort;
+            this.limit = limit;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public FluentQuery.FetchableFluentQuery<T> sortBy(Sort sort) {
+            return new ExampleQuery<>(filter, this.sort.and(sort), limit, mapper);
+        }
+
+        @Override
+        public FluentQuery.FetchableFluentQuery<T> limit(int limit) {
+            if (limit < 0) {
+                throw new IllegalArgumentException("Limit must not be negative");
+            }
+            return new ExampleQuery<>(filter, sort, limit, mapper);
+        }
+
+        @Override
+        public <R> FluentQuery.FetchableFluentQuery<R> as(Class<R> resultType) {
+            if (resultType.isAssignableFrom(Member.class)) {
+                return new ExampleQuery<>(filter, sort, limit, resultType::cast);
+            }
+            if (resultType == MemberView.class) {
+                return new ExampleQuery<>(filter, sort, limit, member -> resultType.cast(MemberView.of(member)));
+            }
+            throw new IllegalArgumentException("Cannot project members to " + resultType.getName());
+        }
+
+        @Override
+        public FluentQuery.FetchableFluentQuery<T> project(Collection<String> properties) {
+            for (String property : properties) {
+                stringProperty(property);
+            }
+            return this;
+        }
+
+        @Override
+        public T oneValue() {
+            List<Member> matches = matches(sort);
+            if (matches.size() > 1) {
+                throw new IncorrectResultSizeDataAccessException(1, matches.size());
+            }
+            return matches.isEmpty() ? null : mapper.apply(matches.get(0));
+        }
+
+        @Override
+        public T firstValue() {
+            List<Member> matches = matches(sort);
+            return matches.isEmpty() ? null : mapper.apply(matches.get(0));
+        }
+
+        @Override
+        public List<T> all() {
+            List<Member> matches = matches(sort);
+            List<T> result = new ArrayList<>(matches.size());
+            for (Member member : matches) {
+                result.add(mapper.apply(member));
+            }
+            return result;
+        }
+
+        @Override
+        public Page<T> page(Pageable pageable) {
+            List<Member> matches = matches(pageable.getSort().isSorted() ? pageable.getSort() : sort);
+            return InMemoryMemberRepository.page(matches, pageable).map(mapper);
+        }
+
+        @Override
+        public Stream<T> stream() {
+            return all().stream();
+        }
+
+        @Override
+        public long count() {
+            return scan(filter, MemberRecord::id).size();
+        }
+
+        @Override
+        public boolean exists() {
+            return count() > 0;
+        }
+
+        private List<Member> matches(Sort order) {
+            List<Member> matches = scan(filter, MemberRecord::toMember);
+            if (order.isSorted()) {
+                matches.sort(comparator(order));
+            }
+            return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+        }
+    }
+
+    /**
+     * Query-by-example support over the stored records
+     */
+    private static final class ExampleMatching {
+
+        private ExampleMatching() {
+        }
+
+        static Predicate<MemberRecord> predicate(Example<? extends Member> example) {
+            Member probe = example.getProbe();
+            ExampleMatcher matcher = example.getMatcher();
+            List<Predicate<MemberRecord>> checks = new ArrayList<>();
+            addCheck(checks, matcher, "id", probe.getId() == null ? null : probe.getId().toString(),
+                    record -> Long.toString(record.id()));
+            addCheck(checks, matcher, "name", probe.getName(), MemberRecord::name);
+            addCheck(checks, matcher, "email", probe.getEmail(), MemberRecord::email);
+            addCheck(checks, matcher, "phoneNumber", probe.getPhoneNumber(), MemberRecord::phoneNumber);
+            if (checks.isEmpty()) {
+                return record -> true;
+            }
+            return matcher.isAllMatching()
+                    ? record -> checks.stream().allMatch(check -> check.test(record))
+                    : record -> checks.stream().anyMatch(check -> check.test(record));
+        }
+
+        private static void addCheck(List<Predicate<MemberRecord>> checks, ExampleMatcher matcher, String path,
+                                     String expected, Function<MemberRecord, String> actual) {
+            if (matcher.isIgnoredPath(path)) {
+                return;
+            }
+            if (expected == null) {
+                if (matcher.getNullHandler() == ExampleMatcher.NullHandler.INCLUDE) {
+                    checks.add(record -> actual.apply(record) == null);
+                }
+                return;
+            }
+            ExampleMatcher.PropertySpecifier specifier = matcher.getPropertySpecifiers().getForPath(path);
+            ExampleMatcher.StringMatcher stringMatcher = specifier != null && specifier.getStringMatcher() != null
+                    ? specifier.getStringMatcher()
+                    : matcher.getDefaultStringMatcher();
+            boolean ignoreCase = specifier != null && specifier.getIgnoreCase() != null
+                    ? specifier.getIgnoreCase()
+                    : matcher.isIgnoreCaseEnabled();
+            checks.add(record -> matches(stringMatcher, ignoreCase, expected, actual.apply(record)));
+        }
+
+        private static boolean matches(ExampleMatcher.StringMatcher stringMatcher, boolean ignoreCase,
+                                       String expected, String actual) {
+            if (actual == null) {
+                return false;
+            }
+            if (stringMatcher == ExampleMatcher.StringMatcher.REGEX) {
+                return Pattern.compile(expected, ignoreCase ? Pattern.CASE_INSENSITIVE : 0).matcher(actual).matches();
+            }
+            String value = ignoreCase ? actual.toLowerCase(Locale.ROOT) : actual;
+            String probe = ignoreCase ? expected.toLowerCase(Locale.ROOT) : expected;
+            return switch (stringMatcher) {
+                case CONTAINING -> value.contains(probe);
+                case STARTING -> value.startsWith(probe);
+                case ENDING -> value.endsWith(probe);
+                default -> value.equals(probe);
+            };
+        }
+    }
+}
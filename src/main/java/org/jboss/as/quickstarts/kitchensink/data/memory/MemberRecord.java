@@ -0,0 +1,47 @@
+package org.jboss.as.quickstarts.kitchensink.data.memory;
+
+import org.jboss.as.quickstarts.kitchensink.model.Member;
+import org.jboss.as.quickstarts.kitchensink.model.MemberKeys;
+import org.jboss.as.quickstarts.kitchensink.model.MemberView;
+
+/**
+ * Immutable stored form of a member, with its derived keys computed once on write
+ */
+record MemberRecord(long id, String name, String email, String phoneNumber, String nameKey, String emailDomainKey) {
+
+    static MemberRecord of(long id, Member member) {
+        return new MemberRecord(id, member.getName(), member.getEmail(), member.getPhoneNumber(),
+                MemberKeys.nameKey(member.getName()), MemberKeys.emailDomainKey(member.getEmail()));
+    }
+
+    /**
+     * A fresh, detached entity; changing it does not change the store until it is saved
+     */
+    Member toMember() {
+        Member member = new Member();
+        member.setId(id);
+        member.setName(name);
+        member.setEmail(email);
+        member.setPhoneNumber(phoneNumber);
+        return member;
+    }
+
+    MemberView toView() {
+        return new MemberView(id, name, email, phoneNumber);
+    }
+
+    NameOrder nameOrder() {
+        return new NameOrder(nameKey == null ? "" : nameKey, id);
+    }
+
+    /**
+     * Listing position: name key, then id, the same order as the (name_key, id) index of the other backends
+     */
+    record NameOrder(String nameKey, long id) implements Comparable<NameOrder> {
+        @Override
+        public int compareTo(NameOrder other) {
+            int byName = nameKey.compareTo(other.nameKey);
+            return byName != 0 ? byName : Long.compare(id, other.id);
+        }
+    }
+}
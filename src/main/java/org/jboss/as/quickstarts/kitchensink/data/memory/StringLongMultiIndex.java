@@ -0,0 +1,157 @@
+package org.jboss.as.quickstarts.kitchensink.data.memory;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash index from string keys to the primitive ids carrying them
+ * <p>
+ * Each key maps to a small {@code long[]} of ids that is replaced, never mutated, on change, so
+ * returned arrays can be read without copying. Keys are probed linearly and removed with
+ * backward-shift deletion. Not thread-safe.
+ */
+final class StringLongMultiIndex {
+
+    private static final float LOAD_FACTOR = 0.6f;
+    private static final long[] NONE = new long[0];
+
+    private String[] keys;
+    private long[][] ids;
+    private int mask;
+    private int threshold;
+    private int size;
+
+    StringLongMultiIndex(int expectedSize) {
+        allocate(HashTables.capacityFor(expectedSize, LOAD_FACTOR));
+    }
+
+    /**
+     * Ids indexed under the key, in insertion order; the returned array must not be modified
+     */
+    long[] get(String key) {
+        if (key == null) {
+            return NONE;
+        }
+        for (int slot = HashTables.mix(key.hashCode()) & mask; keys[slot] != null; slot = (slot + 1) & mask) {
+            if (keys[slot].equals(key)) {
+                return ids[slot];
+            }
+        }
+        return NONE;
+    }
+
+    void add(String key, long id) {
+        if (key == null) {
+            return;
+        }
+        int slot = HashTables.mix(key.hashCode()) & mask;
+        while (keys[slot] != null) {
+            if (keys[slot].equals(key)) {
+                long[] current = ids[slot];
+                for (long existing : current) {
+                    if (existing == id) {
+                        return;
+                    }
+                }
+                long[] grown = Arrays.copyOf(current, current.length + 1);
+                grown[current.length] = id;
+                ids[slot] = grown;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        ids[slot] = new long[] {id};
+        if (++size > threshold) {
+            rehash(keys.length << 1);
+        }
+    }
+
+    void remove(String key, long id) {
+        if (key == null) {
+            return;
+        }
+        int slot = HashTables.mix(key.hashCode()) & mask;
+        while (keys[slot] != null) {
+            if (keys[slot].equals(key)) {
+                long[] current = ids[slot];
+                int position = indexOf(current, id);
+                if (position < 0) {
+                    return;
+                }
+                if (current.length == 1) {
+                    shiftBack(slot);
+                    size--;
+                    return;
+                }
+                long[] shrunk = new long[current.length - 1];
+                System.arraycopy(current, 0, shrunk, 0, position);
+                System.arraycopy(current, position + 1, shrunk, position, current.length - position - 1);
+                ids[slot] = shrunk;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Number of distinct keys
+     */
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        allocate(HashTables.capacityFor(0, LOAD_FACTOR));
+        size = 0;
+    }
+
+    private static int indexOf(long[] values, long id) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void shiftBack(int gap) {
+        int slot = gap;
+        while (true) {
+            slot = (slot + 1) & mask;
+            if (keys[slot] == null) {
+                break;
+            }
+            int home = HashTables.mix(keys[slot].hashCode()) & mask;
+            if (HashTables.canMoveTo(gap, slot, home)) {
+                keys[gap] = keys[slot];
+                ids[gap] = ids[slot];
+                gap = slot;
+            }
+        }
+        keys[gap] = null;
+        ids[gap] = null;
+    }
+
+    private void rehash(int capacity) {
+        String[] oldKeys = keys;
+        long[][] oldIds = ids;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                int slot = HashTables.mix(oldKeys[i].hashCode()) & mask;
+                while (keys[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                ids[slot] = oldIds[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new String[capacity];
+        ids = new long[capacity][];
+        mask = capacity - 1;
+        threshold = (int) (capacity * LOAD_FACTOR);
+    }
+}
@@ -0,0 +1,155 @@
+package org.jboss.as.quickstarts.kitchensink.data.migration;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.jboss.as.quickstarts.kitchensink.data.MemberStore;
+import org.jboss.as.quickstarts.kitchensink.model.Member;
+import org.jboss.as.quickstarts.kitchensink.model.MemberCursor;
+import org.jboss.as.quickstarts.kitchensink.model.MemberView;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoOperations;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * MemberStore that serves everything from the JPA store and mirrors its writes into MongoDB
+ * Used during the cutover, with migration.dual-write=true, so members registered or deleted while
+ * the copy job runs reach MongoDB too. JPA stays the source of truth: a mirror write that fails is
+ * logged and counted, never reported to the caller, and is repaired by the consistency verifier.
+ */
+public class DualWriteMemberStore implements MemberStore {
+
+    private static final Logger log = Logger.getLogger(DualWriteMemberStore.class.getName());
+
+    private final MemberStore primary;
+    private final MongoMemberMirror mirror;
+    private final Counter failures;
+
+    public DualWriteMemberStore(MemberStore primary, MongoOperations mongoOperations, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.mirror = new MongoMemberMirror(mongoOperations);
+        this.failures = Counter.builder("members.migration.dual-write.failures")
+                .description("Writes applied to JPA that could not be mirrored into MongoDB")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Optional<Member> findById(Long id) {
+        return primary.findById(id);
+    }
+
+    @Override
+    public Optional<MemberView> findViewById(Long id) {
+        return primary.findViewById(id);
+    }
+
+    @Override
+    public Optional<Member> findByEmail(String email) {
+        return primary.findByEmail(email);
+    }
+
+    @Override
+    public List<MemberView> findViewsByIdIn(Collection<Long> ids) {
+        return primary.findViewsByIdIn(ids);
+    }
+
+    @Override
+    public List<MemberView> findAllViewsOrderedByName() {
+        return primary.findAllViewsOrderedByName();
+    }
+
+    @Override
+    public List<MemberView> findViewsByNameContaining(String name) {
+        return primary.findViewsByNameContaining(name);
+    }
+
+    @Override
+    public List<MemberView> findViewsAfter(MemberCursor after, int limit) {
+        return primary.findViewsAfter(after, limit);
+    }
+
+    @Override
+    public Stream<MemberView> streamViews() {
+        return primary.streamViews();
+    }
+
+    @Override
+    public long count() {
+        return primary.count();
+    }
+
+    @Override
+    public boolean insertIfEmailAbsent(Member member) {
+        if (!primary.insertIfEmailAbsent(member)) {
+            return false;
+        }
+        mirror(List.of(member));
+        return true;
+    }
+
+    @Override
+    public List<Member> insertAll(List<Member> members) {
+        List<Member> inserted = primary.insertAll(members);
+        mirror(inserted);
+        return inserted;
+    }
+
+    @Override
+    public boolean[] insertAllIfEmailAbsent(List<Member> members) {
+        boolean[] inserted = primary.insertAllIfEmailAbsent(members);
+        List<Member> mirrored = new ArrayList<>(members.size());
+        for (int i = 0; i < members.size(); i++) {
+            if (inserted[i]) {
+                mirrored.add(members.get(i));
+            }
+        }
+        if (!mirrored.isEmpty()) {
+            mirror(mirrored);
+        }
+        return inserted;
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        primary.deleteById(id);
+        try {
+            mirror.delete(id);
+        } catch (DataAccessException e) {
+            failures.increment();
+            log.warning("Cannot mirror the deletion of member " + id + " into MongoDB: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public CompletableFuture<Optional<MemberView>> findViewByIdAsync(Long id) {
+        return primary.findViewByIdAsync(id);
+    }
+
+    @Override
+    public CompletableFuture<List<MemberView>> findViewsByIdInAsync(Collection<Long> ids) {
+        return primary.findViewsByIdInAsync(ids);
+    }
+
+    @Override
+    public CompletableFuture<List<Member>> insertAllAsync(List<Member> members) {
+        return primary.insertAllAsync(members).thenApply(inserted -> {
+            mirror(inserted);
+            return inserted;
+        });
+    }
+
+    private void mirror(List<Member> members) {
+        try {
+            mirror.upsertAll(members);
+        } catch (DataAccessException e) {
+            failures.increment(members.size());
+            log.warning("Cannot mirror " + members.size() + " new members into MongoDB: " + e.getMessage());
+        }
+    }
+}
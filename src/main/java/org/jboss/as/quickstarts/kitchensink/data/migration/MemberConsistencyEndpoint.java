@@ -0,0 +1,34 @@
+package org.jboss.as.quickstarts.kitchensink.data.migration;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint running the JPA to MongoDB consistency check
+ * {@code GET /actuator/memberconsistency} reports the differences, {@code POST /actuator/memberconsistency}
+ * reports and repairs them
+ */
+@Component
+@Endpoint(id = "memberconsistency")
+@ConditionalOnProperty(name = "migration.enabled", havingValue = "true")
+public class MemberConsistencyEndpoint {
+
+    private final MemberConsistencyVerifier verifier;
+
+    public MemberConsistencyEndpoint(MemberConsistencyVerifier verifier) {
+        this.verifier = verifier;
+    }
+
+    @ReadOperation
+    public MemberConsistencyReport verify() {
+        return verifier.verify(false);
+    }
+
+    @WriteOperation
+    public MemberConsistencyReport repair() {
+        return verifier.verify(true);
+    }
+}
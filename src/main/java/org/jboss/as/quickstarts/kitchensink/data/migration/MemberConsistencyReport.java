@@ -0,0 +1,30 @@
+package org.jboss.as.quickstarts.kitchensink.data.migration;
+
+import java.util.List;
+
+/**
+ * Outcome of a JPA to MongoDB consistency check
+ * @param jpaMembers members in the JPA store
+ * @param mongoMembers members in MongoDB
+ * @param rangesCompared tree nodes compared, a measure of how much of the tree had to be visited
+ * @param rangesFetched leaf ID ranges whose members were loaded from both stores to find the differences
+ * @param missingInMongo IDs of members only in the JPA store
+ * @param extraInMongo IDs of members only in MongoDB
+ * @param different IDs of members whose email, name or phone number differ
+ * @param truncated whether more differences exist than were listed
+ * @param repaired whether MongoDB was brought in line with the JPA store
+ */
+public record MemberConsistencyReport(long jpaMembers,
+                                      long mongoMembers,
+                                      long rangesCompared,
+                                      long rangesFetched,
+                                      List<Long> missingInMongo,
+                                      List<Long> extraInMongo,
+                                      List<Long> different,
+                                      boolean truncated,
+                                      boolean repaired) {
+
+    public boolean isConsistent() {
+        return missingInMongo.isEmpty() && extraInMongo.isEmpty() && different.isEmpty();
+    }
+}
@@ -0,0 +1,267 @@
+package org.jboss.as.quickstarts.kitchensink.data.migration;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.bson.Document;
+import org.jboss.as.quickstarts.kitchensink.model.Member;
+import org.jboss.as.quickstarts.kitchensink.model.MemberView;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Proves that MongoDB holds the same members as the JPA store, comparing hash trees instead of rows
+ * Enabled with migration.enabled=true
+ * <p>
+ * Each store is scanned once, in parallel on the verifier's own threads, into a {@link MemberHashTree}
+ * over (ID, email, name, phone number), which keeps one count and hash per ID range rather than the
+ * members. The trees are compared from the root down and only the leaf ranges that differ are loaded
+ * from both stores and diffed member by member, so a nearly consistent pair costs two scans and a
+ * handful of range reads. An optional repair upserts the missing and differing members into MongoDB
+ * and removes the extra ones.
+ * <p>
+ * Writes reach JPA before MongoDB, so each range is read from MongoDB first: a member written
+ * between the two reads then shows up as missing in MongoDB, never as extra, and repair cannot
+ * remove a live member. Members deleted from JPA while the repair upserts them are removed again.
+ */
+@Component
+@ConditionalOnProperty(name = "migration.enabled", havingValue = "true")
+public class MemberConsistencyVerifier implements DisposableBean {
+
+    private static final Logger log = Logger.getLogger(MemberConsistencyVerifier.class.getName());
+
+    static final int SCAN_BATCH_SIZE = 1000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final MongoOperations mongoOperations;
+    private final MongoMemberMirror mirror;
+    private final TransactionTemplate readOnlyTransaction;
+    private final long leafWidth;
+    private final int arity;
+    private final int maxDifferences;
+    private final AtomicLong lastDifferences = new AtomicLong(-1);
+    private final ExecutorService scanner;
+
+    public MemberConsistencyVerifier(MongoOperations mongoOperations,
+                                     PlatformTransactionManager transactionManager,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${migration.verify.leaf-width:1024}") long leafWidth,
+                                     @Value("${migration.verify.arity:16}") int arity,
+                                     @Value("${migration.verify.max-differences:1000}") int maxDifferences) {
+        this.mongoOperations = mongoOperations;
+        this.mirror = new MongoMemberMirror(mongoOperations);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.leafWidth = leafWidth;
+        this.arity = arity;
+        this.maxDifferences = maxDifferences;
+        // The scans block on the databases for their whole length, so they keep off the common pool
+        AtomicInteger counter = new AtomicInteger();
+        this.scanner = Executors.newFixedThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "member-verify-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("members.migration.verify.differences", lastDifferences, AtomicLong::get)
+                .description("Members differing between JPA and MongoDB at the last check, -1 before the first")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Compare the stores and optionally repair MongoDB
+     * @param repair whether to make MongoDB match the JPA store
+     * @return the differences found
+     */
+    public MemberConsistencyReport verify(boolean repair) {
+        CompletableFuture<MemberHashTree> jpa = CompletableFuture.supplyAsync(() -> build(this::scanJpa), scanner);
+        CompletableFuture<MemberHashTree> mongo = CompletableFuture.supplyAsync(() -> build(this::scanMongo), scanner);
+        MemberHashTree jpaTree = jpa.join();
+        MemberHashTree mongoTree = mongo.join();
+
+        // Walk down from the root, keeping only the nodes that differ
+        int top = Math.max(jpaTree.height(), mongoTree.height()) - 1;
+        long compared = 1;
+        List<Long> mismatched = Objects.equals(jpaTree.node(top, 0), mongoTree.node(top, 0)) ? List.of() : List.of(0L);
+        for (int level = top - 1; level >= 0 && !mismatched.isEmpty(); level--) {
+            List<Long> next = new ArrayList<>();
+            for (long index : mismatched) {
+                for (int i = 0; i < arity; i++) {
+                    long child = index * arity + i;
+                    compared++;
+                    if (!Objects.equals(jpaTree.node(level, child), mongoTree.node(level, child))) {
+                        next.add(child);
+                    }
+                }
+            }
+            mismatched = next;
+        }
+
+        List<Long> missing = new ArrayList<>();
+        List<Long> extra = new ArrayList<>();
+        List<Long> different = new ArrayList<>();
+        List<Member> upserts = new ArrayList<>();
+        boolean truncated = false;
+        for (long leaf : mismatched) {
+            long from = leaf * leafWidth;
+            long to = from + leafWidth - 1;
+            Map<Long, MemberView> actual = mongoRange(from, to);
+            Map<Long, MemberView> expected = jpaRange(from, to);
+            for (MemberView view : expected.values()) {
+                MemberView copy = actual.get(view.id());
+                if (copy == null || !copy.equals(view)) {
+                    truncated |= !add(copy == null ? missing : different, view.id());
+                    upserts.add(toMember(view));
+                }
+            }
+            for (Long id : actual.keySet()) {
+                if (!expected.containsKey(id)) {
+                    truncated |= !add(extra, id);
+                    if (repair) {
+                        mirror.delete(id);
+                    }
+                }
+            }
+        }
+        if (repair && !upserts.isEmpty()) {
+            mirror.upsertAll(upserts);
+            removeDeletedDuringRepair(upserts);
+        }
+        lastDifferences.set(upserts.size() + (long) extra.size());
+
+        MemberConsistencyReport report = new MemberConsistencyReport(jpaTree.count(), mongoTree.count(), compared,
+                mismatched.size(), missing, extra, different, truncated, repair);
+        log.info("Member consistency check: " + report.jpaMembers() + " JPA members, " + report.mongoMembers()
+                + " MongoDB members, " + missing.size() + " missing, " + extra.size() + " extra, " + different.size()
+                + " different, " + mismatched.size() + " ranges fetched" + (repair ? ", repaired" : ""));
+        return report;
+    }
+
+    @Override
+    public void destroy() {
+        scanner.shutdownNow();
+    }
+
+    /**
+     * Remove from MongoDB the upserted members that were deleted from JPA since their range was read
+     */
+    private void removeDeletedDuringRepair(List<Member> upserts) {
+        Set<Long> deleted = new HashSet<>();
+        for (Member member : upserts) {
+            deleted.add(member.getId());
+        }
+        List<Long> live = readOnlyTransaction.execute(status -> entityManager
+                .createQuery("SELECT m.id FROM Member m WHERE m.id IN :ids", Long.class)
+                .setParameter("ids", deleted)
+                .getResultList());
+        if (live != null) {
+            live.forEach(deleted::remove);
+        }
+        if (!deleted.isEmpty()) {
+            mirror.deleteAll(deleted);
+        }
+    }
+
+    private boolean add(List<Long> ids, long id) {
+        if (ids.size() >= maxDifferences) {
+            return false;
+        }
+        ids.add(id);
+        return true;
+    }
+
+    private MemberHashTree build(Consumer<Consumer<MemberView>> scan) {
+        MemberHashTree tree = new MemberHashTree(leafWidth, arity);
+        scan.accept(tree::add);
+        return tree;
+    }
+
+    private void scanJpa(Consumer<MemberView> sink) {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<MemberView> views = entityManager.createQuery(
+                            "SELECT new org.jboss.as.quickstarts.kitchensink.model.MemberView(m.id, m.name, m.email, m.phoneNumber) "
+                                    + "FROM Member m", MemberView.class)
+                    .setHint("org.hibernate.fetchSize", SCAN_BATCH_SIZE)
+                    .getResultStream()) {
+                views.forEach(sink);
+            }
+        });
+    }
+
+    private void scanMongo(Consumer<MemberView> sink) {
+        Query query = new Query(where("member_id").exists(true)).cursorBatchSize(SCAN_BATCH_SIZE);
+        include(query);
+        try (Stream<Document> documents = mongoOperations.stream(query, Document.class, MongoMemberMirror.MEMBERS_COLLECTION)) {
+            documents.forEach(document -> sink.accept(toView(document)));
+        }
+    }
+
+    private Map<Long, MemberView> jpaRange(long from, long to) {
+        List<MemberView> views = readOnlyTransaction.execute(status -> entityManager.createQuery(
+                        "SELECT new org.jboss.as.quickstarts.kitchensink.model.MemberView(m.id, m.name, m.email, m.phoneNumber) "
+                                + "FROM Member m WHERE m.id BETWEEN :from AND :to", MemberView.class)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .getResultList());
+        Map<Long, MemberView> byId = new HashMap<>();
+        if (views != null) {
+            views.forEach(view -> byId.put(view.id(), view));
+        }
+        return byId;
+    }
+
+    private Map<Long, MemberView> mongoRange(long from, long to) {
+        Query query = Query.query(where("member_id").gte(from).lte(to));
+        include(query);
+        Map<Long, MemberView> byId = new HashMap<>();
+        for (Document document : mongoOperations.find(query, Document.class, MongoMemberMirror.MEMBERS_COLLECTION)) {
+            MemberView view = toView(document);
+            byId.put(view.id(), view);
+        }
+        return byId;
+    }
+
+    private static void include(Query query) {
+        query.fields().include("member_id").include("name").include("email").include("phone_number");
+    }
+
+    private static MemberView toView(Document document) {
+        return new MemberView(((Number) document.get("member_id")).longValue(), document.getString("name"),
+                document.getString("email"), document.getString("phone_number"));
+    }
+
+    private static Member toMember(MemberView view) {
+        Member member = new Member();
+        member.setId(view.id());
+        member.setName(view.name());
+        member.setEmail(view.email());
+        member.setPhoneNumber(view.phoneNumber());
+        return member;
+    }
+}
@@ -0,0 +1,115 @@
+package org.jboss.as.quickstarts.kitchensink.data.migration;
+
+import org.jboss.as.quickstarts.kitchensink.model.MemberView;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hash tree over the members of one store, built in a single streaming pass
+ * <p>
+ * Members fall into leaves by ID range ({@code id / leafWidth}); a node covers {@code arity} nodes of
+ * the level below. Every node holds the member count and the sum of the member hashes under it, so
+ * the order in which members are added does not matter and only one entry per non-empty node is kept,
+ * never the members themselves. Two trees built with the same shape can be compared top-down,
+ * descending only into the nodes whose count or hash differ.
+ */
+final class MemberHashTree {
+
+    /**
+     * Count and hash sum of the members under one node
+     */
+    record Node(long count, long hash) {
+
+        Node plus(Node other) {
+            return new Node(count + other.count, hash + other.hash);
+        }
+    }
+
+    private final long leafWidth;
+    private final int arity;
+    private final MessageDigest digest;
+    private final Map<Long, Node> leaves = new HashMap<>();
+    private List<Map<Long, Node>> levels;
+
+    MemberHashTree(long leafWidth, int arity) {
+        this.leafWidth = leafWidth;
+        this.arity = arity;
+        try {
+            this.digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    void add(MemberView member) {
+        leaves.merge(member.id() / leafWidth, new Node(1, hash(member)), Node::plus);
+        levels = null;
+    }
+
+    /**
+     * Nodes per level, from the leaves (level 0) up to a single root
+     */
+    List<Map<Long, Node>> levels() {
+        if (levels == null) {
+            List<Map<Long, Node>> built = new ArrayList<>();
+            built.add(leaves);
+            Map<Long, Node> level = leaves;
+            while (level.size() > 1 || (level.size() == 1 && !level.containsKey(0L))) {
+                Map<Long, Node> parents = new HashMap<>();
+                level.forEach((index, node) -> parents.merge(index / arity, node, Node::plus));
+                built.add(parents);
+                level = parents;
+            }
+            levels = built;
+        }
+        return levels;
+    }
+
+    /**
+     * The node at a level and index, or null if no member falls under it
+     * Above the root, index 0 keeps standing for the whole tree, so trees of different heights compare.
+     */
+    Node node(int level, long index) {
+        List<Map<Long, Node>> all = levels();
+        if (level < all.size()) {
+            return all.get(level).get(index);
+        }
+        return index == 0 ? all.get(all.size() - 1).get(0L) : null;
+    }
+
+    int height() {
+        return levels().size();
+    }
+
+    long leafWidth() {
+        return leafWidth;
+    }
+
+    int arity() {
+        return arity;
+    }
+
+    long count() {
+        return leaves.values().stream().mapToLong(Node::count).sum();
+    }
+
+    /**
+     * Hash of one member over its ID and the compared fields
+     */
+    long hash(MemberView member) {
+        digest.reset();
+        String row = member.id() + "\u0000" + member.email() + "\u0000" + member.name() + "\u0000" + member.phoneNumber();
+        byte[] bytes = digest.digest(row.getBytes(StandardCharsets.UTF_8));
+        long hash = 0;
+        for (int i = 0; i < Long.BYTES; i++) {
+            hash = (hash << 8) | (bytes[i] & 0xff);
+        }
+        return hash;
+    }
+}
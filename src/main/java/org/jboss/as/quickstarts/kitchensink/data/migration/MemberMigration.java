@@ -0,0 +1,286 @@
+package org.jboss.as.quickstarts.kitchensink.data.migration;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.bson.Document;
+import org.jboss.as.quickstarts.kitchensink.model.Member;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Resumable copy of the JPA members into the MongoDB members collection
+ * Enabled with migration.enabled=true while the application still runs on JPA
+ * <p>
+ * Members are read in ascending ID chunks and bulk-upserted into MongoDB through
+ * {@link org.jboss.as.quickstarts.kitchensink.model.MongoMember#fromMember}. After every chunk the
+ * last copied ID is checkpointed in MongoDB, so a restarted or paused job continues where it
+ * stopped, and a repeated chunk is harmless. The copy is paced to a row rate so it does not starve
+ * the live traffic. Members changed after their chunk was copied are covered by dual writes.
+ * <p>
+ * A member deleted while its chunk is in flight would be brought back by the upsert, after the dual
+ * write already removed it from MongoDB. Each chunk is therefore checked against JPA once it is
+ * upserted, and the members no longer there are removed again. A delete that commits after that
+ * check mirrors its own removal later than the upsert, so either way MongoDB ends without the member.
+ */
+@Component
+@ConditionalOnProperty(name = "migration.enabled", havingValue = "true")
+public class MemberMigration {
+
+    private static final Logger log = Logger.getLogger(MemberMigration.class.getName());
+
+    static final String CHECKPOINTS_COLLECTION = "migration_checkpoints";
+    static final String CHECKPOINT_ID = "members";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final MongoMemberMirror mirror;
+    private final MongoOperations mongoOperations;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int chunkSize;
+    private final long rowsPerSecond;
+    private final boolean startOnReady;
+
+    private final Counter copied;
+    private final Counter conflicts;
+
+    private volatile boolean running;
+    private volatile boolean pauseRequested;
+    private volatile boolean completed;
+    private volatile long lastId;
+    private volatile long remaining = -1;
+    private volatile double rate;
+
+    public MemberMigration(MongoOperations mongoOperations,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry,
+                           @Value("${migration.chunk-size:1000}") int chunkSize,
+                           @Value("${migration.rows-per-second:5000}") long rowsPerSecond,
+                           @Value("${migration.start-on-ready:true}") boolean startOnReady) {
+        this.mongoOperations = mongoOperations;
+        this.mirror = new MongoMemberMirror(mongoOperations);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.chunkSize = chunkSize;
+        this.rowsPerSecond = rowsPerSecond;
+        this.startOnReady = startOnReady;
+
+        this.copied = Counter.builder("members.migration.copied")
+                .description("Members copied into MongoDB by the migration")
+                .register(meterRegistry);
+        this.conflicts = Counter.builder("members.migration.conflicts")
+                .description("Members rejected by MongoDB, typically an email already registered there")
+                .register(meterRegistry);
+        Gauge.builder("members.migration.rate", this, migration -> migration.rate)
+                .description("Members copied per second by the current run")
+                .register(meterRegistry);
+        Gauge.builder("members.migration.remaining", this, migration -> migration.remaining)
+                .description("Estimated members left to copy, -1 before the first run")
+                .register(meterRegistry);
+        Gauge.builder("members.migration.eta", this, MemberMigration::etaSeconds)
+                .description("Estimated time to finish the copy at the current rate, -1 if unknown")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Start or resume the copy once the application is ready
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (startOnReady) {
+            start();
+        }
+    }
+
+    /**
+     * Start or resume the copy in the background
+     * @return false if a copy is already running
+     */
+    public synchronized boolean start() {
+        if (running) {
+            return false;
+        }
+        running = true;
+        pauseRequested = false;
+        Thread worker = new Thread(() -> {
+            try {
+                run();
+            } catch (RuntimeException e) {
+                log.log(Level.WARNING, "Member migration stopped at member " + lastId + ", it resumes from there on the next start", e);
+            } finally {
+                running = false;
+            }
+        }, "member-migration");
+        worker.setDaemon(true);
+        worker.start();
+        return true;
+    }
+
+    /**
+     * Stop the copy after the current chunk; the checkpoint keeps its progress
+     */
+    public void pause() {
+        pauseRequested = true;
+    }
+
+    /**
+     * Copy every member after the checkpoint, on the calling thread
+     * @return the number of members copied by this run
+     */
+    public long run() {
+        lastId = readCheckpoint();
+        completed = false;
+        Long left = readOnlyTransaction.execute(status -> entityManager
+                .createQuery("SELECT COUNT(m) FROM Member m WHERE m.id > :after", Long.class)
+                .setParameter("after", lastId)
+                .getSingleResult());
+        remaining = left == null ? 0 : left;
+        log.info("Member migration starting after member " + lastId + ", about " + remaining + " members to copy");
+
+        long start = System.nanoTime();
+        long copiedByRun = 0;
+        while (!pauseRequested) {
+            long after = lastId;
+            List<Member> chunk = readOnlyTransaction.execute(status -> entityManager
+                    .createQuery("SELECT m FROM Member m WHERE m.id > :after ORDER BY m.id", Member.class)
+                    .setParameter("after", after)
+                    .setMaxResults(chunkSize)
+                    .getResultList());
+            if (chunk == null || chunk.isEmpty()) {
+                completed = true;
+                break;
+            }
+            try {
+                mirror.upsertAll(chunk);
+            } catch (BulkOperationException e) {
+                // The rest of the unordered bulk was applied; the rejected members are left for the verifier
+                conflicts.increment(e.getErrors().size());
+                log.warning("MongoDB rejected " + e.getErrors().size() + " members after member " + after);
+            }
+            removeDeletedDuringCopy(chunk);
+            lastId = chunk.get(chunk.size() - 1).getId();
+            writeCheckpoint(false);
+
+            copiedByRun += chunk.size();
+            copied.increment(chunk.size());
+            remaining = Math.max(0, remaining - chunk.size());
+            long elapsed = System.nanoTime() - start;
+            rate = copiedByRun * (double) TimeUnit.SECONDS.toNanos(1) / Math.max(1, elapsed);
+            throttle(copiedByRun, elapsed);
+        }
+        if (completed) {
+            writeCheckpoint(true);
+            remaining = 0;
+        }
+        log.info("Member migration " + (completed ? "completed" : "paused") + " after member " + lastId
+                + ", " + copiedByRun + " members copied by this run");
+        return copiedByRun;
+    }
+
+    /**
+     * State of the copy, as shown by the management endpoint
+     */
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("running", running);
+        status.put("completed", completed);
+        status.put("lastId", lastId);
+        status.put("copied", (long) copied.count());
+        status.put("remaining", remaining);
+        status.put("rowsPerSecond", rate);
+        status.put("etaSeconds", etaSeconds());
+        return status;
+    }
+
+    private double etaSeconds() {
+        if (remaining < 0 || rate <= 0) {
+            return completed ? 0 : -1;
+        }
+        return remaining / rate;
+    }
+
+    /**
+     * Sleep as long as the run is ahead of the configured row rate
+     */
+    private void throttle(long copiedByRun, long elapsedNanos) {
+        if (rowsPerSecond <= 0) {
+            return;
+        }
+        long aheadNanos = copiedByRun * TimeUnit.SECONDS.toNanos(1) / rowsPerSecond - elapsedNanos;
+        if (aheadNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(aheadNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                pauseRequested = true;
+            }
+        }
+    }
+
+    /**
+     * Remove from MongoDB the members of a copied chunk that were deleted from JPA since it was read
+     */
+    private void removeDeletedDuringCopy(List<Member> chunk) {
+        Set<Long> deleted = new HashSet<>();
+        for (Member member : chunk) {
+            deleted.add(member.getId());
+        }
+        List<Long> live = readOnlyTransaction.execute(status -> entityManager
+                .createQuery("SELECT m.id FROM Member m WHERE m.id IN :ids", Long.class)
+                .setParameter("ids", deleted)
+                .getResultList());
+        if (live != null) {
+            live.forEach(deleted::remove);
+        }
+        if (!deleted.isEmpty()) {
+            log.info("Removing " + deleted.size() + " members deleted while their chunk was copied");
+            mirror.deleteAll(deleted);
+        }
+    }
+
+    private long readCheckpoint() {
+        Document checkpoint = mongoOperations.findById(CHECKPOINT_ID, Document.class, CHECKPOINTS_COLLECTION);
+        if (checkpoint == null || checkpoint.get("lastId") == null) {
+            return 0;
+        }
+        return ((Number) checkpoint.get("lastId")).longValue();
+    }
+
+    private void writeCheckpoint(boolean isCompleted) {
+        try {
+            mongoOperations.upsert(Query.query(where("_id").is(CHECKPOINT_ID)), new Update()
+                    .set("lastId", lastId)
+                    .set("completed", isCompleted)
+                    .set("updatedAt", new Date()), CHECKPOINTS_COLLECTION);
+        } catch (DataAccessException e) {
+            // Losing a checkpoint only means repeating the chunks since the previous one
+            log.warning("Cannot checkpoint the member migration at member " + lastId + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package org.jboss.as.quickstarts.kitchensink.data.migration;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Actuator endpoint exposing the progress of the JPA to MongoDB copy and start/pause commands
+ * {@code GET /actuator/membermigration} shows the progress, {@code POST /actuator/membermigration}
+ * with {@code {"action": "start"}} or {@code {"action": "pause"}} controls the copy
+ */
+@Component
+@Endpoint(id = "membermigration")
+@ConditionalOnProperty(name = "migration.enabled", havingValue = "true")
+public class MemberMigrationEndpoint {
+
+    private final MemberMigration migration;
+
+    public MemberMigrationEndpoint(MemberMigration migration) {
+        this.migration = migration;
+    }
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        return migration.status();
+    }
+
+    @WriteOperation
+    public Map<String, Object> control(String action) {
+        return switch (action) {
+            case "start" -> Map.of("status", migration.start() ? "started" : "already running");
+            case "pause" -> {
+                migration.pause();
+                yield Map.of("status", "pausing after the current chunk");
+            }
+            default -> throw new IllegalArgumentException("Unknown action " + action + ", expected start or pause");
+        };
+    }
+}
@@ -0,0 +1,63 @@
+package org.jboss.as.quickstarts.kitchensink.data.migration;
+
+import org.jboss.as.quickstarts.kitchensink.model.Member;
+import org.jboss.as.quickstarts.kitchensink.model.MongoMember;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Collection;
+import java.util.List;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Writes JPA members into the MongoDB members collection, keyed by their member ID
+ * Upserts are idempotent, so the copy job can repeat a chunk and dual writes can race it safely.
+ */
+class MongoMemberMirror {
+
+    static final String MEMBERS_COLLECTION = "members";
+    static final String COUNTERS_COLLECTION = "counters";
+    static final String MEMBER_SEQUENCE = "members";
+
+    private final MongoOperations mongoOperations;
+
+    MongoMemberMirror(MongoOperations mongoOperations) {
+        this.mongoOperations = mongoOperations;
+    }
+
+    /**
+     * Upsert the members in one unordered bulk write and move the member sequence past their IDs
+     */
+    void upsertAll(List<Member> members) {
+        if (members.isEmpty()) {
+            return;
+        }
+        BulkOperations bulk = mongoOperations.bulkOps(BulkOperations.BulkMode.UNORDERED, MEMBERS_COLLECTION);
+        long maxId = 0;
+        for (Member member : members) {
+            MongoMember document = MongoMember.fromMember(member);
+            bulk.upsert(Query.query(where("member_id").is(document.getMemberId())), new Update()
+                    .set("name", document.getName())
+                    .set("email", document.getEmail())
+                    .set("phone_number", document.getPhoneNumber())
+                    .set("name_key", document.getNameKey())
+                    .set("email_domain_key", document.getEmailDomainKey()));
+            maxId = Math.max(maxId, document.getMemberId());
+        }
+        bulk.execute();
+        // Members registered in MongoDB after the cutover must not reuse a copied ID
+        mongoOperations.upsert(Query.query(where("_id").is(MEMBER_SEQUENCE)),
+                new Update().max("seq", maxId), COUNTERS_COLLECTION);
+    }
+
+    void delete(Long id) {
+        mongoOperations.remove(Query.query(where("member_id").is(id)), MEMBERS_COLLECTION);
+    }
+
+    void deleteAll(Collection<Long> ids) {
+        mongoOperations.remove(Query.query(where("member_id").in(ids)), MEMBERS_COLLECTION);
+    }
+}
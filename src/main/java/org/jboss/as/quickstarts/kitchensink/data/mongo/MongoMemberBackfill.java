@@ -0,0 +1,128 @@
+package org.jboss.as.quickstarts.kitchensink.data.mongo;
+
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.jboss.as.quickstarts.kitchensink.model.MemberKeys;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Populates derived fields on member documents written before those fields existed
+ * Runs once in the background after startup so that an unreachable MongoDB does not block the application
+ */
+@Component
+@ConditionalOnProperty(name = "mongodb.enabled", havingValue = "true")
+public class MongoMemberBackfill {
+
+    private static final Logger log = Logger.getLogger(MongoMemberBackfill.class.getName());
+
+    static final String MEMBERS_COLLECTION = "members";
+
+    /**
+     * Updates sent to MongoDB per bulk write
+     */
+    static final int BULK_SIZE = 1000;
+
+    private final MongoOperations mongoOperations;
+    private final MongoMemberIdGenerator idGenerator;
+
+    public MongoMemberBackfill(MongoOperations mongoOperations, MongoMemberIdGenerator idGenerator) {
+        this.mongoOperations = mongoOperations;
+        this.idGenerator = idGenerator;
+    }
+
+    /**
+     * Start the backfill once the application is ready
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        Thread worker = new Thread(() -> {
+            try {
+                backfill();
+            } catch (RuntimeException e) {
+                log.log(Level.WARNING, "Member backfill failed, it will be retried on the next start", e);
+            }
+        }, "mongo-member-backfill");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Fill in missing derived fields
+     * @return the number of documents updated
+     */
+    public long backfill() {
+        // Computed in Java, so the keys match those of newly saved members; MongoDB's $toLower differs beyond ASCII
+        long names = backfillKey("name_key", "name", MemberKeys::nameKey);
+
+        // Member ids come from the sequence, so documents are numbered one at a time
+        AtomicLong numbered = new AtomicLong();
+        Query missingIds = Query.query(where("member_id").exists(false));
+        missingIds.fields().include("_id");
+        try (Stream<Document> documents = mongoOperations.stream(missingIds, Document.class, MEMBERS_COLLECTION)) {
+            documents.forEach(document -> {
+                UpdateResult result = mongoOperations.updateFirst(
+                        Query.query(where("_id").is(document.get("_id")).and("member_id").exists(false)),
+                        Update.update("member_id", idGenerator.nextId()),
+                        MEMBERS_COLLECTION);
+                numbered.addAndGet(result.getModifiedCount());
+            });
+        }
+
+        long domains = backfillKey("email_domain_key", "email", MemberKeys::emailDomainKey);
+
+        long updated = names + numbered.get() + domains;
+        if (updated > 0) {
+            log.info("Backfilled derived fields: " + names + " name keys, " + numbered.get()
+                    + " member ids, " + domains + " email domain keys");
+        }
+        return updated;
+    }
+
+    /**
+     * Compute a missing key client-side from its source field and write it in unordered bulks
+     * @return the number of documents updated
+     */
+    private long backfillKey(String keyField, String sourceField, Function<String, String> keyFunction) {
+        long updated = 0;
+        Query missingKeys = Query.query(where(keyField).exists(false).and(sourceField).exists(true));
+        missingKeys.fields().include("_id").include(sourceField);
+        try (Stream<Document> documents = mongoOperations.stream(missingKeys, Document.class, MEMBERS_COLLECTION)) {
+            BulkOperations bulk = null;
+            int pending = 0;
+            for (Document document : (Iterable<Document>) documents::iterator) {
+                String key = keyFunction.apply(document.getString(sourceField));
+                if (key == null) {
+                    continue;
+                }
+                if (bulk == null) {
+                    bulk = mongoOperations.bulkOps(BulkOperations.BulkMode.UNORDERED, MEMBERS_COLLECTION);
+                }
+                bulk.updateOne(Query.query(where("_id").is(document.get("_id"))), Update.update(keyField, key));
+                if (++pending == BULK_SIZE) {
+                    updated += bulk.execute().getModifiedCount();
+                    bulk = null;
+                    pending = 0;
+                }
+            }
+            if (bulk != null) {
+                updated += bulk.execute().getModifiedCount();
+            }
+        }
+        return updated;
+    }
+}
@@ -0,0 +1,63 @@
+package org.jboss.as.quickstarts.kitchensink.data.mongo;
+
+import org.bson.Document;
+import org.jboss.as.quickstarts.kitchensink.model.MongoMember;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertCallback;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+/**
+ * Assigns the numeric member id to new MongoMember documents
+ * Ids come from a counter document in the "counters" collection, so they are
+ * unique and increasing, just like the identity column of the JPA model
+ */
+@Component
+@ConditionalOnProperty(name = "mongodb.enabled", havingValue = "true")
+public class MongoMemberIdGenerator implements BeforeConvertCallback<MongoMember> {
+
+    static final String COUNTERS_COLLECTION = "counters";
+    static final String MEMBER_SEQUENCE = "members";
+
+    // Resolved lazily: the template itself invokes this callback
+    private final ObjectProvider<MongoOperations> mongoOperations;
+
+    public MongoMemberIdGenerator(ObjectProvider<MongoOperations> mongoOperations) {
+        this.mongoOperations = mongoOperations;
+    }
+
+    @Override
+    public MongoMember onBeforeConvert(MongoMember entity, String collection) {
+        if (entity.getMemberId() == null) {
+            entity.setMemberId(nextId());
+        }
+        return entity;
+    }
+
+    /**
+     * Atomically increment and return the member sequence
+     */
+    public long nextId() {
+        return nextIds(1);
+    }
+
+    /**
+     * Atomically reserve a block of ids with a single counter update
+     * @param count the number of ids to reserve
+     * @return the first id of the block; the block is {@code [first, first + count)}
+     */
+    public long nextIds(int count) {
+        Document counter = mongoOperations.getObject().findAndModify(
+                Query.query(Criteria.where("_id").is(MEMBER_SEQUENCE)),
+                new Update().inc("seq", (long) count),
+                FindAndModifyOptions.options().returnNew(true).upsert(true),
+                Document.class,
+                COUNTERS_COLLECTION);
+        return ((Number) counter.get("seq")).longValue() - count + 1;
+    }
+}
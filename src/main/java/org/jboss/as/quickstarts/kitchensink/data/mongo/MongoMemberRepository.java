@@ -1,10 +1,13 @@
 package org.jboss.as.quickstarts.kitchensink.data.mongo;
 
+import org.jboss.as.quickstarts.kitchensink.model.MemberKeys;
 import org.jboss.as.quickstarts.kitchensink.model.MongoMember;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,6 +25,13 @@ public interface MongoMemberRepository extends MongoRepository<MongoMember, Stri
      */
     Optional<MongoMember> findByEmail(String email);
 
+    /**
+     * Find members by phone number
+     * @param phoneNumber the phone number to search for
+     * @return list of matching members
+     */
+    List<MongoMember> findByPhoneNumber(String phoneNumber);
+
     /**
      * Find members with a name containing the given string (case insensitive)
      * @param name the name fragment to search for
@@ -30,10 +40,62 @@ public interface MongoMemberRepository extends MongoRepository<MongoMember, Stri
     List<MongoMember> findByNameContainingIgnoreCase(String name);
 
     /**
-     * Custom query to find members with email domain
+     * Find members with email domain
+     * "@example.com" matches that domain only; "example.com" also matches its subdomains.
+     * Both are answered from the email_domain_key index rather than an unanchored regex.
      * @param domain the email domain to search for
      * @return list of matching members
      */
-    @Query("{ 'email': { $regex: ?0, $options: 'i' } }")
-    List<MongoMember> findByEmailDomain(String domain);
+    default List<MongoMember> findByEmailDomain(String domain) {
+        String key = MemberKeys.domainKey(domain);
+        return MemberKeys.isAnchoredDomain(domain)
+                ? findByEmailDomainKey(key)
+                : findByEmailDomainKeyStartingWith(key);
+    }
+
+    /**
+     * Find members by exact email domain key
+     * @param emailDomainKey the key, see {@link MemberKeys#emailDomainKey(String)}
+     * @return list of matching members
+     */
+    List<MongoMember> findByEmailDomainKey(String emailDomainKey);
+
+    /**
+     * Find members whose email domain key starts with the given key (an anchored, index-backed regex)
+     * @param emailDomainKey the key prefix, see {@link MemberKeys#emailDomainKey(String)}
+     * @return list of matching members
+     */
+    List<MongoMember> findByEmailDomainKeyStartingWith(String emailDomainKey);
+
+    /**
+     * Find a member by its numeric member id
+     * @param memberId the member id
+     * @return the member, if any
+     */
+    Optional<MongoMember> findByMemberId(Long memberId);
+
+    /**
+     * Find members by numeric member ids
+     * @param memberIds the member ids
+     * @return the matching members
+     */
+    List<MongoMember> findByMemberIdIn(Collection<Long> memberIds);
+
+    /**
+     * First page of the keyset (cursor) listing, served by the name_key/member_id index
+     * @param pageable page size only; the offset is always zero
+     * @return the first members in listing order
+     */
+    List<MongoMember> findAllByOrderByNameKeyAscMemberIdAsc(Pageable pageable);
+
+    /**
+     * Next page of the keyset (cursor) listing, served by the name_key/member_id index
+     * @param nameKey name key of the last member already returned
+     * @param memberId member id of the last member already returned
+     * @param pageable page size only; the offset is always zero
+     * @return the members that sort strictly after the given position
+     */
+    @Query(value = "{ $or: [ { 'name_key': { $gt: ?0 } }, { 'name_key': ?0, 'member_id': { $gt: ?1 } } ] }",
+            sort = "{ 'name_key': 1, 'member_id': 1 }")
+    List<MongoMember> findPageAfter(String nameKey, Long memberId, Pageable pageable);
 }
@@ -0,0 +1,222 @@
+package org.jboss.as.quickstarts.kitchensink.data.mongo;
+
+import com.mongodb.bulk.BulkWriteError;
+import org.jboss.as.quickstarts.kitchensink.data.AbstractAsyncMemberStore;
+import org.jboss.as.quickstarts.kitchensink.model.Member;
+import org.jboss.as.quickstarts.kitchensink.model.MemberCursor;
+import org.jboss.as.quickstarts.kitchensink.model.MemberKeys;
+import org.jboss.as.quickstarts.kitchensink.model.MemberView;
+import org.jboss.as.quickstarts.kitchensink.model.MongoMember;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * MemberStore on top of MongoDB
+ * This is used when mongodb.enabled=true
+ * <p>
+ * Multi-gets are a single {@code $in} query, bulk inserts reserve their ids with one counter update
+ * and send one unordered bulk write, scans iterate a server-side cursor, and conditional inserts rely
+ * on the unique email index instead of a read before the write.
+ * <p>
+ * MongoDB writes here are not transactional, so changes are recorded right after each acknowledged write.
+ */
+@Component
+@ConditionalOnProperty(name = "mongodb.enabled", havingValue = "true")
+public class MongoMemberStore extends AbstractAsyncMemberStore {
+
+    private static final Sort NAME_KEY_ORDER = Sort.by("nameKey", "memberId");
+
+    /**
+     * Documents per cursor batch when scanning
+     */
+    static final int SCAN_BATCH_SIZE = 1000;
+
+    /**
+     * Server error code of a unique index violation
+     */
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final MongoOperations mongoOperations;
+    private final MongoMemberRepository mongoRepository;
+    private final MongoMemberIdGenerator idGenerator;
+
+    public MongoMemberStore(MongoOperations mongoOperations,
+                            MongoMemberRepository mongoRepository,
+                            MongoMemberIdGenerator idGenerator,
+                            @Value("${members.store.async-threads:8}") int asyncThreads) {
+        super("mongo-member-store", asyncThreads);
+        this.mongoOperations = mongoOperations;
+        this.mongoRepository = mongoRepository;
+        this.idGenerator = idGenerator;
+    }
+
+    @Override
+    public Optional<Member> findById(Long id) {
+        return mongoRepository.findByMemberId(id).map(MongoMember::toMember);
+    }
+
+    @Override
+    public Optional<MemberView> findViewById(Long id) {
+        return mongoRepository.findByMemberId(id).map(MongoMemberStore::toView);
+    }
+
+    @Override
+    public Optional<Member> findByEmail(String email) {
+        return mongoRepository.findByEmail(email).map(MongoMember::toMember);
+    }
+
+    @Override
+    public List<MemberView> findViewsByIdIn(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Query query = Query.query(where("memberId").in(ids)).with(NAME_KEY_ORDER);
+        return toViews(mongoOperations.find(query, MongoMember.class));
+    }
+
+    @Override
+    public List<MemberView> findAllViewsOrderedByName() {
+        return toViews(mongoRepository.findAll(NAME_KEY_ORDER));
+    }
+
+    @Override
+    public List<MemberView> findViewsByNameContaining(String name) {
+        List<MemberView> views = toViews(mongoRepository.findByNameContainingIgnoreCase(name));
+        views.sort(MemberKeys.NAME_ORDER);
+        return views;
+    }
+
+    @Override
+    public List<MemberView> findViewsAfter(MemberCursor after, int limit) {
+        PageRequest slice = PageRequest.ofSize(limit);
+        return toViews(after == null
+                ? mongoRepository.findAllByOrderByNameKeyAscMemberIdAsc(slice)
+                : mongoRepository.findPageAfter(after.nameKey(), after.id(), slice));
+    }
+
+    @Override
+    public Stream<MemberView> streamViews() {
+        Query query = new Query().with(Sort.by("memberId")).cursorBatchSize(SCAN_BATCH_SIZE);
+        return mongoOperations.stream(query, MongoMember.class).map(MongoMemberStore::toView);
+    }
+
+    @Override
+    public long count() {
+        // Collection metadata instead of a scan of the _id index
+        return mongoOperations.estimatedCount(MongoMember.class);
+    }
+
+    @Override
+    public boolean insertIfEmailAbsent(Member member) {
+        MongoMember document = MongoMember.fromMember(member);
+        try {
+            mongoOperations.insert(document);
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+        member.setId(document.getMemberId());
+        recordInserted(List.of(member));
+        return true;
+    }
+
+    @Override
+    public List<Member> insertAll(List<Member> members) {
+        if (members.isEmpty()) {
+            return members;
+        }
+        long nextId = idGenerator.nextIds(members.size());
+        List<MongoMember> documents = new ArrayList<>(members.size());
+        for (Member member : members) {
+            member.setId(nextId++);
+            documents.add(MongoMember.fromMember(member));
+        }
+        mongoOperations.bulkOps(BulkOperations.BulkMode.UNORDERED, MongoMember.class)
+                .insert(documents)
+                .execute();
+        recordInserted(members);
+        return members;
+    }
+
+    @Override
+    public boolean[] insertAllIfEmailAbsent(List<Member> members) {
+        boolean[] inserted = new boolean[members.size()];
+        if (members.isEmpty()) {
+            return inserted;
+        }
+        long firstId = idGenerator.nextIds(members.size());
+        List<MongoMember> documents = new ArrayList<>(members.size());
+        for (int i = 0; i < members.size(); i++) {
+            members.get(i).setId(firstId + i);
+            documents.add(MongoMember.fromMember(members.get(i)));
+        }
+        Arrays.fill(inserted, true);
+        RuntimeException failure = null;
+        try {
+            mongoOperations.bulkOps(BulkOperations.BulkMode.UNORDERED, MongoMember.class)
+                    .insert(documents)
+                    .execute();
+        } catch (BulkOperationException e) {
+            // Unordered, so the rest of the batch was written; the index of each rejected document tells whose email is taken
+            for (BulkWriteError error : e.getErrors()) {
+                inserted[error.getIndex()] = false;
+                if (error.getCode() != DUPLICATE_KEY) {
+                    failure = e;
+                }
+            }
+        } catch (RuntimeException e) {
+            // No write result, so none of the documents is known to be stored
+            Arrays.fill(inserted, false);
+            failure = e;
+        }
+        List<Member> stored = new ArrayList<>(members.size());
+        for (int i = 0; i < members.size(); i++) {
+            if (inserted[i]) {
+                stored.add(members.get(i));
+            } else {
+                members.get(i).setId(null);
+            }
+        }
+        recordInserted(stored);
+        if (failure != null) {
+            throw failure;
+        }
+        return inserted;
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        // A single round trip instead of the repository's find-then-delete
+        if (mongoOperations.remove(Query.query(where("memberId").is(id)), MongoMember.class).getDeletedCount() > 0) {
+            recordDeleted(id);
+        }
+    }
+
+    private static MemberView toView(MongoMember document) {
+        return new MemberView(document.getMemberId(), document.getName(), document.getEmail(), document.getPhoneNumber());
+    }
+
+    private static List<MemberView> toViews(List<MongoMember> documents) {
+        List<MemberView> views = new ArrayList<>(documents.size());
+        for (MongoMember document : documents) {
+            views.add(toView(document));
+        }
+        return views;
+    }
+}
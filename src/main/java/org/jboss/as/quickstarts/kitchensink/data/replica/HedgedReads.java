@@ -0,0 +1,243 @@
+package org.jboss.as.quickstarts.kitchensink.data.replica;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.jboss.as.quickstarts.kitchensink.data.deadline.QueryDeadline;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Hedged point reads across the read replicas
+ * <p>
+ * A read goes to one replica; if it has not answered after the configured percentile of recent
+ * read latencies, the same read is sent to a different replica and the first answer wins, the
+ * other attempt being cancelled. Each attempt runs under its own {@link QueryDeadline}, bounded by the
+ * caller's, and is cancelled through it: its JDBC statements are cancelled on the database, and the
+ * pool thread is not interrupted, which could close the connection under the driver's feet.
+ * Hedges draw on a budget that earns a fraction of a hedge per
+ * read, so at most that fraction of the traffic is ever duplicated, even when a replica is slow
+ * for every request. Enabled with {@code replica.hedge.enabled=true} on top of replica routing.
+ */
+@Component
+@ConditionalOnProperty(name = {"replica.enabled", "replica.hedge.enabled"}, havingValue = "true")
+public class HedgedReads implements DisposableBean {
+
+    /**
+     * Latencies kept for the hedge delay percentile, and how many reads pass between recomputations
+     */
+    static final int WINDOW = 1024;
+    static final int RECOMPUTE_EVERY = 64;
+
+    /**
+     * Budget units: a hedge costs one full unit, a read earns budgetPercent hundredths of one
+     */
+    private static final long HEDGE_COST = 100;
+    private static final long MAX_SAVED_HEDGES = 10;
+
+    private final ReplicaRoutingDataSource routingDataSource;
+    private final TransactionTemplate readOnlyTransaction;
+    private final double percentile;
+    private final long budgetPercent;
+    private final long minDelayNanos;
+    private final ExecutorService executor;
+
+    private final long[] latencies = new long[WINDOW];
+    private long recorded;
+    private volatile long hedgeDelayNanos;
+    private final AtomicLong budget = new AtomicLong(HEDGE_COST);
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    private final Counter reads;
+    private final Counter hedges;
+    private final Counter hedgeWins;
+    private final Counter budgetExhausted;
+
+    public HedgedReads(ReplicaRoutingDataSource routingDataSource,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry,
+                       @Value("${replica.hedge.percentile:0.95}") double percentile,
+                       @Value("${replica.hedge.budget-percent:5}") long budgetPercent,
+                       @Value("${replica.hedge.min-delay-ms:5}") long minDelayMillis,
+                       @Value("${replica.hedge.threads:16}") int threads) {
+        this.routingDataSource = routingDataSource;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.percentile = percentile;
+        this.budgetPercent = budgetPercent;
+        this.minDelayNanos = TimeUnit.MILLISECONDS.toNanos(minDelayMillis);
+        this.hedgeDelayNanos = minDelayNanos;
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "hedged-read-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.reads = Counter.builder("members.hedge.reads")
+                .description("Reads eligible for hedging")
+                .register(meterRegistry);
+        this.hedges = Counter.builder("members.hedge.sent")
+                .description("Second reads sent to another replica")
+                .register(meterRegistry);
+        this.hedgeWins = Counter.builder("members.hedge.wins")
+                .description("Hedged reads whose second read answered first")
+                .register(meterRegistry);
+        this.budgetExhausted = Counter.builder("members.hedge.budget.exhausted")
+                .description("Reads past the hedge delay that were not hedged for lack of budget")
+                .register(meterRegistry);
+        Gauge.builder("members.hedge.win.rate", this, hedged -> hedged.hedges.count() == 0
+                        ? 0 : hedged.hedgeWins.count() / hedged.hedges.count())
+                .description("Fraction of hedges that answered before the original read")
+                .register(meterRegistry);
+        Gauge.builder("members.hedge.delay", this, hedged -> hedged.hedgeDelayNanos / 1_000_000.0)
+                .description("Current wait before a read is hedged")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Run a read-only lookup on a replica, hedging it on a second replica if it is slow
+     * With fewer than two replicas in rotation the read runs once, on the usual route.
+     * @param read the lookup; it runs in a read-only transaction on a pool thread
+     * @return the first answer
+     */
+    public <T> T read(Supplier<T> read) {
+        List<Integer> replicas = routingDataSource.availableReplicas();
+        if (replicas.size() < 2) {
+            return readOnlyTransaction.execute(status -> read.get());
+        }
+        reads.increment();
+        earnBudget();
+        int first = Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+
+        CompletableFuture<Answer<T>> result = new CompletableFuture<>();
+        AtomicInteger pending = new AtomicInteger(1);
+        // Both attempts run under the caller's query deadline, each cancellable on its own
+        QueryDeadline original = QueryDeadline.cancellable();
+        executor.execute(() -> attempt(replicas.get(first), original.bind(read), result, pending, false));
+        QueryDeadline hedge = null;
+        try {
+            try {
+                return answered(result.get(hedgeDelayNanos, TimeUnit.NANOSECONDS));
+            } catch (TimeoutException e) {
+                if (takeBudget()) {
+                    hedges.increment();
+                    pending.incrementAndGet();
+                    int second = replicas.get((first + 1) % replicas.size());
+                    hedge = QueryDeadline.cancellable();
+                    Supplier<T> hedgedRead = hedge.bind(read);
+                    executor.execute(() -> attempt(second, hedgedRead, result, pending, true));
+                } else {
+                    budgetExhausted.increment();
+                }
+            }
+            return answered(result.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a replica read", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            // Cancel whichever attempt is still running; a finished one has no statements left to cancel
+            original.cancel();
+            if (hedge != null) {
+                hedge.cancel();
+            }
+        }
+    }
+
+    private <T> void attempt(int replica, Supplier<T> read, CompletableFuture<Answer<T>> result,
+                             AtomicInteger pending, boolean isHedge) {
+        long start = System.nanoTime();
+        try {
+            T value = routingDataSource.readFrom(replica,
+                    () -> readOnlyTransaction.execute(status -> read.get()));
+            if (!isHedge) {
+                record(System.nanoTime() - start);
+            }
+            result.complete(new Answer<>(value, isHedge));
+        } catch (RuntimeException | Error e) {
+            // Only fail the read once no attempt is left that could still answer
+            if (pending.decrementAndGet() == 0) {
+                result.completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * Count a hedge win on the caller's thread, before the caller can look at the metrics
+     */
+    private <T> T answered(Answer<T> answer) {
+        if (answer.hedge()) {
+            hedgeWins.increment();
+        }
+        return answer.value();
+    }
+
+    private void earnBudget() {
+        budget.getAndUpdate(units -> Math.min(MAX_SAVED_HEDGES * HEDGE_COST, units + budgetPercent));
+    }
+
+    private boolean takeBudget() {
+        long units;
+        do {
+            units = budget.get();
+            if (units < HEDGE_COST) {
+                return false;
+            }
+        } while (!budget.compareAndSet(units, units - HEDGE_COST));
+        return true;
+    }
+
+    private synchronized void record(long latencyNanos) {
+        latencies[(int) (recorded % WINDOW)] = latencyNanos;
+        recorded++;
+        if (recorded % RECOMPUTE_EVERY == 0) {
+            long[] window = Arrays.copyOf(latencies, (int) Math.min(recorded, WINDOW));
+            Arrays.sort(window);
+            int index = Math.min(window.length - 1, (int) Math.ceil(percentile * window.length) - 1);
+            hedgeDelayNanos = Math.max(minDelayNanos, window[Math.max(0, index)]);
+        }
+    }
+
+    /**
+     * Current wait before a read is hedged, in nanoseconds
+     */
+    long hedgeDelayNanos() {
+        return hedgeDelayNanos;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * The first answer, and whether the hedge gave it
+     */
+    private record Answer<T>(T value, boolean hedge) {
+    }
+}
@@ -0,0 +1,129 @@
+package org.jboss.as.quickstarts.kitchensink.data.replica;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+import java.util.logging.Logger;
+import javax.sql.DataSource;
+
+/**
+ * Keeps lagging or unreachable replicas out of the read rotation
+ * <p>
+ * The primary writes the current time into a one-row heartbeat table, replication carries it to
+ * the replicas, and the lag of a replica is how old the heartbeat it returns is. A replica whose
+ * lag exceeds the limit, or that cannot be queried, is taken out of rotation until a later check
+ * finds it caught up. With a limit of 0 only reachability is checked.
+ */
+public class ReplicaLagMonitor implements DisposableBean {
+
+    private static final Logger log = Logger.getLogger(ReplicaLagMonitor.class.getName());
+
+    static final String CREATE_HEARTBEAT =
+            "CREATE TABLE IF NOT EXISTS replica_heartbeat (id INT PRIMARY KEY, beat_millis BIGINT NOT NULL)";
+    static final String SELECT_HEARTBEAT = "SELECT beat_millis FROM replica_heartbeat WHERE id = 1";
+
+    private final ReplicaRoutingDataSource routingDataSource;
+    private final JdbcTemplate primary;
+    private final List<JdbcTemplate> replicas = new ArrayList<>();
+    private final long maxLagMillis;
+    private final LongSupplier clock;
+    private final AtomicLongArray lagMillis;
+    private final ScheduledExecutorService scheduler;
+
+    public ReplicaLagMonitor(ReplicaRoutingDataSource routingDataSource, long maxLagMillis, long checkIntervalMillis,
+                             MeterRegistry meterRegistry) {
+        this(routingDataSource, maxLagMillis, checkIntervalMillis, meterRegistry, System::currentTimeMillis);
+    }
+
+    ReplicaLagMonitor(ReplicaRoutingDataSource routingDataSource, long maxLagMillis, long checkIntervalMillis,
+                      MeterRegistry meterRegistry, LongSupplier clock) {
+        this.routingDataSource = routingDataSource;
+        this.primary = new JdbcTemplate(routingDataSource.getPrimary());
+        for (DataSource replica : routingDataSource.getReplicas()) {
+            replicas.add(new JdbcTemplate(replica));
+        }
+        this.maxLagMillis = maxLagMillis;
+        this.clock = clock;
+        this.lagMillis = new AtomicLongArray(replicas.size());
+
+        for (int i = 0; i < replicas.size(); i++) {
+            int replica = i;
+            Gauge.builder("members.replica.lag", lagMillis, lags -> lags.get(replica))
+                    .description("Age of the primary heartbeat last seen on the replica, -1 if unreachable")
+                    .baseUnit("milliseconds")
+                    .tag("replica", String.valueOf(replica))
+                    .register(meterRegistry);
+            Gauge.builder("members.replica.available", routingDataSource, routing -> routing.isAvailable(replica) ? 1 : 0)
+                    .description("Whether the replica receives read-only work")
+                    .tag("replica", String.valueOf(replica))
+                    .register(meterRegistry);
+        }
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (checkIntervalMillis > 0) {
+            scheduler.scheduleWithFixedDelay(this::check, 0, checkIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Write a heartbeat on the primary and re-evaluate every replica against it
+     */
+    public void check() {
+        if (maxLagMillis > 0) {
+            beat();
+        }
+        for (int i = 0; i < replicas.size(); i++) {
+            long lag = lagOf(i);
+            lagMillis.set(i, lag);
+            routingDataSource.setAvailable(i, lag >= 0 && (maxLagMillis <= 0 || lag <= maxLagMillis));
+        }
+    }
+
+    private void beat() {
+        try {
+            primary.execute(CREATE_HEARTBEAT);
+            long now = clock.getAsLong();
+            if (primary.update("UPDATE replica_heartbeat SET beat_millis = ? WHERE id = 1", now) == 0) {
+                primary.update("INSERT INTO replica_heartbeat (id, beat_millis) VALUES (1, ?)", now);
+            }
+        } catch (DataAccessException e) {
+            log.warning("Cannot write the replica heartbeat on the primary: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Lag of one replica in milliseconds, or -1 if it cannot be queried or has no heartbeat yet
+     */
+    private long lagOf(int replica) {
+        try {
+            if (maxLagMillis <= 0) {
+                replicas.get(replica).queryForObject("SELECT 1", Integer.class);
+                return 0;
+            }
+            List<Long> beats = replicas.get(replica).queryForList(SELECT_HEARTBEAT, Long.class);
+            return beats.isEmpty() ? -1 : Math.max(0, clock.getAsLong() - beats.get(0));
+        } catch (DataAccessException e) {
+            log.fine("Replica " + replica + " cannot be checked: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,166 @@
+package org.jboss.as.quickstarts.kitchensink.data.replica;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.sql.DataSource;
+
+/**
+ * DataSource that sends read-only transactions to the replicas and everything else to the primary
+ * <p>
+ * Replicas are taken round-robin among those currently marked available; with none available, or
+ * when a replica refuses a connection, the work runs on the primary instead. The routing decision is
+ * made when a connection is requested, so this must sit behind a LazyConnectionDataSourceProxy for
+ * the read-only flag of the transaction to be known at that point.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements DisposableBean {
+
+    private static final Logger log = Logger.getLogger(ReplicaRoutingDataSource.class.getName());
+
+    private static final ThreadLocal<Integer> pinnedReplica = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final List<DataSource> replicas;
+    private final AtomicIntegerArray available;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        // Out of rotation until a lag check admits them
+        this.available = new AtomicIntegerArray(replicas.size());
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        int replica = chooseReplica();
+        if (replica >= 0) {
+            try {
+                return replicas.get(replica).getConnection();
+            } catch (SQLException e) {
+                fallBack(replica, e);
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        int replica = chooseReplica();
+        if (replica >= 0) {
+            try {
+                return replicas.get(replica).getConnection(username, password);
+            } catch (SQLException e) {
+                fallBack(replica, e);
+            }
+        }
+        return primary.getConnection(username, password);
+    }
+
+    public DataSource getPrimary() {
+        return primary;
+    }
+
+    public List<DataSource> getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * Take a replica in or out of rotation
+     * @param replica the replica index
+     * @param isAvailable whether read-only work may be sent to it
+     */
+    public void setAvailable(int replica, boolean isAvailable) {
+        if (available.getAndSet(replica, isAvailable ? 1 : 0) != (isAvailable ? 1 : 0)) {
+            log.info("Replica " + replica + (isAvailable ? " is back in rotation" : " is out of rotation"));
+        }
+    }
+
+    public boolean isAvailable(int replica) {
+        return available.get(replica) == 1;
+    }
+
+    /**
+     * Indexes of the replicas currently in rotation
+     */
+    public List<Integer> availableReplicas() {
+        List<Integer> result = new ArrayList<>(replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            if (isAvailable(i)) {
+                result.add(i);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Run read-only work on the given replica instead of the next one in rotation
+     * If the replica has left the rotation in the meantime, the usual choice applies.
+     * @param replica the replica index
+     * @param work the work, which must open its read-only transaction on this thread
+     */
+    public <T> T readFrom(int replica, Supplier<T> work) {
+        Integer previous = pinnedReplica.get();
+        pinnedReplica.set(replica);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                pinnedReplica.remove();
+            } else {
+                pinnedReplica.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Index of the replica to serve the current work, or -1 for the primary
+     */
+    int chooseReplica() {
+        if (replicas.isEmpty() || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return -1;
+        }
+        Integer pinned = pinnedReplica.get();
+        if (pinned != null && isAvailable(pinned)) {
+            return pinned;
+        }
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            int candidate = (start + i) % replicas.size();
+            if (isAvailable(candidate)) {
+                return candidate;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Close the connection pools of the primary and the replicas
+     */
+    @Override
+    public void destroy() throws Exception {
+        for (DataSource replica : replicas) {
+            if (replica instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+        if (primary instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    private void fallBack(int replica, SQLException e) {
+        log.log(Level.WARNING, "Replica " + replica + " refused a connection, reading from the primary", e);
+        setAvailable(replica, false);
+    }
+}
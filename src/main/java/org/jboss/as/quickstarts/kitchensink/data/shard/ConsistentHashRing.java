@@ -0,0 +1,65 @@
+package org.jboss.as.quickstarts.kitchensink.data.shard;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Consistent hash ring mapping keys to shard indexes
+ * <p>
+ * Each shard owns a number of virtual nodes placed by hashing its index, so keys spread evenly
+ * and adding a shard at the end of the list only moves the keys that land on its nodes.
+ * The ring is immutable and lookups are a binary search over the sorted node positions.
+ */
+final class ConsistentHashRing {
+
+    private final long[] positions;
+    private final int[] shards;
+
+    ConsistentHashRing(int shardCount, int virtualNodes) {
+        if (shardCount < 1 || virtualNodes < 1) {
+            throw new IllegalArgumentException("A ring needs at least one shard and one virtual node per shard");
+        }
+        long[][] nodes = new long[shardCount * virtualNodes][];
+        int n = 0;
+        for (int shard = 0; shard < shardCount; shard++) {
+            for (int node = 0; node < virtualNodes; node++) {
+                nodes[n++] = new long[] {hash("shard-" + shard + "#" + node), shard};
+            }
+        }
+        Arrays.sort(nodes, (a, b) -> Long.compare(a[0], b[0]));
+        this.positions = new long[nodes.length];
+        this.shards = new int[nodes.length];
+        for (int i = 0; i < nodes.length; i++) {
+            positions[i] = nodes[i][0];
+            shards[i] = (int) nodes[i][1];
+        }
+    }
+
+    /**
+     * The shard owning the key: the first virtual node at or after the key's position, wrapping around
+     */
+    int shardFor(String key) {
+        int index = Arrays.binarySearch(positions, hash(key));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return shards[index == positions.length ? 0 : index];
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-8 bytes, finished with the MurmurHash3 mixer for a uniform spread
+     */
+    static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,45 @@
+package org.jboss.as.quickstarts.kitchensink.data.shard;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * Iterator merging several iterators that are each sorted in the same order
+ * Holds one pending element per source, so merging large scans stays in constant memory.
+ */
+final class MergingIterator<T> implements Iterator<T> {
+
+    private record Head<T>(T value, Iterator<T> source) {
+    }
+
+    private final PriorityQueue<Head<T>> heads;
+
+    MergingIterator(List<Iterator<T>> sources, Comparator<? super T> order) {
+        this.heads = new PriorityQueue<>(Math.max(1, sources.size()), (a, b) -> order.compare(a.value(), b.value()));
+        for (Iterator<T> source : sources) {
+            if (source.hasNext()) {
+                heads.add(new Head<>(source.next(), source));
+            }
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !heads.isEmpty();
+    }
+
+    @Override
+    public T next() {
+        Head<T> head = heads.poll();
+        if (head == null) {
+            throw new NoSuchElementException();
+        }
+        if (head.source().hasNext()) {
+            heads.add(new Head<>(head.source().next(), head.source()));
+        }
+        return head.value();
+    }
+}
@@ -0,0 +1,345 @@
+package org.jboss.as.quickstarts.kitchensink.data.shard;
+
+import org.jboss.as.quickstarts.kitchensink.data.AbstractAsyncMemberStore;
+import org.jboss.as.quickstarts.kitchensink.data.MemberStore;
+import org.jboss.as.quickstarts.kitchensink.data.jdbc.JdbcMemberStore;
+import org.jboss.as.quickstarts.kitchensink.model.Member;
+import org.jboss.as.quickstarts.kitchensink.model.MemberCursor;
+import org.jboss.as.quickstarts.kitchensink.model.MemberKeys;
+import org.jboss.as.quickstarts.kitchensink.model.MemberView;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * MemberStore partitioning members across several JDBC shard stores by consistent hash of their email
+ * This is used when shard.enabled=true
+ * <p>
+ * Registration and lookups by email touch the one shard owning the email. Member IDs carry their
+ * shard in the low {@link #SHARD_BITS} bits, so lookups and deletes by ID are routed without a
+ * directory. Listings, searches and scans run on every shard in parallel and the sorted partial
+ * results are merged: by name for listings, by ID for scans. A shard orders its rows by local ID
+ * and the global ID preserves that order, so per-shard keyset pages merge into the global page.
+ * <p>
+ * The shards do not share a transaction with each other or with the change log, so changes are
+ * recorded after the shard writes, under their global IDs.
+ */
+public class ShardedMemberStore extends AbstractAsyncMemberStore {
+
+    private static final Logger log = Logger.getLogger(ShardedMemberStore.class.getName());
+
+    /**
+     * Low bits of a member ID holding its shard index, which bounds the number of shards
+     */
+    static final int SHARD_BITS = 6;
+    static final int MAX_SHARDS = 1 << SHARD_BITS;
+
+    private static final Comparator<MemberView> ID_ORDER = Comparator.comparing(MemberView::id);
+
+    private final List<JdbcMemberStore> shards;
+    private final ConsistentHashRing ring;
+    private final ExecutorService fanOut;
+
+    public ShardedMemberStore(List<JdbcMemberStore> shards, int virtualNodes, int fanOutThreads, int asyncThreads) {
+        super("sharded-member-store", asyncThreads);
+        if (shards.isEmpty() || shards.size() > MAX_SHARDS) {
+            throw new IllegalArgumentException("Between 1 and " + MAX_SHARDS + " shards are supported, got " + shards.size());
+        }
+        this.shards = List.copyOf(shards);
+        this.ring = new ConsistentHashRing(shards.size(), virtualNodes);
+        AtomicInteger counter = new AtomicInteger();
+        this.fanOut = Executors.newFixedThreadPool(fanOutThreads, runnable -> {
+            Thread thread = new Thread(runnable, "member-shard-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public Optional<Member> findById(Long id) {
+        int shard = shardOf(id);
+        if (shard < 0) {
+            return Optional.empty();
+        }
+        return shards.get(shard).findById(localId(id)).map(member -> globalize(member, shard));
+    }
+
+    @Override
+    public Optional<MemberView> findViewById(Long id) {
+        int shard = shardOf(id);
+        if (shard < 0) {
+            return Optional.empty();
+        }
+        return shards.get(shard).findViewById(localId(id)).map(view -> globalize(view, shard));
+    }
+
+    @Override
+    public Optional<Member> findByEmail(String email) {
+        int shard = shardFor(email);
+        return shards.get(shard).findByEmail(email).map(member -> globalize(member, shard));
+    }
+
+    @Override
+    public List<MemberView> findViewsByIdIn(Collection<Long> ids) {
+        Map<Integer, List<Long>> byShard = new TreeMap<>();
+        for (Long id : ids) {
+            int shard = shardOf(id);
+            if (shard >= 0) {
+                byShard.computeIfAbsent(shard, key -> new ArrayList<>()).add(localId(id));
+            }
+        }
+        List<CompletableFuture<List<MemberView>>> results = new ArrayList<>();
+        byShard.forEach((shard, localIds) -> results.add(CompletableFuture.supplyAsync(
+                () -> globalize(shards.get(shard).findViewsByIdIn(localIds), shard), fanOut)));
+        return merge(join(results), MemberKeys.NAME_ORDER, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<MemberView> findAllViewsOrderedByName() {
+        return merge(onEveryShard((store, shard) -> store.findAllViewsOrderedByName()), MemberKeys.NAME_ORDER, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<MemberView> findViewsByNameContaining(String name) {
+        return merge(onEveryShard((store, shard) -> store.findViewsByNameContaining(name)), MemberKeys.NAME_ORDER, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<MemberView> findViewsAfter(MemberCursor after, int limit) {
+        return merge(onEveryShard((store, shard) -> {
+            // The shard's rows after the cursor are those whose global ID would sort after it
+            MemberCursor local = after == null
+                    ? null
+                    : new MemberCursor(after.nameKey(), Math.floorDiv(after.id() - shard, MAX_SHARDS));
+            return store.findViewsAfter(local, limit);
+        }), MemberKeys.NAME_ORDER, limit);
+    }
+
+    @Override
+    public Stream<MemberView> streamViews() {
+        List<Stream<MemberView>> streams = new ArrayList<>();
+        List<Iterator<MemberView>> iterators = new ArrayList<>();
+        for (int i = 0; i < shards.size(); i++) {
+            int shard = i;
+            Stream<MemberView> stream = shards.get(shard).streamViews().map(view -> globalize(view, shard));
+            streams.add(stream);
+            iterators.add(stream.iterator());
+        }
+        Iterator<MemberView> merged = new MergingIterator<>(iterators, ID_ORDER);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(merged, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(() -> streams.forEach(Stream::close));
+    }
+
+    @Override
+    public long count() {
+        List<CompletableFuture<Long>> counts = new ArrayList<>();
+        for (MemberStore shard : shards) {
+            counts.add(CompletableFuture.supplyAsync(shard::count, fanOut));
+        }
+        long total = 0;
+        for (CompletableFuture<Long> count : counts) {
+            total += await(count);
+        }
+        return total;
+    }
+
+    @Override
+    public boolean insertIfEmailAbsent(Member member) {
+        int shard = shardFor(member.getEmail());
+        if (!shards.get(shard).insertIfEmailAbsent(member)) {
+            return false;
+        }
+        globalize(member, shard);
+        recordInserted(List.of(member));
+        return true;
+    }
+
+    @Override
+    public List<Member> insertAll(List<Member> members) {
+        Map<Integer, List<Member>> byShard = new TreeMap<>();
+        for (Member member : members) {
+            byShard.computeIfAbsent(shardFor(member.getEmail()), key -> new ArrayList<>()).add(member);
+        }
+        List<CompletableFuture<List<Member>>> results = new ArrayList<>();
+        byShard.forEach((shard, batch) -> results.add(CompletableFuture.supplyAsync(() -> {
+            shards.get(shard).insertAll(batch);
+            batch.forEach(member -> globalize(member, shard));
+            return batch;
+        }, fanOut)));
+        join(results);
+        recordInserted(members);
+        return members;
+    }
+
+    @Override
+    public boolean[] insertAllIfEmailAbsent(List<Member> members) {
+        Map<Integer, List<Integer>> byShard = new TreeMap<>();
+        for (int i = 0; i < members.size(); i++) {
+            byShard.computeIfAbsent(shardFor(members.get(i).getEmail()), key -> new ArrayList<>()).add(i);
+        }
+        boolean[] inserted = new boolean[members.size()];
+        List<CompletableFuture<boolean[]>> results = new ArrayList<>();
+        byShard.forEach((shard, positions) -> results.add(CompletableFuture.supplyAsync(() -> {
+            List<Member> batch = positions.stream().map(members::get).toList();
+            boolean[] shardInserted;
+            try {
+                shardInserted = shards.get(shard).insertAllIfEmailAbsent(batch);
+            } catch (RuntimeException e) {
+                // The members the shard stored before failing keep their ID, which must be the global one
+                batch.stream().filter(member -> member.getId() != null).forEach(member -> globalize(member, shard));
+                throw e;
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                if (shardInserted[i]) {
+                    globalize(batch.get(i), shard);
+                    inserted[positions.get(i)] = true;
+                }
+            }
+            return shardInserted;
+        }, fanOut)));
+        // Every shard has finished before a failure is reported, so no ID changes afterwards
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).exceptionally(e -> null).join();
+        recordInserted(members.stream().filter(member -> member.getId() != null).toList());
+        join(results);
+        return inserted;
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        int shard = shardOf(id);
+        if (shard < 0) {
+            return;
+        }
+        // Only the delete that removed the row records it, so concurrent deletes record one change
+        if (shards.get(shard).deleteIfPresent(localId(id))) {
+            recordDeleted(id);
+        }
+    }
+
+    /**
+     * The shard owning an email; emails differing only in case share a shard
+     */
+    int shardFor(String email) {
+        return ring.shardFor(email == null ? "" : email.toLowerCase(Locale.ROOT));
+    }
+
+    @Override
+    public void destroy() {
+        super.destroy();
+        fanOut.shutdown();
+        for (MemberStore shard : shards) {
+            if (shard instanceof DisposableBean disposable) {
+                try {
+                    disposable.destroy();
+                } catch (Exception e) {
+                    log.log(Level.WARNING, "Cannot shut down a member shard", e);
+                }
+            }
+        }
+    }
+
+    private int shardOf(Long id) {
+        if (id == null) {
+            return -1;
+        }
+        int shard = (int) (id & (MAX_SHARDS - 1));
+        return shard < shards.size() ? shard : -1;
+    }
+
+    private static long localId(long id) {
+        return id >> SHARD_BITS;
+    }
+
+    private static Member globalize(Member member, int shard) {
+        member.setId((member.getId() << SHARD_BITS) | shard);
+        return member;
+    }
+
+    private static MemberView globalize(MemberView view, int shard) {
+        return new MemberView((view.id() << SHARD_BITS) | shard, view.name(), view.email(), view.phoneNumber());
+    }
+
+    private static List<MemberView> globalize(List<MemberView> views, int shard) {
+        List<MemberView> result = new ArrayList<>(views.size());
+        for (MemberView view : views) {
+            result.add(globalize(view, shard));
+        }
+        return result;
+    }
+
+    /**
+     * Run a query on every shard in parallel
+     * @return the globalized results, one sorted list per shard
+     */
+    private List<List<MemberView>> onEveryShard(ShardQuery query) {
+        List<CompletableFuture<List<MemberView>>> results = new ArrayList<>();
+        for (int i = 0; i < shards.size(); i++) {
+            int shard = i;
+            results.add(CompletableFuture.supplyAsync(
+                    () -> globalize(query.apply(shards.get(shard), shard), shard), fanOut));
+        }
+        return join(results);
+    }
+
+    private static <T> List<T> join(List<CompletableFuture<T>> results) {
+        List<T> all = new ArrayList<>(results.size());
+        for (CompletableFuture<T> result : results) {
+            all.add(await(result));
+        }
+        return all;
+    }
+
+    private static <T> T await(CompletableFuture<T> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * K-way merge of sorted partial results, stopping after limit members
+     */
+    static List<MemberView> merge(List<List<MemberView>> sorted, Comparator<MemberView> order, int limit) {
+        List<Iterator<MemberView>> iterators = new ArrayList<>(sorted.size());
+        int total = 0;
+        for (List<MemberView> views : sorted) {
+            iterators.add(views.iterator());
+            total += views.size();
+        }
+        List<MemberView> merged = new ArrayList<>(Math.min(total, limit));
+        Iterator<MemberView> iterator = new MergingIterator<>(iterators, order);
+        while (merged.size() < limit && iterator.hasNext()) {
+            merged.add(iterator.next());
+        }
+        return merged;
+    }
+
+    @FunctionalInterface
+    private interface ShardQuery {
+
+        List<MemberView> apply(MemberStore store, int shard);
+    }
+}
@@ -0,0 +1,16 @@
+package org.jboss.as.quickstarts.kitchensink.model;
+
+/**
+ * A continuation token sent back by a client could not be decoded
+ * Clients get a 400 for it; other illegal arguments remain server errors.
+ */
+public class InvalidContinuationTokenException extends IllegalArgumentException {
+
+    public InvalidContinuationTokenException(String message) {
+        super(message);
+    }
+
+    public InvalidContinuationTokenException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
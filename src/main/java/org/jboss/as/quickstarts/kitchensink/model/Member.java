@@ -1,11 +1,16 @@
 package org.jboss.as.quickstarts.kitchensink.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotNull;
@@ -18,7 +23,11 @@ import java.io.Serializable;
  * Member entity representing a person in the system
  */
 @Entity
-@Table(name = "Member")
+@Table(name = "Member", indexes = {
+    @Index(name = "idx_member_name_key_id", columnList = "name_key, id"),
+    @Index(name = "idx_member_email_domain_key", columnList = "email_domain_key"),
+    @Index(name = "idx_member_phone_number", columnList = "phone_number")
+}, uniqueConstraints = @UniqueConstraint(name = "uk_member_email", columnNames = "email"))
 public class Member implements Serializable {
 
     private static final long serialVersionUID = 1L;
@@ -42,6 +51,21 @@ public class Member implements Serializable {
     @Column(name = "phone_number")
     private String phoneNumber;
 
+    /**
+     * Lowercase name, maintained on every write, used for keyset pagination by name
+     */
+    @JsonIgnore
+    @Column(name = "name_key", length = 25)
+    private String nameKey;
+
+    /**
+     * Reversed lowercase email domain, maintained on every write, used for domain lookups
+     * @see MemberKeys#emailDomainKey(String)
+     */
+    @JsonIgnore
+    @Column(name = "email_domain_key")
+    private String emailDomainKey;
+
     public Long getId() {
         return id;
     }
@@ -73,6 +97,26 @@ public class Member implements Serializable {
     public void setPhoneNumber(String phoneNumber) {
         this.phoneNumber = phoneNumber;
     }
+
+    @JsonIgnore
+    public String getNameKey() {
+        return nameKey;
+    }
+
+    @JsonIgnore
+    public String getEmailDomainKey() {
+        return emailDomainKey;
+    }
+
+    /**
+     * Refresh the derived keys before the row is written
+     */
+    @PrePersist
+    @PreUpdate
+    void updateDerivedKeys() {
+        this.nameKey = MemberKeys.nameKey(name);
+        this.emailDomainKey = MemberKeys.emailDomainKey(email);
+    }
     
     @Override
     public String toString() {
@@ -0,0 +1,16 @@
+package org.jboss.as.quickstarts.kitchensink.model;
+
+/**
+ * One entry of the member change feed
+ * @param sequence position in the feed; later changes have higher sequences
+ * @param type whether the member was inserted or deleted
+ * @param memberId the ID of the member
+ * @param member the inserted member, or null for a deletion
+ */
+public record MemberChange(long sequence, Type type, long memberId, MemberView member) {
+
+    public enum Type {
+        INSERTED,
+        DELETED
+    }
+}
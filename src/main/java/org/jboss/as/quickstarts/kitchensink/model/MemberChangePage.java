@@ -0,0 +1,55 @@
+package org.jboss.as.quickstarts.kitchensink.model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * A batch of the member change feed
+ * @param changes the changes after the requested position, in feed order
+ * @param next opaque token to pass as {@code since} for the following changes; never null
+ */
+public record MemberChangePage(List<MemberChange> changes, String next) {
+
+    private static final String VERSION = "1";
+
+    /**
+     * Build a page continuing from the last change, or from {@code since} when there are none
+     */
+    public static MemberChangePage of(List<MemberChange> changes, long since) {
+        long last = changes.isEmpty() ? since : changes.get(changes.size() - 1).sequence();
+        return new MemberChangePage(List.copyOf(changes), encode(last));
+    }
+
+    /**
+     * Encode a feed position as an opaque, URL-safe token
+     */
+    public static String encode(long sequence) {
+        String raw = VERSION + ":" + sequence;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a token returned with an earlier page
+     * @param token the token
+     * @return the feed position
+     * @throws InvalidContinuationTokenException if the token is malformed
+     */
+    public static long decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", 2);
+            if (parts.length != 2 || !VERSION.equals(parts[0])) {
+                throw new InvalidContinuationTokenException("Invalid change token");
+            }
+            long sequence = Long.parseLong(parts[1]);
+            if (sequence < 0) {
+                throw new InvalidContinuationTokenException("Invalid change token");
+            }
+            return sequence;
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException and Base64 errors are both IllegalArgumentExceptions
+            throw new InvalidContinuationTokenException("Invalid change token", e);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package org.jboss.as.quickstarts.kitchensink.model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Keyset position in the name-ordered member listing
+ * A cursor points at the last member of a page; the next page starts strictly after it.
+ * Clients only ever see the opaque token produced by {@link #encode()}.
+ */
+public record MemberCursor(String nameKey, long id) {
+
+    private static final String VERSION = "1";
+
+    /**
+     * Cursor positioned after the given member
+     */
+    public static MemberCursor after(MemberView last) {
+        return new MemberCursor(MemberKeys.nameKey(last.name()), last.id() == null ? 0L : last.id());
+    }
+
+    /**
+     * Encode this cursor as an opaque, URL-safe continuation token
+     */
+    public String encode() {
+        String raw = VERSION + ":" + id + ":" + nameKey;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a continuation token
+     * @param token the token returned with a previous page
+     * @return the cursor
+     * @throws InvalidContinuationTokenException if the token is malformed
+     */
+    public static MemberCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", 3);
+            if (parts.length != 3 || !VERSION.equals(parts[0])) {
+                throw new InvalidContinuationTokenException("Invalid continuation token");
+            }
+            return new MemberCursor(parts[2], Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException and Base64 errors are both IllegalArgumentExceptions
+            throw new InvalidContinuationTokenException("Invalid continuation token", e);
+        }
+    }
+
+    /**
+     * Whether the given member sorts strictly after this cursor
+     */
+    public boolean isBefore(MemberView view) {
+        int byName = MemberKeys.nameKey(view.name()).compareTo(nameKey);
+        if (byName != 0) {
+            return byName > 0;
+        }
+        return view.id() != null && view.id() > id;
+    }
+}
@@ -0,0 +1,73 @@
+package org.jboss.as.quickstarts.kitchensink.model;
+
+import java.util.Comparator;
+import java.util.Locale;
+
+/**
+ * Normalized keys derived from member fields
+ * Both the JPA and the MongoDB model persist these keys so that lookups and
+ * ordering can be answered from an index instead of a scan
+ */
+public final class MemberKeys {
+
+    /**
+     * Listing order used everywhere members are shown by name: normalized name, then id
+     */
+    public static final Comparator<MemberView> NAME_ORDER = Comparator
+            .comparing((MemberView view) -> nameKey(view.name()), Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(MemberView::id, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private MemberKeys() {
+    }
+
+    /**
+     * Normalized (lowercase) name used for case-insensitive ordering
+     * @param name the member name
+     * @return the name key, or null if the name is null
+     */
+    public static String nameKey(String name) {
+        return name == null ? null : name.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Email domain key: the lowercase domain with its labels reversed and a trailing dot,
+     * e.g. "john@Mail.Example.com" becomes "com.example.mail."
+     * A domain and its subdomains share the key of the domain as a prefix, so domain
+     * lookups are equality or prefix matches that an ordinary index can serve
+     * @param email the member email
+     * @return the domain key, or null if the email is null or has no domain part
+     */
+    public static String emailDomainKey(String email) {
+        if (email == null) {
+            return null;
+        }
+        int at = email.lastIndexOf('@');
+        return at < 0 ? null : domainKey(email.substring(at + 1));
+    }
+
+    /**
+     * Domain key for a domain lookup argument; a leading "@" is ignored
+     * @param domain the domain, e.g. "example.com" or "@example.com"
+     * @return the domain key
+     */
+    public static String domainKey(String domain) {
+        String bare = isAnchoredDomain(domain) ? domain.substring(1) : domain;
+        String[] labels = bare.toLowerCase(Locale.ROOT).split("\\.");
+        StringBuilder key = new StringBuilder(bare.length() + 1);
+        for (int i = labels.length - 1; i >= 0; i--) {
+            if (!labels[i].isEmpty()) {
+                key.append(labels[i]).append('.');
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * Whether a domain lookup is anchored on the "@", matching that exact domain only
+     * Without the "@" the lookup also matches subdomains, as the former suffix match did
+     * @param domain the domain lookup argument
+     */
+    public static boolean isAnchoredDomain(String domain) {
+        return domain.startsWith("@");
+    }
+}
@@ -0,0 +1,24 @@
+package org.jboss.as.quickstarts.kitchensink.model;
+
+import java.util.List;
+
+/**
+ * One page of the name-ordered member listing
+ * @param members the members on this page
+ * @param next opaque continuation token for the following page, or null on the last page
+ */
+public record MemberPage(List<MemberView> members, String next) {
+
+    /**
+     * Build a page from a slice fetched with one extra row
+     * @param rows up to {@code size + 1} members in listing order
+     * @param size the requested page size
+     */
+    public static MemberPage of(List<MemberView> rows, int size) {
+        if (rows.size() <= size) {
+            return new MemberPage(List.copyOf(rows), null);
+        }
+        List<MemberView> content = List.copyOf(rows.subList(0, size));
+        return new MemberPage(content, MemberCursor.after(content.get(size - 1)).encode());
+    }
+}
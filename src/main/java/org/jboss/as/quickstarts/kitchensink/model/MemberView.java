@@ -0,0 +1,18 @@
+package org.jboss.as.quickstarts.kitchensink.model;
+
+import java.io.Serializable;
+
+/**
+ * Immutable, read-only projection of a member
+ * Used by the list, search and lookup flows so that no managed entity
+ * (and no Hibernate dirty-checking snapshot) is created for data that is only displayed
+ */
+public record MemberView(Long id, String name, String email, String phoneNumber) implements Serializable {
+
+    /**
+     * Create a view from a Member entity
+     */
+    public static MemberView of(Member member) {
+        return new MemberView(member.getId(), member.getName(), member.getEmail(), member.getPhoneNumber());
+    }
+}
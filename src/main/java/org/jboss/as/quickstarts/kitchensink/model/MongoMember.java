@@ -6,6 +6,7 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
@@ -16,6 +17,8 @@ import java.io.Serializable;
  * MongoDB document version of the Member entity
  */
 @Document(collection = "members")
+@CompoundIndex(name = "name_key_member_id", def = "{'name_key': 1, 'member_id': 1}")
+@CompoundIndex(name = "email_domain_key", def = "{'email_domain_key': 1}")
 public class MongoMember implements Serializable {
 
     private static final long serialVersionUID = 1L;
@@ -23,6 +26,13 @@ public class MongoMember implements Serializable {
     @Id
     private String id;
 
+    /**
+     * Numeric member id shared with the JPA model, assigned from a sequence on first save
+     */
+    @Indexed(unique = true, sparse = true)
+    @Field("member_id")
+    private Long memberId;
+
     @NotNull
     @Size(min = 1, max = 25)
     @Pattern(regexp = "[^0-9]*", message = "Must not contain numbers")
@@ -36,9 +46,23 @@ public class MongoMember implements Serializable {
     @NotNull
     @Size(min = 10, max = 12)
     @Digits(fraction = 0, integer = 12)
+    @Indexed
     @Field("phone_number")
     private String phoneNumber;
 
+    /**
+     * Lowercase name, kept in sync by {@link #setName(String)}, used for keyset pagination by name
+     */
+    @Field("name_key")
+    private String nameKey;
+
+    /**
+     * Reversed lowercase email domain, kept in sync by {@link #setEmail(String)}, used for domain lookups
+     * @see MemberKeys#emailDomainKey(String)
+     */
+    @Field("email_domain_key")
+    private String emailDomainKey;
+
     public String getId() {
         return id;
     }
@@ -47,12 +71,25 @@ public class MongoMember implements Serializable {
         this.id = id;
     }
 
+    public Long getMemberId() {
+        return memberId;
+    }
+
+    public void setMemberId(Long memberId) {
+        this.memberId = memberId;
+    }
+
     public String getName() {
         return name;
     }
 
     public void setName(String name) {
         this.name = name;
+        this.nameKey = MemberKeys.nameKey(name);
+    }
+
+    public String getNameKey() {
+        return nameKey;
     }
 
     public String getEmail() {
@@ -61,6 +98,11 @@ public class MongoMember implements Serializable {
 
     public void setEmail(String email) {
         this.email = email;
+        this.emailDomainKey = MemberKeys.emailDomainKey(email);
+    }
+
+    public String getEmailDomainKey() {
+        return emailDomainKey;
     }
 
     public String getPhoneNumber() {
@@ -73,7 +115,7 @@ public class MongoMember implements Serializable {
     
     @Override
     public String toString() {
-        return "MongoMember [id=" + id + ", name=" + name + ", email=" + email + ", phoneNumber=" + phoneNumber + "]";
+        return "MongoMember [id=" + id + ", memberId=" + memberId + ", name=" + name + ", email=" + email + ", phoneNumber=" + phoneNumber + "]";
     }
     
     /**
@@ -81,6 +123,7 @@ public class MongoMember implements Serializable {
      */
     public Member toMember() {
         Member member = new Member();
+        member.setId(this.memberId);
         member.setName(this.name);
         member.setEmail(this.email);
         member.setPhoneNumber(this.phoneNumber);
@@ -92,6 +135,7 @@ public class MongoMember implements Serializable {
      */
     public static MongoMember fromMember(Member member) {
         MongoMember mongoMember = new MongoMember();
+        mongoMember.setMemberId(member.getId());
         mongoMember.setName(member.getName());
         mongoMember.setEmail(member.getEmail());
         mongoMember.setPhoneNumber(member.getPhoneNumber());
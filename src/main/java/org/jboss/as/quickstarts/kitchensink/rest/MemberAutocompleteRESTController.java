@@ -0,0 +1,46 @@
+package org.jboss.as.quickstarts.kitchensink.rest;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.jboss.as.quickstarts.kitchensink.model.MemberView;
+import org.jboss.as.quickstarts.kitchensink.search.MemberAutocompleteIndex;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * REST controller for member autocomplete
+ */
+@RestController
+@RequestMapping("/api/members")
+@Tag(name = "Member", description = "Member management API")
+public class MemberAutocompleteRESTController {
+
+    private final MemberAutocompleteIndex autocompleteIndex;
+
+    public MemberAutocompleteRESTController(MemberAutocompleteIndex autocompleteIndex) {
+        this.autocompleteIndex = autocompleteIndex;
+    }
+
+    /**
+     * Complete a typed prefix against member names and emails
+     * @param prefix the typed prefix
+     * @param limit maximum number of matches
+     * @return matching members ordered by the matching name or email
+     */
+    @GetMapping("/autocomplete")
+    @Operation(summary = "Autocomplete members", description = "Returns members whose name or email starts with the prefix (case insensitive), served from memory")
+    @ApiResponse(responseCode = "200", description = "Successfully completed the prefix")
+    public List<MemberView> autocomplete(
+            @Parameter(description = "Typed prefix")
+            @RequestParam(name = "prefix") String prefix,
+            @Parameter(description = "Maximum number of matches (at most " + MemberAutocompleteIndex.MAX_LIMIT + ")")
+            @RequestParam(name = "limit", defaultValue = "10") int limit) {
+        return autocompleteIndex.complete(prefix, limit);
+    }
+}
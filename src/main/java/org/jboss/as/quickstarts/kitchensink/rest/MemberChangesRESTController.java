@@ -0,0 +1,58 @@
+package org.jboss.as.quickstarts.kitchensink.rest;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.jboss.as.quickstarts.kitchensink.model.MemberChangePage;
+import org.jboss.as.quickstarts.kitchensink.service.MemberChangeFeed;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+
+/**
+ * REST controller for the member change feed
+ * Only registered when members.changes.enabled=true
+ */
+@RestController
+@RequestMapping("/api/members/changes")
+@Tag(name = "Member", description = "Member management API")
+@ConditionalOnProperty(name = "members.changes.enabled", havingValue = "true")
+public class MemberChangesRESTController {
+
+    private final MemberChangeFeed changeFeed;
+
+    public MemberChangesRESTController(MemberChangeFeed changeFeed) {
+        this.changeFeed = changeFeed;
+    }
+
+    /**
+     * Member inserts and deletes after a position in the feed
+     * @param since token returned with the previous response, omitted to get the current end of the feed
+     * @param limit the maximum number of changes
+     * @param wait seconds to wait for a change when there is none yet
+     * @return the changes and the token to pass as since next time
+     */
+    @GetMapping
+    @Operation(summary = "Get member changes", description = "Returns the member inserts and deletes after the 'since' token, "
+            + "waiting up to 'wait' seconds for one if there are none; pass the returned 'next' token as 'since' to continue. "
+            + "Without 'since', returns no changes and a token for the current end of the feed")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved the changes"),
+            @ApiResponse(responseCode = "400", description = "Invalid change token", content = @Content)
+    })
+    public DeferredResult<MemberChangePage> listChanges(
+            @Parameter(description = "Token returned with the previous response")
+            @RequestParam(name = "since", required = false) String since,
+            @Parameter(description = "Maximum number of changes (at most " + MemberChangeFeed.MAX_LIMIT + ")")
+            @RequestParam(name = "limit", defaultValue = "100") int limit,
+            @Parameter(description = "Seconds to wait for a change (at most " + MemberChangeFeed.MAX_WAIT_MILLIS / 1000 + ")")
+            @RequestParam(name = "wait", defaultValue = "0") int wait) {
+        return changeFeed.poll(since, limit, wait * 1000L);
+    }
+}
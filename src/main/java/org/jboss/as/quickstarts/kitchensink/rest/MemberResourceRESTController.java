@@ -10,7 +10,10 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import org.jboss.as.quickstarts.kitchensink.model.Member;
+import org.jboss.as.quickstarts.kitchensink.model.MemberPage;
+import org.jboss.as.quickstarts.kitchensink.model.MemberView;
 import org.jboss.as.quickstarts.kitchensink.service.MemberService;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -39,14 +42,40 @@ public class MemberResourceRESTController {
     }
     
     /**
-     * List all members
-     * @return list of members
+     * List all members, optionally filtered by a name fragment
+     * @param name optional name fragment to search for (case insensitive)
+     * @return list of members ordered by name
      */
     @GetMapping
-    @Operation(summary = "Get all members", description = "Returns a list of all registered members")
+    @Operation(summary = "Get all members", description = "Returns a list of all registered members, optionally filtered by name")
     @ApiResponse(responseCode = "200", description = "Successfully retrieved the list of members")
-    public List<Member> listAllMembers() {
-        return (List<Member>) memberService.findAll();
+    public List<MemberView> listAllMembers(
+            @Parameter(description = "Optional name fragment to filter by (case insensitive)")
+            @RequestParam(name = "name", required = false) String name) {
+        if (name != null && !name.isBlank()) {
+            return memberService.searchByName(name);
+        }
+        return memberService.findAllViews();
+    }
+    
+    /**
+     * List members ordered by name, one page at a time
+     * @param cursor continuation token from the previous page, omitted for the first page
+     * @param size the page size
+     * @return the page of members and the token for the next page
+     */
+    @GetMapping("/page")
+    @Operation(summary = "Get a page of members", description = "Returns members ordered by name using keyset pagination; pass the returned 'next' token as 'cursor' to get the following page")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved the page of members"),
+            @ApiResponse(responseCode = "400", description = "Invalid continuation token", content = @Content)
+    })
+    public MemberPage listMembersPage(
+            @Parameter(description = "Continuation token returned with the previous page")
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @Parameter(description = "Page size (at most " + MemberService.MAX_PAGE_SIZE + ")")
+            @RequestParam(name = "size", defaultValue = "20") int size) {
+        return memberService.findPageByName(cursor, size);
     }
     
     /**
@@ -60,11 +89,11 @@ public class MemberResourceRESTController {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved the member"),
             @ApiResponse(responseCode = "404", description = "Member not found", content = @Content)
     })
-    public ResponseEntity<Member> lookupMemberById(
+    public ResponseEntity<MemberView> lookupMemberById(
             @Parameter(description = "ID of the member to retrieve") 
             @PathVariable("id") Long id) {
         log.info("Fetching member with id: " + id);
-        return memberService.findById(id)
+        return memberService.findViewById(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -91,6 +120,9 @@ public class MemberResourceRESTController {
             return ResponseEntity.status(HttpStatus.CREATED).body(registered);
         } catch (ConstraintViolationException e) {
             return createViolationResponse(e.getConstraintViolations());
+        } catch (QueryTimeoutException e) {
+            // Not a conflict: the registration may or may not have happened
+            throw e;
         } catch (Exception e) {
             return ResponseEntity
                     .status(HttpStatus.CONFLICT)
@@ -117,6 +149,8 @@ public class MemberResourceRESTController {
         try {
             memberService.delete(id);
             return ResponseEntity.noContent().build();
+        } catch (QueryTimeoutException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.notFound().build();
         }
@@ -0,0 +1,56 @@
+package org.jboss.as.quickstarts.kitchensink.rest;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.jboss.as.quickstarts.kitchensink.search.MemberSearchIndex;
+import org.jboss.as.quickstarts.kitchensink.search.MemberSearchResults;
+import org.jboss.as.quickstarts.kitchensink.service.MemberService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller for full-text member search
+ * Available when members.search.lucene.enabled=true
+ */
+@RestController
+@RequestMapping("/api/members")
+@Tag(name = "Member", description = "Member management API")
+@ConditionalOnProperty(name = "members.search.lucene.enabled", havingValue = "true")
+public class MemberSearchRESTController {
+
+    private final MemberSearchIndex searchIndex;
+
+    public MemberSearchRESTController(MemberSearchIndex searchIndex) {
+        this.searchIndex = searchIndex;
+    }
+
+    /**
+     * Search members by name, email and phone number, best match first
+     * @param query the query text
+     * @param page zero-based page number
+     * @param size the page size
+     * @return the page of results with the total hit count
+     */
+    @GetMapping("/search")
+    @Operation(summary = "Search members", description = "Relevance-ranked full-text search over name, email and phone number; supports \"phrases\", prefix* and a|b")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully searched members"),
+            @ApiResponse(responseCode = "400", description = "Page outside the searchable window", content = @Content)
+    })
+    public MemberSearchResults search(
+            @Parameter(description = "Query text")
+            @RequestParam(name = "q") String query,
+            @Parameter(description = "Zero-based page number")
+            @RequestParam(name = "page", defaultValue = "0") int page,
+            @Parameter(description = "Page size (at most " + MemberService.MAX_PAGE_SIZE + ")")
+            @RequestParam(name = "size", defaultValue = "20") int size) {
+        return searchIndex.search(query, page, size);
+    }
+}
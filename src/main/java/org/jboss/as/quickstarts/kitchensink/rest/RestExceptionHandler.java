@@ -2,6 +2,9 @@ package org.jboss.as.quickstarts.kitchensink.rest;
 
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
+import org.jboss.as.quickstarts.kitchensink.model.InvalidContinuationTokenException;
+import org.jboss.as.quickstarts.kitchensink.search.SearchWindowExceededException;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -60,6 +63,39 @@ public class RestExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(body);
     }
     
+    /**
+     * Handle malformed continuation tokens sent back by clients
+     */
+    @ExceptionHandler(InvalidContinuationTokenException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidContinuationToken(InvalidContinuationTokenException ex) {
+        Map<String, String> errorResponse = new HashMap<>();
+        errorResponse.put("error", ex.getMessage());
+        
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    }
+    
+    /**
+     * Handle search pages requested beyond the searchable window
+     */
+    @ExceptionHandler(SearchWindowExceededException.class)
+    public ResponseEntity<Map<String, String>> handleSearchWindowExceeded(SearchWindowExceededException ex) {
+        Map<String, String> errorResponse = new HashMap<>();
+        errorResponse.put("error", ex.getMessage());
+        
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    }
+    
+    /**
+     * Handle queries abandoned because the request ran out of time
+     */
+    @ExceptionHandler(QueryTimeoutException.class)
+    public ResponseEntity<Map<String, String>> handleQueryTimeout(QueryTimeoutException ex) {
+        Map<String, String> errorResponse = new HashMap<>();
+        errorResponse.put("error", "Request deadline exceeded");
+        
+        return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(errorResponse);
+    }
+    
     /**
      * Handle general exceptions
      */
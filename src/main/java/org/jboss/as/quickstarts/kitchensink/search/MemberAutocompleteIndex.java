@@ -0,0 +1,70 @@
+package org.jboss.as.quickstarts.kitchensink.search;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.jboss.as.quickstarts.kitchensink.data.MemberListProducer;
+import org.jboss.as.quickstarts.kitchensink.data.MemberListRefreshedEvent;
+import org.jboss.as.quickstarts.kitchensink.model.MemberView;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Search-as-you-type over member names and emails, served from memory
+ * <p>
+ * The prefix index is derived from the {@link MemberListProducer} snapshot and replaced whenever
+ * that snapshot is refreshed after a member change, so typing never reaches the database.
+ */
+@Component
+public class MemberAutocompleteIndex {
+
+    /**
+     * Upper bound for the number of completions returned
+     */
+    public static final int MAX_LIMIT = 50;
+
+    private final Timer lookupTimer;
+    private volatile PrefixIndex index = PrefixIndex.EMPTY;
+
+    public MemberAutocompleteIndex(MemberListProducer memberListProducer, MeterRegistry meterRegistry) {
+        this.lookupTimer = Timer.builder("members.autocomplete.latency")
+                .description("Time to answer an autocomplete lookup")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("members.autocomplete.members", this, autocomplete -> autocomplete.index.size())
+                .description("Members in the autocomplete index")
+                .register(meterRegistry);
+        rebuild(memberListProducer.getMembers());
+    }
+
+    /**
+     * Rebuild the prefix index when the member list snapshot changes
+     */
+    @EventListener
+    public void onMemberListRefreshed(MemberListRefreshedEvent event) {
+        rebuild(event.getMembers());
+    }
+
+    /**
+     * Members whose name or email starts with the given prefix (case insensitive)
+     * @param prefix the typed prefix
+     * @param limit maximum number of matches, capped at {@link #MAX_LIMIT}
+     * @return up to limit members ordered by the matching name or email
+     */
+    public List<MemberView> complete(String prefix, int limit) {
+        if (prefix == null || prefix.isBlank() || limit < 1) {
+            return List.of();
+        }
+        String normalized = prefix.strip().toLowerCase(Locale.ROOT);
+        int cappedLimit = Math.min(limit, MAX_LIMIT);
+        PrefixIndex current = index;
+        return lookupTimer.record(() -> current.complete(normalized, cappedLimit));
+    }
+
+    private void rebuild(List<MemberView> snapshot) {
+        this.index = PrefixIndex.build(snapshot);
+    }
+}
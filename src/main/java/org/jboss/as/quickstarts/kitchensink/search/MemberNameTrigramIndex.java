@@ -0,0 +1,141 @@
+package org.jboss.as.quickstarts.kitchensink.search;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.jboss.as.quickstarts.kitchensink.data.MemberStore;
+import org.jboss.as.quickstarts.kitchensink.model.Member;
+import org.jboss.as.quickstarts.kitchensink.model.MemberKeys;
+import org.jboss.as.quickstarts.kitchensink.model.MemberView;
+import org.jboss.as.quickstarts.kitchensink.service.MemberDeletedEvent;
+import org.jboss.as.quickstarts.kitchensink.service.MemberRegisteredEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * In-memory trigram index over member names, answering case-insensitive substring searches
+ * without scanning the member table or collection
+ * <p>
+ * The index is loaded on startup and kept current from member change events. Index hits are
+ * only candidates: they are loaded from the store and checked again, so an event for a
+ * registration that was rolled back never surfaces a phantom member.
+ * Enabled with {@code members.search.trigram.enabled=true}.
+ */
+@Component
+@ConditionalOnProperty(name = "members.search.trigram.enabled", havingValue = "true")
+public class MemberNameTrigramIndex {
+
+    private static final Logger log = Logger.getLogger(MemberNameTrigramIndex.class.getName());
+
+    private final MemberStore memberStore;
+    private final TrigramIndex index = new TrigramIndex();
+    private final Timer searchTimer;
+    private final DistributionSummary candidates;
+
+    public MemberNameTrigramIndex(MemberStore memberStore, MeterRegistry meterRegistry) {
+        this.memberStore = memberStore;
+        this.searchTimer = Timer.builder("members.search.trigram.latency")
+                .description("Time to answer a name search from the trigram index, including store verification")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.candidates = DistributionSummary.builder("members.search.trigram.candidates")
+                .description("Index candidates verified against the store per search")
+                .register(meterRegistry);
+        Gauge.builder("members.search.trigram.memory", index, TrigramIndex::estimatedBytes)
+                .description("Estimated heap retained by the trigram index")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("members.search.trigram.documents", index, TrigramIndex::size)
+                .description("Members in the trigram index")
+                .register(meterRegistry);
+        Gauge.builder("members.search.trigram.terms", index, TrigramIndex::termCount)
+                .description("Distinct trigrams in the index")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Load the index when the application starts
+     */
+    @EventListener
+    @Transactional(readOnly = true)
+    public void onApplicationEvent(ContextRefreshedEvent event) {
+        rebuild();
+    }
+
+    /**
+     * Index a newly registered member
+     */
+    @EventListener
+    public void onMemberRegistered(MemberRegisteredEvent event) {
+        Member member = event.getMember();
+        if (member.getId() != null) {
+            index.put(member.getId(), member.getName());
+        }
+    }
+
+    /**
+     * Drop a deleted member from the index
+     */
+    @EventListener
+    public void onMemberDeleted(MemberDeletedEvent event) {
+        if (event.getMemberId() != null) {
+            index.remove(event.getMemberId());
+        }
+    }
+
+    /**
+     * Reload the whole index from the store
+     */
+    public void rebuild() {
+        Map<Long, String> names = new LinkedHashMap<>();
+        try (Stream<MemberView> views = memberStore.streamViews()) {
+            views.filter(view -> view.id() != null).forEach(view -> names.put(view.id(), view.name()));
+        }
+        index.rebuild(names);
+        log.info("Trigram index loaded with " + index.size() + " members and " + index.termCount() + " trigrams");
+    }
+
+    /**
+     * Find members with a name containing the given fragment (case insensitive)
+     * @param fragment the name fragment to search for
+     * @return matching member views ordered by name
+     */
+    public List<MemberView> search(String fragment) {
+        return searchTimer.record(() -> searchAndVerify(fragment));
+    }
+
+    private List<MemberView> searchAndVerify(String fragment) {
+        long[] ids = index.search(fragment);
+        candidates.record(ids.length);
+        if (ids.length == 0) {
+            return List.of();
+        }
+
+        String query = fragment == null ? "" : fragment.toLowerCase(Locale.ROOT);
+        List<Long> candidateIds = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            candidateIds.add(id);
+        }
+        // One multi-get; the store splits it into batches its backend can take and returns name order
+        List<MemberView> matches = new ArrayList<>(ids.length);
+        for (MemberView view : memberStore.findViewsByIdIn(candidateIds)) {
+            // The store is the source of truth; a stale index entry must not leak through
+            if (view.name() != null && MemberKeys.nameKey(view.name()).contains(query)) {
+                matches.add(view);
+            }
+        }
+        return matches;
+    }
+}
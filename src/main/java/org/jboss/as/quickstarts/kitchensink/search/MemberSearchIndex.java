@@ -0,0 +1,450 @@
+package org.jboss.as.quickstarts.kitchensink.search;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.IOUtils;
+import org.jboss.as.quickstarts.kitchensink.data.MemberStore;
+import org.jboss.as.quickstarts.kitchensink.model.MemberView;
+import org.jboss.as.quickstarts.kitchensink.service.MemberDeletedEvent;
+import org.jboss.as.quickstarts.kitchensink.service.MemberRegisteredEvent;
+import org.jboss.as.quickstarts.kitchensink.service.MemberService;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Embedded Lucene index of members for relevance-ranked search across name, email and phone number
+ * <p>
+ * The index lives in a local directory and is written by a single background thread. Member change
+ * events are queued after their transaction commits and applied in batches, so writers never wait for
+ * the index; a change becomes searchable once its batch has been applied and the searcher refreshed.
+ * The delay between the two is published as index lag. The store stays the source of truth: the index
+ * is rebuilt from it on startup (unless disabled) and on demand.
+ * Enabled with {@code members.search.lucene.enabled=true}.
+ */
+@Component
+@ConditionalOnProperty(name = "members.search.lucene.enabled", havingValue = "true")
+public class MemberSearchIndex implements DisposableBean {
+
+    private static final Logger log = Logger.getLogger(MemberSearchIndex.class.getName());
+
+    /**
+     * Deepest hit that can be paged to, bounding the cost of a search
+     */
+    public static final int MAX_RESULT_WINDOW = 10_000;
+
+    static final String ID = "id";
+    static final String NAME = "name";
+    static final String EMAIL = "email";
+    static final String PHONE_NUMBER = "phone_number";
+
+    private static final int MAX_BATCH = 500;
+    private static final long COMMIT_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private final MemberStore memberStore;
+    private final boolean rebuildOnStart;
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final Directory directory;
+    private final Path rebuildPath;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private final BlockingQueue<IndexOperation> queue = new LinkedBlockingQueue<>();
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final Thread indexer;
+    private volatile boolean running = true;
+    private volatile int documentCount;
+
+    private final Timer lag;
+    private final Timer searchTimer;
+    private final Counter failures;
+
+    public MemberSearchIndex(MemberStore memberStore,
+                             MeterRegistry meterRegistry,
+                             @Value("${members.search.lucene.directory}") Path indexPath,
+                             @Value("${members.search.lucene.rebuild-on-start:true}") boolean rebuildOnStart) {
+        this.memberStore = memberStore;
+        this.rebuildOnStart = rebuildOnStart;
+        this.rebuildPath = indexPath.resolveSibling(indexPath.getFileName() + "-rebuild");
+        try {
+            this.directory = FSDirectory.open(indexPath);
+            this.writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                    .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+            this.searcherManager = new SearcherManager(writer, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open member search index at " + indexPath, e);
+        }
+        refreshDocumentCount();
+
+        this.lag = Timer.builder("members.search.lucene.lag")
+                .description("Time from a member change to it being searchable")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.searchTimer = Timer.builder("members.search.lucene.latency")
+                .description("Time to answer a full-text member search")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.failures = Counter.builder("members.search.lucene.failures")
+                .description("Index updates that could not be applied")
+                .register(meterRegistry);
+        Gauge.builder("members.search.lucene.pending", queue, BlockingQueue::size)
+                .description("Member changes waiting to be indexed")
+                .register(meterRegistry);
+        Gauge.builder("members.search.lucene.oldest.pending", this, MemberSearchIndex::oldestPendingSeconds)
+                .description("Age of the oldest member change waiting to be indexed")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("members.search.lucene.documents", this, index -> index.documentCount)
+                .description("Members in the full-text index")
+                .register(meterRegistry);
+
+        this.indexer = new Thread(this::runIndexer, "member-search-indexer");
+        this.indexer.setDaemon(true);
+    }
+
+    /**
+     * Start indexing once the application context is ready
+     */
+    @EventListener
+    public void onApplicationEvent(ContextRefreshedEvent event) {
+        start();
+    }
+
+    /**
+     * Start the indexer thread and, unless disabled, queue a rebuild from the store
+     */
+    public void start() {
+        if (started.compareAndSet(false, true)) {
+            indexer.start();
+            if (rebuildOnStart) {
+                rebuild();
+            }
+        }
+    }
+
+    /**
+     * Queue a newly registered member once its transaction has committed
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMemberRegistered(MemberRegisteredEvent event) {
+        MemberView member = MemberView.of(event.getMember());
+        if (member.id() != null) {
+            enqueue(new IndexOperation(w -> w.updateDocument(idTerm(member.id()), toDocument(member))));
+        }
+    }
+
+    /**
+     * Queue the removal of a deleted member once its transaction has committed
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMemberDeleted(MemberDeletedEvent event) {
+        Long id = event.getMemberId();
+        if (id != null) {
+            enqueue(new IndexOperation(w -> w.deleteDocuments(idTerm(id))));
+        }
+    }
+
+    /**
+     * Rebuild the whole index from the store
+     * Changes queued before the rebuild are superseded by it; changes queued after it are applied on top.
+     * The new index is built in a separate directory and swapped in once complete, so a rebuild that
+     * fails partway leaves the current index searchable.
+     * @return completes once the rebuilt index is searchable
+     */
+    public CompletableFuture<Void> rebuild() {
+        return enqueue(new IndexOperation(w -> {
+            try (Directory rebuilt = FSDirectory.open(rebuildPath)) {
+                long count = buildFromStore(rebuilt);
+                w.deleteAll();
+                w.addIndexes(rebuilt);
+                w.commit();
+                log.info("Member search index rebuilt with " + count + " members");
+            } finally {
+                deleteRebuildDirectory();
+            }
+        }));
+    }
+
+    /**
+     * @return completes once every change queued so far is searchable
+     */
+    CompletableFuture<Void> barrier() {
+        return enqueue(new IndexOperation(w -> { }));
+    }
+
+    /**
+     * Relevance-ranked search over name, email and phone number
+     * The query uses the simple query syntax: terms are required, {@code "..."} matches a phrase,
+     * {@code term*} matches a prefix and {@code |} separates alternatives.
+     * @param text the query text
+     * @param page zero-based page number
+     * @param size page size, capped at {@link MemberService#MAX_PAGE_SIZE}
+     * @return the requested page of results
+     * @throws SearchWindowExceededException if the page is negative or beyond {@link #MAX_RESULT_WINDOW}
+     */
+    public MemberSearchResults search(String text, int page, int size) {
+        int pageSize = Math.max(1, Math.min(size, MemberService.MAX_PAGE_SIZE));
+        if (page < 0 || ((long) page + 1) * pageSize > MAX_RESULT_WINDOW) {
+            throw new SearchWindowExceededException("Search results are limited to the first " + MAX_RESULT_WINDOW + " hits");
+        }
+        if (text == null || text.isBlank()) {
+            return new MemberSearchResults(List.of(), 0, page, pageSize);
+        }
+        return searchTimer.record(() -> {
+            try {
+                return executeSearch(text, page, pageSize);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Member search failed", e);
+            }
+        });
+    }
+
+    private MemberSearchResults executeSearch(String text, int page, int pageSize) throws IOException {
+        SimpleQueryParser parser = new SimpleQueryParser(analyzer, Map.of(NAME, 2.0f, EMAIL, 1.0f, PHONE_NUMBER, 1.0f));
+        parser.setDefaultOperator(BooleanClause.Occur.MUST);
+        Query query = parser.parse(text);
+
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            int from = page * pageSize;
+            TopDocs topDocs = searcher.search(query, from + pageSize);
+            StoredFields storedFields = searcher.storedFields();
+            List<MemberView> members = new ArrayList<>(pageSize);
+            ScoreDoc[] hits = topDocs.scoreDocs;
+            for (int i = from; i < hits.length; i++) {
+                members.add(toView(storedFields.document(hits[i].doc)));
+            }
+            return new MemberSearchResults(members, topDocs.totalHits.value, page, pageSize);
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    /**
+     * Number of members currently searchable
+     */
+    public int getDocumentCount() {
+        return documentCount;
+    }
+
+    /**
+     * Number of member changes waiting to be indexed
+     */
+    public int getPendingCount() {
+        return queue.size();
+    }
+
+    /**
+     * Age in seconds of the oldest member change waiting to be indexed, zero if none
+     */
+    public double oldestPendingSeconds() {
+        IndexOperation oldest = queue.peek();
+        return oldest == null ? 0 : (System.nanoTime() - oldest.enqueuedAt) / 1e9;
+    }
+
+    private CompletableFuture<Void> enqueue(IndexOperation operation) {
+        if (!running) {
+            operation.done.completeExceptionally(new IllegalStateException("Member search index is closed"));
+        } else {
+            queue.add(operation);
+        }
+        return operation.done;
+    }
+
+    private void runIndexer() {
+        long lastCommit = System.nanoTime();
+        boolean dirty = false;
+        List<IndexOperation> batch = new ArrayList<>(MAX_BATCH);
+        while (running || !queue.isEmpty()) {
+            try {
+                IndexOperation first = queue.poll(1, TimeUnit.SECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, MAX_BATCH - 1);
+                    applyBatch(batch);
+                    batch.clear();
+                    dirty = true;
+                }
+                if (dirty && System.nanoTime() - lastCommit >= COMMIT_INTERVAL_NANOS) {
+                    writer.commit();
+                    lastCommit = System.nanoTime();
+                    dirty = false;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException | RuntimeException e) {
+                log.log(Level.WARNING, "Member search index commit failed", e);
+            }
+        }
+    }
+
+    private void applyBatch(List<IndexOperation> batch) throws IOException {
+        List<IndexOperation> applied = new ArrayList<>(batch.size());
+        for (IndexOperation operation : batch) {
+            try {
+                operation.action.apply(writer);
+                applied.add(operation);
+            } catch (IOException | RuntimeException e) {
+                failures.increment();
+                log.log(Level.WARNING, "Member search index update failed", e);
+                operation.done.completeExceptionally(e);
+            }
+        }
+        try {
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException e) {
+            applied.forEach(operation -> operation.done.completeExceptionally(e));
+            throw e;
+        }
+        refreshDocumentCount();
+        long now = System.nanoTime();
+        for (IndexOperation operation : applied) {
+            lag.record(now - operation.enqueuedAt, TimeUnit.NANOSECONDS);
+            operation.done.complete(null);
+        }
+    }
+
+    /**
+     * Index every member of the store into an empty directory
+     * @return the number of members indexed
+     */
+    private long buildFromStore(Directory target) throws IOException {
+        IndexWriterConfig config = new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE)
+                .setCommitOnClose(false);
+        long count = 0;
+        // Streamed, so the rebuild never holds the whole member list in memory
+        try (IndexWriter rebuildWriter = new IndexWriter(target, config);
+             Stream<MemberView> members = memberStore.streamViews()) {
+            for (MemberView member : (Iterable<MemberView>) members::iterator) {
+                if (member.id() != null) {
+                    rebuildWriter.addDocument(toDocument(member));
+                    count++;
+                }
+            }
+            rebuildWriter.commit();
+        }
+        return count;
+    }
+
+    private void deleteRebuildDirectory() {
+        try {
+            IOUtils.rm(rebuildPath);
+        } catch (IOException e) {
+            log.log(Level.WARNING, "Cannot delete member search rebuild directory " + rebuildPath, e);
+        }
+    }
+
+    private void refreshDocumentCount() {
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                documentCount = searcher.getIndexReader().numDocs();
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            log.log(Level.FINE, "Cannot read member search index size", e);
+        }
+    }
+
+    /**
+     * Stop the indexer after draining queued changes, then commit and close the index
+     */
+    @Override
+    public void destroy() throws Exception {
+        running = false;
+        if (indexer.isAlive()) {
+            indexer.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        try {
+            writer.commit();
+        } finally {
+            searcherManager.close();
+            writer.close();
+            directory.close();
+        }
+    }
+
+    private static Term idTerm(Long id) {
+        return new Term(ID, Long.toString(id));
+    }
+
+    private static Document toDocument(MemberView member) {
+        Document document = new Document();
+        document.add(new StringField(ID, Long.toString(member.id()), Field.Store.YES));
+        if (member.name() != null) {
+            document.add(new TextField(NAME, member.name(), Field.Store.YES));
+        }
+        if (member.email() != null) {
+            document.add(new TextField(EMAIL, member.email(), Field.Store.YES));
+        }
+        if (member.phoneNumber() != null) {
+            document.add(new TextField(PHONE_NUMBER, member.phoneNumber(), Field.Store.YES));
+        }
+        return document;
+    }
+
+    private static MemberView toView(Document document) {
+        return new MemberView(Long.valueOf(document.get(ID)), document.get(NAME), document.get(EMAIL), document.get(PHONE_NUMBER));
+    }
+
+    @FunctionalInterface
+    private interface IndexAction {
+        void apply(IndexWriter writer) throws IOException;
+    }
+
+    /**
+     * A queued change to the index
+     */
+    private static final class IndexOperation {
+        private final IndexAction action;
+        private final long enqueuedAt = System.nanoTime();
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        private IndexOperation(IndexAction action) {
+            this.action = action;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package org.jboss.as.quickstarts.kitchensink.search;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Actuator endpoint exposing the state of the full-text member index and a rebuild command
+ * {@code GET /actuator/membersearch} shows the index state, {@code POST /actuator/membersearch} rebuilds it from the store
+ */
+@Component
+@Endpoint(id = "membersearch")
+@ConditionalOnProperty(name = "members.search.lucene.enabled", havingValue = "true")
+public class MemberSearchIndexEndpoint {
+
+    private final MemberSearchIndex searchIndex;
+
+    public MemberSearchIndexEndpoint(MemberSearchIndex searchIndex) {
+        this.searchIndex = searchIndex;
+    }
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        return Map.of(
+                "documents", searchIndex.getDocumentCount(),
+                "pending", searchIndex.getPendingCount(),
+                "oldestPendingSeconds", searchIndex.oldestPendingSeconds());
+    }
+
+    @WriteOperation
+    public Map<String, Object> rebuild() {
+        searchIndex.rebuild();
+        return Map.of("status", "rebuild scheduled");
+    }
+}
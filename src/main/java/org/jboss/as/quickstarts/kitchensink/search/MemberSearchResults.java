@@ -0,0 +1,15 @@
+package org.jboss.as.quickstarts.kitchensink.search;
+
+import org.jboss.as.quickstarts.kitchensink.model.MemberView;
+
+import java.util.List;
+
+/**
+ * One page of relevance-ranked member search results
+ * @param members the members on this page, best match first
+ * @param totalHits total number of matching members
+ * @param page zero-based page number
+ * @param size page size
+ */
+public record MemberSearchResults(List<MemberView> members, long totalHits, int page, int size) {
+}
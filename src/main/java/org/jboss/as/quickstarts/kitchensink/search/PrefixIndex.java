@@ -0,0 +1,105 @@
+package org.jboss.as.quickstarts.kitchensink.search;
+
+import org.jboss.as.quickstarts.kitchensink.model.MemberView;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Immutable prefix index over lowercase member names and emails
+ * <p>
+ * Keys are kept in one sorted array, which answers the same prefix queries as a trie with a
+ * fraction of its memory: the first key with a given prefix is found by binary search and all
+ * other keys with that prefix follow it. A lookup costs O(log n + k) for the top k completions.
+ */
+final class PrefixIndex {
+
+    static final PrefixIndex EMPTY = build(List.of());
+
+    private final String[] keys;
+    private final int[] owners;
+    private final MemberView[] members;
+
+    private PrefixIndex(String[] keys, int[] owners, MemberView[] members) {
+        this.keys = keys;
+        this.owners = owners;
+        this.members = members;
+    }
+
+    /**
+     * Build the index from a member snapshot
+     * @param snapshot the members; its order is kept for members sharing a key
+     */
+    static PrefixIndex build(List<MemberView> snapshot) {
+        MemberView[] members = snapshot.toArray(new MemberView[0]);
+        Entry[] entries = new Entry[members.length * 2];
+        int count = 0;
+        for (int i = 0; i < members.length; i++) {
+            if (members[i].name() != null) {
+                entries[count++] = new Entry(members[i].name().toLowerCase(Locale.ROOT), i);
+            }
+            if (members[i].email() != null) {
+                entries[count++] = new Entry(members[i].email().toLowerCase(Locale.ROOT), i);
+            }
+        }
+        Arrays.sort(entries, 0, count);
+
+        String[] keys = new String[count];
+        int[] owners = new int[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = entries[i].key;
+            owners[i] = entries[i].owner;
+        }
+        return new PrefixIndex(keys, owners, members);
+    }
+
+    /**
+     * Members whose lowercase name or email starts with the given prefix, in key order
+     * @param prefix the lowercase prefix
+     * @param limit maximum number of members returned
+     * @return up to limit distinct members
+     */
+    List<MemberView> complete(String prefix, int limit) {
+        List<MemberView> result = new ArrayList<>(Math.min(limit, 16));
+        // A member appears at most twice (name and email), so a short list is the cheapest dedupe
+        List<Integer> seen = new ArrayList<>(Math.min(limit, 16));
+        for (int i = lowerBound(prefix); i < keys.length && result.size() < limit; i++) {
+            if (!keys[i].startsWith(prefix)) {
+                break;
+            }
+            if (!seen.contains(owners[i])) {
+                seen.add(owners[i]);
+                result.add(members[owners[i]]);
+            }
+        }
+        return result;
+    }
+
+    int size() {
+        return members.length;
+    }
+
+    private int lowerBound(String prefix) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private record Entry(String key, int owner) implements Comparable<Entry> {
+        @Override
+        public int compareTo(Entry other) {
+            int byKey = key.compareTo(other.key);
+            return byKey != 0 ? byKey : Integer.compare(owner, other.owner);
+        }
+    }
+}
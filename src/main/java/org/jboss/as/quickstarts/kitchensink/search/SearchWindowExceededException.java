@@ -0,0 +1,12 @@
+package org.jboss.as.quickstarts.kitchensink.search;
+
+/**
+ * A search page was requested outside the window of hits that can be paged through
+ * Clients get a 400 for it.
+ */
+public class SearchWindowExceededException extends IllegalArgumentException {
+
+    public SearchWindowExceededException(String message) {
+        super(message);
+    }
+}
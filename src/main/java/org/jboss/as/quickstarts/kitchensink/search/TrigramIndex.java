@@ -0,0 +1,311 @@
+package org.jboss.as.quickstarts.kitchensink.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram index answering case-insensitive "contains" queries
+ * <p>
+ * Every indexed text gets a dense document number; each trigram of the lowercased text maps to a
+ * posting list of document numbers. Because document numbers only grow, posting lists stay sorted
+ * by construction and a query is the intersection of the posting lists of its trigrams, smallest first.
+ * Removed documents are tombstoned and dropped when more than half of the index is dead.
+ * <p>
+ * The index returns candidates whose indexed text contains the query; callers verify them against the store.
+ */
+public class TrigramIndex {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private final Map<Long, Integer> documentsByKey = new HashMap<>();
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private String[] texts = new String[INITIAL_CAPACITY];
+    private final BitSet removed = new BitSet();
+    private int documentCount;
+    private int removedCount;
+
+    /**
+     * Index (or re-index) a text under the given key
+     * @param key the caller's identifier, for example the member id
+     * @param text the text to index
+     */
+    public void put(long key, String text) {
+        String normalized = normalize(text);
+        lock.writeLock().lock();
+        try {
+            Integer existing = documentsByKey.get(key);
+            if (existing != null) {
+                if (texts[existing].equals(normalized)) {
+                    return;
+                }
+                markRemoved(existing);
+            }
+            int document = append(key, normalized);
+            documentsByKey.put(key, document);
+            forEachTrigram(normalized, trigram -> postings.computeIfAbsent(trigram, t -> new Postings()).add(document));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove the text indexed under the given key, if any
+     */
+    public void remove(long key) {
+        lock.writeLock().lock();
+        try {
+            Integer document = documentsByKey.remove(key);
+            if (document != null) {
+                markRemoved(document);
+                if (removedCount > documentCount / 2) {
+                    compact();
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replace the whole index content
+     * @param entries key/text pairs
+     */
+    public void rebuild(Map<Long, String> entries) {
+        lock.writeLock().lock();
+        try {
+            clear();
+            entries.forEach((key, text) -> {
+                String normalized = normalize(text);
+                int document = append(key, normalized);
+                documentsByKey.put(key, document);
+                forEachTrigram(normalized, trigram -> postings.computeIfAbsent(trigram, t -> new Postings()).add(document));
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Find the keys whose text contains the given fragment (case insensitive)
+     * Fragments shorter than three characters have no trigram and are answered by scanning the indexed texts.
+     * @param fragment the fragment to search for
+     * @return matching keys in indexing order
+     */
+    public long[] search(String fragment) {
+        String query = normalize(fragment);
+        lock.readLock().lock();
+        try {
+            if (query.length() < 3) {
+                return scan(query);
+            }
+            List<Postings> lists = new ArrayList<>();
+            boolean[] missing = {false};
+            forEachTrigram(query, trigram -> {
+                Postings list = postings.get(trigram);
+                if (list == null) {
+                    missing[0] = true;
+                } else if (!lists.contains(list)) {
+                    lists.add(list);
+                }
+            });
+            if (missing[0]) {
+                return new long[0];
+            }
+            lists.sort(Comparator.comparingInt(list -> list.size));
+
+            int[] candidates = Arrays.copyOf(lists.get(0).documents, lists.get(0).size);
+            int count = candidates.length;
+            for (int i = 1; i < lists.size() && count > 0; i++) {
+                count = intersect(candidates, count, lists.get(i));
+            }
+
+            // Trigram co-occurrence does not imply adjacency, so confirm the substring
+            long[] result = new long[count];
+            int matches = 0;
+            for (int i = 0; i < count; i++) {
+                int document = candidates[i];
+                if (!removed.get(document) && texts[document].contains(query)) {
+                    result[matches++] = keys[document];
+                }
+            }
+            return Arrays.copyOf(result, matches);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of live documents
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documentCount - removedCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of distinct trigrams
+     */
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rough estimate of the heap retained by the index, in bytes
+     */
+    public long estimatedBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = (long) keys.length * Long.BYTES + (long) texts.length * 4 + removed.size() / 8;
+            for (int i = 0; i < documentCount; i++) {
+                // String header + value array header + Latin-1 content
+                bytes += 40 + texts[i].length();
+            }
+            // HashMap entry, boxed key and Integer value per document
+            bytes += (long) documentsByKey.size() * 64;
+            for (Postings list : postings.values()) {
+                // HashMap entry, boxed key, postings header and array
+                bytes += 96 + (long) list.documents.length * Integer.BYTES;
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private long[] scan(String query) {
+        long[] result = new long[documentCount - removedCount];
+        int matches = 0;
+        for (int document = 0; document < documentCount; document++) {
+            if (!removed.get(document) && texts[document].contains(query)) {
+                result[matches++] = keys[document];
+            }
+        }
+        return Arrays.copyOf(result, matches);
+    }
+
+    /**
+     * Intersect the first {@code count} candidates with a sorted posting list, in place
+     */
+    private static int intersect(int[] candidates, int count, Postings list) {
+        int kept = 0;
+        int position = 0;
+        for (int i = 0; i < count; i++) {
+            int document = candidates[i];
+            position = list.seek(document, position);
+            if (position == list.size) {
+                break;
+            }
+            if (list.documents[position] == document) {
+                candidates[kept++] = document;
+            }
+        }
+        return kept;
+    }
+
+    private int append(long key, String text) {
+        if (documentCount == keys.length) {
+            keys = Arrays.copyOf(keys, keys.length * 2);
+            texts = Arrays.copyOf(texts, texts.length * 2);
+        }
+        keys[documentCount] = key;
+        texts[documentCount] = text;
+        return documentCount++;
+    }
+
+    private void markRemoved(int document) {
+        if (!removed.get(document)) {
+            removed.set(document);
+            removedCount++;
+        }
+    }
+
+    private void compact() {
+        Map<Long, String> live = new java.util.LinkedHashMap<>();
+        for (int document = 0; document < documentCount; document++) {
+            if (!removed.get(document)) {
+                live.put(keys[document], texts[document]);
+            }
+        }
+        rebuild(live);
+    }
+
+    private void clear() {
+        postings.clear();
+        documentsByKey.clear();
+        keys = new long[INITIAL_CAPACITY];
+        texts = new String[INITIAL_CAPACITY];
+        removed.clear();
+        documentCount = 0;
+        removedCount = 0;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    private static void forEachTrigram(String text, TrigramConsumer consumer) {
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            long trigram = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+            consumer.accept(trigram);
+        }
+    }
+
+    @FunctionalInterface
+    private interface TrigramConsumer {
+        void accept(long trigram);
+    }
+
+    /**
+     * Growable, sorted list of document numbers
+     */
+    private static final class Postings {
+        private int[] documents = new int[4];
+        private int size;
+
+        void add(int document) {
+            // A text can contain the same trigram more than once
+            if (size > 0 && documents[size - 1] == document) {
+                return;
+            }
+            if (size == documents.length) {
+                documents = Arrays.copyOf(documents, size * 2);
+            }
+            documents[size++] = document;
+        }
+
+        /**
+         * First position at or after {@code from} holding a document number >= target (galloping search)
+         */
+        int seek(int target, int from) {
+            int bound = 1;
+            int low = from;
+            while (low + bound < size && documents[low + bound] < target) {
+                low += bound;
+                bound <<= 1;
+            }
+            int high = Math.min(size, low + bound + 1);
+            int index = Arrays.binarySearch(documents, low, high, target);
+            return index >= 0 ? index : -index - 1;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package org.jboss.as.quickstarts.kitchensink.service;
+
+import org.jboss.as.quickstarts.kitchensink.data.changes.MemberChangeLog;
+import org.jboss.as.quickstarts.kitchensink.model.InvalidContinuationTokenException;
+import org.jboss.as.quickstarts.kitchensink.model.MemberChange;
+import org.jboss.as.quickstarts.kitchensink.model.MemberChangePage;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Incremental feed of member inserts and deletes, so clients can sync without re-reading every member
+ * Enabled with members.changes.enabled=true
+ * <p>
+ * The member store appends every insert and delete to the {@link MemberChangeLog}; the relational
+ * stores do so in the transaction of the write, so a change is recorded if and only if the write commits.
+ * Clients without a token start from the current end of the feed. A client that has caught up can
+ * long-poll: its request is parked without holding a servlet thread and answered as soon as a write
+ * on this instance is published, or with whatever the log holds when the wait runs out.
+ */
+@Service
+@ConditionalOnProperty(name = "members.changes.enabled", havingValue = "true")
+public class MemberChangeFeed implements DisposableBean {
+
+    private static final Logger log = Logger.getLogger(MemberChangeFeed.class.getName());
+
+    /**
+     * Upper bound for the number of changes per response
+     */
+    public static final int MAX_LIMIT = 1000;
+
+    /**
+     * Upper bound for the long-poll wait
+     */
+    public static final long MAX_WAIT_MILLIS = 30_000;
+
+    private record Waiter(long since, int limit, DeferredResult<MemberChangePage> result) {
+    }
+
+    private final MemberChangeLog changeLog;
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+    // Waiters are answered off the writing thread, so a registration does not wait for them
+    private final ExecutorService notifier = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "member-change-feed");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public MemberChangeFeed(MemberChangeLog changeLog) {
+        this.changeLog = changeLog;
+    }
+
+    @EventListener
+    public void onMemberRegistered(MemberRegisteredEvent event) {
+        notifier.execute(this::wakeWaiters);
+    }
+
+    @EventListener
+    public void onMemberDeleted(MemberDeletedEvent event) {
+        notifier.execute(this::wakeWaiters);
+    }
+
+    /**
+     * The changes after a position, without waiting
+     * @param token token returned with the previous response, or null to get the current end of the feed
+     * @param limit the maximum number of changes, capped at {@link #MAX_LIMIT}
+     * @return the changes and the token to continue from
+     * @throws InvalidContinuationTokenException if the token is malformed
+     */
+    public MemberChangePage changesSince(String token, int limit) {
+        if (token == null || token.isBlank()) {
+            return MemberChangePage.of(List.of(), changeLog.lastSequence());
+        }
+        long since = MemberChangePage.decode(token);
+        return MemberChangePage.of(changeLog.findAfter(since, cap(limit)), since);
+    }
+
+    /**
+     * The changes after a position, waiting for the next one if there are none yet
+     * @param token token returned with the previous response, or null to get the current end of the feed
+     * @param limit the maximum number of changes, capped at {@link #MAX_LIMIT}
+     * @param waitMillis how long to wait for a change, capped at {@link #MAX_WAIT_MILLIS}; 0 answers at once
+     * @return the pending response
+     * @throws InvalidContinuationTokenException if the token is malformed
+     */
+    public DeferredResult<MemberChangePage> poll(String token, int limit, long waitMillis) {
+        MemberChangePage page = changesSince(token, limit);
+        long wait = Math.min(waitMillis, MAX_WAIT_MILLIS);
+        DeferredResult<MemberChangePage> result = new DeferredResult<>(Math.max(wait, 1));
+        if (!page.changes().isEmpty() || wait <= 0) {
+            result.setResult(page);
+            return result;
+        }
+
+        long since = MemberChangePage.decode(page.next());
+        Waiter waiter = new Waiter(since, cap(limit), result);
+        result.onTimeout(() -> result.setResult(MemberChangePage.of(changeLog.findAfter(since, waiter.limit()), since)));
+        result.onCompletion(() -> waiters.remove(waiter));
+        waiters.add(waiter);
+        // A change appended between the first read and registering the waiter would otherwise wait for the timeout
+        List<MemberChange> changes = changeLog.findAfter(since, waiter.limit());
+        if (!changes.isEmpty()) {
+            waiters.remove(waiter);
+            result.setResult(MemberChangePage.of(changes, since));
+        }
+        return result;
+    }
+
+    int waiting() {
+        return waiters.size();
+    }
+
+    private void wakeWaiters() {
+        // Clients that caught up wait at the same position, so one read usually answers all of them
+        Map<Long, List<MemberChange>> bySince = new HashMap<>();
+        for (Waiter waiter : waiters) {
+            if (waiter.result().isSetOrExpired()) {
+                waiters.remove(waiter);
+                continue;
+            }
+            try {
+                List<MemberChange> changes = bySince.computeIfAbsent(waiter.since(),
+                        since -> changeLog.findAfter(since, MAX_LIMIT));
+                if (!changes.isEmpty()) {
+                    waiters.remove(waiter);
+                    waiter.result().setResult(MemberChangePage.of(
+                            changes.subList(0, Math.min(changes.size(), waiter.limit())), waiter.since()));
+                }
+            } catch (RuntimeException e) {
+                log.log(Level.WARNING, "Could not read member changes for a waiting client", e);
+                waiter.result().setErrorResult(e);
+            }
+        }
+    }
+
+    private static int cap(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+
+    @Override
+    public void destroy() {
+        notifier.shutdownNow();
+    }
+}
@@ -0,0 +1,20 @@
+package org.jboss.as.quickstarts.kitchensink.service;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Event that is fired when a member is deleted
+ */
+public class MemberDeletedEvent extends ApplicationEvent {
+
+    private final Long memberId;
+
+    public MemberDeletedEvent(Object source, Long memberId) {
+        super(source);
+        this.memberId = memberId;
+    }
+
+    public Long getMemberId() {
+        return memberId;
+    }
+}
@@ -0,0 +1,153 @@
+package org.jboss.as.quickstarts.kitchensink.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.jboss.as.quickstarts.kitchensink.data.MemberReadCircuitBreaker;
+import org.jboss.as.quickstarts.kitchensink.data.deadline.QueryDeadline;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent identical member reads into one backend call
+ * Enabled with members.coalesce.enabled=true
+ * <p>
+ * The first caller for a key runs the read; callers asking for the same key while it is in flight
+ * wait for it and get the same result, or the same exception. Nothing is kept once the read
+ * completes, so this is not a cache: a caller can only receive a result whose read started shortly
+ * before its own call. Results are shared between callers and must not be modified. A waiting
+ * caller gives up when its own query deadline passes.
+ * <p>
+ * A read that fails because the first caller's deadline passed is not shared: the others may have
+ * more time, so they read again. When the first caller's response is marked stale by the read
+ * circuit breaker, so is the response of every caller sharing its result.
+ */
+@Component
+@ConditionalOnProperty(name = "members.coalesce.enabled", havingValue = "true")
+public class MemberReadCoalescer {
+
+    private record Key(String kind, Object value) {
+    }
+
+    private record Shared(Object value, boolean stale) {
+    }
+
+    /**
+     * Outcome of a read that ran out of the first caller's time, telling the others to read again
+     */
+    private static final Shared RETRY = new Shared(null, false);
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Key, CompletableFuture<Shared>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Counter> leaders = new ConcurrentHashMap<>();
+    private final Map<String, Counter> coalesced = new ConcurrentHashMap<>();
+
+    public MemberReadCoalescer(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("members.coalesce.inflight", inFlight, Map::size)
+                .description("Distinct member reads in flight")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Run a read, or join the identical one already in flight
+     * @param kind the kind of read, such as "id" or "search"; keys of different kinds never meet
+     * @param key what is read
+     * @param read the backend read
+     * @return the result of the read, shared with the callers that joined it
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T read(String kind, Object key, Supplier<T> read) {
+        Key flight = new Key(kind, key);
+        while (true) {
+            CompletableFuture<Shared> mine = new CompletableFuture<>();
+            CompletableFuture<Shared> existing = inFlight.putIfAbsent(flight, mine);
+            if (existing == null) {
+                counter(leaders, kind, "leader").increment();
+                return lead(flight, mine, read);
+            }
+            counter(coalesced, kind, "coalesced").increment();
+            Shared shared = await(existing);
+            if (shared != RETRY) {
+                if (shared.stale()) {
+                    MemberReadCircuitBreaker.markStale();
+                }
+                return (T) shared.value();
+            }
+        }
+    }
+
+    private <T> T lead(Key flight, CompletableFuture<Shared> mine, Supplier<T> read) {
+        T result;
+        try {
+            result = read.get();
+        } catch (RuntimeException | Error e) {
+            // Removed first, so a caller told to read again does not find this flight
+            inFlight.remove(flight, mine);
+            if (e instanceof RuntimeException runtime && deadlineFailure(runtime)) {
+                mine.complete(RETRY);
+            } else {
+                mine.completeExceptionally(e);
+            }
+            throw e;
+        }
+        inFlight.remove(flight, mine);
+        // A response marked stale by an earlier read of the same request also marks the others: stale, never falsely fresh
+        mine.complete(new Shared(result, MemberReadCircuitBreaker.isMarkedStale()));
+        return result;
+    }
+
+    /**
+     * Whether a read failed because the leader's own deadline passed
+     */
+    private static boolean deadlineFailure(RuntimeException e) {
+        QueryDeadline deadline = QueryDeadline.current();
+        return e instanceof QueryTimeoutException || deadline != null && deadline.isExpired();
+    }
+
+    private static Shared await(CompletableFuture<Shared> flight) {
+        QueryDeadline deadline = QueryDeadline.current();
+        try {
+            return deadline == null
+                    ? flight.get()
+                    : flight.get(deadline.remainingMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new QueryTimeoutException("Query deadline exceeded while waiting for a coalesced read");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a coalesced read", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private Counter counter(Map<String, Counter> counters, String kind, String role) {
+        return counters.computeIfAbsent(kind, k -> Counter.builder("members.coalesce.requests")
+                .description("Member reads by whether they ran the backend call or joined one in flight")
+                .tag("kind", k)
+                .tag("role", role)
+                .register(meterRegistry));
+    }
+
+    /**
+     * Distinct reads currently in flight
+     */
+    int inFlight() {
+        return inFlight.size();
+    }
+}
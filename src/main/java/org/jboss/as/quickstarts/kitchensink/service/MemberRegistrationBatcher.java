@@ -0,0 +1,230 @@
+package org.jboss.as.quickstarts.kitchensink.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.jboss.as.quickstarts.kitchensink.data.MemberStore;
+import org.jboss.as.quickstarts.kitchensink.data.deadline.QueryDeadline;
+import org.jboss.as.quickstarts.kitchensink.model.Member;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Group commit for member registrations
+ * Enabled with members.register.group-commit.enabled=true
+ * <p>
+ * Registrations are queued and a single committer thread stores them in batches with
+ * {@link MemberStore#insertAllIfEmailAbsent(List)}, so concurrent registrations share one transaction
+ * instead of paying for a commit each. By default a batch holds whatever queued up while the previous
+ * one was being committed, up to max-batch-size, so a lone registration is not delayed; a positive
+ * max-wait-ms makes the committer wait that long after the first registration of a batch for more.
+ * Each caller still gets its own outcome: inserted or email taken. When a batch fails, its members
+ * that were not stored are retried one at a time, so one member's failure is reported to that caller only.
+ * A caller gives up when its query deadline passes, but a registration already in a batch may still
+ * be committed; the {@link MemberRegisteredEvent} for it is then published here instead of by the caller.
+ */
+@Component
+@ConditionalOnProperty(name = "members.register.group-commit.enabled", havingValue = "true")
+public class MemberRegistrationBatcher implements DisposableBean {
+
+    private static final Logger log = Logger.getLogger(MemberRegistrationBatcher.class.getName());
+
+    private record Registration(Member member, CompletableFuture<Boolean> inserted) {
+    }
+
+    private final MemberStore memberStore;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final BlockingQueue<Registration> queue = new LinkedBlockingQueue<>();
+    private final Thread committer;
+    private volatile boolean running = true;
+
+    private final DistributionSummary batchSizes;
+    private final Timer commitTime;
+
+    public MemberRegistrationBatcher(MemberStore memberStore,
+                                     ApplicationEventPublisher eventPublisher,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${members.register.group-commit.max-batch-size:64}") int maxBatchSize,
+                                     @Value("${members.register.group-commit.max-wait-ms:0}") long maxWaitMillis) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("members.register.group-commit.max-batch-size must be at least 1");
+        }
+        this.memberStore = memberStore;
+        this.eventPublisher = eventPublisher;
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, maxWaitMillis));
+        this.batchSizes = DistributionSummary.builder("members.register.batch.size")
+                .description("Registrations committed together")
+                .register(meterRegistry);
+        this.commitTime = Timer.builder("members.register.batch.commit")
+                .description("Time to store a batch of registrations")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+
+        this.committer = new Thread(this::runCommitter, "member-group-commit");
+        this.committer.setDaemon(true);
+        this.committer.start();
+    }
+
+    /**
+     * Conditional insert through the next group commit
+     * @param member the member to insert; its ID is assigned on success
+     * @return true if the member was inserted, false if the email is taken
+     * @see MemberStore#insertIfEmailAbsent(Member)
+     */
+    public boolean insertIfEmailAbsent(Member member) {
+        Registration registration = new Registration(member, new CompletableFuture<>());
+        queue.add(registration);
+        // Checked after queueing: if shutdown began in between and nobody took it, nobody will
+        if (!running && queue.remove(registration)) {
+            throw new IllegalStateException("Member registrations are no longer accepted");
+        }
+        return await(registration);
+    }
+
+    private boolean await(Registration registration) {
+        QueryDeadline deadline = QueryDeadline.current();
+        try {
+            if (deadline != null) {
+                try {
+                    return registration.inserted().get(deadline.remainingMillis(), TimeUnit.MILLISECONDS);
+                } catch (TimeoutException e) {
+                    // Still queued means it will never be written; otherwise its batch decides
+                    queue.remove(registration);
+                    // Unless the outcome arrived meanwhile, the committer now finds the future done and publishes a commit itself
+                    registration.inserted().completeExceptionally(
+                            new QueryTimeoutException("Query deadline exceeded while waiting for a group commit"));
+                }
+            }
+            return registration.inserted().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a group commit", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void runCommitter() {
+        List<Registration> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Registration first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long until = System.nanoTime() + maxWaitNanos;
+                queue.drainTo(batch, maxBatchSize - batch.size());
+                while (batch.size() < maxBatchSize && running) {
+                    Registration next = queue.poll(until - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                }
+                commit(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                batch.forEach(registration -> registration.inserted().completeExceptionally(
+                        new IllegalStateException("Member registrations are no longer accepted")));
+                return;
+            }
+        }
+    }
+
+    private void commit(List<Registration> batch) {
+        List<Member> members = new ArrayList<>(batch.size());
+        for (Registration registration : batch) {
+            members.add(registration.member());
+        }
+        // The commit is recorded before any caller is released
+        long start = System.nanoTime();
+        try {
+            boolean[] inserted = memberStore.insertAllIfEmailAbsent(members);
+            recordCommit(batch.size(), start);
+            for (int i = 0; i < batch.size(); i++) {
+                complete(batch.get(i), inserted[i]);
+            }
+        } catch (RuntimeException e) {
+            recordCommit(batch.size(), start);
+            log.log(Level.WARNING, "Cannot store a batch of " + batch.size() + " registrations, storing them one at a time", e);
+            batch.forEach(this::commitAlone);
+        } catch (Error e) {
+            recordCommit(batch.size(), start);
+            batch.forEach(registration -> registration.inserted().completeExceptionally(e));
+        }
+    }
+
+    private void recordCommit(int size, long start) {
+        commitTime.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        batchSizes.record(size);
+    }
+
+    private void commitAlone(Registration registration) {
+        // The store leaves the ID of every member it stored before the batch failed
+        if (registration.member().getId() != null) {
+            complete(registration, true);
+            return;
+        }
+        try {
+            complete(registration, memberStore.insertIfEmailAbsent(registration.member()));
+        } catch (RuntimeException e) {
+            registration.inserted().completeExceptionally(e);
+        }
+    }
+
+    private void complete(Registration registration, boolean inserted) {
+        if (!registration.inserted().complete(inserted) && inserted) {
+            // The caller gave up before the commit and will not publish it
+            eventPublisher.publishEvent(new MemberRegisteredEvent(this, registration.member()));
+        }
+    }
+
+    /**
+     * Registrations waiting for a batch
+     */
+    int queued() {
+        return queue.size();
+    }
+
+    /**
+     * Stop taking registrations and commit the ones already queued
+     */
+    @Override
+    public void destroy() throws Exception {
+        running = false;
+        if (committer.isAlive()) {
+            committer.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        Registration left;
+        while ((left = queue.poll()) != null) {
+            left.inserted().completeExceptionally(new IllegalStateException("Member registrations are no longer accepted"));
+        }
+    }
+}
@@ -3,64 +3,149 @@ package org.jboss.as.quickstarts.kitchensink.service;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import jakarta.validation.Validator;
-import org.jboss.as.quickstarts.kitchensink.data.MemberRepository;
+import org.jboss.as.quickstarts.kitchensink.data.MemberListProducer;
+import org.jboss.as.quickstarts.kitchensink.data.MemberReadCircuitBreaker;
+import org.jboss.as.quickstarts.kitchensink.data.MemberStore;
+import org.jboss.as.quickstarts.kitchensink.data.replica.HedgedReads;
+import org.jboss.as.quickstarts.kitchensink.model.InvalidContinuationTokenException;
 import org.jboss.as.quickstarts.kitchensink.model.Member;
+import org.jboss.as.quickstarts.kitchensink.model.MemberCursor;
+import org.jboss.as.quickstarts.kitchensink.model.MemberPage;
+import org.jboss.as.quickstarts.kitchensink.model.MemberView;
+import org.jboss.as.quickstarts.kitchensink.search.MemberNameTrigramIndex;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Supplier;
 import java.util.logging.Logger;
 
 /**
  * Service handling member registration and management
  * Replaces the original JBoss MemberRegistration class
+ * Each store operation is atomic on its own, so writes do not open transactions here.
+ * Reads run in read-only transactions, which lets a replica-routing DataSource serve them from a replica.
+ * With the read breaker enabled, every read, lookups by ID and trigram index searches included,
+ * is answered from the cached member list while the store is failing.
+ * The breaker sits outside the read transaction: a failed query marks its transaction rollback-only,
+ * and only a transaction that ends inside the breaker lets the fallback reach the caller.
  */
 @Service
 public class MemberService {
 
     private static final Logger log = Logger.getLogger(MemberService.class.getName());
 
-    private MemberRepository memberRepository;
+    /**
+     * Upper bound for the keyset page size
+     */
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private final MemberStore memberStore;
     private final Validator validator;
     private final ApplicationEventPublisher eventPublisher;
+    private MemberNameTrigramIndex nameIndex;
+    private HedgedReads hedgedReads;
+    private MemberReadCircuitBreaker readBreaker;
+    private MemberListProducer memberListProducer;
+    private MemberReadCoalescer readCoalescer;
+    private MemberRegistrationBatcher registrationBatcher;
+    private TransactionTemplate readOnlyTransaction;
 
     @Autowired
-    public MemberService(MemberRepository memberRepository, 
+    public MemberService(MemberStore memberStore,
                          Validator validator, 
                          ApplicationEventPublisher eventPublisher) {
-        this.memberRepository = memberRepository;
+        this.memberStore = memberStore;
         this.validator = validator;
         this.eventPublisher = eventPublisher;
     }
 
+    /**
+     * Route name searches through the trigram index when it is enabled
+     * @param nameIndex the index, absent unless members.search.trigram.enabled=true
+     */
+    @Autowired(required = false)
+    public void setNameIndex(MemberNameTrigramIndex nameIndex) {
+        this.nameIndex = nameIndex;
+    }
+
+    /**
+     * Hedge lookups by ID across the read replicas when enabled
+     * @param hedgedReads the hedging executor, absent unless replica.hedge.enabled=true
+     */
+    @Autowired(required = false)
+    public void setHedgedReads(HedgedReads hedgedReads) {
+        this.hedgedReads = hedgedReads;
+    }
+
+    /**
+     * Answer view reads from the cached member list while the store is failing
+     * @param readBreaker the breaker, absent unless members.breaker.enabled=true
+     * @param memberListProducer the cached member list serving the fallback reads
+     */
+    @Autowired(required = false)
+    public void setReadBreaker(MemberReadCircuitBreaker readBreaker, MemberListProducer memberListProducer) {
+        this.readBreaker = readBreaker;
+        this.memberListProducer = memberListProducer;
+    }
+
+    /**
+     * Collapse concurrent identical lookups and searches into one store call when enabled
+     * @param readCoalescer the coalescer, absent unless members.coalesce.enabled=true
+     */
+    @Autowired(required = false)
+    public void setReadCoalescer(MemberReadCoalescer readCoalescer) {
+        this.readCoalescer = readCoalescer;
+    }
+
+    /**
+     * Store concurrent registrations together in one transaction when enabled
+     * @param registrationBatcher the group committer, absent unless members.register.group-commit.enabled=true
+     */
+    @Autowired(required = false)
+    public void setRegistrationBatcher(MemberRegistrationBatcher registrationBatcher) {
+        this.registrationBatcher = registrationBatcher;
+    }
+
+    /**
+     * Run store reads in read-only transactions
+     * @param transactionManager the transaction manager, absent only when the service is built by hand
+     */
+    @Autowired(required = false)
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
     /**
      * Register a new member
      * @param member the member to register
      * @throws Exception if registration fails
      */
-    @Transactional
     public Member register(Member member) throws Exception {
         log.info("Registering " + member.getName());
 
         // Validate the member
         validateMember(member);
 
-        // Check if email already exists
-        Optional<Member> existingMember = memberRepository.findByEmail(member.getEmail());
-        if (existingMember.isPresent()) {
+        // Save the member unless the email is taken, in one atomic store operation
+        boolean inserted = registrationBatcher != null
+                ? registrationBatcher.insertIfEmailAbsent(member)
+                : memberStore.insertIfEmailAbsent(member);
+        if (!inserted) {
             throw new Exception("Email " + member.getEmail() + " already exists");
         }
 
-        // Save the member
-        Member savedMember = memberRepository.save(member);
-
         // Notify listeners of the new registration
-        eventPublisher.publishEvent(new MemberRegisteredEvent(this, savedMember));
+        eventPublisher.publishEvent(new MemberRegisteredEvent(this, member));
 
-        return savedMember;
+        return member;
     }
 
     /**
@@ -69,24 +154,135 @@ public class MemberService {
      * @return the member, if found
      */
     public Optional<Member> findById(Long id) {
-        return memberRepository.findById(id);
+        Optional<Member> member = coalesced("id", id, () -> guarded(() -> readById(id),
+                () -> cachedView(id).map(MemberService::memberOf)));
+        // Entities are mutable, so each caller gets its own copy of the shared result
+        return readCoalescer != null ? member.map(MemberService::copyOf) : member;
+    }
+
+    private Optional<Member> readById(Long id) {
+        if (hedgedReads != null) {
+            return hedgedReads.read(() -> memberStore.findById(id));
+        }
+        return memberStore.findById(id);
     }
 
     /**
-     * Get all members
-     * @return list of all members
+     * Find a read-only view of a member by ID
+     * @param id the member ID
+     * @return the member view, if found
+     */
+    public Optional<MemberView> findViewById(Long id) {
+        return coalesced("view", id, () -> guarded(() -> hedgedReads != null
+                        ? hedgedReads.read(() -> memberStore.findViewById(id))
+                        : memberStore.findViewById(id),
+                () -> cachedView(id)));
+    }
+
+    /**
+     * Get read-only views of all members ordered by name
+     * @return list of member views
      */
-    public Iterable<Member> findAll() {
-        return memberRepository.findAll();
+    public List<MemberView> findAllViews() {
+        return guarded(memberStore::findAllViewsOrderedByName, () -> memberListProducer.getMembers());
+    }
+
+    /**
+     * Search members by name fragment (case insensitive)
+     * @param name the name fragment to search for
+     * @return list of matching member views ordered by name
+     */
+    public List<MemberView> searchByName(String name) {
+        // Searches ignore case, so differently cased fragments share one store call
+        String fragment = name.toLowerCase(Locale.ROOT);
+        return coalesced("search", fragment, () -> guarded(() -> List.copyOf(nameIndex != null
+                        ? nameIndex.search(name)
+                        : memberStore.findViewsByNameContaining(name)),
+                () -> memberListProducer.getMembers().stream()
+                        .filter(view -> view.name().toLowerCase(Locale.ROOT).contains(fragment))
+                        .toList()));
+    }
+
+    /**
+     * Get one page of members ordered by name, using keyset (cursor) pagination
+     * The cost of a page does not depend on how deep into the listing it is
+     * @param continuationToken token returned with the previous page, or null for the first page
+     * @param size the page size, capped at {@link #MAX_PAGE_SIZE}
+     * @return the page and the token for the next one
+     * @throws InvalidContinuationTokenException if the continuation token is malformed
+     */
+    public MemberPage findPageByName(String continuationToken, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        MemberCursor cursor = continuationToken == null || continuationToken.isBlank()
+                ? null
+                : MemberCursor.decode(continuationToken);
+        // Fetch one extra row to learn whether another page follows
+        return guarded(() -> MemberPage.of(memberStore.findViewsAfter(cursor, pageSize + 1), pageSize),
+                () -> memberListProducer.getPage(continuationToken, pageSize));
     }
 
     /**
      * Delete a member
      * @param id the member ID to delete
      */
-    @Transactional
     public void delete(Long id) {
-        memberRepository.deleteById(id);
+        memberStore.deleteById(id);
+
+        // Notify listeners so caches and indexes drop the member
+        eventPublisher.publishEvent(new MemberDeletedEvent(this, id));
+    }
+
+    /**
+     * Run a store read in its own read-only transaction, through the circuit breaker when it is enabled
+     * @param read the store read
+     * @param fallback the same read answered from the cached member list
+     */
+    private <T> T guarded(Supplier<T> read, Supplier<T> fallback) {
+        Supplier<T> transactional = readOnlyTransaction == null
+                ? read
+                : () -> readOnlyTransaction.execute(status -> read.get());
+        if (readBreaker == null) {
+            return transactional.get();
+        }
+        return readBreaker.read(transactional, fallback);
+    }
+
+    /**
+     * Run a store read through the coalescer when it is enabled
+     * Wraps the breaker rather than the other way round, so one shared read counts once against the store.
+     * @param kind the kind of read
+     * @param key what is read
+     * @param read the store read; its result is shared and must be immutable
+     */
+    private <T> T coalesced(String kind, Object key, Supplier<T> read) {
+        if (readCoalescer == null) {
+            return read.get();
+        }
+        return readCoalescer.read(kind, key, read);
+    }
+
+    private Optional<MemberView> cachedView(Long id) {
+        return memberListProducer.getMembers().stream()
+                .filter(view -> view.id().equals(id))
+                .findFirst();
+    }
+
+    private static Member memberOf(MemberView view) {
+        Member member = new Member();
+        member.setId(view.id());
+        member.setName(view.name());
+        member.setEmail(view.email());
+        member.setPhoneNumber(view.phoneNumber());
+        return member;
+    }
+
+    private static Member copyOf(Member member) {
+        Member copy = new Member();
+        copy.setId(member.getId());
+        copy.setName(member.getName());
+        copy.setEmail(member.getEmail());
+        copy.setPhoneNumber(member.getPhoneNumber());
+        return copy;
     }
 
     /**
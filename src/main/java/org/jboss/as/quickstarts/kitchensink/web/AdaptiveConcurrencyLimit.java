@@ -0,0 +1,92 @@
+package org.jboss.as.quickstarts.kitchensink.web;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit that follows the latency of the work it admits
+ * <p>
+ * Two moving averages of the request latency are kept: a short one reflecting the last few
+ * requests and a long one standing for the unloaded latency. While the short average stays within
+ * {@link #TOLERANCE} of the long one the limit grows by about its square root per sample; as
+ * queueing pushes the short average up, the gradient long/short drops below 1 and the limit shrinks
+ * in proportion. Failed requests cut the limit multiplicatively. The limit only grows while at least
+ * half of it is in use, so an idle period does not leave it far above what the backend has proven it
+ * can take.
+ */
+final class AdaptiveConcurrencyLimit {
+
+    static final double TOLERANCE = 1.5;
+    static final double SMOOTHING = 0.2;
+    static final double SHORT_ALPHA = 2.0 / (10 + 1);
+    static final double LONG_ALPHA = 2.0 / (600 + 1);
+    static final double BACKOFF = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger inflight = new AtomicInteger();
+    private volatile double limit;
+    private double shortRtt;
+    private double longRtt;
+
+    AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = Math.max(minLimit, Math.min(initialLimit, maxLimit));
+    }
+
+    /**
+     * Admit a request if the limit allows
+     * @return the number of requests in flight including this one, or -1 if it is rejected
+     */
+    int tryAcquire() {
+        while (true) {
+            int current = inflight.get();
+            if (current >= (int) limit) {
+                return -1;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return current + 1;
+            }
+        }
+    }
+
+    /**
+     * Release an admitted request and adjust the limit
+     * @param inflightAtStart the value returned by {@link #tryAcquire()}
+     * @param rttNanos how long the request took
+     * @param dropped whether it failed in a way that suggests overload
+     */
+    void release(int inflightAtStart, long rttNanos, boolean dropped) {
+        inflight.decrementAndGet();
+        update(inflightAtStart, rttNanos, dropped);
+    }
+
+    synchronized void update(int inflightAtStart, long rttNanos, boolean dropped) {
+        double current = limit;
+        if (dropped) {
+            limit = Math.max(minLimit, current * BACKOFF);
+            return;
+        }
+        double rtt = Math.max(1, rttNanos);
+        shortRtt = shortRtt == 0 ? rtt : shortRtt + (rtt - shortRtt) * SHORT_ALPHA;
+        longRtt = longRtt == 0 ? rtt : longRtt + (rtt - longRtt) * LONG_ALPHA;
+        // Under sustained load the long average drifts up too; let it recover once the load is gone
+        if (longRtt / shortRtt > 2) {
+            longRtt *= 0.95;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRtt / shortRtt));
+        if (gradient >= 1.0 && inflightAtStart < current / 2) {
+            return;
+        }
+        double target = current * gradient + Math.sqrt(current);
+        limit = Math.max(minLimit, Math.min(maxLimit, current * (1 - SMOOTHING) + target * SMOOTHING));
+    }
+
+    int getLimit() {
+        return (int) limit;
+    }
+
+    int getInflight() {
+        return inflight.get();
+    }
+}
@@ -0,0 +1,124 @@
+package org.jboss.as.quickstarts.kitchensink.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.logging.Logger;
+
+/**
+ * Sheds load in front of the member endpoints instead of letting requests queue
+ * Enabled with members.limit.enabled=true
+ * <p>
+ * Reads (GET and HEAD) and writes each have their own {@link AdaptiveConcurrencyLimit}, so a burst
+ * of registrations cannot starve the listing and the other way round. A request over the limit is
+ * answered at once with 429 Too Many Requests and a Retry-After header. Streams that stay open by
+ * design, the live updates and the change feed long poll, are not limited.
+ */
+@Component
+@ConditionalOnProperty(name = "members.limit.enabled", havingValue = "true")
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger log = Logger.getLogger(ConcurrencyLimitFilter.class.getName());
+
+    private final AdaptiveConcurrencyLimit reads;
+    private final AdaptiveConcurrencyLimit writes;
+    private final long retryAfterSeconds;
+    private final Counter readsRejected;
+    private final Counter writesRejected;
+
+    public ConcurrencyLimitFilter(MeterRegistry meterRegistry,
+                                  @Value("${members.limit.read.initial-limit:50}") int readInitialLimit,
+                                  @Value("${members.limit.read.max-limit:500}") int readMaxLimit,
+                                  @Value("${members.limit.write.initial-limit:20}") int writeInitialLimit,
+                                  @Value("${members.limit.write.max-limit:200}") int writeMaxLimit,
+                                  @Value("${members.limit.min-limit:4}") int minLimit,
+                                  @Value("${members.limit.retry-after-seconds:1}") long retryAfterSeconds) {
+        this.reads = new AdaptiveConcurrencyLimit(readInitialLimit, minLimit, readMaxLimit);
+        this.writes = new AdaptiveConcurrencyLimit(writeInitialLimit, minLimit, writeMaxLimit);
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.readsRejected = register(meterRegistry, "read", reads);
+        this.writesRejected = register(meterRegistry, "write", writes);
+    }
+
+    private static Counter register(MeterRegistry meterRegistry, String kind, AdaptiveConcurrencyLimit limit) {
+        Gauge.builder("members.limit.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+                .description("Current concurrency limit")
+                .tag("kind", kind)
+                .register(meterRegistry);
+        Gauge.builder("members.limit.inflight", limit, AdaptiveConcurrencyLimit::getInflight)
+                .description("Requests being served")
+                .tag("kind", kind)
+                .register(meterRegistry);
+        return Counter.builder("members.limit.rejected")
+                .description("Requests rejected with 429 because the limit was reached")
+                .tag("kind", kind)
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (path.equals("/members/updates") || path.equals("/api/members/changes")) {
+            return true;
+        }
+        return !(path.equals("/") || path.equals("/register") || path.startsWith("/members/") || path.equals("/api/members")
+                || path.startsWith("/api/members/"));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean read = "GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod());
+        AdaptiveConcurrencyLimit limit = read ? reads : writes;
+        int inflight = limit.tryAcquire();
+        if (inflight < 0) {
+            (read ? readsRejected : writesRejected).increment();
+            reject(request, response);
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean dropped = true;
+        try {
+            chain.doFilter(request, response);
+            // Errors from the backend, such as timeouts, count as overload
+            dropped = response.getStatus() >= 500;
+        } finally {
+            limit.release(inflight, System.nanoTime() - start, dropped);
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        log.fine("Rejecting " + request.getMethod() + " " + request.getRequestURI() + " over the concurrency limit");
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        if (request.getRequestURI().startsWith(request.getContextPath() + "/api/")) {
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"error\":\"Too many concurrent requests\"}");
+        } else {
+            response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            response.getWriter().write("Too many concurrent requests, please retry shortly");
+        }
+    }
+
+    AdaptiveConcurrencyLimit getReads() {
+        return reads;
+    }
+
+    AdaptiveConcurrencyLimit getWrites() {
+        return writes;
+    }
+}
@@ -0,0 +1,242 @@
+package org.jboss.as.quickstarts.kitchensink.web;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.jboss.as.quickstarts.kitchensink.model.Member;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.FlashMap;
+import org.springframework.web.servlet.support.AbstractFlashMapManager;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Keeps flash attributes in a signed cookie instead of the HTTP session
+ * <p>
+ * The flash maps written before a redirect travel to the browser as compact JSON with an
+ * HMAC-SHA256 signature, so the request after the redirect can be served by any instance and no
+ * session is created. Only the attribute types the registration form uses are carried: strings,
+ * {@link Member}s and the field errors of a {@link BindingResult}, which is rebuilt around the
+ * member it belongs to. Other attributes are dropped. Cookies with a bad signature are ignored.
+ * Enabled by setting members.flash.secret, which instances sharing the traffic must share; without
+ * it flash attributes stay in the session.
+ */
+@Component(DispatcherServlet.FLASH_MAP_MANAGER_BEAN_NAME)
+@ConditionalOnProperty(name = "members.flash.secret")
+public class CookieFlashMapManager extends AbstractFlashMapManager {
+
+    private static final Logger log = Logger.getLogger(CookieFlashMapManager.class.getName());
+
+    static final String COOKIE_NAME = "FLASH";
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SecretKeySpec key;
+
+    public CookieFlashMapManager(@Value("${members.flash.secret}") String secret,
+                                 @Value("${members.flash.timeout-seconds:180}") int timeoutSeconds) {
+        if (secret == null || secret.isBlank()) {
+            // A per-instance key would silently lose the flash attributes whenever the redirect lands elsewhere
+            throw new IllegalArgumentException("members.flash.secret must not be blank");
+        }
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        setFlashMapTimeout(timeoutSeconds);
+    }
+
+    @Override
+    protected List<FlashMap> retrieveFlashMaps(HttpServletRequest request) {
+        Cookie cookie = WebUtils.getCookie(request, COOKIE_NAME);
+        if (cookie == null || cookie.getValue() == null) {
+            return null;
+        }
+        String value = cookie.getValue();
+        int dot = value.lastIndexOf('.');
+        if (dot < 0 || !MessageDigest.isEqual(sign(value.substring(0, dot)).getBytes(StandardCharsets.US_ASCII),
+                value.substring(dot + 1).getBytes(StandardCharsets.US_ASCII))) {
+            log.warning("Ignoring flash cookie with an invalid signature");
+            return null;
+        }
+        try {
+            return decode(objectMapper.readTree(Base64.getUrlDecoder().decode(value.substring(0, dot))));
+        } catch (IOException | IllegalArgumentException e) {
+            log.warning("Ignoring unreadable flash cookie: " + e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    protected void updateFlashMaps(List<FlashMap> flashMaps, HttpServletRequest request, HttpServletResponse response) {
+        ResponseCookie.ResponseCookieBuilder cookie;
+        if (flashMaps.isEmpty()) {
+            cookie = ResponseCookie.from(COOKIE_NAME, "").maxAge(0);
+        } else {
+            String payload;
+            try {
+                payload = Base64.getUrlEncoder().withoutPadding().encodeToString(objectMapper.writeValueAsBytes(encode(flashMaps)));
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not write flash cookie", e);
+            }
+            cookie = ResponseCookie.from(COOKIE_NAME, payload + "." + sign(payload)).maxAge(getFlashMapTimeout());
+        }
+        String path = request.getContextPath();
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie
+                .path(path.isEmpty() ? "/" : path)
+                .httpOnly(true)
+                .secure(request.isSecure())
+                .sameSite("Lax")
+                .build()
+                .toString());
+    }
+
+    /**
+     * Flash maps live in each browser's own cookie, so there is nothing to lock
+     */
+    @Override
+    protected Object getFlashMapsMutex(HttpServletRequest request) {
+        return null;
+    }
+
+    private String sign(String payload) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(mac.doFinal(payload.getBytes(StandardCharsets.US_ASCII)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available", e);
+        }
+    }
+
+    private ArrayNode encode(List<FlashMap> flashMaps) {
+        ArrayNode maps = objectMapper.createArrayNode();
+        for (FlashMap flashMap : flashMaps) {
+            ObjectNode map = maps.addObject();
+            map.put("x", flashMap.getExpirationTime());
+            if (flashMap.getTargetRequestPath() != null) {
+                map.put("p", flashMap.getTargetRequestPath());
+            }
+            if (!flashMap.getTargetRequestParams().isEmpty()) {
+                ObjectNode params = map.putObject("q");
+                flashMap.getTargetRequestParams().forEach((name, values) -> values.forEach(params.putArray(name)::add));
+            }
+            ObjectNode attributes = map.putObject("a");
+            for (Map.Entry<String, Object> attribute : flashMap.entrySet()) {
+                Object value = attribute.getValue();
+                if (value instanceof String string) {
+                    attributes.putObject(attribute.getKey()).put("s", string);
+                } else if (value instanceof Member member) {
+                    ObjectNode node = attributes.putObject(attribute.getKey()).putObject("m");
+                    if (member.getId() != null) {
+                        node.put("id", member.getId());
+                    }
+                    node.put("name", member.getName())
+                            .put("email", member.getEmail())
+                            .put("phoneNumber", member.getPhoneNumber());
+                } else if (value instanceof BindingResult bindingResult) {
+                    ArrayNode errors = attributes.putObject(attribute.getKey()).putArray("e");
+                    for (FieldError error : bindingResult.getFieldErrors()) {
+                        ObjectNode node = errors.addObject()
+                                .put("f", error.getField())
+                                .put("d", error.getDefaultMessage());
+                        if (error.getRejectedValue() != null) {
+                            node.put("v", String.valueOf(error.getRejectedValue()));
+                        }
+                        ArrayNode codes = node.putArray("c");
+                        if (error.getCodes() != null) {
+                            for (String code : error.getCodes()) {
+                                codes.add(code);
+                            }
+                        }
+                    }
+                } else if (value != null) {
+                    log.warning("Dropping flash attribute " + attribute.getKey() + " of unsupported type " + value.getClass().getName());
+                }
+            }
+        }
+        return maps;
+    }
+
+    private List<FlashMap> decode(JsonNode maps) {
+        List<FlashMap> flashMaps = new ArrayList<>();
+        for (JsonNode map : maps) {
+            FlashMap flashMap = new FlashMap();
+            flashMap.setExpirationTime(map.path("x").asLong());
+            if (map.has("p")) {
+                flashMap.setTargetRequestPath(map.get("p").asText());
+            }
+            for (Iterator<Map.Entry<String, JsonNode>> params = map.path("q").fields(); params.hasNext(); ) {
+                Map.Entry<String, JsonNode> param = params.next();
+                param.getValue().forEach(value -> flashMap.addTargetRequestParam(param.getKey(), value.asText()));
+            }
+            // Members first, so the binding results can be rebuilt around them
+            JsonNode attributes = map.path("a");
+            for (Iterator<Map.Entry<String, JsonNode>> it = attributes.fields(); it.hasNext(); ) {
+                Map.Entry<String, JsonNode> attribute = it.next();
+                JsonNode value = attribute.getValue();
+                if (value.has("s")) {
+                    flashMap.put(attribute.getKey(), value.get("s").asText());
+                } else if (value.has("m")) {
+                    flashMap.put(attribute.getKey(), toMember(value.get("m")));
+                }
+            }
+            for (Iterator<Map.Entry<String, JsonNode>> it = attributes.fields(); it.hasNext(); ) {
+                Map.Entry<String, JsonNode> attribute = it.next();
+                if (attribute.getValue().has("e")) {
+                    flashMap.put(attribute.getKey(), toBindingResult(attribute.getKey(), attribute.getValue().get("e"), flashMap));
+                }
+            }
+            flashMaps.add(flashMap);
+        }
+        return flashMaps;
+    }
+
+    private static Member toMember(JsonNode node) {
+        Member member = new Member();
+        if (node.has("id")) {
+            member.setId(node.get("id").asLong());
+        }
+        member.setName(node.path("name").textValue());
+        member.setEmail(node.path("email").textValue());
+        member.setPhoneNumber(node.path("phoneNumber").textValue());
+        return member;
+    }
+
+    private static BindingResult toBindingResult(String key, JsonNode errors, FlashMap flashMap) {
+        String objectName = key.startsWith(BindingResult.MODEL_KEY_PREFIX)
+                ? key.substring(BindingResult.MODEL_KEY_PREFIX.length())
+                : key;
+        Object target = flashMap.get(objectName);
+        BeanPropertyBindingResult bindingResult = new BeanPropertyBindingResult(target, objectName);
+        for (JsonNode error : errors) {
+            List<String> codes = new ArrayList<>();
+            error.path("c").forEach(code -> codes.add(code.asText()));
+            bindingResult.addError(new FieldError(objectName, error.path("f").asText(), error.path("v").textValue(),
+                    false, codes.toArray(new String[0]), null, error.path("d").textValue()));
+        }
+        return bindingResult;
+    }
+}
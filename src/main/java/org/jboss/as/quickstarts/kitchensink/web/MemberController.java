@@ -1,17 +1,25 @@
 package org.jboss.as.quickstarts.kitchensink.web;
 
 import jakarta.validation.Valid;
-import org.jboss.as.quickstarts.kitchensink.data.MemberListProducer;
+import org.jboss.as.quickstarts.kitchensink.data.MemberReadCircuitBreaker;
+import org.jboss.as.quickstarts.kitchensink.model.InvalidContinuationTokenException;
 import org.jboss.as.quickstarts.kitchensink.model.Member;
 import org.jboss.as.quickstarts.kitchensink.service.MemberService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.nio.charset.StandardCharsets;
 import java.util.logging.Logger;
 
 /**
@@ -23,19 +31,42 @@ public class MemberController {
     
     private static final Logger log = Logger.getLogger(MemberController.class.getName());
     
+    /**
+     * Number of members shown per page of the member table
+     */
+    static final int PAGE_SIZE = 20;
+    
+    /**
+     * Response header carrying the continuation token of the next page of rows
+     */
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    
     private final MemberService memberService;
-    private final MemberListProducer memberListProducer;
+    private final MemberRowsCache rowsCache;
+    private final MemberUpdateBroadcaster updateBroadcaster;
+    private MemberReadCircuitBreaker readBreaker;
     
-    public MemberController(MemberService memberService, MemberListProducer memberListProducer) {
+    public MemberController(MemberService memberService, MemberRowsCache rowsCache,
+                            MemberUpdateBroadcaster updateBroadcaster) {
         this.memberService = memberService;
-        this.memberListProducer = memberListProducer;
+        this.rowsCache = rowsCache;
+        this.updateBroadcaster = updateBroadcaster;
+    }
+    
+    /**
+     * Flag pages rendered from the cached member list while member reads are failing
+     * @param readBreaker the breaker, absent unless members.breaker.enabled=true
+     */
+    @Autowired(required = false)
+    public void setReadBreaker(MemberReadCircuitBreaker readBreaker) {
+        this.readBreaker = readBreaker;
     }
     
     /**
      * Display the registration form and member list
      */
     @GetMapping("/")
-    public String displayHomePage(Model model) {
+    public String displayHomePage(@RequestParam(name = "cursor", required = false) String cursor, Model model) {
         log.info("Displaying home page");
         
         // Add an empty member for the form if not present
@@ -43,12 +74,56 @@ public class MemberController {
             model.addAttribute("newMember", new Member());
         }
         
-        // Add the list of members to display
-        model.addAttribute("members", memberListProducer.getMembers());
+        // Add the requested page of members to display, with its rows already rendered
+        MemberRowsCache.RenderedRows rows;
+        try {
+            rows = rowsCache.rows(cursor, PAGE_SIZE);
+        } catch (InvalidContinuationTokenException e) {
+            log.warning("Ignoring invalid continuation token: " + cursor);
+            rows = rowsCache.rows(null, PAGE_SIZE);
+        }
+        model.addAttribute("members", rows.page().members());
+        model.addAttribute("memberRows", rows.html());
+        model.addAttribute("nextCursor", rows.page().next());
+        model.addAttribute("firstPage", cursor == null || cursor.isBlank());
+        markStaleIfNotClosed();
         
         return "index";
     }
     
+    /**
+     * Render just the table rows of the page after the given cursor, for appending to the member table
+     * The rows are served as cached bytes while the member list is unchanged.
+     * The token of the following page is returned in the {@value #NEXT_CURSOR_HEADER} header, absent on the last page.
+     * @throws InvalidContinuationTokenException if the continuation token is malformed
+     */
+    @GetMapping("/members/rows")
+    public ResponseEntity<byte[]> renderMemberRows(@RequestParam(name = "cursor", required = false) String cursor) {
+        MemberRowsCache.RenderedRows rows = rowsCache.rows(cursor, PAGE_SIZE);
+        markStaleIfNotClosed();
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8));
+        if (rows.page().next() != null) {
+            response.header(NEXT_CURSOR_HEADER, rows.page().next());
+        }
+        return response.body(rows.bytes());
+    }
+    
+    /**
+     * Stream newly registered members to the page as Server-Sent Events
+     */
+    @GetMapping(path = "/members/updates", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ResponseBody
+    public SseEmitter streamMemberUpdates() {
+        return updateBroadcaster.subscribe();
+    }
+    
+    private void markStaleIfNotClosed() {
+        if (readBreaker != null) {
+            readBreaker.markStaleIfNotClosed();
+        }
+    }
+    
     /**
      * Handle member registration form submission
      */
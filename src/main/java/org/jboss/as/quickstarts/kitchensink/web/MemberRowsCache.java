@@ -0,0 +1,123 @@
+package org.jboss.as.quickstarts.kitchensink.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.jboss.as.quickstarts.kitchensink.data.MemberListProducer;
+import org.jboss.as.quickstarts.kitchensink.data.MemberListRefreshedEvent;
+import org.jboss.as.quickstarts.kitchensink.model.InvalidContinuationTokenException;
+import org.jboss.as.quickstarts.kitchensink.model.MemberPage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Rendered HTML of the member table rows, cached per page of the member list snapshot
+ * <p>
+ * Pages are rendered once from the {@code memberRows} fragment of index.html and kept, as a string
+ * for the index page and as UTF-8 bytes for the row fragment endpoint, until the snapshot changes.
+ * Entries are keyed by the snapshot version, so a page rendered from an older snapshot is never
+ * served, and the least recently used pages are dropped beyond the configured number.
+ */
+@Component
+public class MemberRowsCache {
+
+    /**
+     * One rendered page of rows
+     * @param page the members on the page and the token for the next one
+     * @param html the rendered rows
+     * @param bytes the rendered rows encoded as UTF-8
+     */
+    public record RenderedRows(MemberPage page, String html, byte[] bytes) {
+    }
+
+    private record Key(long version, String cursor, int size) {
+    }
+
+    static final String TEMPLATE = "index";
+    static final String FRAGMENT = "memberRows";
+
+    private final MemberListProducer memberListProducer;
+    private final ITemplateEngine templateEngine;
+    private final Map<Key, RenderedRows> pages;
+    private final Timer renderTime;
+    private final Counter hits;
+    private final Counter misses;
+
+    public MemberRowsCache(MemberListProducer memberListProducer,
+                           ITemplateEngine templateEngine,
+                           MeterRegistry meterRegistry,
+                           @Value("${members.table.cache.max-pages:64}") int maxPages) {
+        this.memberListProducer = memberListProducer;
+        this.templateEngine = templateEngine;
+        this.pages = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, RenderedRows> eldest) {
+                return size() > maxPages;
+            }
+        };
+        this.renderTime = Timer.builder("members.table.render")
+                .description("Time to render one page of member table rows")
+                .register(meterRegistry);
+        this.hits = Counter.builder("members.table.cache")
+                .description("Member table page requests by cache result")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("members.table.cache")
+                .description("Member table page requests by cache result")
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    /**
+     * The rendered rows of one page of the current snapshot
+     * @param cursor token returned with the previous page, or null for the first page
+     * @param size the page size
+     * @return the page and its rendered rows
+     * @throws InvalidContinuationTokenException if the continuation token is malformed
+     */
+    public RenderedRows rows(String cursor, int size) {
+        Key key = new Key(memberListProducer.getVersion(), cursor == null || cursor.isBlank() ? "" : cursor, size);
+        RenderedRows cached;
+        synchronized (pages) {
+            cached = pages.get(key);
+        }
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+
+        // Rendered outside the lock; two requests for the same new page may both render it
+        MemberPage page = memberListProducer.getPage(cursor, size);
+        RenderedRows rendered = renderTime.record(() -> render(page));
+        synchronized (pages) {
+            pages.put(key, rendered);
+        }
+        return rendered;
+    }
+
+    /**
+     * Drop every rendered page once the snapshot has been replaced
+     */
+    @EventListener
+    public void onMemberListRefreshed(MemberListRefreshedEvent event) {
+        synchronized (pages) {
+            pages.clear();
+        }
+    }
+
+    private RenderedRows render(MemberPage page) {
+        Context context = new Context();
+        context.setVariable("members", page.members());
+        String html = templateEngine.process(TEMPLATE, Set.of(FRAGMENT), context);
+        return new RenderedRows(page, html, html.getBytes(StandardCharsets.UTF_8));
+    }
+}
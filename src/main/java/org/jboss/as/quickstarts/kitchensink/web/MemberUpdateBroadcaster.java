@@ -0,0 +1,168 @@
+package org.jboss.as.quickstarts.kitchensink.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.jboss.as.quickstarts.kitchensink.model.Member;
+import org.jboss.as.quickstarts.kitchensink.model.MemberView;
+import org.jboss.as.quickstarts.kitchensink.service.MemberRegisteredEvent;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Pushes newly registered members to the open index pages as Server-Sent Events
+ * <p>
+ * Registration only drops the member into each subscriber's bounded buffer; a small sender pool
+ * writes the buffers out, at most one send in flight per subscriber. A subscriber whose buffer fills
+ * up is too slow to keep up, so it is disconnected instead of holding memory or registrations back.
+ * Its browser reconnects on its own.
+ */
+@Component
+public class MemberUpdateBroadcaster implements DisposableBean {
+
+    private static final Logger log = Logger.getLogger(MemberUpdateBroadcaster.class.getName());
+
+    /**
+     * Name of the event carrying a registered member as JSON
+     */
+    static final String MEMBER_EVENT = "member";
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final int bufferSize;
+    private final long timeoutMillis;
+    private final ExecutorService sender;
+    private final Counter evicted;
+
+    public MemberUpdateBroadcaster(MeterRegistry meterRegistry,
+                                   @Value("${members.updates.buffer-size:64}") int bufferSize,
+                                   @Value("${members.updates.timeout-ms:1800000}") long timeoutMillis,
+                                   @Value("${members.updates.sender-threads:4}") int senderThreads) {
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeoutMillis;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.sender = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "member-updates-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.evicted = Counter.builder("members.updates.evicted")
+                .description("Subscribers disconnected because their buffer was full")
+                .register(meterRegistry);
+        Gauge.builder("members.updates.subscribers", subscribers, Set::size)
+                .description("Pages subscribed to member updates")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Open a stream of registered members
+     * @return the emitter to return from the handler method
+     */
+    public SseEmitter subscribe() {
+        return subscribe(new SseEmitter(timeoutMillis));
+    }
+
+    SseEmitter subscribe(SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        return emitter;
+    }
+
+    /**
+     * Queue a newly registered member for every subscriber
+     */
+    @EventListener
+    public void onMemberRegistered(MemberRegisteredEvent event) {
+        Member member = event.getMember();
+        MemberView view = new MemberView(member.getId(), member.getName(), member.getEmail(), member.getPhoneNumber());
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(view);
+        }
+    }
+
+    int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @Override
+    public void destroy() {
+        sender.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<MemberView> buffer = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void offer(MemberView member) {
+            if (!buffer.offer(member)) {
+                evict();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                MemberView member;
+                while ((member = buffer.poll()) != null) {
+                    emitter.send(SseEmitter.event()
+                            .name(MEMBER_EVENT)
+                            .id(String.valueOf(member.id()))
+                            .data(member, MediaType.APPLICATION_JSON));
+                }
+            } catch (IOException | IllegalStateException e) {
+                // The page went away; the emitter's error callback would not fire for an early send
+                subscribers.remove(this);
+                buffer.clear();
+                return;
+            } finally {
+                draining.set(false);
+            }
+            // A member queued after the last poll but before the flag was cleared
+            if (!buffer.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+
+        private void evict() {
+            if (subscribers.remove(this)) {
+                evicted.increment();
+                buffer.clear();
+                log.info("Disconnecting a member update subscriber that fell " + bufferSize + " members behind");
+                // Completing waits for a send in progress, so do it off the registering thread
+                sender.execute(emitter::complete);
+            }
+        }
+    }
+}
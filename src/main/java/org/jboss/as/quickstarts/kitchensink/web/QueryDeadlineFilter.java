@@ -0,0 +1,125 @@
+package org.jboss.as.quickstarts.kitchensink.web;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.jboss.as.quickstarts.kitchensink.data.deadline.QueryDeadline;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Gives every member request a deadline for its datastore queries
+ * Enabled with members.deadline.enabled=true
+ * <p>
+ * The deadline depends on the kind of endpoint: lookups by ID, searches, listings and writes each
+ * have their own budget. A client can ask for a different one with the {@value #TIMEOUT_HEADER}
+ * header, in milliseconds, between members.deadline.min-ms and members.deadline.max-ms. When the deadline passes, the queries still
+ * running for the request are cancelled and further queries fail with a timeout.
+ */
+@Component
+@ConditionalOnProperty(name = "members.deadline.enabled", havingValue = "true")
+public class QueryDeadlineFilter extends OncePerRequestFilter {
+
+    private static final Logger log = Logger.getLogger(QueryDeadlineFilter.class.getName());
+
+    /**
+     * Request header overriding the deadline, in milliseconds
+     */
+    public static final String TIMEOUT_HEADER = "X-Request-Timeout-Ms";
+
+    private final long lookupMillis;
+    private final long searchMillis;
+    private final long listMillis;
+    private final long writeMillis;
+    private final long minMillis;
+    private final long maxMillis;
+    private final ScheduledThreadPoolExecutor scheduler;
+
+    public QueryDeadlineFilter(@Value("${members.deadline.lookup-ms:1000}") long lookupMillis,
+                               @Value("${members.deadline.search-ms:2000}") long searchMillis,
+                               @Value("${members.deadline.list-ms:5000}") long listMillis,
+                               @Value("${members.deadline.write-ms:5000}") long writeMillis,
+                               @Value("${members.deadline.min-ms:100}") long minMillis,
+                               @Value("${members.deadline.max-ms:30000}") long maxMillis) {
+        this.lookupMillis = lookupMillis;
+        this.searchMillis = searchMillis;
+        this.listMillis = listMillis;
+        this.writeMillis = writeMillis;
+        this.minMillis = Math.min(minMillis, maxMillis);
+        this.maxMillis = maxMillis;
+        this.scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "query-deadline");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Most requests finish in time; drop their expiry tasks at once instead of when they would have run
+        this.scheduler.setRemoveOnCancelPolicy(true);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = pathOf(request);
+        return !(path.equals("/") || path.equals("/register") || path.startsWith("/members/") || path.equals("/api/members")
+                || path.startsWith("/api/members/"));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long timeoutMillis = timeoutFor(request);
+        try (QueryDeadline deadline = QueryDeadline.start(timeoutMillis)) {
+            // Cancel what is still running when the time is up, the client has stopped waiting by then
+            ScheduledFuture<?> expiry = scheduler.schedule(deadline::cancel, timeoutMillis, TimeUnit.MILLISECONDS);
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                expiry.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * The deadline for a request, from the header or else the kind of endpoint
+     */
+    long timeoutFor(HttpServletRequest request) {
+        String header = request.getHeader(TIMEOUT_HEADER);
+        if (header != null) {
+            try {
+                // A floor keeps clients from turning every query they send into a timeout
+                return Math.max(minMillis, Math.min(maxMillis, Long.parseLong(header.trim())));
+            } catch (NumberFormatException e) {
+                log.fine("Ignoring invalid " + TIMEOUT_HEADER + " header: " + header);
+            }
+        }
+        if (!"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod())) {
+            return writeMillis;
+        }
+        String path = pathOf(request);
+        if (path.equals("/api/members/search") || path.equals("/api/members/autocomplete")
+                || request.getParameter("name") != null) {
+            return searchMillis;
+        }
+        if (path.matches("/api/members/\\d+")) {
+            return lookupMillis;
+        }
+        return listMillis;
+    }
+
+    private static String pathOf(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,13 @@
+-- Member table of one shard, mirroring the schema Hibernate generates for the Member entity
+CREATE TABLE IF NOT EXISTS member (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    phone_number VARCHAR(255) NOT NULL,
+    name_key VARCHAR(25),
+    email_domain_key VARCHAR(255),
+    CONSTRAINT uk_member_email UNIQUE (email)
+);
+CREATE INDEX IF NOT EXISTS idx_member_name_key_id ON member (name_key, id);
+CREATE INDEX IF NOT EXISTS idx_member_email_domain_key ON member (email_domain_key);
+CREATE INDEX IF NOT EXISTS idx_member_phone_number ON member (phone_number);
@@ -0,0 +1,74 @@
+package org.jboss.as.quickstarts.kitchensink.benchmark;
+
+import org.jboss.as.quickstarts.kitchensink.KitchensinkApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shared set-up for the JMH benchmarks: boots the application without a web server
+ * against a private H2 database and seeds it with generated members
+ */
+final class BenchmarkData {
+
+    private static final int BATCH_SIZE = 1_000;
+    private static final String INSERT_MEMBER =
+            "INSERT INTO Member (name, name_key, email, phone_number) VALUES (?, ?, ?, ?)";
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Start the application context on an isolated in-memory H2 database
+     * @param database the H2 database name
+     * @param properties additional application properties
+     */
+    static ConfigurableApplicationContext startApplication(String database, String... properties) {
+        List<String> all = new ArrayList<>(List.of(
+                "mongodb.enabled=false",
+                "spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1",
+                "spring.jpa.show-sql=false",
+                "spring.jpa.properties.hibernate.format_sql=false",
+                "logging.level.root=WARN"));
+        all.addAll(List.of(properties));
+        return new SpringApplicationBuilder(KitchensinkApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(all.toArray(new String[0]))
+                .run();
+    }
+
+    /**
+     * Insert the given number of members with plain JDBC batches
+     */
+    static void seedMembers(JdbcTemplate jdbcTemplate, int count) {
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < count; i++) {
+            String name = name(i);
+            batch.add(new Object[]{name, name.toLowerCase(), "member" + i + "@example.com", String.format("%010d", i)});
+            if (batch.size() == BATCH_SIZE) {
+                jdbcTemplate.batchUpdate(INSERT_MEMBER, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_MEMBER, batch);
+        }
+    }
+
+    /**
+     * Generate a digit-free name that is unique per index
+     */
+    static String name(int index) {
+        StringBuilder suffix = new StringBuilder();
+        int value = index;
+        do {
+            suffix.append((char) ('a' + value % 26));
+            value /= 26;
+        } while (value > 0);
+        return "Member " + suffix;
+    }
+}
@@ -0,0 +1,98 @@
+package org.jboss.as.quickstarts.kitchensink.benchmark;
+
+import org.jboss.as.quickstarts.kitchensink.data.MemberStore;
+import org.jboss.as.quickstarts.kitchensink.model.Member;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares the throughput of the JPA and plain JDBC member stores on the same H2 schema:
+ * <ul>
+ *     <li>register: conditional insert of a new member</li>
+ *     <li>findById: entity lookup of a random seeded member</li>
+ *     <li>list: all member views ordered by name</li>
+ * </ul>
+ * The stores are called directly, so the cached member list and search indexes are not part of the measurement.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(4)
+public class MemberBackendBenchmark {
+
+    @Param({"jpa", "jdbc"})
+    private String backend;
+
+    @Param({"10000"})
+    private int members;
+
+    private final AtomicLong registrations = new AtomicLong();
+
+    private ConfigurableApplicationContext context;
+    private MemberStore memberStore;
+    private long firstId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkData.startApplication("backend-" + backend, "jdbc.enabled=" + backend.equals("jdbc"));
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        BenchmarkData.seedMembers(jdbcTemplate, members);
+        firstId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM Member", Long.class);
+        memberStore = context.getBean(MemberStore.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean register() {
+        long n = registrations.incrementAndGet();
+        Member member = new Member();
+        member.setName(BenchmarkData.name((int) n));
+        member.setEmail("registered" + n + "@example.com");
+        member.setPhoneNumber(String.format("%010d", n));
+        return memberStore.insertIfEmailAbsent(member);
+    }
+
+    @Benchmark
+    public Object findById() {
+        return memberStore.findById(firstId + ThreadLocalRandom.current().nextInt(members)).orElseThrow();
+    }
+
+    @Benchmark
+    public int list() {
+        return memberStore.findAllViewsOrderedByName().size();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MemberBackendBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,93 @@
+package org.jboss.as.quickstarts.kitchensink.benchmark;
+
+import org.jboss.as.quickstarts.kitchensink.data.MemberRepository;
+import org.jboss.as.quickstarts.kitchensink.service.MemberService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the member list read paths at 100k members:
+ * <ul>
+ *     <li>managed entities in a read-write transaction (the previous behaviour)</li>
+ *     <li>entities in a read-only transaction (no dirty-checking snapshots)</li>
+ *     <li>immutable MemberView projections</li>
+ * </ul>
+ * Run {@link #main(String[])} from the test classpath; the GC profiler reports
+ * {@code gc.alloc.rate.norm}, the bytes allocated per listing.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class MemberReadPathBenchmark {
+
+    @Param({"100000"})
+    private int members;
+
+    private ConfigurableApplicationContext context;
+    private MemberRepository memberRepository;
+    private MemberService memberService;
+    private TransactionTemplate readWriteTransaction;
+    private TransactionTemplate readOnlyTransaction;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkData.startApplication("readpath");
+        BenchmarkData.seedMembers(context.getBean(JdbcTemplate.class), members);
+        memberRepository = context.getBean(MemberRepository.class);
+        memberService = context.getBean(MemberService.class);
+        readWriteTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int managedEntities() {
+        return readWriteTransaction.execute(status -> memberRepository.findAll().size());
+    }
+
+    @Benchmark
+    public int readOnlyEntities() {
+        return readOnlyTransaction.execute(status -> memberRepository.findAll().size());
+    }
+
+    @Benchmark
+    public int projections() {
+        return memberService.findAllViews().size();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MemberReadPathBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
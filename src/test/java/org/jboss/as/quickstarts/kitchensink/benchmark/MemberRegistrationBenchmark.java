@@ -0,0 +1,94 @@
+package org.jboss.as.quickstarts.kitchensink.benchmark;
+
+import org.jboss.as.quickstarts.kitchensink.data.MemberStore;
+import org.jboss.as.quickstarts.kitchensink.model.Member;
+import org.jboss.as.quickstarts.kitchensink.service.MemberRegistrationBatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Registration throughput under concurrency, one transaction per registration versus group commit,
+ * for the JPA and plain JDBC member stores on H2
+ * <p>
+ * Every twentieth registration reuses an email that is already taken, so the measurement includes the
+ * batches that have to be retried without it. The store and the batcher are called directly, so the member
+ * list refresh that follows each registration is not part of the measurement. An in-memory H2 commit is
+ * cheap; the gap widens with the commit latency of a real database.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(16)
+public class MemberRegistrationBenchmark {
+
+    @Param({"jpa", "jdbc"})
+    private String backend;
+
+    @Param({"direct", "group-commit"})
+    private String mode;
+
+    private final AtomicLong registrations = new AtomicLong();
+
+    private ConfigurableApplicationContext context;
+    private MemberStore memberStore;
+    private MemberRegistrationBatcher registrationBatcher;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkData.startApplication("registration-" + backend + "-" + mode,
+                "jdbc.enabled=" + backend.equals("jdbc"),
+                "members.register.group-commit.enabled=" + mode.equals("group-commit"));
+        memberStore = context.getBean(MemberStore.class);
+        registrationBatcher = context.getBeanProvider(MemberRegistrationBatcher.class).getIfAvailable();
+        Member taken = new Member();
+        taken.setName(BenchmarkData.name(0));
+        taken.setEmail("taken@example.com");
+        taken.setPhoneNumber("0000000000");
+        memberStore.insertIfEmailAbsent(taken);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean register() {
+        long n = registrations.incrementAndGet();
+        Member member = new Member();
+        member.setName(BenchmarkData.name((int) n));
+        member.setEmail(n % 20 == 0 ? "taken@example.com" : "registered" + n + "@example.com");
+        member.setPhoneNumber(String.format("%010d", n));
+        return registrationBatcher != null
+                ? registrationBatcher.insertIfEmailAbsent(member)
+                : memberStore.insertIfEmailAbsent(member);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MemberRegistrationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,45 @@
+package org.jboss.as.quickstarts.kitchensink.config;
+
+import org.jboss.as.quickstarts.kitchensink.data.MemberRepository;
+import org.jboss.as.quickstarts.kitchensink.data.MemberStore;
+import org.jboss.as.quickstarts.kitchensink.data.memory.InMemoryMemberRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.mongo.MongoDataAutoConfiguration;
+import org.springframework.boot.autoconfigure.mongo.MongoAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test for the in-memory storage mode
+ */
+@SpringBootTest
+@EnableAutoConfiguration(exclude = {
+    MongoAutoConfiguration.class,
+    MongoDataAutoConfiguration.class
+})
+@TestPropertySource(properties = {
+    "mongodb.enabled=false",
+    "memory.enabled=true"
+})
+public class InMemoryConfigTest {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Test
+    public void testMemberRepositoryIsInMemory() {
+        // Verify that the only MemberRepository is the in-memory one when memory.enabled=true
+        assertEquals(1, context.getBeansOfType(MemberRepository.class).size());
+        MemberRepository repository = context.getBean(MemberRepository.class);
+        assertTrue(repository instanceof InMemoryMemberRepository);
+        // and it also serves as the MemberStore
+        assertEquals(1, context.getBeansOfType(MemberStore.class).size());
+        assertTrue(context.getBean(MemberStore.class) == repository);
+    }
+}
@@ -0,0 +1,40 @@
+package org.jboss.as.quickstarts.kitchensink.config;
+
+import org.jboss.as.quickstarts.kitchensink.data.MemberStore;
+import org.jboss.as.quickstarts.kitchensink.data.jdbc.JdbcMemberStore;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.mongo.MongoDataAutoConfiguration;
+import org.springframework.boot.autoconfigure.mongo.MongoAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test for the plain JDBC storage mode
+ */
+@SpringBootTest
+@EnableAutoConfiguration(exclude = {
+    MongoAutoConfiguration.class,
+    MongoDataAutoConfiguration.class
+})
+@TestPropertySource(properties = {
+    "mongodb.enabled=false",
+    "jdbc.enabled=true"
+})
+public class JdbcConfigTest {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Test
+    public void testMemberStoreIsJdbc() {
+        // Verify that the JDBC store replaces the JPA one when jdbc.enabled=true
+        assertEquals(1, context.getBeansOfType(MemberStore.class).size());
+        assertTrue(context.getBean(MemberStore.class) instanceof JdbcMemberStore);
+    }
+}
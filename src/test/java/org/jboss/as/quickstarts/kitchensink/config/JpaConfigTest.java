@@ -1,7 +1,9 @@
 package org.jboss.as.quickstarts.kitchensink.config;
 
+import org.jboss.as.quickstarts.kitchensink.data.JpaMemberStore;
 import org.jboss.as.quickstarts.kitchensink.data.MemberRepository;
 import org.jboss.as.quickstarts.kitchensink.data.MemberRepositoryAdapter;
+import org.jboss.as.quickstarts.kitchensink.data.MemberStore;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
@@ -45,4 +47,10 @@ public class JpaConfigTest {
         assertTrue(repository instanceof JpaRepository);
         assertFalse(repository instanceof MemberRepositoryAdapter);
     }
+
+    @Test
+    public void testMemberStoreIsJpaStore() {
+        // Verify that the MemberStore is backed by JPA when MongoDB is disabled
+        assertTrue(context.getBean(MemberStore.class) instanceof JpaMemberStore);
+    }
 }
@@ -2,7 +2,9 @@ package org.jboss.as.quickstarts.kitchensink.config;
 
 import org.jboss.as.quickstarts.kitchensink.data.MemberRepository;
 import org.jboss.as.quickstarts.kitchensink.data.MemberRepositoryAdapter;
+import org.jboss.as.quickstarts.kitchensink.data.MemberStore;
 import org.jboss.as.quickstarts.kitchensink.data.mongo.MongoMemberRepository;
+import org.jboss.as.quickstarts.kitchensink.data.mongo.MongoMemberStore;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
@@ -11,6 +13,8 @@ import org.springframework.boot.autoconfigure.mongo.MongoAutoConfiguration;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.ApplicationContext;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
 import org.springframework.test.context.TestPropertySource;
 
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -55,4 +59,17 @@ public class MongoConfigTest {
         MemberRepository repository = context.getBean(MemberRepository.class);
         assertTrue(repository instanceof MemberRepositoryAdapter);
     }
+
+    @Test
+    public void testMemberStoreIsMongoStore() {
+        // Verify that the MemberStore talks to MongoDB directly when MongoDB is enabled
+        assertTrue(context.getBean(MemberStore.class) instanceof MongoMemberStore);
+    }
+
+    @Test
+    public void testMongoTemplateCreatesIndexes() {
+        // Verify that the indexes declared on the documents, such as the unique email, get created
+        MongoTemplate template = context.getBean(MongoTemplate.class);
+        assertTrue(((MongoMappingContext) template.getConverter().getMappingContext()).isAutoIndexCreation());
+    }
 }
@@ -8,7 +8,9 @@ import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Conditional;
 import org.springframework.context.annotation.Primary;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.SimpleMongoClientDatabaseFactory;
 import org.springframework.data.mongodb.repository.config.EnableMongoRepositories;
 import org.testcontainers.DockerClientFactory;
 import org.testcontainers.containers.MongoDBContainer;
@@ -101,6 +103,7 @@ public class TestcontainersMongoConfig {
     @Bean
     @Primary
     public MongoTemplate mongoTemplate() {
-        return new MongoTemplate(mongoClient(), "test");
+        MongoDatabaseFactory databaseFactory = new SimpleMongoClientDatabaseFactory(mongoClient(), "test");
+        return new MongoTemplate(databaseFactory, MongoConfig.indexingConverter(databaseFactory));
     }
 }
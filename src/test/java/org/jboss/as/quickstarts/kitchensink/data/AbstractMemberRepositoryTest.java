@@ -0,0 +1,280 @@
+package org.jboss.as.quickstarts.kitchensink.data;
+
+import org.jboss.as.quickstarts.kitchensink.model.Member;
+import org.jboss.as.quickstarts.kitchensink.model.MemberView;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Behaviour every MemberRepository backend must share
+ * Subclasses provide the repository under test and a way to store members in it
+ * Transactional here so Spring test subclasses run the inherited tests in their test transaction
+ */
+@Transactional
+public abstract class AbstractMemberRepositoryTest {
+
+    protected MemberRepository memberRepository;
+
+    /**
+     * Store a member so that it is visible to subsequent repository queries
+     */
+    protected abstract void persist(Member member);
+
+    @Test
+    public void shouldFindMemberByEmail() {
+        // given
+        Member member = new Member();
+        member.setName("John Doe");
+        member.setEmail("john@example.com");
+        member.setPhoneNumber("1234567890");
+        persist(member);
+
+        // when
+        Optional<Member> found = memberRepository.findByEmail("john@example.com");
+
+        // then
+        assertThat(found).isPresent();
+        assertThat(found.get().getName()).isEqualTo("John Doe");
+    }
+
+    @Test
+    public void shouldFindMembersByNameContaining() {
+        // given
+        Member member1 = new Member();
+        member1.setName("John Smith");
+        member1.setEmail("john@example.com");
+        member1.setPhoneNumber("1234567890");
+
+        Member member2 = new Member();
+        member2.setName("Jane Smith");
+        member2.setEmail("jane@example.com");
+        member2.setPhoneNumber("0987654321");
+
+        Member member3 = new Member();
+        member3.setName("Robert Johnson");
+        member3.setEmail("robert@example.com");
+        member3.setPhoneNumber("5555555555");
+
+        persist(member1);
+        persist(member2);
+        persist(member3);
+
+        // when
+        List<Member> smithMembers = memberRepository.findByNameContainingIgnoreCase("Smith");
+        List<Member> johnMembers = memberRepository.findByNameContainingIgnoreCase("John");
+
+        // then
+        assertThat(smithMembers).hasSize(2);
+        assertThat(johnMembers).hasSize(2); // Matches both "John Smith" and "Robert Johnson"
+    }
+
+    @Test
+    public void shouldMatchLikeWildcardsInNameLiterally() {
+        // given
+        Member percent = new Member();
+        percent.setName("Ann % Lee");
+        percent.setEmail("percent@example.com");
+        percent.setPhoneNumber("1234567890");
+
+        Member underscore = new Member();
+        underscore.setName("Ann_Lee");
+        underscore.setEmail("underscore@example.com");
+        underscore.setPhoneNumber("1234567890");
+
+        Member plain = new Member();
+        plain.setName("Ann Lee");
+        plain.setEmail("plain@example.com");
+        plain.setPhoneNumber("1234567890");
+
+        persist(percent);
+        persist(underscore);
+        persist(plain);
+
+        // when
+        List<MemberView> byPercent = memberRepository.findViewsByNameContaining("%");
+        List<MemberView> byUnderscore = memberRepository.findViewsByNameContaining("n_l");
+
+        // then
+        assertThat(byPercent).extracting(MemberView::name).containsExactly("Ann % Lee");
+        assertThat(byUnderscore).extracting(MemberView::name).containsExactly("Ann_Lee");
+    }
+
+    @Test
+    public void shouldFindMembersByEmailDomain() {
+        // given
+        Member member1 = new Member();
+        member1.setName("John Doe");
+        member1.setEmail("john@example.com");
+        member1.setPhoneNumber("1234567890");
+
+        Member member2 = new Member();
+        member2.setName("Jane Smith");
+        member2.setEmail("jane@example.com");
+        member2.setPhoneNumber("0987654321");
+
+        Member member3 = new Member();
+        member3.setName("Alice Johnson");
+        member3.setEmail("alice@gmail.com");
+        member3.setPhoneNumber("5555555555");
+
+        persist(member1);
+        persist(member2);
+        persist(member3);
+
+        // when
+        List<Member> exampleDomainMembers = memberRepository.findByEmailDomain("@example.com");
+        List<Member> gmailDomainMembers = memberRepository.findByEmailDomain("@gmail.com");
+
+        // then
+        assertThat(exampleDomainMembers).hasSize(2);
+        assertThat(gmailDomainMembers).hasSize(1);
+    }
+
+    @Test
+    public void shouldProjectMembersOrderedByName() {
+        // given
+        Member member1 = new Member();
+        member1.setName("robert Johnson");
+        member1.setEmail("robert@example.com");
+        member1.setPhoneNumber("5555555555");
+
+        Member member2 = new Member();
+        member2.setName("Alice Smith");
+        member2.setEmail("alice@example.com");
+        member2.setPhoneNumber("0987654321");
+
+        persist(member1);
+        persist(member2);
+
+        // when
+        List<MemberView> views = memberRepository.findAllViewsOrderedByName();
+        Optional<MemberView> byId = memberRepository.findViewById(member1.getId());
+        List<MemberView> smiths = memberRepository.findViewsByNameContaining("SMITH");
+
+        // then
+        assertThat(views).extracting(MemberView::name).containsExactly("Alice Smith", "robert Johnson");
+        assertThat(byId).contains(new MemberView(member1.getId(), "robert Johnson", "robert@example.com", "5555555555"));
+        assertThat(smiths).extracting(MemberView::email).containsExactly("alice@example.com");
+    }
+
+    @Test
+    public void shouldPageByNameWithKeysetCursor() {
+        // given
+        String[] names = {"Carol", "alice", "Bob", "bob", "Dave"};
+        for (int i = 0; i < names.length; i++) {
+            Member member = new Member();
+            member.setName(names[i]);
+            member.setEmail("member" + i + "@example.com");
+            member.setPhoneNumber("123456789" + i);
+            persist(member);
+        }
+
+        // when
+        List<MemberView> first = memberRepository.findFirstViewsByName(PageRequest.ofSize(2));
+        MemberView last = first.get(first.size() - 1);
+        List<MemberView> second = memberRepository.findViewsByNameAfter(last.name().toLowerCase(), last.id(), PageRequest.ofSize(2));
+        MemberView secondLast = second.get(second.size() - 1);
+        List<MemberView> third = memberRepository.findViewsByNameAfter(secondLast.name().toLowerCase(), secondLast.id(), PageRequest.ofSize(2));
+
+        // then
+        assertThat(first).extracting(MemberView::name).containsExactly("alice", "Bob");
+        assertThat(second).extracting(MemberView::name).containsExactly("bob", "Carol");
+        assertThat(third).extracting(MemberView::name).containsExactly("Dave");
+    }
+
+    @Test
+    public void shouldMatchSubdomainsOnlyWhenNotAnchored() {
+        // given
+        Member member1 = new Member();
+        member1.setName("John Doe");
+        member1.setEmail("john@example.com");
+        member1.setPhoneNumber("1234567890");
+
+        Member member2 = new Member();
+        member2.setName("Jane Smith");
+        member2.setEmail("jane@EU.Example.com");
+        member2.setPhoneNumber("0987654321");
+
+        Member member3 = new Member();
+        member3.setName("Alice Johnson");
+        member3.setEmail("alice@notexample.com");
+        member3.setPhoneNumber("5555555555");
+
+        persist(member1);
+        persist(member2);
+        persist(member3);
+
+        // when
+        List<Member> anchored = memberRepository.findByEmailDomain("@example.com");
+        List<Member> withSubdomains = memberRepository.findByEmailDomain("example.com");
+
+        // then
+        assertThat(anchored).extracting(Member::getEmail).containsExactly("john@example.com");
+        assertThat(withSubdomains).extracting(Member::getEmail)
+                .containsExactlyInAnyOrder("john@example.com", "jane@EU.Example.com");
+    }
+
+    @Test
+    public void shouldFindMembersByPhoneNumber() {
+        // given
+        Member member1 = new Member();
+        member1.setName("John Doe");
+        member1.setEmail("john@example.com");
+        member1.setPhoneNumber("1234567890");
+
+        Member member2 = new Member();
+        member2.setName("Jane Doe");
+        member2.setEmail("jane@example.com");
+        member2.setPhoneNumber("1234567890");
+
+        persist(member1);
+        persist(member2);
+
+        // when
+        List<Member> shared = memberRepository.findByPhoneNumber("1234567890");
+        List<Member> unknown = memberRepository.findByPhoneNumber("0000000000");
+
+        // then
+        assertThat(shared).extracting(Member::getEmail).containsExactlyInAnyOrder("john@example.com", "jane@example.com");
+        assertThat(unknown).isEmpty();
+    }
+
+    @Test
+    public void shouldKeepLookupsConsistentAcrossUpdateAndDelete() {
+        // given
+        Member member = new Member();
+        member.setName("John Doe");
+        member.setEmail("john@example.com");
+        member.setPhoneNumber("1234567890");
+        persist(member);
+        Long id = member.getId();
+
+        // when
+        Member stored = memberRepository.findById(id).orElseThrow();
+        stored.setName("Johnny Doe");
+        stored.setEmail("johnny@example.org");
+        memberRepository.save(stored);
+
+        // then
+        assertThat(memberRepository.findByEmail("john@example.com")).isEmpty();
+        assertThat(memberRepository.findByEmail("johnny@example.org")).map(Member::getId).contains(id);
+        assertThat(memberRepository.findByEmailDomain("example.org")).extracting(Member::getId).containsExactly(id);
+        assertThat(memberRepository.findViewsByNameContaining("johnny")).extracting(MemberView::id).containsExactly(id);
+        assertThat(memberRepository.count()).isEqualTo(1);
+
+        // when
+        memberRepository.deleteById(id);
+
+        // then
+        assertThat(memberRepository.findById(id)).isEmpty();
+        assertThat(memberRepository.existsById(id)).isFalse();
+        assertThat(memberRepository.findByPhoneNumber("1234567890")).isEmpty();
+        assertThat(memberRepository.findAllViewsOrderedByName()).isEmpty();
+    }
+}
@@ -0,0 +1,158 @@
+package org.jboss.as.quickstarts.kitchensink.data;
+
+import org.jboss.as.quickstarts.kitchensink.model.Member;
+import org.jboss.as.quickstarts.kitchensink.model.MemberCursor;
+import org.jboss.as.quickstarts.kitchensink.model.MemberView;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Behaviour every MemberStore backend must share
+ * Subclasses provide the store under test
+ */
+public abstract class AbstractMemberStoreTest {
+
+    protected MemberStore memberStore;
+
+    @Test
+    public void shouldInsertOnlyWhenEmailIsAbsent() {
+        // given
+        Member first = member("John Doe", "john@example.com");
+        Member duplicate = member("Johnny Doe", "john@example.com");
+
+        // when
+        boolean firstInserted = memberStore.insertIfEmailAbsent(first);
+        boolean duplicateInserted = memberStore.insertIfEmailAbsent(duplicate);
+
+        // then
+        assertThat(firstInserted).isTrue();
+        assertThat(first.getId()).isNotNull();
+        assertThat(duplicateInserted).isFalse();
+        assertThat(memberStore.findByEmail("john@example.com")).map(Member::getName).contains("John Doe");
+        assertThat(memberStore.count()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldBulkInsertAndMultiGetInNameOrder() {
+        // given
+        List<Member> inserted = memberStore.insertAll(List.of(
+                member("Carol", "carol@example.com"),
+                member("alice", "alice@example.com"),
+                member("Bob", "bob@example.com")));
+        List<Long> ids = new ArrayList<>();
+        inserted.forEach(member -> ids.add(member.getId()));
+        ids.add(-1L);
+
+        // when
+        List<MemberView> views = memberStore.findViewsByIdIn(ids);
+
+        // then
+        assertThat(ids).doesNotContainNull();
+        assertThat(memberStore.count()).isEqualTo(3);
+        assertThat(views).extracting(MemberView::name).containsExactly("alice", "Bob", "Carol");
+    }
+
+    @Test
+    public void shouldBulkInsertOnlyMembersWhoseEmailIsAbsent() {
+        // given
+        memberStore.insertIfEmailAbsent(member("John Doe", "john@example.com"));
+        List<Member> batch = List.of(
+                member("Alice", "alice@example.com"),
+                member("Johnny Doe", "john@example.com"),
+                member("Bob", "bob@example.com"),
+                member("Bobby", "bob@example.com"));
+
+        // when
+        boolean[] inserted = memberStore.insertAllIfEmailAbsent(batch);
+
+        // then
+        assertThat(inserted[0]).isTrue();
+        assertThat(batch.get(0).getId()).isNotNull();
+        assertThat(inserted[1]).isFalse();
+        assertThat(batch.get(1).getId()).isNull();
+        assertThat(inserted[2] ^ inserted[3]).isTrue();
+        assertThat(memberStore.findByEmail("john@example.com")).map(Member::getName).contains("John Doe");
+        assertThat(memberStore.count()).isEqualTo(3);
+    }
+
+    @Test
+    public void shouldStreamAllMembersInIdOrder() {
+        // given
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            members.add(member("Member " + (char) ('z' - i), "member" + i + "@example.com"));
+        }
+        memberStore.insertAll(members);
+
+        // when
+        List<Long> streamed;
+        try (Stream<MemberView> views = memberStore.streamViews()) {
+            streamed = views.map(MemberView::id).toList();
+        }
+
+        // then
+        assertThat(streamed).hasSize(25).isSorted();
+    }
+
+    @Test
+    public void shouldPageThroughKeysetListing() {
+        // given
+        memberStore.insertAll(List.of(
+                member("Alice", "alice@example.com"),
+                member("Bob", "bob@example.com"),
+                member("Carol", "carol@example.com")));
+
+        // when
+        List<MemberView> first = memberStore.findViewsAfter(null, 2);
+        List<MemberView> second = memberStore.findViewsAfter(MemberCursor.after(first.get(1)), 2);
+
+        // then
+        assertThat(first).extracting(MemberView::name).containsExactly("Alice", "Bob");
+        assertThat(second).extracting(MemberView::name).containsExactly("Carol");
+    }
+
+    @Test
+    public void shouldDeleteById() {
+        // given
+        Member member = member("John Doe", "john@example.com");
+        memberStore.insertIfEmailAbsent(member);
+
+        // when
+        memberStore.deleteById(member.getId());
+        memberStore.deleteById(-1L);
+
+        // then
+        assertThat(memberStore.findById(member.getId())).isEmpty();
+        assertThat(memberStore.count()).isZero();
+    }
+
+    @Test
+    public void shouldCompleteAsyncOperations() throws Exception {
+        // given
+        Member member = member("John Doe", "john@example.com");
+        memberStore.insertAllAsync(List.of(member)).get(5, TimeUnit.SECONDS);
+
+        // when
+        Optional<MemberView> view = memberStore.findViewByIdAsync(member.getId()).get(5, TimeUnit.SECONDS);
+        List<MemberView> views = memberStore.findViewsByIdInAsync(List.of(member.getId())).get(5, TimeUnit.SECONDS);
+
+        // then
+        assertThat(view).map(MemberView::email).contains("john@example.com");
+        assertThat(views).extracting(MemberView::id).containsExactly(member.getId());
+    }
+
+    protected static Member member(String name, String email) {
+        Member member = new Member();
+        member.setName(name);
+        member.setEmail(email);
+        member.setPhoneNumber("1234567890");
+        return member;
+    }
+}
@@ -0,0 +1,145 @@
+package org.jboss.as.quickstarts.kitchensink.data;
+
+import org.jboss.as.quickstarts.kitchensink.model.Member;
+import org.jboss.as.quickstarts.kitchensink.model.MemberView;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs without a test transaction: the store manages its own, including on the async pool
+ * Statements are counted to check that bulk writes are batched.
+ */
+@DataJpaTest
+@Import({JpaMemberStore.class, JpaMemberStoreTest.CountStatements.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+    "mongodb.enabled=false"
+})
+public class JpaMemberStoreTest extends AbstractMemberStoreTest {
+
+    @Autowired
+    private JpaMemberStore jpaMemberStore;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private DataSource jpaDataSource;
+
+    private StatementCountingDataSource dataSource;
+
+    @TestConfiguration
+    static class CountStatements {
+
+        @Bean
+        static BeanPostProcessor statementCountingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource && !(bean instanceof StatementCountingDataSource)
+                            ? new StatementCountingDataSource(dataSource)
+                            : bean;
+                }
+            };
+        }
+    }
+
+    @BeforeEach
+    void useJpaStore() throws SQLException {
+        memberStore = jpaMemberStore;
+        // The test database is a factory bean, so the counting wrapper is only reachable through unwrap
+        dataSource = jpaDataSource.unwrap(StatementCountingDataSource.class);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        memberRepository.deleteAll();
+    }
+
+    @Test
+    public void shouldSplitLargeMultiGetIntoBatches() {
+        // given
+        Member member = member("John Doe", "john@example.com");
+        memberStore.insertIfEmailAbsent(member);
+        List<Long> ids = new ArrayList<>();
+        for (long id = -JpaMemberStore.BATCH_SIZE; id < 0; id++) {
+            ids.add(id);
+        }
+        ids.add(member.getId());
+
+        // when, then
+        assertThat(memberStore.findViewsByIdIn(ids)).extracting(MemberView::id).containsExactly(member.getId());
+    }
+
+    @Test
+    public void shouldInsertAllInOneJdbcBatch() {
+        // given
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            members.add(member("Member " + (char) ('a' + i % 26), "member" + i + "@example.com"));
+        }
+        dataSource.takeExecutions();
+
+        // when
+        memberStore.insertAll(members);
+
+        // then: one batch instead of one INSERT per IDENTITY entity
+        assertThat(dataSource.takeExecutions()).isEqualTo(1);
+        assertThat(members).extracting(Member::getId).doesNotContainNull().doesNotHaveDuplicates();
+        assertThat(memberStore.count()).isEqualTo(50);
+    }
+
+    @Test
+    public void shouldInsertAllIfEmailAbsentInOneJdbcBatch() {
+        // given
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            members.add(member("Member " + (char) ('a' + i), "member" + i + "@example.com"));
+        }
+        dataSource.takeExecutions();
+
+        // when
+        boolean[] inserted = memberStore.insertAllIfEmailAbsent(members);
+
+        // then
+        assertThat(inserted).containsOnly(true);
+        assertThat(dataSource.takeExecutions()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldRetryBatchWithoutTakenEmailsInsteadOfInsertingOneByOne() {
+        // given
+        memberStore.insertIfEmailAbsent(member("John Doe", "john@example.com"));
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            members.add(member("Member " + (char) ('a' + i), "member" + i + "@example.com"));
+        }
+        members.add(member("Johnny Doe", "john@example.com"));
+        dataSource.takeExecutions();
+
+        // when
+        boolean[] inserted = memberStore.insertAllIfEmailAbsent(members);
+
+        // then: the rejected batch, the lookup of taken emails and the batch without them
+        assertThat(dataSource.takeExecutions()).isEqualTo(3);
+        assertThat(inserted[20]).isFalse();
+        assertThat(memberStore.count()).isEqualTo(21);
+    }
+}
@@ -0,0 +1,106 @@
+package org.jboss.as.quickstarts.kitchensink.data;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.jboss.as.quickstarts.kitchensink.model.MemberPage;
+import org.jboss.as.quickstarts.kitchensink.model.MemberView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class MemberListProducerTest {
+
+    @Mock
+    private MemberStore memberStore;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private MemberListProducer producer;
+
+    private final MemberView alice = new MemberView(3L, "Alice", "alice@example.com", "1234567890");
+    private final MemberView bob = new MemberView(1L, "bob", "bob@example.com", "1234567890");
+    private final MemberView bob2 = new MemberView(2L, "Bob", "bob2@example.com", "1234567890");
+    private final MemberView carol = new MemberView(4L, "Carol", "carol@example.com", "1234567890");
+
+    @BeforeEach
+    void setUp() {
+        producer = new MemberListProducer(memberStore, eventPublisher);
+        when(memberStore.findAllViewsOrderedByName()).thenReturn(List.of(alice, bob, bob2, carol));
+        producer.retrieveAllMembersOrderedByName();
+    }
+
+    @Test
+    void shouldWalkSnapshotWithContinuationTokens() {
+        // when
+        MemberPage first = producer.getPage(null, 2);
+        MemberPage second = producer.getPage(first.next(), 2);
+
+        // then
+        assertThat(first.members()).containsExactly(alice, bob);
+        assertThat(second.members()).containsExactly(bob2, carol);
+        assertThat(second.next()).isNull();
+    }
+
+    @Test
+    void shouldResumeAfterCursorEvenWhenSnapshotChanged() {
+        // given
+        String token = producer.getPage(null, 1).next();
+        when(memberStore.findAllViewsOrderedByName()).thenReturn(List.of(bob, bob2, carol));
+        producer.retrieveAllMembersOrderedByName();
+
+        // when
+        MemberPage page = producer.getPage(token, 10);
+
+        // then
+        assertThat(page.members()).containsExactly(bob, bob2, carol);
+    }
+
+    @Test
+    void shouldRejectInvalidToken() {
+        assertThrows(IllegalArgumentException.class, () -> producer.getPage("%%%", 2));
+    }
+
+    @Test
+    void shouldPublishRefreshedSnapshot() {
+        // then: setUp refreshed the list once
+        ArgumentCaptor<MemberListRefreshedEvent> eventCaptor = ArgumentCaptor.forClass(MemberListRefreshedEvent.class);
+        verify(eventPublisher).publishEvent(eventCaptor.capture());
+        assertThat(eventCaptor.getValue().getMembers()).isSameAs(producer.getMembers());
+    }
+
+    @Test
+    void shouldKeepSnapshotWhileReadsFailAndCatchUpOnRecovery() {
+        // given
+        producer.setReadBreaker(new MemberReadCircuitBreaker(eventPublisher, new SimpleMeterRegistry(),
+                20, 10, 0.5, 2000, 10000));
+        List<MemberView> cached = producer.getMembers();
+        when(memberStore.findAllViewsOrderedByName()).thenThrow(new DataAccessResourceFailureException("down"));
+
+        // when
+        producer.retrieveAllMembersOrderedByName();
+
+        // then
+        assertThat(producer.getMembers()).isSameAs(cached);
+
+        // when: the store answers again
+        doReturn(List.of(alice)).when(memberStore).findAllViewsOrderedByName();
+        producer.onReadsRecovered(new MemberReadsRecoveredEvent(this));
+
+        // then
+        assertThat(producer.getMembers()).containsExactly(alice);
+    }
+}
@@ -0,0 +1,216 @@
+package org.jboss.as.quickstarts.kitchensink.data;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.jboss.as.quickstarts.kitchensink.data.deadline.QueryDeadline;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class MemberReadCircuitBreakerTest {
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger storeCalls = new AtomicInteger();
+    private SimpleMeterRegistry meterRegistry;
+    private MockHttpServletResponse response;
+    private MemberReadCircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        response = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest(), response));
+        // window of 4 reads, opening at half of them failing, slow beyond 100ms, open for 1s
+        breaker = new MemberReadCircuitBreaker(eventPublisher, meterRegistry, 4, 4, 0.5, 100, 1000, now::get);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    private Supplier<String> failing() {
+        return () -> {
+            storeCalls.incrementAndGet();
+            throw new DataAccessResourceFailureException("store down");
+        };
+    }
+
+    private Supplier<String> succeeding() {
+        return () -> {
+            storeCalls.incrementAndGet();
+            return "fresh";
+        };
+    }
+
+    @Test
+    public void shouldServeFallbackWhenReadFails() {
+        // when
+        String result = breaker.read(failing(), () -> "cached");
+
+        // then
+        assertThat(result).isEqualTo("cached");
+        assertThat(response.getHeader(MemberReadCircuitBreaker.STALE_HEADER)).isEqualTo("true");
+        assertThat(breaker.getState()).isEqualTo(MemberReadCircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    public void shouldOpenAndStopCallingStore() {
+        // given: two of four reads fail
+        breaker.read(succeeding(), () -> "cached");
+        breaker.read(failing(), () -> "cached");
+        breaker.read(succeeding(), () -> "cached");
+        breaker.read(failing(), () -> "cached");
+        storeCalls.set(0);
+
+        // when
+        String result = breaker.read(succeeding(), () -> "cached");
+
+        // then
+        assertThat(breaker.getState()).isEqualTo(MemberReadCircuitBreaker.State.OPEN);
+        assertThat(result).isEqualTo("cached");
+        assertThat(storeCalls.get()).isZero();
+        assertThat(meterRegistry.get("members.breaker.state").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    public void shouldCountSlowReadsAsFailures() {
+        // when: every read takes 200ms
+        for (int i = 0; i < 4; i++) {
+            breaker.read(() -> {
+                now.addAndGet(TimeUnit.MILLISECONDS.toNanos(200));
+                return "slow";
+            }, () -> "cached");
+        }
+
+        // then
+        assertThat(breaker.getState()).isEqualTo(MemberReadCircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    public void shouldCloseAfterSuccessfulProbe() {
+        // given
+        open();
+        now.addAndGet(TimeUnit.SECONDS.toNanos(2));
+
+        // when
+        String result = breaker.read(succeeding(), () -> "cached");
+
+        // then
+        assertThat(result).isEqualTo("fresh");
+        assertThat(breaker.getState()).isEqualTo(MemberReadCircuitBreaker.State.CLOSED);
+        verify(eventPublisher).publishEvent(any(MemberReadsRecoveredEvent.class));
+    }
+
+    @Test
+    public void shouldReopenAfterFailedProbe() {
+        // given
+        open();
+        now.addAndGet(TimeUnit.SECONDS.toNanos(2));
+
+        // when
+        breaker.read(failing(), () -> "cached");
+
+        // then
+        assertThat(breaker.getState()).isEqualTo(MemberReadCircuitBreaker.State.OPEN);
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    public void shouldLetOnlyOneProbeThrough() {
+        // given
+        open();
+        now.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        storeCalls.set(0);
+
+        // when: a second read arrives while the probe is still running
+        String[] concurrent = new String[1];
+        String probe = breaker.read(() -> {
+            storeCalls.incrementAndGet();
+            concurrent[0] = breaker.read(succeeding(), () -> "cached");
+            return "fresh";
+        }, () -> "cached");
+
+        // then
+        assertThat(probe).isEqualTo("fresh");
+        assertThat(concurrent[0]).isEqualTo("cached");
+        assertThat(storeCalls.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldNotCountTimeoutsOfShortRequestDeadlines() {
+        // given: a client deadline below the 100ms slow-call threshold, already expired
+        try (QueryDeadline deadline = QueryDeadline.start(50)) {
+            deadline.cancel();
+
+            // when
+            for (int i = 0; i < 4; i++) {
+                assertThrows(QueryTimeoutException.class, () -> breaker.read(() -> {
+                    throw new QueryTimeoutException("deadline passed");
+                }, () -> "cached"));
+            }
+        }
+
+        // then
+        assertThat(breaker.getState()).isEqualTo(MemberReadCircuitBreaker.State.CLOSED);
+        assertThat(response.getHeader(MemberReadCircuitBreaker.STALE_HEADER)).isNull();
+    }
+
+    @Test
+    public void shouldCountTimeoutsOfLongRequestDeadlines() {
+        // given: a deadline longer than a slow read
+        try (QueryDeadline deadline = QueryDeadline.start(1000)) {
+            deadline.cancel();
+
+            // when
+            for (int i = 0; i < 4; i++) {
+                breaker.read(() -> {
+                    throw new QueryTimeoutException("deadline passed");
+                }, () -> "cached");
+            }
+        }
+
+        // then
+        assertThat(breaker.getState()).isEqualTo(MemberReadCircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    public void shouldPassOnOtherErrors() {
+        // when, then
+        assertThrows(IllegalArgumentException.class, () -> breaker.read(() -> {
+            throw new IllegalArgumentException("bad cursor");
+        }, () -> "cached"));
+        assertThat(response.getHeader(MemberReadCircuitBreaker.STALE_HEADER)).isNull();
+    }
+
+    private void open() {
+        for (int i = 0; i < 4; i++) {
+            breaker.read(failing(), () -> "cached");
+        }
+        assertThat(breaker.getState()).isEqualTo(MemberReadCircuitBreaker.State.OPEN);
+    }
+}
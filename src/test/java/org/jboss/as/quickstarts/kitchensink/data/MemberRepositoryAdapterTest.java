@@ -2,6 +2,7 @@ package org.jboss.as.quickstarts.kitchensink.data;
 
 import org.jboss.as.quickstarts.kitchensink.data.mongo.MongoMemberRepository;
 import org.jboss.as.quickstarts.kitchensink.model.Member;
+import org.jboss.as.quickstarts.kitchensink.model.MemberView;
 import org.jboss.as.quickstarts.kitchensink.model.MongoMember;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -38,6 +39,7 @@ public class MemberRepositoryAdapterTest {
         // Create test data
         mongoMember = new MongoMember();
         mongoMember.setId("mongo123");
+        mongoMember.setMemberId(7L);
         mongoMember.setName("John Doe");
         mongoMember.setEmail("john@example.com");
         mongoMember.setPhoneNumber("1234567890");
@@ -170,4 +172,34 @@ public class MemberRepositoryAdapterTest {
         assertThat(result.getContent().get(0).getName()).isEqualTo("John Doe");
         verify(mongoRepository).findAll(pageable);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testFindByIdUsesMemberId() {
+        // given
+        when(mongoRepository.findByMemberId(7L)).thenReturn(Optional.of(mongoMember));
+
+        // when
+        Optional<Member> result = adapter.findById(7L);
+
+        // then
+        assertThat(result).isPresent();
+        assertThat(result.get().getId()).isEqualTo(7L);
+        verify(mongoRepository, never()).findAll();
+    }
+
+    @Test
+    void testKeysetPages() {
+        // given
+        Pageable slice = Pageable.ofSize(5);
+        when(mongoRepository.findAllByOrderByNameKeyAscMemberIdAsc(slice)).thenReturn(List.of(mongoMember));
+        when(mongoRepository.findPageAfter("john doe", 7L, slice)).thenReturn(List.of());
+
+        // when
+        List<MemberView> first = adapter.findFirstViewsByName(slice);
+        List<MemberView> next = adapter.findViewsByNameAfter("john doe", 7L, slice);
+
+        // then
+        assertThat(first).containsExactly(new MemberView(7L, "John Doe", "john@example.com", "1234567890"));
+        assertThat(next).isEmpty();
+    }
+}
@@ -1,13 +1,16 @@
 package org.jboss.as.quickstarts.kitchensink.data;
 
 import org.jboss.as.quickstarts.kitchensink.model.Member;
+import org.jboss.as.quickstarts.kitchensink.model.MemberKeys;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.util.List;
-import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -15,93 +18,79 @@ import static org.assertj.core.api.Assertions.assertThat;
 @org.springframework.test.context.TestPropertySource(properties = {
     "mongodb.enabled=false"
 })
-public class MemberRepositoryTest {
+public class MemberRepositoryTest extends AbstractMemberRepositoryTest {
 
     @Autowired
     private TestEntityManager entityManager;
 
     @Autowired
-    private MemberRepository memberRepository;
+    private MemberRepository jpaRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void useJpaRepository() {
+        memberRepository = jpaRepository;
+    }
+
+    @Override
+    protected void persist(Member member) {
+        // Write through the entity manager and detach, so queries hit the database
+        entityManager.persist(member);
+        entityManager.flush();
+        entityManager.clear();
+    }
 
     @Test
-    public void shouldFindMemberByEmail() {
+    public void shouldMaintainNameKeyOnWrite() {
         // given
         Member member = new Member();
-        member.setName("John Doe");
+        member.setName("John DOE");
         member.setEmail("john@example.com");
         member.setPhoneNumber("1234567890");
-        entityManager.persist(member);
-        entityManager.flush();
 
         // when
-        Optional<Member> found = memberRepository.findByEmail("john@example.com");
+        entityManager.persistAndFlush(member);
 
         // then
-        assertThat(found).isPresent();
-        assertThat(found.get().getName()).isEqualTo("John Doe");
+        assertThat(member.getNameKey()).isEqualTo("john doe");
     }
 
     @Test
-    public void shouldFindMembersByNameContaining() {
-        // given
-        Member member1 = new Member();
-        member1.setName("John Smith");
-        member1.setEmail("john@example.com");
-        member1.setPhoneNumber("1234567890");
-
-        Member member2 = new Member();
-        member2.setName("Jane Smith");
-        member2.setEmail("jane@example.com");
-        member2.setPhoneNumber("0987654321");
-
-        Member member3 = new Member();
-        member3.setName("Robert Johnson");
-        member3.setEmail("robert@example.com");
-        member3.setPhoneNumber("5555555555");
-
-        entityManager.persist(member1);
-        entityManager.persist(member2);
-        entityManager.persist(member3);
-        entityManager.flush();
+    public void shouldBackfillEmailDomainKeyForExistingRows() {
+        // given: a row written before the email domain key column existed
+        entityManager.getEntityManager()
+                .createNativeQuery("INSERT INTO Member (name, email, phone_number) "
+                        + "VALUES ('Legacy Member', 'legacy@old.org', '1234567890')")
+                .executeUpdate();
+        MemberKeyBackfill backfill = new MemberKeyBackfill(transactionManager);
+        ReflectionTestUtils.setField(backfill, "entityManager", entityManager.getEntityManager());
 
         // when
-        List<Member> smithMembers = memberRepository.findByNameContainingIgnoreCase("Smith");
-        List<Member> johnMembers = memberRepository.findByNameContainingIgnoreCase("John");
+        int updated = backfill.backfill();
 
         // then
-        assertThat(smithMembers).hasSize(2);
-        assertThat(johnMembers).hasSize(2); // Matches both "John Smith" and "Robert Johnson"
+        assertThat(updated).isEqualTo(2);
+        assertThat(memberRepository.findByEmailDomain("@old.org"))
+                .extracting(Member::getEmail).containsExactly("legacy@old.org");
     }
 
     @Test
-    public void shouldFindMembersByEmailDomain() {
-        // given
-        Member member1 = new Member();
-        member1.setName("John Doe");
-        member1.setEmail("john@example.com");
-        member1.setPhoneNumber("1234567890");
-
-        Member member2 = new Member();
-        member2.setName("Jane Smith");
-        member2.setEmail("jane@example.com");
-        member2.setPhoneNumber("0987654321");
-
-        Member member3 = new Member();
-        member3.setName("Alice Johnson");
-        member3.setEmail("alice@gmail.com");
-        member3.setPhoneNumber("5555555555");
-
-        entityManager.persist(member1);
-        entityManager.persist(member2);
-        entityManager.persist(member3);
-        entityManager.flush();
+    public void shouldBackfillNameKeyAsJavaComputesIt() {
+        // given: a row without keys whose name lowercases differently outside the ASCII range
+        entityManager.getEntityManager()
+                .createNativeQuery("INSERT INTO Member (name, email, phone_number) "
+                        + "VALUES ('İlkay Öz', 'ilkay@old.org', '1234567890')")
+                .executeUpdate();
+        MemberKeyBackfill backfill = new MemberKeyBackfill(transactionManager);
+        ReflectionTestUtils.setField(backfill, "entityManager", entityManager.getEntityManager());
 
         // when
-        List<Member> exampleDomainMembers = memberRepository.findByEmailDomain("@example.com");
-        List<Member> gmailDomainMembers = memberRepository.findByEmailDomain("@gmail.com");
+        backfill.backfill();
 
         // then
-        assertThat(exampleDomainMembers).hasSize(2);
-        assertThat(gmailDomainMembers).hasSize(1);
+        Member member = memberRepository.findByEmail("ilkay@old.org").orElseThrow();
+        assertThat(member.getNameKey()).isEqualTo(MemberKeys.nameKey("İlkay Öz"));
     }
 }
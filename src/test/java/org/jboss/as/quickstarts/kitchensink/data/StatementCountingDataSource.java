@@ -0,0 +1,66 @@
+package org.jboss.as.quickstarts.kitchensink.data;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+
+/**
+ * DataSource counting statement executions, each of which is one database round trip
+ * A JDBC batch counts once however many rows it holds.
+ */
+public class StatementCountingDataSource extends DelegatingDataSource {
+
+    private final AtomicInteger executions = new AtomicInteger();
+
+    public StatementCountingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    /**
+     * @return the statements executed since the last call
+     */
+    public int takeExecutions() {
+        return executions.getAndSet(0);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return counting(super.getConnection(), Connection.class);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return counting(super.getConnection(username, password), Connection.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T counting(T target, Class<?> type) {
+        return (T) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.getName().equals("equals")) {
+                return proxy == args[0];
+            }
+            if (method.getName().equals("hashCode")) {
+                return System.identityHashCode(proxy);
+            }
+            if (method.getName().startsWith("execute")) {
+                executions.incrementAndGet();
+            }
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+            if (result instanceof Statement statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+                return counting(statement, method.getReturnType());
+            }
+            return result;
+        });
+    }
+}
@@ -0,0 +1,107 @@
+package org.jboss.as.quickstarts.kitchensink.data.changes;
+
+import org.jboss.as.quickstarts.kitchensink.model.MemberChange;
+import org.jboss.as.quickstarts.kitchensink.model.MemberView;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class JdbcMemberChangeLogTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private JdbcMemberChangeLog changeLog;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:member-changes;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        changeLog = new JdbcMemberChangeLog(jdbcTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    public void shouldNumberChangesInOrder() {
+        // given
+        MemberView john = new MemberView(7L, "John Doe", "john@example.com", "1234567890");
+
+        // when
+        changeLog.append(MemberChange.Type.INSERTED, 7L, john);
+        changeLog.append(MemberChange.Type.DELETED, 7L, null);
+
+        // then
+        assertThat(changeLog.lastSequence()).isEqualTo(2);
+        assertThat(changeLog.findAfter(0, 10)).containsExactly(
+                new MemberChange(1, MemberChange.Type.INSERTED, 7L, john),
+                new MemberChange(2, MemberChange.Type.DELETED, 7L, null));
+        assertThat(changeLog.findAfter(1, 10)).extracting(MemberChange::sequence).containsExactly(2L);
+        assertThat(changeLog.findAfter(0, 1)).extracting(MemberChange::sequence).containsExactly(1L);
+    }
+
+    @Test
+    public void shouldSkipSequencesTakenByAnotherInstance() {
+        // given: both instances have seen the same end of the log
+        JdbcMemberChangeLog other = new JdbcMemberChangeLog(jdbcTemplate);
+        changeLog.append(MemberChange.Type.DELETED, 1L, null);
+        other.append(MemberChange.Type.DELETED, 2L, null);
+
+        // when
+        MemberChange change = changeLog.append(MemberChange.Type.DELETED, 3L, null);
+
+        // then
+        assertThat(change.sequence()).isEqualTo(3);
+        List<MemberChange> changes = changeLog.findAfter(0, 10);
+        assertThat(changes).extracting(MemberChange::memberId).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    public void shouldReuseSequenceOfRolledBackTransaction() {
+        // given
+        transactionTemplate.executeWithoutResult(status -> {
+            changeLog.append(MemberChange.Type.DELETED, 1L, null);
+            status.setRollbackOnly();
+        });
+
+        // when
+        MemberChange change = changeLog.append(MemberChange.Type.DELETED, 2L, null);
+
+        // then
+        assertThat(change.sequence()).isEqualTo(1);
+        assertThat(changeLog.findAfter(0, 10)).extracting(MemberChange::memberId).containsExactly(2L);
+    }
+
+    @Test
+    public void shouldHoldNextSequenceUntilTransactionCommits() throws Exception {
+        // given
+        CompletableFuture<MemberChange> concurrent = new CompletableFuture<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            changeLog.append(MemberChange.Type.DELETED, 1L, null);
+            changeLog.append(MemberChange.Type.DELETED, 2L, null);
+            CompletableFuture.runAsync(() -> concurrent.complete(changeLog.append(MemberChange.Type.DELETED, 3L, null)));
+
+            // when
+            assertThrows(TimeoutException.class, () -> concurrent.get(200, TimeUnit.MILLISECONDS));
+        });
+
+        // then
+        assertThat(concurrent.get(5, TimeUnit.SECONDS).sequence()).isEqualTo(3);
+        assertThat(changeLog.findAfter(0, 10)).extracting(MemberChange::memberId).containsExactly(1L, 2L, 3L);
+    }
+}
@@ -0,0 +1,108 @@
+package org.jboss.as.quickstarts.kitchensink.data.deadline;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class DeadlineDataSourceTest {
+
+    private DeadlineDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DeadlineDataSource(new DriverManagerDataSource("jdbc:h2:mem:deadline;DB_CLOSE_DELAY=-1", "sa", ""));
+    }
+
+    @Test
+    public void shouldLeaveStatementsAloneWithoutDeadline() throws Exception {
+        // when
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT 1")) {
+
+            // then
+            assertThat(statement.getQueryTimeout()).isZero();
+        }
+    }
+
+    @Test
+    public void shouldApplyRemainingTimeAsQueryTimeout() throws Exception {
+        // given: connected first, so opening the database does not eat into the deadline
+        try (Connection connection = dataSource.getConnection();
+             QueryDeadline deadline = QueryDeadline.start(2500)) {
+
+            // when
+            try (PreparedStatement statement = connection.prepareStatement("SELECT 1")) {
+
+                // then: rounded up to whole seconds
+                assertThat(statement.getQueryTimeout()).isEqualTo(3);
+            }
+        }
+        assertThat(QueryDeadline.current()).isNull();
+    }
+
+    @Test
+    public void shouldRefuseStatementsAfterDeadline() throws Exception {
+        // given
+        try (QueryDeadline deadline = QueryDeadline.start(10_000);
+             Connection connection = dataSource.getConnection()) {
+            deadline.cancel();
+
+            // when, then
+            assertThrows(SQLTimeoutException.class, () -> connection.prepareStatement("SELECT 1"));
+        }
+    }
+
+    @Test
+    public void shouldCancelRunningStatement() throws Exception {
+        // given: a query that would run for minutes
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (QueryDeadline deadline = QueryDeadline.start(60_000);
+             Connection connection = dataSource.getConnection()) {
+            PreparedStatement statement = connection.prepareStatement(
+                    "SELECT COUNT(*) FROM SYSTEM_RANGE(1, 100000) a, SYSTEM_RANGE(1, 100000) b");
+            Future<?> query = executor.submit(() -> statement.execute());
+            Thread.sleep(200);
+
+            // when
+            deadline.cancel();
+
+            // then
+            Exception failure = assertThrows(Exception.class, () -> query.get(10, TimeUnit.SECONDS));
+            assertThat(failure.getCause()).isInstanceOf(SQLException.class);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void shouldCarryDeadlineToOtherThreads() throws Exception {
+        // given
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (QueryDeadline deadline = QueryDeadline.start(10_000)) {
+
+            // when: the task is bound on this thread and run on the other one
+            Supplier<QueryDeadline> task = QueryDeadline.propagate(QueryDeadline::current);
+            QueryDeadline seen = executor.submit(task::get).get();
+            QueryDeadline afterwards = executor.submit(QueryDeadline::current).get();
+
+            // then
+            assertThat(seen).isSameAs(deadline);
+            assertThat(afterwards).isNull();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package org.jboss.as.quickstarts.kitchensink.data.deadline;
+
+import com.mongodb.ReadPreference;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.CountOptions;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.longThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class DeadlineMongoTemplateTest {
+
+    @Mock
+    private MongoCollection<Document> collection;
+
+    @Mock
+    private FindIterable<Document> findIterable;
+
+    @Test
+    public void shouldApplyRemainingTimeAsMaxTime() {
+        // given
+        Document filter = new Document("member_id", 1L);
+        when(collection.find(filter, Document.class)).thenReturn(findIterable);
+        when(findIterable.maxTime(anyLong(), eq(TimeUnit.MILLISECONDS))).thenReturn(findIterable);
+
+        try (QueryDeadline deadline = QueryDeadline.start(5000)) {
+            // when
+            DeadlineMongoTemplate.withDeadline(collection, deadline).find(filter, Document.class);
+
+            // then
+            verify(findIterable).maxTime(longThat(ms -> ms > 4000 && ms <= 5000),
+                    eq(TimeUnit.MILLISECONDS));
+        }
+    }
+
+    @Test
+    public void shouldLimitCountsAndDerivedCollections() {
+        // given
+        CountOptions options = new CountOptions();
+        when(collection.withReadPreference(ReadPreference.secondary())).thenReturn(collection);
+
+        try (QueryDeadline deadline = QueryDeadline.start(5000)) {
+            // when
+            MongoCollection<Document> secondary = DeadlineMongoTemplate.withDeadline(collection, deadline)
+                    .withReadPreference(ReadPreference.secondary());
+            secondary.countDocuments(new Document(), options);
+
+            // then
+            assertThat(options.getMaxTime(TimeUnit.MILLISECONDS)).isBetween(4000L, 5000L);
+            verify(collection).countDocuments(any(Document.class), eq(options));
+        }
+    }
+
+    @Test
+    public void shouldRefuseOperationsAfterDeadline() {
+        // given
+        try (QueryDeadline deadline = QueryDeadline.start(5000)) {
+            deadline.cancel();
+            MongoCollection<Document> bounded = DeadlineMongoTemplate.withDeadline(collection, deadline);
+
+            // when, then
+            assertThrows(QueryTimeoutException.class, () -> bounded.find(new Document()));
+            verify(collection, never()).find(any(Document.class));
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package org.jboss.as.quickstarts.kitchensink.data.jdbc;
+
+import org.jboss.as.quickstarts.kitchensink.data.AbstractMemberStoreTest;
+import org.jboss.as.quickstarts.kitchensink.data.changes.JdbcMemberChangeLog;
+import org.jboss.as.quickstarts.kitchensink.model.Member;
+import org.jboss.as.quickstarts.kitchensink.model.MemberChange;
+import org.jboss.as.quickstarts.kitchensink.model.MemberView;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.groups.Tuple.tuple;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Runs against the Hibernate-generated schema, without a test transaction like the JPA store test
+ */
+@DataJpaTest
+@Import(JdbcMemberStore.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+    "mongodb.enabled=false",
+    "jdbc.enabled=true"
+})
+public class JdbcMemberStoreTest extends AbstractMemberStoreTest {
+
+    @Autowired
+    private JdbcMemberStore jdbcMemberStore;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void useJdbcStore() {
+        memberStore = jdbcMemberStore;
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcMemberStore.setChangeLog(null);
+        jdbcTemplate.update("DELETE FROM member");
+        jdbcTemplate.execute("DROP TABLE IF EXISTS member_change");
+    }
+
+    @Test
+    public void shouldMaintainDerivedKeysOnInsert() {
+        // given
+        Member member = member("John DOE", "john@Example.com");
+
+        // when
+        memberStore.insertIfEmailAbsent(member);
+
+        // then
+        assertThat(jdbcTemplate.queryForObject("SELECT name_key FROM member WHERE id = ?", String.class, member.getId()))
+                .isEqualTo("john doe");
+        assertThat(jdbcTemplate.queryForObject("SELECT email_domain_key FROM member WHERE id = ?", String.class, member.getId()))
+                .isEqualTo("com.example.");
+    }
+
+    @Test
+    public void shouldMatchLikeWildcardsInNameLiterally() {
+        // given
+        memberStore.insertIfEmailAbsent(member("Ann % Lee", "percent@example.com"));
+        memberStore.insertIfEmailAbsent(member("Ann\\Lee", "backslash@example.com"));
+        memberStore.insertIfEmailAbsent(member("Ann Lee", "plain@example.com"));
+
+        // when
+        List<MemberView> byPercent = memberStore.findViewsByNameContaining("%");
+        List<MemberView> byUnderscore = memberStore.findViewsByNameContaining("n_l");
+        List<MemberView> byBackslash = memberStore.findViewsByNameContaining("\\");
+
+        // then
+        assertThat(byPercent).extracting(MemberView::name).containsExactly("Ann % Lee");
+        assertThat(byUnderscore).isEmpty();
+        assertThat(byBackslash).extracting(MemberView::name).containsExactly("Ann\\Lee");
+    }
+
+    @Test
+    public void shouldAssignIdsAcrossInsertBatches() {
+        // given
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i <= JdbcMemberStore.BATCH_SIZE; i++) {
+            members.add(member("Member " + (char) ('a' + i % 26), "member" + i + "@example.com"));
+        }
+
+        // when
+        memberStore.insertAll(members);
+
+        // then
+        assertThat(members).extracting(Member::getId).doesNotContainNull().doesNotHaveDuplicates();
+        assertThat(memberStore.count()).isEqualTo(JdbcMemberStore.BATCH_SIZE + 1);
+        assertThat(memberStore.findViewById(members.get(JdbcMemberStore.BATCH_SIZE).getId()))
+                .map(MemberView::email).contains("member" + JdbcMemberStore.BATCH_SIZE + "@example.com");
+    }
+
+    @Test
+    public void shouldRecordOnlyWritesThatTookEffect() {
+        // given
+        JdbcMemberChangeLog changeLog = new JdbcMemberChangeLog(jdbcTemplate);
+        jdbcMemberStore.setChangeLog(changeLog);
+        Member john = member("John Doe", "john@example.com");
+        List<Member> batch = List.of(member("Jane Smith", "jane@example.com"), member("Jim Beam", "jim@example.com"));
+
+        // when
+        memberStore.insertIfEmailAbsent(john);
+        memberStore.insertIfEmailAbsent(member("John Again", "john@example.com"));
+        memberStore.insertAll(batch);
+        memberStore.deleteById(john.getId());
+        memberStore.deleteById(john.getId());
+
+        // then
+        assertThat(changeLog.findAfter(0, 10)).extracting(MemberChange::type, MemberChange::memberId).containsExactly(
+                tuple(MemberChange.Type.INSERTED, john.getId()),
+                tuple(MemberChange.Type.INSERTED, batch.get(0).getId()),
+                tuple(MemberChange.Type.INSERTED, batch.get(1).getId()),
+                tuple(MemberChange.Type.DELETED, john.getId()));
+    }
+
+    @Test
+    public void shouldRollBackWriteWhenChangeCannotBeRecorded() {
+        // given
+        jdbcMemberStore.setChangeLog(new JdbcMemberChangeLog(jdbcTemplate) {
+            @Override
+            protected void insert(MemberChange change) {
+                throw new DataAccessResourceFailureException("Change log unavailable");
+            }
+        });
+        Member member = member("John Doe", "john@example.com");
+
+        // when
+        assertThrows(DataAccessResourceFailureException.class, () -> memberStore.insertIfEmailAbsent(member));
+
+        // then
+        assertThat(member.getId()).isNull();
+        assertThat(memberStore.count()).isZero();
+    }
+
+    @Test
+    public void shouldFailBatchOnViolationOtherThanTakenEmail() {
+        // given
+        List<Member> members = List.of(member("John Doe", "john@example.com"), member("A Name Much Too Long For The Column", "long@example.com"));
+
+        // when
+        assertThrows(DataIntegrityViolationException.class, () -> memberStore.insertAllIfEmailAbsent(members));
+
+        // then: not mistaken for a taken email and retried member by member
+        assertThat(members).extracting(Member::getId).containsOnlyNulls();
+        assertThat(memberStore.count()).isZero();
+    }
+}
@@ -0,0 +1,234 @@
+package org.jboss.as.quickstarts.kitchensink.data.logstore;
+
+import org.jboss.as.quickstarts.kitchensink.data.AbstractMemberRepositoryTest;
+import org.jboss.as.quickstarts.kitchensink.model.Member;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class LogStructuredMemberRepositoryTest extends AbstractMemberRepositoryTest {
+
+    private static final int SEGMENT_SIZE = 4096;
+
+    @TempDir
+    Path directory;
+
+    private LogStructuredMemberRepository repository;
+
+    @BeforeEach
+    void openRepository() {
+        repository = open(5);
+        memberRepository = repository;
+    }
+
+    @AfterEach
+    void closeRepository() throws IOException {
+        repository.destroy();
+    }
+
+    @Override
+    protected void persist(Member member) {
+        memberRepository.save(member);
+    }
+
+    @Test
+    public void shouldRecoverMembersAfterRestart() throws IOException {
+        // given
+        Member john = member("John Doe", "john@example.com");
+        Member jane = member("Jane Smith", "jane@example.com");
+        repository.saveAll(List.of(john, jane));
+        john.setName("John Updated");
+        repository.save(john);
+        repository.deleteById(jane.getId());
+
+        // when
+        reopen(5);
+
+        // then
+        assertThat(repository.findAll()).extracting(Member::getName).containsExactly("John Updated");
+        assertThat(repository.findByEmail("jane@example.com")).isEmpty();
+        assertThat(repository.save(member("New", "new@example.com")).getId()).isGreaterThan(jane.getId());
+    }
+
+    @Test
+    public void shouldRejectWholeBatchWhenAnEmailIsTaken() throws IOException {
+        // given
+        repository.save(member("John Doe", "john@example.com"));
+        List<Member> takenBefore = List.of(member("Jane Smith", "jane@example.com"), member("John Again", "john@example.com"));
+        List<Member> takenInBatch = List.of(member("Jim Beam", "jim@example.com"), member("Jim Again", "jim@example.com"));
+
+        // when
+        assertThrows(DuplicateKeyException.class, () -> repository.saveAll(takenBefore));
+        assertThrows(DuplicateKeyException.class, () -> repository.saveAll(takenInBatch));
+        reopen(5);
+
+        // then
+        assertThat(repository.findAll()).extracting(Member::getEmail).containsExactly("john@example.com");
+        assertThat(takenBefore).extracting(Member::getId).containsOnlyNulls();
+        assertThat(takenInBatch).extracting(Member::getId).containsOnlyNulls();
+    }
+
+    @Test
+    public void shouldSyncEachWriteWhenBatchingIsDisabled() throws IOException {
+        // given
+        repository.destroy();
+        repository = open(0);
+
+        // when
+        repository.save(member("John Doe", "john@example.com"));
+        reopen(0);
+
+        // then
+        assertThat(repository.findByEmail("john@example.com")).isPresent();
+    }
+
+    @Test
+    public void shouldRollSegmentsAndCompactToCheckpoint() throws IOException {
+        // given: enough rewrites of one member to fill several segments
+        Member member = member("John Doe", "john@example.com");
+        for (int i = 0; i < 200; i++) {
+            member.setName("John Doe " + i);
+            repository.save(member);
+        }
+        assertThat(repository.segmentCount()).isGreaterThan(1);
+
+        // when
+        repository.compact();
+        repository.save(member("Jane Smith", "jane@example.com"));
+        reopen(5);
+
+        // then
+        assertThat(repository.segmentCount()).isEqualTo(1);
+        assertThat(files("checkpoint-")).hasSize(1);
+        assertThat(repository.findAll()).extracting(Member::getName)
+                .containsExactlyInAnyOrder("John Doe 199", "Jane Smith");
+    }
+
+    @Test
+    public void shouldNotReuseIdsOfMembersDeletedBeforeCheckpoint() throws IOException {
+        // given
+        repository.save(member("John Doe", "john@example.com"));
+        Member jane = member("Jane Smith", "jane@example.com");
+        repository.save(jane);
+        repository.deleteById(jane.getId());
+
+        // when
+        repository.compact();
+        reopen(5);
+        Member bob = member("Bob Jones", "bob@example.com");
+        repository.save(bob);
+
+        // then
+        assertThat(bob.getId()).isGreaterThan(jane.getId());
+    }
+
+    @Test
+    public void shouldUndoWritesWhoseSyncTimesOut() throws IOException {
+        // given: a stored member, then a log that is not synced before the writers give up
+        Member john = member("John Doe", "john@example.com");
+        repository.save(john);
+        reopen(60_000, 50);
+
+        // when
+        Member jane = member("Jane Smith", "jane@example.com");
+        assertThrows(DataAccessResourceFailureException.class, () -> repository.save(jane));
+        assertThrows(DataAccessResourceFailureException.class, () -> repository.deleteById(john.getId()));
+
+        // then
+        assertThat(jane.getId()).isNull();
+        assertThat(repository.findByEmail("jane@example.com")).isEmpty();
+        assertThat(repository.findByEmail("john@example.com")).isPresent();
+        reopen(5);
+        assertThat(repository.findAll()).extracting(Member::getName).containsExactly("John Doe");
+    }
+
+    @Test
+    public void shouldIgnoreTornRecordAtEndOfLog() throws IOException {
+        // given
+        Member john = member("John Doe", "john@example.com");
+        repository.save(john);
+        repository.save(member("Jane Smith", "jane@example.com"));
+        repository.destroy();
+
+        // when: the last record's payload is overwritten as if the write was cut short by a crash
+        Path segment = files("segment-").get(0);
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            int firstLength = readInt(file, 0);
+            long secondPayload = 8L + firstLength + 8;
+            file.seek(secondPayload + 4);
+            file.write(new byte[] {0x7f, 0x7f, 0x7f, 0x7f});
+        }
+        repository = open(5);
+        memberRepository = repository;
+
+        // then
+        assertThat(repository.findAll()).extracting(Member::getName).containsExactly("John Doe");
+        repository.save(member("Jane Smith", "jane@example.com"));
+        reopen(5);
+        assertThat(repository.count()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldRecoverClearedStore() throws IOException {
+        // given
+        repository.save(member("John Doe", "john@example.com"));
+
+        // when
+        repository.deleteAll();
+        reopen(5);
+
+        // then
+        assertThat(repository.count()).isZero();
+    }
+
+    private LogStructuredMemberRepository open(long fsyncIntervalMillis) {
+        return open(fsyncIntervalMillis, 30_000);
+    }
+
+    private LogStructuredMemberRepository open(long fsyncIntervalMillis, long syncTimeoutMillis) {
+        return new LogStructuredMemberRepository(directory, SEGMENT_SIZE, fsyncIntervalMillis, syncTimeoutMillis, 0.5, 0);
+    }
+
+    private void reopen(long fsyncIntervalMillis) throws IOException {
+        reopen(fsyncIntervalMillis, 30_000);
+    }
+
+    private void reopen(long fsyncIntervalMillis, long syncTimeoutMillis) throws IOException {
+        repository.destroy();
+        repository = open(fsyncIntervalMillis, syncTimeoutMillis);
+        memberRepository = repository;
+    }
+
+    private List<Path> files(String prefix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return new ArrayList<>(files.filter(file -> file.getFileName().toString().startsWith(prefix)).sorted().toList());
+        }
+    }
+
+    private static int readInt(RandomAccessFile file, long position) throws IOException {
+        file.seek(position);
+        return file.readInt();
+    }
+
+    private static Member member(String name, String email) {
+        Member member = new Member();
+        member.setName(name);
+        member.setEmail(email);
+        member.setPhoneNumber("1234567890");
+        return member;
+    }
+}
@@ -0,0 +1,184 @@
+package org.jboss.as.quickstarts.kitchensink.data.memory;
+
+import jakarta.persistence.EntityNotFoundException;
+import org.jboss.as.quickstarts.kitchensink.data.AbstractMemberRepositoryTest;
+import org.jboss.as.quickstarts.kitchensink.model.Member;
+import org.jboss.as.quickstarts.kitchensink.model.MemberView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class InMemoryMemberRepositoryTest extends AbstractMemberRepositoryTest {
+
+    @BeforeEach
+    void useInMemoryRepository() {
+        memberRepository = new InMemoryMemberRepository();
+    }
+
+    @Override
+    protected void persist(Member member) {
+        memberRepository.save(member);
+    }
+
+    @Test
+    public void shouldReturnDetachedCopies() {
+        // given
+        Member member = member("John Doe", "john@example.com");
+        persist(member);
+
+        // when
+        Member loaded = memberRepository.findById(member.getId()).orElseThrow();
+        loaded.setName("Changed");
+
+        // then
+        assertThat(memberRepository.findById(member.getId())).map(Member::getName).contains("John Doe");
+    }
+
+    @Test
+    public void shouldKeepGeneratedIdsAheadOfExplicitOnes() {
+        // given
+        Member explicit = member("Explicit", "explicit@example.com");
+        explicit.setId(40L);
+        persist(explicit);
+
+        // when
+        Member generated = member("Generated", "generated@example.com");
+        persist(generated);
+
+        // then
+        assertThat(generated.getId()).isEqualTo(41L);
+    }
+
+    @Test
+    public void shouldSortAndPage() {
+        // given
+        persist(member("carol", "c@example.com"));
+        persist(member("Alice", "a@example.com"));
+        persist(member("bob", "b@example.com"));
+
+        // when
+        Page<Member> page = memberRepository.findAll(PageRequest.of(0, 2, Sort.by(Sort.Order.asc("name").ignoreCase())));
+        List<Member> byEmailDesc = memberRepository.findAll(Sort.by(Sort.Direction.DESC, "email"));
+
+        // then
+        assertThat(page.getContent()).extracting(Member::getName).containsExactly("Alice", "bob");
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(byEmailDesc).extracting(Member::getName).containsExactly("carol", "bob", "Alice");
+        assertThrows(IllegalArgumentException.class, () -> memberRepository.findAll(Sort.by("unknown")));
+    }
+
+    @Test
+    public void shouldRejectNullIds() {
+        assertThrows(IllegalArgumentException.class, () -> memberRepository.findById(null));
+        assertThrows(IllegalArgumentException.class, () -> memberRepository.existsById(null));
+        assertThrows(IllegalArgumentException.class, () -> memberRepository.deleteById(null));
+    }
+
+    @Test
+    public void shouldMatchByExample() {
+        // given
+        persist(member("John Smith", "john@example.com"));
+        persist(member("Jane Smith", "jane@example.com"));
+        Member probe = new Member();
+        probe.setName("smith");
+
+        // when
+        List<Member> containing = memberRepository.findAll(Example.of(probe, ExampleMatcher.matching()
+                .withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING)
+                .withIgnoreCase()));
+        List<Member> exact = memberRepository.findAll(Example.of(probe));
+
+        // then
+        assertThat(containing).hasSize(2);
+        assertThat(exact).isEmpty();
+    }
+
+    @Test
+    public void shouldRunFluentQueryByExample() {
+        // given
+        persist(member("John Smith", "john@example.com"));
+        persist(member("Jane Smith", "jane@example.com"));
+        persist(member("Bob Jones", "bob@example.com"));
+        Member probe = new Member();
+        probe.setName("smith");
+        Example<Member> example = Example.of(probe, ExampleMatcher.matching()
+                .withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING)
+                .withIgnoreCase());
+
+        // when
+        List<Member> sorted = memberRepository.findBy(example, query -> query.sortBy(Sort.by("name")).all());
+        long count = memberRepository.findBy(example, query -> query.count());
+        List<MemberView> views = memberRepository.findBy(example,
+                query -> query.sortBy(Sort.by("name")).as(MemberView.class).all());
+        Page<Member> page = memberRepository.findBy(example,
+                query -> query.page(PageRequest.of(0, 1, Sort.by(Sort.Direction.DESC, "name"))));
+
+        // then
+        assertThat(sorted).extracting(Member::getName).containsExactly("Jane Smith", "John Smith");
+        assertThat(count).isEqualTo(2);
+        assertThat(views).extracting(MemberView::email).containsExactly("jane@example.com", "john@example.com");
+        assertThat(page.getContent()).extracting(Member::getName).containsExactly("John Smith");
+        assertThat(page.getTotalElements()).isEqualTo(2);
+        assertThrows(IncorrectResultSizeDataAccessException.class,
+                () -> memberRepository.findBy(example, query -> query.oneValue()));
+    }
+
+    @Test
+    public void shouldRejectTakenEmail() {
+        // given
+        Member john = member("John Doe", "john@example.com");
+        persist(john);
+
+        // when, then
+        assertThrows(DuplicateKeyException.class, () -> persist(member("Johnny", "john@example.com")));
+        assertThrows(DuplicateKeyException.class, () -> memberRepository.saveAll(List.of(
+                member("Jane Doe", "jane@example.com"), member("Janet Doe", "jane@example.com"))));
+        john.setName("John Smith");
+        persist(john);
+        assertThat(memberRepository.count()).isEqualTo(1);
+        assertThat(memberRepository.findByEmail("john@example.com")).map(Member::getName).contains("John Smith");
+    }
+
+    @Test
+    public void shouldFailReferenceToMissingMember() {
+        assertThrows(EntityNotFoundException.class, () -> memberRepository.getReferenceById(99L));
+    }
+
+    @Test
+    public void shouldSurviveManyInsertsAndDeletes() {
+        // given
+        for (int i = 0; i < 5_000; i++) {
+            persist(member("Member " + (char) ('a' + i % 26), "member" + i + "@example.com"));
+        }
+
+        // when
+        for (long id = 1; id <= 5_000; id += 2) {
+            memberRepository.deleteById(id);
+        }
+
+        // then
+        assertThat(memberRepository.count()).isEqualTo(2_500);
+        assertThat(memberRepository.findByEmail("member1@example.com")).map(Member::getId).contains(2L);
+        assertThat(memberRepository.findByEmail("member0@example.com")).isEmpty();
+        assertThat(memberRepository.findAllViewsOrderedByName()).hasSize(2_500);
+    }
+
+    private static Member member(String name, String email) {
+        Member member = new Member();
+        member.setName(name);
+        member.setEmail(email);
+        member.setPhoneNumber("1234567890");
+        return member;
+    }
+}
@@ -0,0 +1,28 @@
+package org.jboss.as.quickstarts.kitchensink.data.memory;
+
+import org.jboss.as.quickstarts.kitchensink.data.AbstractMemberStoreTest;
+import org.jboss.as.quickstarts.kitchensink.model.Member;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class InMemoryMemberStoreTest extends AbstractMemberStoreTest {
+
+    @BeforeEach
+    void useInMemoryStore() {
+        memberStore = new InMemoryMemberRepository();
+    }
+
+    @Test
+    public void shouldCompleteAsyncOperationsInCallingThread() {
+        // given
+        Member member = member("John Doe", "john@example.com");
+
+        // when, then: nothing blocks, so the futures are already done
+        assertThat(memberStore.insertAllAsync(List.of(member))).isDone();
+        assertThat(memberStore.findViewByIdAsync(member.getId())).isCompletedWithValueMatching(view -> view.isPresent());
+    }
+}
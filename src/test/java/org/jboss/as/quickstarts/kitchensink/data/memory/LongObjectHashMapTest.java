@@ -0,0 +1,53 @@
+package org.jboss.as.quickstarts.kitchensink.data.memory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LongObjectHashMapTest {
+
+    @Test
+    void shouldBehaveLikeHashMapUnderRandomOperations() {
+        // given
+        LongObjectHashMap<String> map = new LongObjectHashMap<>(0);
+        Map<Long, String> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        // when: a small key space forces long probe runs, collisions and backward shifts
+        for (int i = 0; i < 100_000; i++) {
+            long key = random.nextInt(2_000) - 1_000L;
+            if (random.nextInt(3) == 0) {
+                assertThat(map.remove(key)).isEqualTo(expected.remove(key));
+            } else {
+                String value = "v" + i;
+                assertThat(map.put(key, value)).isEqualTo(expected.put(key, value));
+            }
+        }
+
+        // then
+        assertThat(map.size()).isEqualTo(expected.size());
+        for (long key = -1_000; key < 1_000; key++) {
+            assertThat(map.get(key)).isEqualTo(expected.get(key));
+        }
+    }
+
+    @Test
+    void shouldVisitEveryValue() {
+        // given
+        LongObjectHashMap<Long> map = new LongObjectHashMap<>(4);
+        for (long key = 0; key < 100; key++) {
+            map.put(key, key);
+        }
+
+        // when
+        long[] sum = {0};
+        map.forEachValue(value -> sum[0] += value);
+
+        // then
+        assertThat(sum[0]).isEqualTo(4_950);
+    }
+}
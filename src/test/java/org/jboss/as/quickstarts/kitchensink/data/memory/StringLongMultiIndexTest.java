@@ -0,0 +1,66 @@
+package org.jboss.as.quickstarts.kitchensink.data.memory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StringLongMultiIndexTest {
+
+    @Test
+    void shouldKeepIdsPerKey() {
+        // given
+        StringLongMultiIndex index = new StringLongMultiIndex(0);
+
+        // when
+        index.add("1234567890", 1L);
+        index.add("1234567890", 2L);
+        index.add("1234567890", 2L);
+        index.add("0987654321", 3L);
+        index.remove("1234567890", 1L);
+
+        // then
+        assertThat(index.get("1234567890")).containsExactly(2L);
+        assertThat(index.get("0987654321")).containsExactly(3L);
+        assertThat(index.get("missing")).isEmpty();
+        assertThat(index.get(null)).isEmpty();
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldBehaveLikeMapOfSetsUnderRandomOperations() {
+        // given
+        StringLongMultiIndex index = new StringLongMultiIndex(0);
+        Map<String, Set<Long>> expected = new HashMap<>();
+        Random random = new Random(7);
+
+        // when
+        for (int i = 0; i < 50_000; i++) {
+            String key = "key" + random.nextInt(500);
+            long id = random.nextInt(4);
+            if (random.nextBoolean()) {
+                index.add(key, id);
+                expected.computeIfAbsent(key, k -> new LinkedHashSet<>()).add(id);
+            } else {
+                index.remove(key, id);
+                Set<Long> ids = expected.get(key);
+                if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                    expected.remove(key);
+                }
+            }
+        }
+
+        // then
+        assertThat(index.size()).isEqualTo(expected.size());
+        for (int k = 0; k < 500; k++) {
+            String key = "key" + k;
+            Set<Long> ids = expected.getOrDefault(key, Set.of());
+            assertThat(index.get(key)).containsExactlyInAnyOrder(ids.stream().mapToLong(Long::longValue).toArray());
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package org.jboss.as.quickstarts.kitchensink.data.migration;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.jboss.as.quickstarts.kitchensink.data.MemberStore;
+import org.jboss.as.quickstarts.kitchensink.model.Member;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class DualWriteMemberStoreTest {
+
+    @Mock
+    private MemberStore primary;
+
+    @Mock
+    private MongoOperations mongoOperations;
+
+    @Mock
+    private BulkOperations bulk;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private DualWriteMemberStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new DualWriteMemberStore(primary, mongoOperations, meterRegistry);
+    }
+
+    @Test
+    public void shouldMirrorRegistrationIntoMongo() {
+        // given
+        Member member = member();
+        when(primary.insertIfEmailAbsent(member)).thenReturn(true);
+        when(mongoOperations.bulkOps(any(BulkOperations.BulkMode.class), anyString())).thenReturn(bulk);
+
+        // when
+        boolean inserted = store.insertIfEmailAbsent(member);
+
+        // then
+        assertThat(inserted).isTrue();
+        verify(bulk).upsert(any(Query.class), any(Update.class));
+        verify(bulk).execute();
+    }
+
+    @Test
+    public void shouldNotMirrorRejectedRegistration() {
+        // given
+        Member member = member();
+        when(primary.insertIfEmailAbsent(member)).thenReturn(false);
+
+        // when
+        boolean inserted = store.insertIfEmailAbsent(member);
+
+        // then
+        assertThat(inserted).isFalse();
+        verify(mongoOperations, never()).bulkOps(any(BulkOperations.BulkMode.class), anyString());
+    }
+
+    @Test
+    public void shouldKeepPrimaryWriteWhenMirrorFails() {
+        // given
+        Member member = member();
+        when(primary.insertIfEmailAbsent(member)).thenReturn(true);
+        when(mongoOperations.bulkOps(any(BulkOperations.BulkMode.class), anyString()))
+                .thenThrow(new DataAccessResourceFailureException("MongoDB is down"));
+
+        // when
+        boolean inserted = store.insertIfEmailAbsent(member);
+
+        // then
+        assertThat(inserted).isTrue();
+        assertThat(meterRegistry.get("members.migration.dual-write.failures").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldMirrorDeletion() {
+        // when
+        store.deleteById(5L);
+
+        // then
+        verify(primary).deleteById(5L);
+        verify(mongoOperations).remove(any(Query.class), anyString());
+    }
+
+    private static Member member() {
+        Member member = new Member();
+        member.setId(5L);
+        member.setName("John Doe");
+        member.setEmail("john@example.com");
+        member.setPhoneNumber("1234567890");
+        return member;
+    }
+}
@@ -0,0 +1,177 @@
+package org.jboss.as.quickstarts.kitchensink.data.migration;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.bson.Document;
+import org.jboss.as.quickstarts.kitchensink.data.MemberRepository;
+import org.jboss.as.quickstarts.kitchensink.model.Member;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs without a test transaction, since the stores are scanned on separate threads
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+    "mongodb.enabled=false"
+})
+public class MemberConsistencyVerifierTest {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final MongoOperations mongoOperations = mock(MongoOperations.class);
+    private final BulkOperations bulk = mock(BulkOperations.class);
+    private final List<Document> documents = new ArrayList<>();
+    private final List<Member> members = new ArrayList<>();
+    private MemberConsistencyVerifier verifier;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 40; i++) {
+            Member member = new Member();
+            member.setName("Member " + (char) ('a' + i % 26));
+            member.setEmail("member" + i + "@example.com");
+            member.setPhoneNumber("1234567890");
+            members.add(memberRepository.save(member));
+            documents.add(document(member.getId(), member.getName(), member.getEmail(), member.getPhoneNumber()));
+        }
+        when(mongoOperations.stream(any(Query.class), eq(Document.class), anyString()))
+                .thenAnswer(invocation -> documents.stream());
+        when(mongoOperations.find(any(Query.class), eq(Document.class), anyString())).thenAnswer(invocation -> {
+            Document range = (Document) invocation.<Query>getArgument(0).getQueryObject().get("member_id");
+            long from = ((Number) range.get("$gte")).longValue();
+            long to = ((Number) range.get("$lte")).longValue();
+            return documents.stream()
+                    .filter(document -> document.getLong("member_id") >= from && document.getLong("member_id") <= to)
+                    .toList();
+        });
+        when(mongoOperations.bulkOps(any(BulkOperations.BulkMode.class), anyString())).thenReturn(bulk);
+        // Leaves of four IDs and binary nodes give a tree several levels deep
+        verifier = new MemberConsistencyVerifier(mongoOperations, transactionManager, new SimpleMeterRegistry(), 4, 2, 100);
+        ReflectionTestUtils.setField(verifier, "entityManager", entityManager);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        verifier.destroy();
+        memberRepository.deleteAll();
+    }
+
+    @Test
+    public void shouldNotFetchAnyRangeWhenStoresMatch() {
+        // when
+        MemberConsistencyReport report = verifier.verify(false);
+
+        // then
+        assertThat(report.isConsistent()).isTrue();
+        assertThat(report.jpaMembers()).isEqualTo(40);
+        assertThat(report.mongoMembers()).isEqualTo(40);
+        assertThat(report.rangesCompared()).isEqualTo(1);
+        verify(mongoOperations, never()).find(any(Query.class), eq(Document.class), anyString());
+    }
+
+    @Test
+    public void shouldReportDifferencesFromMismatchedRangesOnly() {
+        // given
+        Member changed = members.get(3);
+        documents.set(3, document(changed.getId(), changed.getName(), changed.getEmail(), "0987654321"));
+        Member missing = members.get(30);
+        documents.remove(30);
+        documents.add(document(missing.getId() + 1000, "Ghost", "ghost@example.com", "1234567890"));
+
+        // when
+        MemberConsistencyReport report = verifier.verify(false);
+
+        // then
+        assertThat(report.different()).containsExactly(changed.getId());
+        assertThat(report.missingInMongo()).containsExactly(missing.getId());
+        assertThat(report.extraInMongo()).containsExactly(missing.getId() + 1000);
+        assertThat(report.rangesFetched()).isEqualTo(3);
+        verify(mongoOperations, times(3)).find(any(Query.class), eq(Document.class), anyString());
+        verify(mongoOperations, never()).bulkOps(any(BulkOperations.BulkMode.class), anyString());
+    }
+
+    @Test
+    public void shouldRepairMongoFromJpa() {
+        // given
+        Member missing = members.get(10);
+        documents.remove(10);
+        documents.add(document(missing.getId() + 1000, "Ghost", "ghost@example.com", "1234567890"));
+
+        // when
+        MemberConsistencyReport report = verifier.verify(true);
+
+        // then
+        assertThat(report.repaired()).isTrue();
+        verify(bulk, times(1)).upsert(any(Query.class), any(Update.class));
+        verify(mongoOperations).remove(any(Query.class), eq(MongoMemberMirror.MEMBERS_COLLECTION));
+    }
+
+    @Test
+    public void shouldNotRemoveMemberRegisteredBetweenRangeReads() {
+        // given: one leaf spanning every ID, and a member registered and mirrored while MongoDB is read
+        MemberConsistencyVerifier wideVerifier = new MemberConsistencyVerifier(mongoOperations, transactionManager,
+                new SimpleMeterRegistry(), 1_000_000, 2, 100);
+        ReflectionTestUtils.setField(wideVerifier, "entityManager", entityManager);
+        documents.remove(0);
+        List<Member> registered = new ArrayList<>();
+        when(mongoOperations.find(any(Query.class), eq(Document.class), anyString())).thenAnswer(invocation -> {
+            Member member = new Member();
+            member.setName("Late Member");
+            member.setEmail("late@example.com");
+            member.setPhoneNumber("1234567890");
+            registered.add(memberRepository.save(member));
+            documents.add(document(member.getId(), member.getName(), member.getEmail(), member.getPhoneNumber()));
+            return List.copyOf(documents);
+        });
+
+        // when
+        MemberConsistencyReport report = wideVerifier.verify(true);
+        wideVerifier.destroy();
+
+        // then
+        assertThat(report.extraInMongo()).doesNotContain(registered.get(0).getId());
+        verify(mongoOperations, never()).remove(any(Query.class), anyString());
+    }
+
+    private static Document document(long id, String name, String email, String phoneNumber) {
+        return new Document("member_id", id)
+                .append("name", name)
+                .append("email", email)
+                .append("phone_number", phoneNumber);
+    }
+}
@@ -0,0 +1,64 @@
+package org.jboss.as.quickstarts.kitchensink.data.migration;
+
+import org.jboss.as.quickstarts.kitchensink.model.MemberView;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MemberHashTreeTest {
+
+    @Test
+    public void shouldNotDependOnInsertionOrder() {
+        // given
+        MemberHashTree forward = new MemberHashTree(4, 2);
+        MemberHashTree backward = new MemberHashTree(4, 2);
+
+        // when
+        for (long id = 1; id <= 50; id++) {
+            forward.add(view(id, "1234567890"));
+            backward.add(view(51 - id, "1234567890"));
+        }
+
+        // then
+        assertThat(forward.height()).isEqualTo(backward.height());
+        assertThat(forward.node(forward.height() - 1, 0)).isEqualTo(backward.node(backward.height() - 1, 0));
+        assertThat(forward.count()).isEqualTo(50);
+    }
+
+    @Test
+    public void shouldConfineDifferenceToItsPath() {
+        // given
+        MemberHashTree expected = new MemberHashTree(4, 2);
+        MemberHashTree actual = new MemberHashTree(4, 2);
+        for (long id = 0; id < 32; id++) {
+            expected.add(view(id, "1234567890"));
+            actual.add(view(id, id == 9 ? "0987654321" : "1234567890"));
+        }
+
+        // then
+        assertThat(expected.node(expected.height() - 1, 0)).isNotEqualTo(actual.node(actual.height() - 1, 0));
+        assertThat(expected.node(0, 2)).isNotEqualTo(actual.node(0, 2));
+        assertThat(expected.node(1, 1)).isNotEqualTo(actual.node(1, 1));
+        assertThat(expected.node(0, 3)).isEqualTo(actual.node(0, 3));
+        assertThat(expected.node(1, 0)).isEqualTo(actual.node(1, 0));
+    }
+
+    @Test
+    public void shouldCompareTreesOfDifferentHeights() {
+        // given
+        MemberHashTree small = new MemberHashTree(4, 2);
+        MemberHashTree large = new MemberHashTree(4, 2);
+        small.add(view(1, "1234567890"));
+        large.add(view(1, "1234567890"));
+        large.add(view(100, "1234567890"));
+
+        // then
+        assertThat(large.height()).isGreaterThan(small.height());
+        assertThat(small.node(large.height() - 1, 0)).isNotEqualTo(large.node(large.height() - 1, 0));
+        assertThat(small.node(0, 0)).isEqualTo(large.node(0, 0));
+    }
+
+    private static MemberView view(long id, String phoneNumber) {
+        return new MemberView(id, "Member " + id, "member" + id + "@example.com", phoneNumber);
+    }
+}
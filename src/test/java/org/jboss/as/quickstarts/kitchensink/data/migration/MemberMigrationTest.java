@@ -0,0 +1,137 @@
+package org.jboss.as.quickstarts.kitchensink.data.migration;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.jboss.as.quickstarts.kitchensink.model.Member;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest
+@TestPropertySource(properties = {
+    "mongodb.enabled=false"
+})
+public class MemberMigrationTest {
+
+    private static final int CHUNK_SIZE = 2;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final MongoOperations mongoOperations = mock(MongoOperations.class);
+    private final BulkOperations bulk = mock(BulkOperations.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private MemberMigration migration;
+    private final List<Member> members = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 5; i++) {
+            Member member = new Member();
+            member.setName("Member " + (char) ('a' + i));
+            member.setEmail("member" + i + "@example.com");
+            member.setPhoneNumber("1234567890");
+            members.add(entityManager.persistAndFlush(member));
+        }
+        when(mongoOperations.bulkOps(any(BulkOperations.BulkMode.class), anyString())).thenReturn(bulk);
+        migration = new MemberMigration(mongoOperations, transactionManager, meterRegistry, CHUNK_SIZE, 0, false);
+        ReflectionTestUtils.setField(migration, "entityManager", entityManager.getEntityManager());
+    }
+
+    @Test
+    public void shouldCopyAllMembersInChunksAndCheckpoint() {
+        // when
+        long copied = migration.run();
+
+        // then
+        assertThat(copied).isEqualTo(5);
+        verify(mongoOperations, times(3)).bulkOps(BulkOperations.BulkMode.UNORDERED, MongoMemberMirror.MEMBERS_COLLECTION);
+        verify(bulk, times(5)).upsert(any(Query.class), any(Update.class));
+        assertThat(lastCheckpoint().get("lastId")).isEqualTo(members.get(4).getId());
+        assertThat(lastCheckpoint().get("completed")).isEqualTo(true);
+        assertThat(meterRegistry.get("members.migration.copied").counter().count()).isEqualTo(5);
+        assertThat(meterRegistry.get("members.migration.remaining").gauge().value()).isZero();
+    }
+
+    @Test
+    public void shouldResumeAfterCheckpoint() {
+        // given
+        when(mongoOperations.findById(MemberMigration.CHECKPOINT_ID, Document.class, MemberMigration.CHECKPOINTS_COLLECTION))
+                .thenReturn(new Document("lastId", members.get(2).getId()));
+
+        // when
+        long copied = migration.run();
+
+        // then
+        assertThat(copied).isEqualTo(2);
+        verify(bulk, times(2)).upsert(any(Query.class), any(Update.class));
+    }
+
+    @Test
+    public void shouldRemoveMemberDeletedWhileItsChunkWasCopied() {
+        // given: the second member is deleted after its chunk was read, before the chunk is checked
+        Member deleted = members.get(1);
+        doAnswer(invocation -> {
+            entityManager.getEntityManager()
+                    .createQuery("DELETE FROM Member m WHERE m.id = :id")
+                    .setParameter("id", deleted.getId())
+                    .executeUpdate();
+            return null;
+        }).doReturn(null).when(bulk).execute();
+
+        // when
+        migration.run();
+
+        // then
+        ArgumentCaptor<Query> removed = ArgumentCaptor.forClass(Query.class);
+        verify(mongoOperations, times(1)).remove(removed.capture(), eq(MongoMemberMirror.MEMBERS_COLLECTION));
+        Document ids = (Document) removed.getValue().getQueryObject().get("member_id");
+        assertThat((Iterable<Object>) ids.get("$in")).containsExactly(deleted.getId());
+    }
+
+    @Test
+    public void shouldAdvanceMongoMemberSequencePastCopiedIds() {
+        // when
+        migration.run();
+
+        // then
+        ArgumentCaptor<UpdateDefinition> update = ArgumentCaptor.forClass(UpdateDefinition.class);
+        verify(mongoOperations, atLeastOnce()).upsert(any(Query.class), update.capture(), eq(MongoMemberMirror.COUNTERS_COLLECTION));
+        Document max = (Document) update.getValue().getUpdateObject().get("$max");
+        assertThat(max.get("seq")).isEqualTo(members.get(4).getId());
+    }
+
+    private Document lastCheckpoint() {
+        ArgumentCaptor<UpdateDefinition> update = ArgumentCaptor.forClass(UpdateDefinition.class);
+        verify(mongoOperations, atLeastOnce()).upsert(any(Query.class), update.capture(), eq(MemberMigration.CHECKPOINTS_COLLECTION));
+        return (Document) update.getValue().getUpdateObject().get("$set");
+    }
+}
@@ -0,0 +1,127 @@
+package org.jboss.as.quickstarts.kitchensink.data.mongo;
+
+import org.jboss.as.quickstarts.kitchensink.model.Member;
+import org.jboss.as.quickstarts.kitchensink.model.MemberView;
+import org.jboss.as.quickstarts.kitchensink.model.MongoMember;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class MongoMemberStoreTest {
+
+    @Mock
+    private MongoOperations mongoOperations;
+
+    @Mock
+    private MongoMemberRepository mongoRepository;
+
+    @Mock
+    private MongoMemberIdGenerator idGenerator;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    private MongoMemberStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new MongoMemberStore(mongoOperations, mongoRepository, idGenerator, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.destroy();
+    }
+
+    @Test
+    void shouldBulkInsertWithReservedIdBlock() {
+        // given
+        when(idGenerator.nextIds(2)).thenReturn(41L);
+        when(mongoOperations.bulkOps(BulkOperations.BulkMode.UNORDERED, MongoMember.class)).thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+        Member john = member("John Doe", "john@example.com");
+        Member jane = member("Jane Smith", "jane@example.com");
+
+        // when
+        store.insertAll(List.of(john, jane));
+
+        // then: one counter update and one bulk write
+        assertThat(john.getId()).isEqualTo(41L);
+        assertThat(jane.getId()).isEqualTo(42L);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<MongoMember>> documents = ArgumentCaptor.forClass(List.class);
+        verify(bulkOperations).insert(documents.capture());
+        assertThat(documents.getValue()).extracting(MongoMember::getMemberId).containsExactly(41L, 42L);
+        verify(bulkOperations).execute();
+        verify(idGenerator, never()).nextId();
+    }
+
+    @Test
+    void shouldReportTakenEmailFromUniqueIndex() {
+        // given
+        when(mongoOperations.insert(any(MongoMember.class))).thenThrow(new DuplicateKeyException("email"));
+        Member member = member("John Doe", "john@example.com");
+
+        // when
+        boolean inserted = store.insertIfEmailAbsent(member);
+
+        // then: no read before the write
+        assertThat(inserted).isFalse();
+        assertThat(member.getId()).isNull();
+        verify(mongoRepository, never()).findByEmail(any());
+    }
+
+    @Test
+    void shouldMultiGetWithSingleQuery() {
+        // given
+        MongoMember document = new MongoMember();
+        document.setMemberId(7L);
+        document.setName("John Doe");
+        document.setEmail("john@example.com");
+        document.setPhoneNumber("1234567890");
+        when(mongoOperations.find(any(Query.class), eq(MongoMember.class))).thenReturn(List.of(document));
+
+        // when
+        List<MemberView> views = store.findViewsByIdIn(List.of(7L, 8L));
+
+        // then
+        assertThat(views).containsExactly(new MemberView(7L, "John Doe", "john@example.com", "1234567890"));
+        verify(mongoOperations, times(1)).find(any(Query.class), eq(MongoMember.class));
+        verify(mongoRepository, never()).findByMemberIdIn(any());
+    }
+
+    @Test
+    void shouldCountFromCollectionMetadata() {
+        // given
+        when(mongoOperations.estimatedCount(MongoMember.class)).thenReturn(12L);
+
+        // when, then
+        assertThat(store.count()).isEqualTo(12L);
+        verify(mongoRepository, never()).count();
+    }
+
+    private static Member member(String name, String email) {
+        Member member = new Member();
+        member.setName(name);
+        member.setEmail(email);
+        member.setPhoneNumber("1234567890");
+        return member;
+    }
+}
@@ -1,6 +1,8 @@
 package org.jboss.as.quickstarts.kitchensink.data.mongo;
 
+import org.bson.Document;
 import org.jboss.as.quickstarts.kitchensink.config.TestcontainersMongoConfig;
+import org.jboss.as.quickstarts.kitchensink.model.MemberKeys;
 import org.jboss.as.quickstarts.kitchensink.model.MongoMember;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -9,6 +11,8 @@ import org.junit.jupiter.api.Disabled;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
 
 import java.util.List;
 import java.util.Optional;
@@ -16,6 +20,7 @@ import java.util.logging.Logger;
 import org.springframework.test.context.TestPropertySource;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
 
 /**
  * Test for MongoMemberRepository using Testcontainers
@@ -32,6 +37,12 @@ public class TestcontainersMongoMemberRepositoryTest {
     @Autowired
     private MongoMemberRepository repository;
 
+    @Autowired
+    private MongoOperations mongoOperations;
+
+    @Autowired
+    private MongoMemberBackfill backfill;
+
     private MongoMember testMember;
     private MongoMember testMember2;
 
@@ -160,4 +171,20 @@ public class TestcontainersMongoMemberRepositoryTest {
         assertThat(gmailDomainMembers).hasSize(1);
         assertThat(gmailDomainMembers.get(0).getEmail()).isEqualTo("jane@gmail.com");
     }
+
+    @Test
+    void testBackfillComputesKeysLikeNewMembers() {
+        // given: a document written before the derived keys existed, with a name that is not plain ASCII
+        mongoOperations.insert(new Document("name", "ÉMILE Zola").append("email", "emile@Example.com")
+                .append("phone_number", "5555555555").append("member_id", 1000L), MongoMemberBackfill.MEMBERS_COLLECTION);
+
+        // when
+        backfill.backfill();
+
+        // then
+        Document stored = mongoOperations.findOne(Query.query(where("member_id").is(1000L)), Document.class,
+                MongoMemberBackfill.MEMBERS_COLLECTION);
+        assertThat(stored.getString("name_key")).isEqualTo(MemberKeys.nameKey("ÉMILE Zola"));
+        assertThat(stored.getString("email_domain_key")).isEqualTo("com.example.");
+    }
 }
@@ -0,0 +1,158 @@
+package org.jboss.as.quickstarts.kitchensink.data.replica;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.jboss.as.quickstarts.kitchensink.data.deadline.DeadlineDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class HedgedReadsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private ReplicaRoutingDataSource routingDataSource;
+    private HedgedReads hedgedReads;
+
+    @BeforeEach
+    void setUp() {
+        routingDataSource = new ReplicaRoutingDataSource(mock(DataSource.class),
+                List.of(mock(DataSource.class), mock(DataSource.class)));
+        routingDataSource.setAvailable(0, true);
+        routingDataSource.setAvailable(1, true);
+        hedgedReads = hedgedReads(5);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        hedgedReads.destroy();
+    }
+
+    @Test
+    public void shouldNotHedgeFastReads() {
+        // when
+        String value = hedgedReads.read(() -> "fast");
+
+        // then
+        assertThat(value).isEqualTo("fast");
+        assertThat(meterRegistry.get("members.hedge.sent").counter().count()).isZero();
+    }
+
+    @Test
+    public void shouldTakeHedgeAnswerAndCancelSlowRead() throws Exception {
+        // given: the first read runs a statement that hangs until the test ends
+        Statement statement = mock(Statement.class);
+        Connection connection = mock(Connection.class);
+        when(connection.createStatement()).thenReturn(statement);
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        DeadlineDataSource deadlineDataSource = new DeadlineDataSource(dataSource);
+        CountDownLatch running = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        Supplier<String> read = () -> {
+            if (calls.getAndIncrement() == 0) {
+                try {
+                    deadlineDataSource.getConnection().createStatement();
+                    running.countDown();
+                    release.await();
+                } catch (SQLException | InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                return "slow";
+            }
+            awaitLatch(running);
+            return "hedge";
+        };
+
+        // when
+        String value = hedgedReads.read(read);
+
+        // then
+        assertThat(value).isEqualTo("hedge");
+        verify(statement).cancel();
+        assertThat(meterRegistry.get("members.hedge.wins").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("members.hedge.win.rate").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    public void shouldStopHedgingWhenBudgetIsSpent() {
+        // given: no budget is earned, leaving only the initial hedge
+        hedgedReads.destroy();
+        hedgedReads = hedgedReads(0);
+
+        // when
+        hedgedReads.read(slowFirstRead());
+        String value = hedgedReads.read(slowFirstRead());
+
+        // then
+        assertThat(value).isEqualTo("slow");
+        assertThat(meterRegistry.get("members.hedge.sent").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("members.hedge.budget.exhausted").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldReadOnceWithSingleReplica() {
+        // given
+        routingDataSource.setAvailable(1, false);
+
+        // when
+        hedgedReads.read(slowFirstRead());
+
+        // then
+        assertThat(meterRegistry.get("members.hedge.reads").counter().count()).isZero();
+    }
+
+    @Test
+    public void shouldFailWhenEveryAttemptFails() {
+        // when, then
+        assertThrows(IllegalArgumentException.class,
+                () -> hedgedReads.read(() -> {
+                    throw new IllegalArgumentException("broken");
+                }));
+    }
+
+    private HedgedReads hedgedReads(long budgetPercent) {
+        return new HedgedReads(routingDataSource, mock(PlatformTransactionManager.class), meterRegistry,
+                0.95, budgetPercent, 5, 4);
+    }
+
+    private static void awaitLatch(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Supplier<String> slowFirstRead() {
+        AtomicInteger calls = new AtomicInteger();
+        return () -> {
+            if (calls.getAndIncrement() == 0) {
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "slow";
+            }
+            return "hedge";
+        };
+    }
+}
@@ -0,0 +1,94 @@
+package org.jboss.as.quickstarts.kitchensink.data.replica;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Nothing replicates between the two H2 databases, so the test copies the heartbeat itself
+ */
+public class ReplicaLagMonitorTest {
+
+    private static final long MAX_LAG_MILLIS = 5_000;
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private DataSource primary;
+    private DataSource replica;
+    private ReplicaRoutingDataSource routingDataSource;
+    private ReplicaLagMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        primary = ReplicaRoutingDataSourceTest.node("lag-primary");
+        replica = ReplicaRoutingDataSourceTest.node("lag-replica");
+        routingDataSource = new ReplicaRoutingDataSource(primary, List.of(replica));
+        // A check interval of 0 leaves checking to the test
+        monitor = new ReplicaLagMonitor(routingDataSource, MAX_LAG_MILLIS, 0, meterRegistry, now::get);
+    }
+
+    @AfterEach
+    void tearDown() {
+        monitor.destroy();
+        new JdbcTemplate(primary).execute("DROP ALL OBJECTS");
+        new JdbcTemplate(replica).execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    public void shouldAdmitReplicaThatCaughtUp() {
+        // given
+        monitor.check();
+        replicate();
+
+        // when
+        now.addAndGet(1_000);
+        monitor.check();
+
+        // then
+        assertThat(routingDataSource.isAvailable(0)).isTrue();
+        assertThat(meterRegistry.get("members.replica.lag").gauge().value()).isEqualTo(1_000);
+    }
+
+    @Test
+    public void shouldRemoveReplicaThatFellBehind() {
+        // given
+        monitor.check();
+        replicate();
+        monitor.check();
+        assertThat(routingDataSource.isAvailable(0)).isTrue();
+
+        // when: the replica stops applying changes
+        now.addAndGet(MAX_LAG_MILLIS + 1);
+        monitor.check();
+
+        // then
+        assertThat(routingDataSource.isAvailable(0)).isFalse();
+        assertThat(meterRegistry.get("members.replica.available").gauge().value()).isZero();
+    }
+
+    @Test
+    public void shouldKeepReplicaWithoutHeartbeatOutOfRotation() {
+        // when
+        monitor.check();
+
+        // then
+        assertThat(routingDataSource.isAvailable(0)).isFalse();
+        assertThat(meterRegistry.get("members.replica.lag").gauge().value()).isEqualTo(-1);
+    }
+
+    private void replicate() {
+        Long beat = new JdbcTemplate(primary).queryForObject(ReplicaLagMonitor.SELECT_HEARTBEAT, Long.class);
+        JdbcTemplate replicaTemplate = new JdbcTemplate(replica);
+        replicaTemplate.execute(ReplicaLagMonitor.CREATE_HEARTBEAT);
+        replicaTemplate.update("DELETE FROM replica_heartbeat");
+        replicaTemplate.update("INSERT INTO replica_heartbeat (id, beat_millis) VALUES (1, ?)", beat);
+    }
+}
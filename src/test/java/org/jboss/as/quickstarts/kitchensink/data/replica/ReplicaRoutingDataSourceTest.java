@@ -0,0 +1,105 @@
+package org.jboss.as.quickstarts.kitchensink.data.replica;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two private H2 databases stand in for the primary and the replica; each knows its own name
+ */
+public class ReplicaRoutingDataSourceTest {
+
+    private DataSource primary;
+    private DataSource replica;
+    private ReplicaRoutingDataSource routingDataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        primary = node("routing-primary");
+        replica = node("routing-replica");
+        routingDataSource = new ReplicaRoutingDataSource(primary, List.of(replica));
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        new JdbcTemplate(primary).execute("DROP ALL OBJECTS");
+        new JdbcTemplate(replica).execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    public void shouldSendReadOnlyTransactionsToAvailableReplica() {
+        // given
+        routingDataSource.setAvailable(0, true);
+
+        // when
+        String readNode = readOnly.execute(status -> nodeName());
+        String writeNode = readWrite.execute(status -> nodeName());
+
+        // then
+        assertThat(readNode).isEqualTo("routing-replica");
+        assertThat(writeNode).isEqualTo("routing-primary");
+        assertThat(nodeName()).isEqualTo("routing-primary");
+    }
+
+    @Test
+    public void shouldReadFromPrimaryWhenNoReplicaIsAvailable() {
+        // given: replicas start out of rotation until a lag check admits them
+        assertThat(routingDataSource.isAvailable(0)).isFalse();
+
+        // when
+        String node = readOnly.execute(status -> nodeName());
+
+        // then
+        assertThat(node).isEqualTo("routing-primary");
+    }
+
+    @Test
+    public void shouldFallBackToPrimaryWhenReplicaRefusesConnections() {
+        // given
+        DataSource unreachable = new DriverManagerDataSource("jdbc:h2:mem:routing-missing;IFEXISTS=TRUE", "sa", "");
+        routingDataSource = new ReplicaRoutingDataSource(primary, List.of(unreachable));
+        routingDataSource.setAvailable(0, true);
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readOnly = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        readOnly.setReadOnly(true);
+
+        // when
+        String node = readOnly.execute(status -> nodeName());
+
+        // then
+        assertThat(node).isEqualTo("routing-primary");
+        assertThat(routingDataSource.isAvailable(0)).isFalse();
+    }
+
+    private String nodeName() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    static DataSource node(String name) {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE node (name VARCHAR(64))");
+        jdbcTemplate.update("INSERT INTO node (name) VALUES (?)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,49 @@
+package org.jboss.as.quickstarts.kitchensink.data.shard;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ConsistentHashRingTest {
+
+    private static final int KEYS = 20_000;
+
+    @Test
+    public void shouldSpreadKeysEvenly() {
+        // given
+        ConsistentHashRing ring = new ConsistentHashRing(4, 128);
+        int[] counts = new int[4];
+
+        // when
+        for (int i = 0; i < KEYS; i++) {
+            counts[ring.shardFor("member" + i + "@example.com")]++;
+        }
+
+        // then: every shard within 25% of its fair share
+        for (int count : counts) {
+            assertThat(count).isBetween(KEYS / 4 * 3 / 4, KEYS / 4 * 5 / 4);
+        }
+    }
+
+    @Test
+    public void shouldOnlyMoveKeysToAnAddedShard() {
+        // given
+        ConsistentHashRing before = new ConsistentHashRing(4, 128);
+        ConsistentHashRing after = new ConsistentHashRing(5, 128);
+        int moved = 0;
+
+        // when
+        for (int i = 0; i < KEYS; i++) {
+            String key = "member" + i + "@example.com";
+            int from = before.shardFor(key);
+            int to = after.shardFor(key);
+            if (from != to) {
+                assertThat(to).isEqualTo(4);
+                moved++;
+            }
+        }
+
+        // then: roughly the new shard's share moved, nothing else
+        assertThat(moved).isBetween(KEYS / 5 / 2, KEYS / 5 * 3 / 2);
+    }
+}
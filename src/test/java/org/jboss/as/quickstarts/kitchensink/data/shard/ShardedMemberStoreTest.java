@@ -0,0 +1,150 @@
+package org.jboss.as.quickstarts.kitchensink.data.shard;
+
+import org.jboss.as.quickstarts.kitchensink.data.AbstractMemberStoreTest;
+import org.jboss.as.quickstarts.kitchensink.data.changes.MemberChangeLog;
+import org.jboss.as.quickstarts.kitchensink.data.jdbc.JdbcMemberStore;
+import org.jboss.as.quickstarts.kitchensink.model.Member;
+import org.jboss.as.quickstarts.kitchensink.model.MemberCursor;
+import org.jboss.as.quickstarts.kitchensink.model.MemberKeys;
+import org.jboss.as.quickstarts.kitchensink.model.MemberView;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.DatabasePopulatorUtils;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Three private H2 databases serve as the shards, each behind its own JDBC store
+ */
+public class ShardedMemberStoreTest extends AbstractMemberStoreTest {
+
+    private static final int SHARDS = 3;
+
+    private final List<DataSource> dataSources = new ArrayList<>();
+    private ShardedMemberStore shardedStore;
+
+    @BeforeEach
+    void setUp() {
+        ResourceDatabasePopulator schema = new ResourceDatabasePopulator(new ClassPathResource("shard-schema.sql"));
+        List<JdbcMemberStore> shards = new ArrayList<>();
+        for (int i = 0; i < SHARDS; i++) {
+            DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:shard-" + i + ";DB_CLOSE_DELAY=-1", "sa", "");
+            DatabasePopulatorUtils.execute(schema, dataSource);
+            dataSources.add(dataSource);
+            shards.add(new JdbcMemberStore(new JdbcTemplate(dataSource), new DataSourceTransactionManager(dataSource), 1));
+        }
+        shardedStore = new ShardedMemberStore(shards, 64, 4, 2);
+        memberStore = shardedStore;
+    }
+
+    @AfterEach
+    void tearDown() {
+        shardedStore.destroy();
+        dataSources.forEach(dataSource -> new JdbcTemplate(dataSource).execute("DROP ALL OBJECTS"));
+    }
+
+    @Test
+    public void shouldStoreEachMemberOnTheShardOwningItsEmail() {
+        // given
+        List<Member> members = memberStore.insertAll(members(30));
+
+        // when, then
+        for (Member member : members) {
+            JdbcTemplate owner = new JdbcTemplate(dataSources.get(shardedStore.shardFor(member.getEmail())));
+            assertThat(owner.queryForObject("SELECT COUNT(*) FROM member WHERE email = ?", Integer.class, member.getEmail()))
+                    .isEqualTo(1);
+            assertThat(memberStore.findById(member.getId())).map(Member::getEmail).contains(member.getEmail());
+            assertThat(memberStore.findByEmail(member.getEmail())).map(Member::getId).contains(member.getId());
+        }
+        assertThat(dataSources).allSatisfy(dataSource ->
+                assertThat(new JdbcTemplate(dataSource).queryForObject("SELECT COUNT(*) FROM member", Integer.class))
+                        .isPositive());
+    }
+
+    @Test
+    public void shouldRecordConcurrentDeletesOfOneMemberOnce() {
+        // given
+        MemberChangeLog changeLog = mock(MemberChangeLog.class);
+        shardedStore.setChangeLog(changeLog);
+        Long id = memberStore.insertAll(members(1)).get(0).getId();
+        CountDownLatch start = new CountDownLatch(1);
+
+        // when
+        List<CompletableFuture<Void>> deletes = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            deletes.add(CompletableFuture.runAsync(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                memberStore.deleteById(id);
+            }));
+        }
+        start.countDown();
+        deletes.forEach(CompletableFuture::join);
+
+        // then
+        assertThat(memberStore.findById(id)).isEmpty();
+        verify(changeLog, times(1)).appendDeleted(id);
+    }
+
+    @Test
+    public void shouldMergeShardListingsByName() {
+        // given
+        memberStore.insertAll(members(30));
+
+        // when
+        List<MemberView> all = memberStore.findAllViewsOrderedByName();
+        List<MemberView> paged = new ArrayList<>();
+        MemberCursor cursor = null;
+        List<MemberView> page;
+        do {
+            page = memberStore.findViewsAfter(cursor, 7);
+            paged.addAll(page);
+            cursor = page.isEmpty() ? null : MemberCursor.after(page.get(page.size() - 1));
+        } while (page.size() == 7);
+
+        // then
+        assertThat(all).hasSize(30).isSortedAccordingTo(MemberKeys.NAME_ORDER);
+        assertThat(paged).containsExactlyElementsOf(all);
+        assertThat(memberStore.findViewsByNameContaining("member b")).extracting(MemberView::name)
+                .containsExactly("Member b", "Member b", "Member ba", "Member bb");
+    }
+
+    private static List<Member> members(int count) {
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            members.add(member(name(i), "member" + i + "@example.com"));
+        }
+        return members;
+    }
+
+    /**
+     * A name per letter, plus names sharing a prefix and one duplicate to exercise the ID tie-break
+     */
+    private static String name(int index) {
+        return switch (index) {
+            case 26 -> "Member ba";
+            case 27 -> "Member bb";
+            case 28 -> "Member b";
+            case 29 -> "Member aa";
+            default -> "Member " + (char) ('a' + index);
+        };
+    }
+}
@@ -0,0 +1,59 @@
+package org.jboss.as.quickstarts.kitchensink.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class MemberCursorTest {
+
+    @Test
+    public void shouldRoundTripThroughOpaqueToken() {
+        // given
+        MemberCursor cursor = MemberCursor.after(new MemberView(42L, "Mary: O'Neil", "mary@example.com", "1234567890"));
+
+        // when
+        String token = cursor.encode();
+
+        // then
+        assertThat(token).doesNotContain("mary").doesNotContain(":");
+        assertThat(MemberCursor.decode(token)).isEqualTo(new MemberCursor("mary: o'neil", 42L));
+    }
+
+    @Test
+    public void shouldRejectMalformedTokens() {
+        assertThrows(InvalidContinuationTokenException.class, () -> MemberCursor.decode("not base64!"));
+        assertThrows(InvalidContinuationTokenException.class, () -> MemberCursor.decode("Zm9v"));
+    }
+
+    @Test
+    public void shouldOrderByNameKeyThenId() {
+        // given
+        MemberCursor cursor = new MemberCursor("john doe", 5L);
+
+        // then
+        assertThat(cursor.isBefore(new MemberView(1L, "Karl", "karl@example.com", "1234567890"))).isTrue();
+        assertThat(cursor.isBefore(new MemberView(6L, "John Doe", "john2@example.com", "1234567890"))).isTrue();
+        assertThat(cursor.isBefore(new MemberView(5L, "John Doe", "john@example.com", "1234567890"))).isFalse();
+        assertThat(cursor.isBefore(new MemberView(9L, "Jane", "jane@example.com", "1234567890"))).isFalse();
+    }
+
+    @Test
+    public void shouldBuildPageFromSliceWithExtraRow() {
+        // given
+        MemberView first = new MemberView(1L, "Alice", "alice@example.com", "1234567890");
+        MemberView second = new MemberView(2L, "Bob", "bob@example.com", "1234567890");
+
+        // when
+        MemberPage partial = MemberPage.of(List.of(first, second), 1);
+        MemberPage last = MemberPage.of(List.of(second), 1);
+
+        // then
+        assertThat(partial.members()).containsExactly(first);
+        assertThat(MemberCursor.decode(partial.next())).isEqualTo(new MemberCursor("alice", 1L));
+        assertThat(last.members()).containsExactly(second);
+        assertThat(last.next()).isNull();
+    }
+}
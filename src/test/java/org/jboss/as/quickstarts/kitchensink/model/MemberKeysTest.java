@@ -0,0 +1,27 @@
+package org.jboss.as.quickstarts.kitchensink.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MemberKeysTest {
+
+    @Test
+    public void shouldReverseEmailDomainLabels() {
+        assertThat(MemberKeys.emailDomainKey("john@Mail.Example.COM")).isEqualTo("com.example.mail.");
+        assertThat(MemberKeys.emailDomainKey("john@example.com")).isEqualTo("com.example.");
+        assertThat(MemberKeys.emailDomainKey("no-domain")).isNull();
+        assertThat(MemberKeys.emailDomainKey(null)).isNull();
+    }
+
+    @Test
+    public void shouldKeySubdomainsUnderTheirDomain() {
+        // given
+        String domain = MemberKeys.domainKey("example.com");
+
+        // then
+        assertThat(MemberKeys.domainKey("@Example.com")).isEqualTo(domain);
+        assertThat(MemberKeys.emailDomainKey("jane@eu.example.com")).startsWith(domain);
+        assertThat(MemberKeys.emailDomainKey("jane@notexample.com")).doesNotStartWith(domain);
+    }
+}
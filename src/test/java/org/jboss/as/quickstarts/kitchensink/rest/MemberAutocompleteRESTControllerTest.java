@@ -0,0 +1,41 @@
+package org.jboss.as.quickstarts.kitchensink.rest;
+
+import org.jboss.as.quickstarts.kitchensink.model.MemberView;
+import org.jboss.as.quickstarts.kitchensink.search.MemberAutocompleteIndex;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(MemberAutocompleteRESTController.class)
+public class MemberAutocompleteRESTControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private MemberAutocompleteIndex autocompleteIndex;
+
+    @Test
+    public void shouldReturnCompletions() throws Exception {
+        // given
+        MemberView member = new MemberView(1L, "Jane Smith", "jane@example.com", "0987654321");
+        when(autocompleteIndex.complete("ja", 5)).thenReturn(List.of(member));
+
+        // when/then
+        mockMvc.perform(get("/api/members/autocomplete").param("prefix", "ja").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].email", is("jane@example.com")));
+    }
+}
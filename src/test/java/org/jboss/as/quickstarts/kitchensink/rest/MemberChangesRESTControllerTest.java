@@ -0,0 +1,72 @@
+package org.jboss.as.quickstarts.kitchensink.rest;
+
+import org.jboss.as.quickstarts.kitchensink.model.InvalidContinuationTokenException;
+import org.jboss.as.quickstarts.kitchensink.model.MemberChange;
+import org.jboss.as.quickstarts.kitchensink.model.MemberChangePage;
+import org.jboss.as.quickstarts.kitchensink.model.MemberView;
+import org.jboss.as.quickstarts.kitchensink.service.MemberChangeFeed;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = MemberChangesRESTController.class, properties = "members.changes.enabled=true")
+public class MemberChangesRESTControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private MemberChangeFeed changeFeed;
+
+    @Test
+    public void shouldReturnChangesAfterToken() throws Exception {
+        // given
+        MemberView member = new MemberView(2L, "Jane Smith", "jane@example.com", "0987654321");
+        DeferredResult<MemberChangePage> result = new DeferredResult<>();
+        result.setResult(MemberChangePage.of(List.of(
+                new MemberChange(5, MemberChange.Type.INSERTED, 2L, member),
+                new MemberChange(6, MemberChange.Type.DELETED, 1L, null)), 4));
+        String since = MemberChangePage.encode(4);
+        when(changeFeed.poll(since, 100, 20_000)).thenReturn(result);
+
+        // when/then
+        MvcResult pending = mockMvc.perform(get("/api/members/changes").param("since", since).param("wait", "20"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(pending))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes", hasSize(2)))
+                .andExpect(jsonPath("$.changes[0].type", is("INSERTED")))
+                .andExpect(jsonPath("$.changes[0].member.name", is("Jane Smith")))
+                .andExpect(jsonPath("$.changes[1].type", is("DELETED")))
+                .andExpect(jsonPath("$.changes[1].member", nullValue()))
+                .andExpect(jsonPath("$.next", is(MemberChangePage.encode(6))));
+    }
+
+    @Test
+    public void shouldRejectInvalidToken() throws Exception {
+        // given
+        when(changeFeed.poll("garbage", 100, 0)).thenThrow(new InvalidContinuationTokenException("Invalid change token"));
+
+        // when/then
+        mockMvc.perform(get("/api/members/changes").param("since", "garbage"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Invalid change token")));
+    }
+}
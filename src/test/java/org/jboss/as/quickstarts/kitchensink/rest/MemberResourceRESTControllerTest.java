@@ -1,7 +1,10 @@
 package org.jboss.as.quickstarts.kitchensink.rest;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.jboss.as.quickstarts.kitchensink.model.InvalidContinuationTokenException;
 import org.jboss.as.quickstarts.kitchensink.model.Member;
+import org.jboss.as.quickstarts.kitchensink.model.MemberPage;
+import org.jboss.as.quickstarts.kitchensink.model.MemberView;
 import org.jboss.as.quickstarts.kitchensink.service.MemberService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -35,11 +38,11 @@ public class MemberResourceRESTControllerTest {
     @Test
     public void shouldReturnAllMembers() throws Exception {
         // given
-        Member member1 = createMember(1L, "John Doe", "john@example.com", "1234567890");
-        Member member2 = createMember(2L, "Jane Smith", "jane@example.com", "0987654321");
-        List<Member> members = Arrays.asList(member1, member2);
+        MemberView member1 = new MemberView(1L, "John Doe", "john@example.com", "1234567890");
+        MemberView member2 = new MemberView(2L, "Jane Smith", "jane@example.com", "0987654321");
+        List<MemberView> members = Arrays.asList(member1, member2);
         
-        when(memberService.findAll()).thenReturn(members);
+        when(memberService.findAllViews()).thenReturn(members);
         
         // when/then
         mockMvc.perform(get("/api/members")
@@ -47,15 +50,76 @@ public class MemberResourceRESTControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$", hasSize(2)))
                 .andExpect(jsonPath("$[0].name", is("John Doe")))
+                .andExpect(jsonPath("$[0].phoneNumber", is("1234567890")))
                 .andExpect(jsonPath("$[1].name", is("Jane Smith")));
     }
     
+    @Test
+    public void shouldSearchMembersByName() throws Exception {
+        // given
+        MemberView member = new MemberView(2L, "Jane Smith", "jane@example.com", "0987654321");
+        
+        when(memberService.searchByName("smi")).thenReturn(List.of(member));
+        
+        // when/then
+        mockMvc.perform(get("/api/members")
+                .param("name", "smi")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].name", is("Jane Smith")));
+        
+        verify(memberService, never()).findAllViews();
+    }
+    
+    @Test
+    public void shouldReturnPageWithContinuationToken() throws Exception {
+        // given
+        MemberView member = new MemberView(1L, "John Doe", "john@example.com", "1234567890");
+        
+        when(memberService.findPageByName("abc", 1)).thenReturn(new MemberPage(List.of(member), "def"));
+        
+        // when/then
+        mockMvc.perform(get("/api/members/page")
+                .param("cursor", "abc")
+                .param("size", "1")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.members", hasSize(1)))
+                .andExpect(jsonPath("$.members[0].name", is("John Doe")))
+                .andExpect(jsonPath("$.next", is("def")));
+    }
+    
+    @Test
+    public void shouldRejectInvalidContinuationToken() throws Exception {
+        // given
+        when(memberService.findPageByName("garbage", 20)).thenThrow(new InvalidContinuationTokenException("Invalid continuation token"));
+        
+        // when/then
+        mockMvc.perform(get("/api/members/page")
+                .param("cursor", "garbage")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Invalid continuation token")));
+    }
+    
+    @Test
+    public void shouldNotBlameClientForOtherIllegalArguments() throws Exception {
+        // given
+        when(memberService.findPageByName(null, 20)).thenThrow(new IllegalArgumentException("Bug in paging"));
+        
+        // when/then
+        mockMvc.perform(get("/api/members/page")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isInternalServerError());
+    }
+    
     @Test
     public void shouldReturnMemberById() throws Exception {
         // given
-        Member member = createMember(1L, "John Doe", "john@example.com", "1234567890");
+        MemberView member = new MemberView(1L, "John Doe", "john@example.com", "1234567890");
         
-        when(memberService.findById(1L)).thenReturn(Optional.of(member));
+        when(memberService.findViewById(1L)).thenReturn(Optional.of(member));
         
         // when/then
         mockMvc.perform(get("/api/members/1")
@@ -69,7 +133,7 @@ public class MemberResourceRESTControllerTest {
     @Test
     public void shouldReturn404WhenMemberNotFound() throws Exception {
         // given
-        when(memberService.findById(99L)).thenReturn(Optional.empty());
+        when(memberService.findViewById(99L)).thenReturn(Optional.empty());
         
         // when/then
         mockMvc.perform(get("/api/members/99")
@@ -0,0 +1,56 @@
+package org.jboss.as.quickstarts.kitchensink.rest;
+
+import org.jboss.as.quickstarts.kitchensink.model.MemberView;
+import org.jboss.as.quickstarts.kitchensink.search.MemberSearchIndex;
+import org.jboss.as.quickstarts.kitchensink.search.MemberSearchResults;
+import org.jboss.as.quickstarts.kitchensink.search.SearchWindowExceededException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = MemberSearchRESTController.class, properties = "members.search.lucene.enabled=true")
+public class MemberSearchRESTControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private MemberSearchIndex searchIndex;
+
+    @Test
+    public void shouldReturnRankedPage() throws Exception {
+        // given
+        MemberView member = new MemberView(2L, "Jane Smith", "jane@example.com", "0987654321");
+        when(searchIndex.search("smith", 1, 5)).thenReturn(new MemberSearchResults(List.of(member), 6, 1, 5));
+
+        // when/then
+        mockMvc.perform(get("/api/members/search").param("q", "smith").param("page", "1").param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.members", hasSize(1)))
+                .andExpect(jsonPath("$.members[0].name", is("Jane Smith")))
+                .andExpect(jsonPath("$.totalHits", is(6)))
+                .andExpect(jsonPath("$.page", is(1)));
+    }
+
+    @Test
+    public void shouldRejectPageOutsideWindow() throws Exception {
+        // given
+        when(searchIndex.search("smith", 5000, 20)).thenThrow(new SearchWindowExceededException("Search results are limited"));
+
+        // when/then
+        mockMvc.perform(get("/api/members/search").param("q", "smith").param("page", "5000"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Search results are limited")));
+    }
+}
@@ -0,0 +1,72 @@
+package org.jboss.as.quickstarts.kitchensink.search;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.jboss.as.quickstarts.kitchensink.data.MemberListProducer;
+import org.jboss.as.quickstarts.kitchensink.data.MemberListRefreshedEvent;
+import org.jboss.as.quickstarts.kitchensink.model.MemberView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class MemberAutocompleteIndexTest {
+
+    @Mock
+    private MemberListProducer memberListProducer;
+
+    private SimpleMeterRegistry meterRegistry;
+    private MemberAutocompleteIndex autocomplete;
+
+    private final MemberView alice = new MemberView(1L, "Alice Smith", "alice@example.com", "1234567890");
+    private final MemberView albert = new MemberView(2L, "Albert Jones", "bert@example.com", "1234567890");
+    private final MemberView bob = new MemberView(3L, "Bob Allen", "al.bob@example.com", "1234567890");
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        when(memberListProducer.getMembers()).thenReturn(List.of(alice, albert, bob));
+        autocomplete = new MemberAutocompleteIndex(memberListProducer, meterRegistry);
+    }
+
+    @Test
+    void shouldCompleteNamesAndEmailsIgnoringCase() {
+        // when, then: "al.bob@..." < "albert jones" < "alice smith" < "alice@..."
+        assertThat(autocomplete.complete("AL", 10)).containsExactly(bob, albert, alice);
+        assertThat(autocomplete.complete("bert@", 10)).containsExactly(albert);
+        assertThat(autocomplete.complete("zed", 10)).isEmpty();
+        assertThat(meterRegistry.get("members.autocomplete.latency").timer().count()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldReturnEachMemberOnceUpToLimit() {
+        // when, then: Alice matches by name and by email
+        assertThat(autocomplete.complete("alice", 10)).containsExactly(alice);
+        assertThat(autocomplete.complete("al", 2)).containsExactly(bob, albert);
+    }
+
+    @Test
+    void shouldIgnoreBlankPrefixes() {
+        assertThat(autocomplete.complete(" ", 10)).isEmpty();
+        assertThat(autocomplete.complete("al", 0)).isEmpty();
+    }
+
+    @Test
+    void shouldFollowRefreshedSnapshot() {
+        // given
+        MemberView alan = new MemberView(4L, "Alan Turing", "alan@example.com", "1234567890");
+
+        // when
+        autocomplete.onMemberListRefreshed(new MemberListRefreshedEvent(this, List.of(alan, bob)));
+
+        // then
+        assertThat(autocomplete.complete("al", 10)).containsExactly(bob, alan);
+        assertThat(meterRegistry.get("members.autocomplete.members").gauge().value()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,95 @@
+package org.jboss.as.quickstarts.kitchensink.search;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.jboss.as.quickstarts.kitchensink.data.MemberStore;
+import org.jboss.as.quickstarts.kitchensink.model.Member;
+import org.jboss.as.quickstarts.kitchensink.model.MemberView;
+import org.jboss.as.quickstarts.kitchensink.service.MemberDeletedEvent;
+import org.jboss.as.quickstarts.kitchensink.service.MemberRegisteredEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class MemberNameTrigramIndexTest {
+
+    @Mock
+    private MemberStore memberStore;
+
+    private SimpleMeterRegistry meterRegistry;
+    private MemberNameTrigramIndex nameIndex;
+
+    private final MemberView alice = new MemberView(1L, "Alice Smith", "alice@example.com", "1234567890");
+    private final MemberView bob = new MemberView(2L, "Bob Jones", "bob@example.com", "1234567890");
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        nameIndex = new MemberNameTrigramIndex(memberStore, meterRegistry);
+        when(memberStore.streamViews()).thenAnswer(invocation -> Stream.of(alice, bob));
+        nameIndex.rebuild();
+    }
+
+    @Test
+    void shouldVerifyCandidatesAgainstStore() {
+        // given
+        when(memberStore.findViewsByIdIn(List.of(1L))).thenReturn(List.of(alice));
+
+        // when
+        List<MemberView> result = nameIndex.search("SMITH");
+
+        // then
+        assertThat(result).containsExactly(alice);
+        assertThat(meterRegistry.get("members.search.trigram.latency").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("members.search.trigram.documents").gauge().value()).isEqualTo(2);
+        assertThat(meterRegistry.get("members.search.trigram.memory").gauge().value()).isPositive();
+    }
+
+    @Test
+    void shouldDropStaleCandidates() {
+        // given: the store no longer agrees with the index
+        MemberView renamed = new MemberView(1L, "Alice Brown", "alice@example.com", "1234567890");
+        when(memberStore.findViewsByIdIn(List.of(1L))).thenReturn(List.of(renamed));
+
+        // when, then
+        assertThat(nameIndex.search("smith")).isEmpty();
+    }
+
+    @Test
+    void shouldSkipStoreWhenNothingMatches() {
+        // when
+        List<MemberView> result = nameIndex.search("zzz");
+
+        // then
+        assertThat(result).isEmpty();
+        verify(memberStore, never()).findViewsByIdIn(any());
+    }
+
+    @Test
+    void shouldFollowMemberChangeEvents() {
+        // given
+        Member carol = new Member();
+        carol.setId(3L);
+        carol.setName("Carol Smith");
+        MemberView carolView = MemberView.of(carol);
+        when(memberStore.findViewsByIdIn(List.of(3L))).thenReturn(List.of(carolView));
+
+        // when
+        nameIndex.onMemberRegistered(new MemberRegisteredEvent(this, carol));
+        nameIndex.onMemberDeleted(new MemberDeletedEvent(this, 1L));
+
+        // then
+        assertThat(nameIndex.search("smith")).containsExactly(carolView);
+    }
+}
@@ -0,0 +1,138 @@
+package org.jboss.as.quickstarts.kitchensink.search;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.jboss.as.quickstarts.kitchensink.data.MemberStore;
+import org.jboss.as.quickstarts.kitchensink.model.Member;
+import org.jboss.as.quickstarts.kitchensink.model.MemberView;
+import org.jboss.as.quickstarts.kitchensink.service.MemberDeletedEvent;
+import org.jboss.as.quickstarts.kitchensink.service.MemberRegisteredEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class MemberSearchIndexTest {
+
+    @Mock
+    private MemberStore memberStore;
+
+    @TempDir
+    Path indexDirectory;
+
+    private SimpleMeterRegistry meterRegistry;
+    private MemberSearchIndex searchIndex;
+
+    private final MemberView john = new MemberView(1L, "John Smith", "john@example.com", "1234567890");
+    private final MemberView jane = new MemberView(2L, "Jane Smithers", "jane@gmail.com", "0987654321");
+    private final MemberView bob = new MemberView(3L, "Bob Jones", "bob-smith@example.com", "5555555555");
+
+    @BeforeEach
+    void setUp() throws Exception {
+        meterRegistry = new SimpleMeterRegistry();
+        searchIndex = new MemberSearchIndex(memberStore, meterRegistry, indexDirectory, false);
+        when(memberStore.streamViews()).thenAnswer(invocation -> Stream.of(john, jane, bob));
+        searchIndex.start();
+        searchIndex.rebuild().get(10, TimeUnit.SECONDS);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        searchIndex.destroy();
+    }
+
+    @Test
+    void shouldRankNameMatchesFirst() {
+        // when
+        MemberSearchResults results = searchIndex.search("smith", 0, 10);
+
+        // then: "smith" is a name term for John and an email term for Bob
+        assertThat(results.totalHits()).isEqualTo(2);
+        assertThat(results.members()).containsExactly(john, bob);
+    }
+
+    @Test
+    void shouldSearchAcrossFieldsWithPrefixes() {
+        // when, then
+        assertThat(searchIndex.search("smith*", 0, 10).members()).containsExactlyInAnyOrder(john, jane, bob);
+        assertThat(searchIndex.search("0987654321", 0, 10).members()).containsExactly(jane);
+        assertThat(searchIndex.search("jane gmail.com", 0, 10).members()).containsExactly(jane);
+    }
+
+    @Test
+    void shouldPageResults() {
+        // when
+        MemberSearchResults first = searchIndex.search("smith*", 0, 2);
+        MemberSearchResults second = searchIndex.search("smith*", 1, 2);
+
+        // then
+        assertThat(first.members()).hasSize(2);
+        assertThat(second.members()).hasSize(1);
+        assertThat(second.totalHits()).isEqualTo(3);
+        assertThat(second.members()).doesNotContainAnyElementsOf(first.members());
+    }
+
+    @Test
+    void shouldRejectPagesBeyondResultWindow() {
+        assertThrows(SearchWindowExceededException.class, () -> searchIndex.search("smith", -1, 10));
+        assertThrows(SearchWindowExceededException.class,
+                () -> searchIndex.search("smith", MemberSearchIndex.MAX_RESULT_WINDOW, 10));
+        assertThrows(SearchWindowExceededException.class,
+                () -> searchIndex.search("smith", Integer.MAX_VALUE, 10));
+    }
+
+    @Test
+    void shouldKeepIndexWhenRebuildFailsPartway() throws Exception {
+        // given: a store that fails after streaming its first member
+        when(memberStore.streamViews()).thenAnswer(invocation -> Stream.of(john, jane).map(member -> {
+            if (member == jane) {
+                throw new IllegalStateException("Store unavailable");
+            }
+            return member;
+        }));
+
+        // when
+        ExecutionException failure = assertThrows(ExecutionException.class,
+                () -> searchIndex.rebuild().get(10, TimeUnit.SECONDS));
+        searchIndex.barrier().get(10, TimeUnit.SECONDS);
+
+        // then
+        assertThat(failure).hasRootCauseMessage("Store unavailable");
+        assertThat(searchIndex.getDocumentCount()).isEqualTo(3);
+        assertThat(searchIndex.search("smith*", 0, 10).members()).containsExactlyInAnyOrder(john, jane, bob);
+    }
+
+    @Test
+    void shouldApplyChangeEventsAsynchronously() throws Exception {
+        // given
+        Member carol = new Member();
+        carol.setId(4L);
+        carol.setName("Carol Smith");
+        carol.setEmail("carol@example.com");
+        carol.setPhoneNumber("1112223333");
+
+        // when
+        searchIndex.onMemberRegistered(new MemberRegisteredEvent(this, carol));
+        searchIndex.onMemberDeleted(new MemberDeletedEvent(this, 1L));
+        searchIndex.barrier().get(10, TimeUnit.SECONDS);
+
+        // then
+        assertThat(searchIndex.search("smith", 0, 10).members()).containsExactly(MemberView.of(carol), bob);
+        assertThat(searchIndex.getDocumentCount()).isEqualTo(3);
+        assertThat(searchIndex.getPendingCount()).isZero();
+        assertThat(meterRegistry.get("members.search.lucene.lag").timer().count()).isGreaterThanOrEqualTo(3);
+    }
+}
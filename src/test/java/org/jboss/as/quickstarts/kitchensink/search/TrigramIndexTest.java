@@ -0,0 +1,74 @@
+package org.jboss.as.quickstarts.kitchensink.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TrigramIndexTest {
+
+    private TrigramIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TrigramIndex();
+        Map<Long, String> names = new LinkedHashMap<>();
+        names.put(1L, "John Smith");
+        names.put(2L, "Jane Smithers");
+        names.put(3L, "Bob Jones");
+        index.rebuild(names);
+    }
+
+    @Test
+    void shouldFindSubstringIgnoringCase() {
+        // when, then
+        assertThat(index.search("SMITH")).containsExactly(1L, 2L);
+        assertThat(index.search("ones")).containsExactly(3L);
+        assertThat(index.search("zzz")).isEmpty();
+    }
+
+    @Test
+    void shouldRejectCandidatesWhoseTrigramsAreNotAdjacent() {
+        // given: "abc bcd" holds both trigrams of "abcd" without containing it
+        index.put(4L, "abcd");
+        index.put(5L, "abc bcd");
+
+        // when, then
+        assertThat(index.search("abcd")).containsExactly(4L);
+    }
+
+    @Test
+    void shouldScanForShortFragments() {
+        // when, then
+        assertThat(index.search("jo")).containsExactly(1L, 3L);
+        assertThat(index.search("")).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void shouldApplyUpdatesAndRemovals() {
+        // when
+        index.put(1L, "John Doe");
+        index.remove(2L);
+
+        // then
+        assertThat(index.search("smith")).isEmpty();
+        assertThat(index.search("doe")).containsExactly(1L);
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldCompactAfterManyRemovals() {
+        // when
+        index.remove(1L);
+        index.remove(2L);
+
+        // then
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.search("jones")).containsExactly(3L);
+        assertThat(index.termCount()).isEqualTo(7);
+        assertThat(index.estimatedBytes()).isPositive();
+    }
+}
@@ -0,0 +1,112 @@
+package org.jboss.as.quickstarts.kitchensink.service;
+
+import org.jboss.as.quickstarts.kitchensink.data.changes.JdbcMemberChangeLog;
+import org.jboss.as.quickstarts.kitchensink.model.Member;
+import org.jboss.as.quickstarts.kitchensink.model.MemberChange;
+import org.jboss.as.quickstarts.kitchensink.model.MemberChangePage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.groups.Tuple.tuple;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class MemberChangeFeedTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private JdbcMemberChangeLog changeLog;
+    private MemberChangeFeed changeFeed;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:member-change-feed;DB_CLOSE_DELAY=-1", "sa", ""));
+        changeLog = new JdbcMemberChangeLog(jdbcTemplate);
+        changeFeed = new MemberChangeFeed(changeLog);
+    }
+
+    @AfterEach
+    void tearDown() {
+        changeFeed.destroy();
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    public void shouldReturnOnlyChangesAfterToken() {
+        // given
+        register(1L, "John Doe");
+        String token = changeFeed.changesSince(null, 10).next();
+        register(2L, "Jane Smith");
+        delete(1L);
+
+        // when
+        MemberChangePage page = changeFeed.changesSince(token, 10);
+
+        // then
+        assertThat(page.changes()).extracting(MemberChange::type, MemberChange::memberId).containsExactly(
+                tuple(MemberChange.Type.INSERTED, 2L),
+                tuple(MemberChange.Type.DELETED, 1L));
+        assertThat(page.changes().get(0).member().name()).isEqualTo("Jane Smith");
+        assertThat(changeFeed.changesSince(page.next(), 10).changes()).isEmpty();
+    }
+
+    @Test
+    public void shouldAnswerLongPollOnNextChange() throws Exception {
+        // given
+        String token = changeFeed.changesSince(null, 10).next();
+        DeferredResult<MemberChangePage> result = changeFeed.poll(token, 10, 10_000);
+        CountDownLatch answered = new CountDownLatch(1);
+        result.setResultHandler(page -> answered.countDown());
+        assertThat(result.hasResult()).isFalse();
+
+        // when
+        register(3L, "John Doe");
+
+        // then
+        assertThat(answered.await(5, TimeUnit.SECONDS)).isTrue();
+        MemberChangePage page = (MemberChangePage) result.getResult();
+        assertThat(page.changes()).extracting(MemberChange::memberId).containsExactly(3L);
+        assertThat(changeFeed.waiting()).isZero();
+    }
+
+    @Test
+    public void shouldAnswerPollAtOnceWhenChangesArePending() {
+        // given
+        String token = changeFeed.changesSince(null, 10).next();
+        register(4L, "John Doe");
+
+        // when
+        DeferredResult<MemberChangePage> result = changeFeed.poll(token, 10, 10_000);
+
+        // then
+        assertThat(result.hasResult()).isTrue();
+        assertThat(changeFeed.waiting()).isZero();
+    }
+
+    @Test
+    public void shouldRejectMalformedToken() {
+        assertThrows(IllegalArgumentException.class, () -> changeFeed.changesSince("garbage", 10));
+    }
+
+    // The member store records the change before the service publishes the event
+    private void register(Long id, String name) {
+        Member member = new Member();
+        member.setId(id);
+        member.setName(name);
+        member.setEmail(name.toLowerCase().replace(' ', '.') + "@example.com");
+        member.setPhoneNumber("1234567890");
+        changeLog.appendInserted(member);
+        changeFeed.onMemberRegistered(new MemberRegisteredEvent(this, member));
+    }
+
+    private void delete(Long id) {
+        changeLog.appendDeleted(id);
+        changeFeed.onMemberDeleted(new MemberDeletedEvent(this, id));
+    }
+}
@@ -0,0 +1,209 @@
+package org.jboss.as.quickstarts.kitchensink.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.jboss.as.quickstarts.kitchensink.data.MemberReadCircuitBreaker;
+import org.jboss.as.quickstarts.kitchensink.data.deadline.QueryDeadline;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class MemberReadCoalescerTest {
+
+    private static final int CALLERS = 4;
+
+    private SimpleMeterRegistry meterRegistry;
+    private MemberReadCoalescer coalescer;
+    private ExecutorService executor;
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger backendCalls = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        coalescer = new MemberReadCoalescer(meterRegistry);
+        executor = Executors.newFixedThreadPool(CALLERS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    private String slowRead() {
+        backendCalls.incrementAndGet();
+        try {
+            release.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "member-42";
+    }
+
+    private double coalesced(String kind) {
+        return meterRegistry.get("members.coalesce.requests").tag("kind", kind).tag("role", "coalesced").counter().count();
+    }
+
+    private void awaitCoalesced(String kind, int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (meterRegistry.find("members.coalesce.requests").tag("role", "coalesced").counter() == null
+                || coalesced(kind) < count) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    public void shouldShareOneBackendCallBetweenConcurrentCallers() throws Exception {
+        // given: one caller is reading, the others ask for the same key
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(executor.submit(() -> coalescer.read("view", 42L, this::slowRead)));
+        }
+        awaitCoalesced("view", CALLERS - 1);
+
+        // when
+        release.countDown();
+
+        // then
+        for (Future<String> result : results) {
+            assertThat(result.get(10, TimeUnit.SECONDS)).isEqualTo("member-42");
+        }
+        assertThat(backendCalls.get()).isEqualTo(1);
+        assertThat(coalescer.inFlight()).isZero();
+        assertThat(meterRegistry.get("members.coalesce.requests").tag("role", "leader").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    public void shouldNotCoalesceDifferentKeysOrKinds() {
+        // when
+        coalescer.read("view", 1L, () -> backendCalls.incrementAndGet());
+        coalescer.read("view", 2L, () -> backendCalls.incrementAndGet());
+        coalescer.read("id", 1L, () -> backendCalls.incrementAndGet());
+        coalescer.read("view", 1L, () -> backendCalls.incrementAndGet());
+
+        // then: nothing is kept once a read completes
+        assertThat(backendCalls.get()).isEqualTo(4);
+    }
+
+    @Test
+    public void shouldShareFailures() throws Exception {
+        // given
+        Future<String> leader = executor.submit(() -> coalescer.read("search", "doe", () -> {
+            slowRead();
+            throw new DataAccessResourceFailureException("store down");
+        }));
+        Future<String> follower = executor.submit(() -> coalescer.read("search", "doe", this::slowRead));
+        awaitCoalesced("search", 1);
+
+        // when
+        release.countDown();
+
+        // then
+        ExecutionException leaderFailure = assertThrows(ExecutionException.class, () -> leader.get(10, TimeUnit.SECONDS));
+        ExecutionException followerFailure = assertThrows(ExecutionException.class, () -> follower.get(10, TimeUnit.SECONDS));
+        assertThat(leaderFailure.getCause()).isInstanceOf(DataAccessResourceFailureException.class);
+        assertThat(followerFailure.getCause()).isSameAs(leaderFailure.getCause());
+        assertThat(backendCalls.get()).isEqualTo(1);
+    }
+
+    private void awaitLeader() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (coalescer.inFlight() == 0) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    /**
+     * Run a read in a request of its own, returning its result and its response
+     */
+    private Future<MockHttpServletResponse> readInRequest(Supplier<String> read) {
+        return executor.submit(() -> {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest(), response));
+            try {
+                assertThat(coalescer.read("search", "doe", read)).isEqualTo("member-42");
+                return response;
+            } finally {
+                RequestContextHolder.resetRequestAttributes();
+            }
+        });
+    }
+
+    @Test
+    public void shouldReadAgainWhenLeadersDeadlinePassed() throws Exception {
+        // given: the leader's read runs out of the leader's time
+        Future<String> leader = executor.submit(() -> coalescer.read("view", 42L, () -> {
+            slowRead();
+            throw new QueryTimeoutException("Query deadline exceeded");
+        }));
+        awaitLeader();
+        Future<String> follower = executor.submit(() -> coalescer.read("view", 42L, this::slowRead));
+        awaitCoalesced("view", 1);
+
+        // when
+        release.countDown();
+
+        // then
+        ExecutionException leaderFailure = assertThrows(ExecutionException.class, () -> leader.get(10, TimeUnit.SECONDS));
+        assertThat(leaderFailure.getCause()).isInstanceOf(QueryTimeoutException.class);
+        assertThat(follower.get(10, TimeUnit.SECONDS)).isEqualTo("member-42");
+        assertThat(backendCalls.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldMarkEveryResponseStaleWhenSharedResultIs() throws Exception {
+        // given: the leader is answered from the cached member list
+        Future<MockHttpServletResponse> leader = readInRequest(() -> {
+            MemberReadCircuitBreaker.markStale();
+            return slowRead();
+        });
+        awaitLeader();
+        Future<MockHttpServletResponse> follower = readInRequest(this::slowRead);
+        awaitCoalesced("search", 1);
+
+        // when
+        release.countDown();
+
+        // then
+        assertThat(leader.get(10, TimeUnit.SECONDS).getHeader(MemberReadCircuitBreaker.STALE_HEADER)).isEqualTo("true");
+        assertThat(follower.get(10, TimeUnit.SECONDS).getHeader(MemberReadCircuitBreaker.STALE_HEADER)).isEqualTo("true");
+        assertThat(backendCalls.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldStopWaitingAtCallersDeadline() throws Exception {
+        // given
+        executor.submit(() -> coalescer.read("view", 42L, this::slowRead));
+        while (coalescer.inFlight() == 0) {
+            Thread.sleep(5);
+        }
+
+        // when, then
+        try (QueryDeadline deadline = QueryDeadline.start(50)) {
+            assertThrows(QueryTimeoutException.class, () -> coalescer.read("view", 42L, this::slowRead));
+        }
+        assertThat(backendCalls.get()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,224 @@
+package org.jboss.as.quickstarts.kitchensink.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.jboss.as.quickstarts.kitchensink.data.MemberStore;
+import org.jboss.as.quickstarts.kitchensink.data.deadline.QueryDeadline;
+import org.jboss.as.quickstarts.kitchensink.model.Member;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+public class MemberRegistrationBatcherTest {
+
+    private static final String TAKEN = "taken@example.com";
+
+    private SimpleMeterRegistry meterRegistry;
+    private MemberStore memberStore;
+    private MemberRegistrationBatcher batcher;
+    private ExecutorService executor;
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final List<List<String>> batches = new CopyOnWriteArrayList<>();
+    private final List<Object> events = new CopyOnWriteArrayList<>();
+    private final ApplicationEventPublisher eventPublisher = events::add;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        memberStore = mock(MemberStore.class);
+        // The first batch is held until released, so the registrations that follow queue up behind it
+        doAnswer(invocation -> {
+            List<Member> members = invocation.getArgument(0);
+            batches.add(members.stream().map(Member::getEmail).toList());
+            if (batches.size() == 1) {
+                release.await(10, TimeUnit.SECONDS);
+            }
+            boolean[] inserted = new boolean[members.size()];
+            for (int i = 0; i < members.size(); i++) {
+                inserted[i] = !members.get(i).getEmail().equals(TAKEN);
+            }
+            return inserted;
+        }).when(memberStore).insertAllIfEmailAbsent(anyList());
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        release.countDown();
+        batcher.destroy();
+        executor.shutdownNow();
+    }
+
+    private Future<Boolean> register(String email) {
+        Member member = new Member();
+        member.setName("John Doe");
+        member.setEmail(email);
+        member.setPhoneNumber("1234567890");
+        return executor.submit(() -> batcher.insertIfEmailAbsent(member));
+    }
+
+    private void awaitQueued(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (batcher.queued() < count) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    private void awaitBatches(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (batches.size() < count) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    public void shouldCommitQueuedRegistrationsTogetherWithEachOutcome() throws Exception {
+        // given: a commit is in progress while three more registrations arrive
+        batcher = new MemberRegistrationBatcher(memberStore, eventPublisher, meterRegistry, 64, 0);
+        Future<Boolean> first = register("first@example.com");
+        awaitBatches(1);
+        List<Future<Boolean>> queued = new ArrayList<>();
+        for (String email : List.of("alice@example.com", TAKEN, "bob@example.com")) {
+            queued.add(register(email));
+        }
+        awaitQueued(3);
+
+        // when
+        release.countDown();
+
+        // then
+        assertThat(first.get(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(queued.get(0).get(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(queued.get(1).get(10, TimeUnit.SECONDS)).isFalse();
+        assertThat(queued.get(2).get(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(batches).hasSize(2);
+        assertThat(batches.get(1)).containsExactlyInAnyOrder("alice@example.com", TAKEN, "bob@example.com");
+        assertThat(meterRegistry.get("members.register.batch.size").summary().max()).isEqualTo(3.0);
+    }
+
+    @Test
+    public void shouldSplitBatchesAtMaxBatchSize() throws Exception {
+        // given
+        batcher = new MemberRegistrationBatcher(memberStore, eventPublisher, meterRegistry, 2, 0);
+        register("first@example.com");
+        awaitBatches(1);
+        List<Future<Boolean>> queued = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            queued.add(register("member" + i + "@example.com"));
+        }
+        awaitQueued(3);
+
+        // when
+        release.countDown();
+        for (Future<Boolean> result : queued) {
+            result.get(10, TimeUnit.SECONDS);
+        }
+
+        // then
+        assertThat(batches).extracting(List::size).containsExactly(1, 2, 1);
+    }
+
+    @Test
+    public void shouldGiveEachRegistrationItsOwnOutcomeWhenBatchFails() throws Exception {
+        // given: the batch fails after storing its first member, then one of the others fails on its own
+        doAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS);
+            List<Member> members = invocation.getArgument(0);
+            members.stream().filter(member -> member.getEmail().equals("stored@example.com")).forEach(member -> member.setId(1L));
+            throw new DataAccessResourceFailureException("batch failed");
+        }).when(memberStore).insertAllIfEmailAbsent(anyList());
+        doAnswer(invocation -> {
+            Member member = invocation.getArgument(0);
+            if (member.getEmail().equals("broken@example.com")) {
+                throw new DataAccessResourceFailureException("member failed");
+            }
+            return !member.getEmail().equals(TAKEN);
+        }).when(memberStore).insertIfEmailAbsent(any(Member.class));
+        batcher = new MemberRegistrationBatcher(memberStore, eventPublisher, meterRegistry, 64, 50);
+        Future<Boolean> stored = register("stored@example.com");
+        Future<Boolean> broken = register("broken@example.com");
+        Future<Boolean> taken = register(TAKEN);
+        Future<Boolean> fresh = register("fresh@example.com");
+
+        // when
+        release.countDown();
+
+        // then
+        assertThat(stored.get(10, TimeUnit.SECONDS)).isTrue();
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> broken.get(10, TimeUnit.SECONDS));
+        assertThat(failure.getCause()).hasMessage("member failed");
+        assertThat(taken.get(10, TimeUnit.SECONDS)).isFalse();
+        assertThat(fresh.get(10, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    public void shouldPublishRegistrationCommittedAfterCallerGaveUp() throws Exception {
+        // given: the caller's batch is being committed when its deadline passes
+        batcher = new MemberRegistrationBatcher(memberStore, eventPublisher, meterRegistry, 64, 0);
+        Member member = new Member();
+        member.setEmail("slow@example.com");
+        Future<Boolean> result = executor.submit(() -> {
+            try (QueryDeadline deadline = QueryDeadline.start(50)) {
+                return batcher.insertIfEmailAbsent(member);
+            }
+        });
+        awaitBatches(1);
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> result.get(10, TimeUnit.SECONDS));
+        assertThat(failure.getCause()).isInstanceOf(QueryTimeoutException.class);
+        assertThat(events).isEmpty();
+
+        // when
+        release.countDown();
+
+        // then
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (events.isEmpty()) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(5);
+        }
+        assertThat(events).singleElement().isInstanceOfSatisfying(MemberRegisteredEvent.class,
+                event -> assertThat(event.getMember()).isSameAs(member));
+    }
+
+    @Test
+    public void shouldDropQueuedRegistrationWhenCallersDeadlinePasses() throws Exception {
+        // given
+        batcher = new MemberRegistrationBatcher(memberStore, eventPublisher, meterRegistry, 64, 0);
+        register("first@example.com");
+        awaitBatches(1);
+        Member late = new Member();
+        late.setEmail("late@example.com");
+
+        // when
+        try (QueryDeadline deadline = QueryDeadline.start(50)) {
+            assertThrows(QueryTimeoutException.class, () -> batcher.insertIfEmailAbsent(late));
+        }
+        release.countDown();
+
+        // then: it was never handed to the store
+        assertThat(batcher.queued()).isZero();
+        Thread.sleep(50);
+        assertThat(batches).hasSize(1);
+    }
+}
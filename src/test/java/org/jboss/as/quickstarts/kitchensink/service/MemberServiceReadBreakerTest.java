@@ -0,0 +1,83 @@
+package org.jboss.as.quickstarts.kitchensink.service;
+
+import org.jboss.as.quickstarts.kitchensink.data.MemberListProducer;
+import org.jboss.as.quickstarts.kitchensink.model.Member;
+import org.jboss.as.quickstarts.kitchensink.model.MemberView;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the read breaker against the real JPA backend, where a failing query marks its transaction rollback-only
+ * The member table is renamed away to make every read fail in the database.
+ */
+@SpringBootTest
+@TestPropertySource(properties = {
+    "mongodb.enabled=false",
+    "members.breaker.enabled=true",
+    "members.breaker.minimum-calls=100"
+})
+public class MemberServiceReadBreakerTest {
+
+    @Autowired
+    private MemberService memberService;
+
+    @Autowired
+    private MemberListProducer memberListProducer;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Member member;
+
+    @BeforeEach
+    void registerMember() throws Exception {
+        member = new Member();
+        member.setName("John Doe");
+        member.setEmail("breaker-" + System.nanoTime() + "@example.com");
+        member.setPhoneNumber("1234567890");
+        memberService.register(member);
+    }
+
+    @AfterEach
+    void restoreTable() {
+        jdbcTemplate.execute("ALTER TABLE IF EXISTS member_gone RENAME TO member");
+        memberService.delete(member.getId());
+    }
+
+    @Test
+    public void shouldServeCachedMembersWhenStoreQueriesFail() {
+        // given
+        jdbcTemplate.execute("ALTER TABLE member RENAME TO member_gone");
+
+        // when
+        List<MemberView> views = memberService.findAllViews();
+        List<MemberView> found = memberService.searchByName("john");
+
+        // then
+        assertThat(views).extracting(MemberView::id).contains(member.getId());
+        assertThat(found).extracting(MemberView::id).contains(member.getId());
+        assertThat(memberService.findById(member.getId())).map(Member::getEmail).contains(member.getEmail());
+        assertThat(memberService.findPageByName(null, 100).members()).extracting(MemberView::id).contains(member.getId());
+    }
+
+    @Test
+    public void shouldKeepCachedListWhenRefreshFails() {
+        // given
+        jdbcTemplate.execute("ALTER TABLE member RENAME TO member_gone");
+
+        // when
+        memberListProducer.retrieveAllMembersOrderedByName();
+
+        // then
+        assertThat(memberListProducer.getMembers()).extracting(MemberView::id).contains(member.getId());
+    }
+}
@@ -1,8 +1,15 @@
 package org.jboss.as.quickstarts.kitchensink.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.validation.ConstraintViolationException;
-import org.jboss.as.quickstarts.kitchensink.data.MemberRepository;
+import org.jboss.as.quickstarts.kitchensink.data.MemberListProducer;
+import org.jboss.as.quickstarts.kitchensink.data.MemberReadCircuitBreaker;
+import org.jboss.as.quickstarts.kitchensink.data.MemberStore;
 import org.jboss.as.quickstarts.kitchensink.model.Member;
+import org.jboss.as.quickstarts.kitchensink.model.MemberCursor;
+import org.jboss.as.quickstarts.kitchensink.model.MemberPage;
+import org.jboss.as.quickstarts.kitchensink.model.MemberView;
+import org.jboss.as.quickstarts.kitchensink.search.MemberNameTrigramIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -10,9 +17,17 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
 import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -23,7 +38,7 @@ import static org.mockito.Mockito.*;
 public class MemberServiceTest {
 
     @Mock
-    private MemberRepository memberRepository;
+    private MemberStore memberStore;
     
     @Mock
     private ApplicationEventPublisher eventPublisher;
@@ -39,7 +54,7 @@ public class MemberServiceTest {
         validator.afterPropertiesSet();
         
         // Initialize the service with mocks
-        memberService = new MemberService(memberRepository, validator, eventPublisher);
+        memberService = new MemberService(memberStore, validator, eventPublisher);
     }
     
     @Test
@@ -50,11 +65,10 @@ public class MemberServiceTest {
         member.setEmail("john@example.com");
         member.setPhoneNumber("1234567890");
         
-        when(memberRepository.findByEmail(anyString())).thenReturn(Optional.empty());
-        when(memberRepository.save(any(Member.class))).thenAnswer(invocation -> {
+        when(memberStore.insertIfEmailAbsent(any(Member.class))).thenAnswer(invocation -> {
             Member savedMember = invocation.getArgument(0);
             savedMember.setId(1L);
-            return savedMember;
+            return true;
         });
         
         // when
@@ -62,7 +76,7 @@ public class MemberServiceTest {
         
         // then
         assertThat(registered.getId()).isEqualTo(1L);
-        verify(memberRepository).save(member);
+        verify(memberStore).insertIfEmailAbsent(member);
         
         // verify event was published
         ArgumentCaptor<MemberRegisteredEvent> eventCaptor = ArgumentCaptor.forClass(MemberRegisteredEvent.class);
@@ -83,25 +97,20 @@ public class MemberServiceTest {
             memberService.register(member);
         });
         
-        // Verify repository was not called
-        verify(memberRepository, never()).save(any(Member.class));
+        // Verify store was not called
+        verify(memberStore, never()).insertIfEmailAbsent(any(Member.class));
     }
     
     @Test
     public void shouldRejectDuplicateEmail() {
         // given
-        Member existingMember = new Member();
-        existingMember.setId(1L);
-        existingMember.setName("Existing User");
-        existingMember.setEmail("john@example.com");
-        existingMember.setPhoneNumber("1234567890");
-        
         Member newMember = new Member();
         newMember.setName("John Doe");
         newMember.setEmail("john@example.com"); // Same email as existing user
         newMember.setPhoneNumber("9876543210");
         
-        when(memberRepository.findByEmail("john@example.com")).thenReturn(Optional.of(existingMember));
+        // The store already holds a member with this email
+        when(memberStore.insertIfEmailAbsent(newMember)).thenReturn(false);
         
         // when, then
         Exception exception = assertThrows(Exception.class, () -> {
@@ -110,7 +119,184 @@ public class MemberServiceTest {
         
         assertThat(exception.getMessage()).contains("already exists");
         
-        // Verify repository save was not called
-        verify(memberRepository, never()).save(any(Member.class));
+        // Verify no registration was announced
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+    
+    @Test
+    public void shouldReturnReadOnlyViews() {
+        // given
+        MemberView view = new MemberView(1L, "John Doe", "john@example.com", "1234567890");
+        when(memberStore.findAllViewsOrderedByName()).thenReturn(List.of(view));
+        when(memberStore.findViewById(1L)).thenReturn(Optional.of(view));
+        when(memberStore.findViewsByNameContaining("doe")).thenReturn(List.of(view));
+        
+        // when, then
+        assertThat(memberService.findAllViews()).containsExactly(view);
+        assertThat(memberService.findViewById(1L)).contains(view);
+        assertThat(memberService.searchByName("doe")).containsExactly(view);
+        
+        // the entity read path is not used
+        verify(memberStore, never()).findById(any());
+    }
+    
+    @Test
+    public void shouldPageWithContinuationTokens() {
+        // given
+        MemberView alice = new MemberView(1L, "Alice", "alice@example.com", "1234567890");
+        MemberView bob = new MemberView(2L, "Bob", "bob@example.com", "1234567890");
+        MemberView carol = new MemberView(3L, "Carol", "carol@example.com", "1234567890");
+        when(memberStore.findViewsAfter(null, 3)).thenReturn(List.of(alice, bob, carol));
+        when(memberStore.findViewsAfter(new MemberCursor("bob", 2L), 3)).thenReturn(List.of(carol));
+        
+        // when
+        MemberPage first = memberService.findPageByName(null, 2);
+        MemberPage second = memberService.findPageByName(first.next(), 2);
+        
+        // then
+        assertThat(first.members()).containsExactly(alice, bob);
+        assertThat(MemberCursor.decode(first.next())).isEqualTo(new MemberCursor("bob", 2L));
+        assertThat(second.members()).containsExactly(carol);
+        assertThat(second.next()).isNull();
+    }
+    
+    @Test
+    public void shouldCapPageSize() {
+        // given
+        when(memberStore.findViewsAfter(any(), anyInt())).thenReturn(List.of());
+        
+        // when
+        memberService.findPageByName(null, 10_000);
+        
+        // then
+        verify(memberStore).findViewsAfter(null, MemberService.MAX_PAGE_SIZE + 1);
+    }
+    
+    @Test
+    public void shouldSearchThroughTrigramIndexWhenEnabled() {
+        // given
+        MemberView view = new MemberView(1L, "John Doe", "john@example.com", "1234567890");
+        MemberNameTrigramIndex nameIndex = mock(MemberNameTrigramIndex.class);
+        when(nameIndex.search("doe")).thenReturn(List.of(view));
+        memberService.setNameIndex(nameIndex);
+        
+        // when
+        List<MemberView> result = memberService.searchByName("doe");
+        
+        // then
+        assertThat(result).containsExactly(view);
+        verify(memberStore, never()).findViewsByNameContaining(any());
+    }
+    
+    @Test
+    public void shouldRegisterThroughGroupCommitWhenEnabled() throws Exception {
+        // given
+        Member member = new Member();
+        member.setName("John Doe");
+        member.setEmail("john@example.com");
+        member.setPhoneNumber("1234567890");
+        MemberRegistrationBatcher registrationBatcher = mock(MemberRegistrationBatcher.class);
+        when(registrationBatcher.insertIfEmailAbsent(member)).thenReturn(true);
+        memberService.setRegistrationBatcher(registrationBatcher);
+
+        // when
+        memberService.register(member);
+
+        // then
+        verify(memberStore, never()).insertIfEmailAbsent(any(Member.class));
+        verify(eventPublisher).publishEvent(any(MemberRegisteredEvent.class));
+    }
+
+    @Test
+    public void shouldFallBackToCachedListWhenStoreFails() {
+        // given
+        MemberView view = new MemberView(1L, "John Doe", "john@example.com", "1234567890");
+        MemberListProducer memberListProducer = mock(MemberListProducer.class);
+        when(memberListProducer.getMembers()).thenReturn(List.of(view));
+        memberService.setReadBreaker(new MemberReadCircuitBreaker(eventPublisher, new SimpleMeterRegistry(),
+                20, 10, 0.5, 2000, 10000), memberListProducer);
+        when(memberStore.findAllViewsOrderedByName()).thenThrow(new DataAccessResourceFailureException("down"));
+        when(memberStore.findViewById(1L)).thenThrow(new DataAccessResourceFailureException("down"));
+        when(memberStore.findViewsByNameContaining("DOE")).thenThrow(new DataAccessResourceFailureException("down"));
+        
+        // when, then
+        assertThat(memberService.findAllViews()).containsExactly(view);
+        assertThat(memberService.findViewById(1L)).contains(view);
+        assertThat(memberService.searchByName("DOE")).containsExactly(view);
+    }
+    
+    @Test
+    public void shouldFallBackToCachedListForEntityAndIndexReads() {
+        // given
+        MemberView view = new MemberView(1L, "John Doe", "john@example.com", "1234567890");
+        MemberListProducer memberListProducer = mock(MemberListProducer.class);
+        when(memberListProducer.getMembers()).thenReturn(List.of(view));
+        memberService.setReadBreaker(new MemberReadCircuitBreaker(eventPublisher, new SimpleMeterRegistry(),
+                20, 10, 0.5, 2000, 10000), memberListProducer);
+        MemberNameTrigramIndex nameIndex = mock(MemberNameTrigramIndex.class);
+        when(nameIndex.search("doe")).thenThrow(new DataAccessResourceFailureException("down"));
+        memberService.setNameIndex(nameIndex);
+        when(memberStore.findById(1L)).thenThrow(new DataAccessResourceFailureException("down"));
+        
+        // when
+        Optional<Member> member = memberService.findById(1L);
+        List<MemberView> found = memberService.searchByName("doe");
+        
+        // then
+        assertThat(member).map(Member::getName).contains("John Doe");
+        assertThat(found).containsExactly(view);
+    }
+    
+    @Test
+    public void shouldCountCoalescedStoreFailureOnceInBreaker() throws Exception {
+        // given: a breaker that opens on the second failure out of two reads
+        MemberView cached = new MemberView(1L, "John Doe", "john@example.com", "1234567890");
+        MemberView stored = new MemberView(1L, "John Smith", "john@example.com", "1234567890");
+        MemberListProducer memberListProducer = mock(MemberListProducer.class);
+        when(memberListProducer.getMembers()).thenReturn(List.of(cached));
+        memberService.setReadBreaker(new MemberReadCircuitBreaker(eventPublisher, new SimpleMeterRegistry(),
+                20, 2, 0.5, 2000, 10000), memberListProducer);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        memberService.setReadCoalescer(new MemberReadCoalescer(meterRegistry));
+        CountDownLatch joined = new CountDownLatch(1);
+        when(memberStore.findViewById(1L)).thenAnswer(invocation -> {
+            joined.await(5, TimeUnit.SECONDS);
+            throw new DataAccessResourceFailureException("down");
+        }).thenReturn(Optional.of(stored));
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+
+        // when: four callers share one failing store read
+        try {
+            List<Future<Optional<MemberView>>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                results.add(callers.submit(() -> memberService.findViewById(1L)));
+            }
+            while (meterRegistry.find("members.coalesce.requests").tag("role", "coalesced").counter() == null
+                    || meterRegistry.get("members.coalesce.requests").tag("role", "coalesced").counter().count() < 3) {
+                Thread.sleep(5);
+            }
+            joined.countDown();
+            for (Future<Optional<MemberView>> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).contains(cached);
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+
+        // then: one failure does not open the breaker, so the next read goes to the store
+        assertThat(memberService.findViewById(1L)).contains(stored);
+        verify(memberStore, times(2)).findViewById(1L);
+    }
+
+    @Test
+    public void shouldPublishEventOnDelete() {
+        // when
+        memberService.delete(5L);
+        
+        // then
+        verify(memberStore).deleteById(5L);
+        ArgumentCaptor<MemberDeletedEvent> eventCaptor = ArgumentCaptor.forClass(MemberDeletedEvent.class);
+        verify(eventPublisher).publishEvent(eventCaptor.capture());
+        assertThat(eventCaptor.getValue().getMemberId()).isEqualTo(5L);
     }
 }
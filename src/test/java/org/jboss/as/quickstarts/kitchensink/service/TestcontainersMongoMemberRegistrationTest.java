@@ -0,0 +1,76 @@
+package org.jboss.as.quickstarts.kitchensink.service;
+
+import org.jboss.as.quickstarts.kitchensink.config.TestcontainersMongoConfig;
+import org.jboss.as.quickstarts.kitchensink.data.mongo.MongoMemberRepository;
+import org.jboss.as.quickstarts.kitchensink.model.Member;
+import org.jboss.as.quickstarts.kitchensink.model.MongoMember;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Registration on a real MongoDB, where the unique email index is all that keeps emails unique
+ * Tests are skipped if Docker is not available
+ */
+@SpringBootTest
+@Import(TestcontainersMongoConfig.class)
+@TestPropertySource(properties = {
+    "mongodb.enabled=true"
+})
+public class TestcontainersMongoMemberRegistrationTest {
+
+    @Autowired
+    private MemberService memberService;
+
+    @Autowired
+    private MongoMemberRepository mongoRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @AfterEach
+    void tearDown() {
+        mongoRepository.deleteAll();
+    }
+
+    @Test
+    public void shouldRejectSecondRegistrationWithSameEmail() throws Exception {
+        // given
+        memberService.register(member("John Doe"));
+
+        // when
+        Exception e = assertThrows(Exception.class, () -> memberService.register(member("John Other")));
+
+        // then
+        assertThat(e).hasMessageContaining("already exists");
+        assertThat(mongoRepository.findAll()).extracting(MongoMember::getEmail).containsExactly("john@example.com");
+    }
+
+    @Test
+    public void shouldCreateDeclaredIndexes() {
+        assertThat(mongoTemplate.indexOps(MongoMember.class).getIndexInfo())
+                .extracting(IndexInfo::getName)
+                .contains("name_key_member_id");
+        assertThat(mongoTemplate.indexOps(MongoMember.class).getIndexInfo())
+                .filteredOn(IndexInfo::isUnique)
+                .flatExtracting(IndexInfo::getIndexFields)
+                .extracting(field -> field.getKey())
+                .contains("email");
+    }
+
+    private static Member member(String name) {
+        Member member = new Member();
+        member.setName(name);
+        member.setEmail("john@example.com");
+        member.setPhoneNumber("1234567890");
+        return member;
+    }
+}
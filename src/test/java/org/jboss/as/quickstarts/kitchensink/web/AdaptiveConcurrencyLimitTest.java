@@ -0,0 +1,90 @@
+package org.jboss.as.quickstarts.kitchensink.web;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AdaptiveConcurrencyLimitTest {
+
+    private static final long TEN_MILLIS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Test
+    public void shouldRejectBeyondLimit() {
+        // given
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 10);
+
+        // when
+        int first = limit.tryAcquire();
+        int second = limit.tryAcquire();
+        int third = limit.tryAcquire();
+
+        // then
+        assertThat(first).isEqualTo(1);
+        assertThat(second).isEqualTo(2);
+        assertThat(third).isEqualTo(-1);
+        limit.release(second, TEN_MILLIS, false);
+        assertThat(limit.tryAcquire()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldGrowWhileLatencyHoldsUnderFullUse() {
+        // given
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 4, 100);
+
+        // when
+        for (int i = 0; i < 50; i++) {
+            limit.update(limit.getLimit(), TEN_MILLIS, false);
+        }
+
+        // then
+        assertThat(limit.getLimit()).isGreaterThan(10).isLessThanOrEqualTo(100);
+    }
+
+    @Test
+    public void shouldNotGrowWhileMostlyIdle() {
+        // given
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 4, 100);
+
+        // when
+        for (int i = 0; i < 50; i++) {
+            limit.update(1, TEN_MILLIS, false);
+        }
+
+        // then
+        assertThat(limit.getLimit()).isEqualTo(10);
+    }
+
+    @Test
+    public void shouldShrinkWhenLatencyClimbs() {
+        // given: a limit learned at 10ms
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(50, 4, 100);
+        for (int i = 0; i < 100; i++) {
+            limit.update(50, TEN_MILLIS, false);
+        }
+        int learned = limit.getLimit();
+
+        // when: requests start queueing in the backend
+        for (int i = 0; i < 30; i++) {
+            limit.update(limit.getLimit(), 8 * TEN_MILLIS, false);
+        }
+
+        // then
+        assertThat(limit.getLimit()).isLessThan(learned / 2);
+    }
+
+    @Test
+    public void shouldBackOffOnFailures() {
+        // given
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(40, 4, 100);
+
+        // when
+        for (int i = 0; i < 100; i++) {
+            limit.update(40, TEN_MILLIS, true);
+        }
+
+        // then
+        assertThat(limit.getLimit()).isEqualTo(4);
+    }
+}
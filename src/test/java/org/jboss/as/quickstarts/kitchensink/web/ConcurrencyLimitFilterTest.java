@@ -0,0 +1,71 @@
+package org.jboss.as.quickstarts.kitchensink.web;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ConcurrencyLimitFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new ConcurrencyLimitFilter(meterRegistry, 1, 10, 1, 10, 1, 2);
+    }
+
+    @Test
+    public void shouldRejectReadsOverLimitWithRetryAfter() throws Exception {
+        // given: the only read permit is taken
+        filter.getReads().tryAcquire();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // when
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/members"), response, chain);
+
+        // then
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(response.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("2");
+        assertThat(response.getContentAsString()).contains("Too many concurrent requests");
+        assertThat(chain.getRequest()).isNull();
+        assertThat(meterRegistry.get("members.limit.rejected").tag("kind", "read").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    public void shouldLimitWritesSeparately() throws Exception {
+        // given
+        filter.getReads().tryAcquire();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // when
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/members"), response, chain);
+
+        // then
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(chain.getRequest()).isNotNull();
+        assertThat(filter.getWrites().getInflight()).isZero();
+        assertThat(meterRegistry.get("members.limit.inflight").tag("kind", "read").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    public void shouldNotLimitLongLivedStreams() throws Exception {
+        // given
+        filter.getReads().tryAcquire();
+        MockFilterChain chain = new MockFilterChain();
+
+        // when
+        filter.doFilter(new MockHttpServletRequest("GET", "/members/updates"), new MockHttpServletResponse(), chain);
+
+        // then
+        assertThat(chain.getRequest()).isNotNull();
+    }
+}
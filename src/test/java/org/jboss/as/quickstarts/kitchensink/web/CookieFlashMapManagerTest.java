@@ -0,0 +1,121 @@
+package org.jboss.as.quickstarts.kitchensink.web;
+
+import jakarta.servlet.http.Cookie;
+import org.jboss.as.quickstarts.kitchensink.model.Member;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
+import org.springframework.web.servlet.FlashMap;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CookieFlashMapManagerTest {
+
+    private final CookieFlashMapManager flashMapManager = new CookieFlashMapManager("test-secret", 180);
+
+    @Test
+    public void shouldCarryFormErrorsAcrossRedirectInCookie() {
+        // given: a rejected registration
+        Member member = new Member();
+        member.setName("");
+        member.setEmail("invalid-email");
+        member.setPhoneNumber("123");
+        BindingResult errors = new BeanPropertyBindingResult(member, "newMember");
+        errors.rejectValue("email", "Email", "must be a well-formed email address");
+        FlashMap output = new FlashMap();
+        output.put("errorMessage", "Validation failed");
+        output.put("newMember", member);
+        output.put(BindingResult.MODEL_KEY_PREFIX + "newMember", errors);
+        output.setTargetRequestPath("/");
+        MockHttpServletRequest post = new MockHttpServletRequest("POST", "/register");
+
+        // when
+        String cookie = save(output, post);
+        MockHttpServletRequest get = new MockHttpServletRequest("GET", "/");
+        get.setCookies(new Cookie(CookieFlashMapManager.COOKIE_NAME, cookie));
+        MockHttpServletResponse getResponse = new MockHttpServletResponse();
+        Map<String, ?> input = flashMapManager.retrieveAndUpdate(get, getResponse);
+
+        // then
+        assertThat(post.getSession(false)).isNull();
+        assertThat(input).isNotNull();
+        assertThat(input.get("errorMessage")).isEqualTo("Validation failed");
+        Member restored = (Member) input.get("newMember");
+        assertThat(restored.getEmail()).isEqualTo("invalid-email");
+        BindingResult restoredErrors = (BindingResult) input.get(BindingResult.MODEL_KEY_PREFIX + "newMember");
+        assertThat(restoredErrors.getTarget()).isSameAs(restored);
+        assertThat(restoredErrors.getFieldError("email").getDefaultMessage()).isEqualTo("must be a well-formed email address");
+        assertThat(restoredErrors.getFieldValue("email")).isEqualTo("invalid-email");
+        // the consumed flash map is removed from the browser
+        assertThat(getResponse.getHeader(HttpHeaders.SET_COOKIE)).contains("Max-Age=0");
+    }
+
+    @Test
+    public void shouldIgnoreTamperedCookie() {
+        // given
+        FlashMap output = new FlashMap();
+        output.put("successMessage", "Member John registered successfully!");
+        output.setTargetRequestPath("/");
+        String cookie = save(output, new MockHttpServletRequest("POST", "/register"));
+        String signature = cookie.substring(cookie.lastIndexOf('.') + 1);
+        String payload = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                "[{\"x\":0,\"p\":\"/\",\"a\":{\"successMessage\":{\"s\":\"forged\"}}}]".getBytes(StandardCharsets.UTF_8));
+        String forged = payload + "." + signature;
+
+        // when
+        MockHttpServletRequest get = new MockHttpServletRequest("GET", "/");
+        get.setCookies(new Cookie(CookieFlashMapManager.COOKIE_NAME, forged));
+
+        Map<String, ?> input = flashMapManager.retrieveAndUpdate(get, new MockHttpServletResponse());
+
+        // then
+        assertThat(input).isNull();
+    }
+
+    @Test
+    public void shouldRejectCookieSignedWithAnotherSecret() {
+        // given
+        FlashMap output = new FlashMap();
+        output.put("successMessage", "Member John registered successfully!");
+        output.setTargetRequestPath("/");
+        CookieFlashMapManager otherInstance = new CookieFlashMapManager("other-secret", 180);
+        MockHttpServletRequest post = new MockHttpServletRequest("POST", "/register");
+        MockHttpServletResponse postResponse = new MockHttpServletResponse();
+        otherInstance.saveOutputFlashMap(output, post, postResponse);
+
+        // when
+        MockHttpServletRequest get = new MockHttpServletRequest("GET", "/");
+        get.setCookies(new Cookie(CookieFlashMapManager.COOKIE_NAME, cookieValue(postResponse)));
+
+        Map<String, ?> input = flashMapManager.retrieveAndUpdate(get, new MockHttpServletResponse());
+
+        // then
+        assertThat(input).isNull();
+    }
+
+    @Test
+    public void shouldRefuseBlankSecret() {
+        // when, then
+        assertThrows(IllegalArgumentException.class, () -> new CookieFlashMapManager(" ", 180));
+    }
+
+    private String save(FlashMap output, MockHttpServletRequest request) {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        flashMapManager.saveOutputFlashMap(output, request, response);
+        return cookieValue(response);
+    }
+
+    private static String cookieValue(MockHttpServletResponse response) {
+        String header = response.getHeader(HttpHeaders.SET_COOKIE);
+        assertThat(header).startsWith(CookieFlashMapManager.COOKIE_NAME + "=").contains("HttpOnly");
+        return header.substring(CookieFlashMapManager.COOKIE_NAME.length() + 1, header.indexOf(';'));
+    }
+}
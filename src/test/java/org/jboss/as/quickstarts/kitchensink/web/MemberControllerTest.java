@@ -1,19 +1,25 @@
 package org.jboss.as.quickstarts.kitchensink.web;
 
-import org.jboss.as.quickstarts.kitchensink.data.MemberListProducer;
+import org.jboss.as.quickstarts.kitchensink.model.InvalidContinuationTokenException;
 import org.jboss.as.quickstarts.kitchensink.model.Member;
+import org.jboss.as.quickstarts.kitchensink.model.MemberPage;
+import org.jboss.as.quickstarts.kitchensink.model.MemberView;
 import org.jboss.as.quickstarts.kitchensink.service.MemberService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -30,23 +36,117 @@ public class MemberControllerTest {
     private MemberService memberService;
     
     @MockBean
-    private MemberListProducer memberListProducer;
+    private MemberRowsCache rowsCache;
+    
+    @MockBean
+    private MemberUpdateBroadcaster updateBroadcaster;
     
     @Test
     public void shouldDisplayHomePage() throws Exception {
         // given
-        Member member1 = createMember(1L, "John Doe", "john@example.com", "1234567890");
-        Member member2 = createMember(2L, "Jane Smith", "jane@example.com", "0987654321");
-        List<Member> members = Arrays.asList(member1, member2);
+        MemberView member1 = new MemberView(1L, "John Doe", "john@example.com", "1234567890");
+        MemberView member2 = new MemberView(2L, "Jane Smith", "jane@example.com", "0987654321");
+        List<MemberView> members = Arrays.asList(member1, member2);
         
-        when(memberListProducer.getMembers()).thenReturn(members);
+        when(rowsCache.rows(null, MemberController.PAGE_SIZE)).thenReturn(rendered(new MemberPage(members, null)));
         
         // when/then
         mockMvc.perform(get("/"))
                 .andExpect(status().isOk())
                 .andExpect(view().name("index"))
                 .andExpect(model().attributeExists("newMember"))
-                .andExpect(model().attribute("members", members));
+                .andExpect(model().attribute("members", members))
+                .andExpect(content().string(containsString("<tr data-member-id=\"2\">")));
+    }
+    
+    @Test
+    public void shouldDisplayRequestedPage() throws Exception {
+        // given
+        MemberView member = new MemberView(3L, "Robert Johnson", "robert@example.com", "5555555555");
+        when(rowsCache.rows("token", MemberController.PAGE_SIZE)).thenReturn(rendered(new MemberPage(List.of(member), "next-token")));
+        
+        // when/then
+        mockMvc.perform(get("/").param("cursor", "token"))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("members", List.of(member)))
+                .andExpect(model().attribute("nextCursor", "next-token"))
+                .andExpect(model().attribute("firstPage", false));
+    }
+    
+    @Test
+    public void shouldLoadMoreRowsUnderContextPath() throws Exception {
+        // given
+        when(rowsCache.rows(null, MemberController.PAGE_SIZE)).thenReturn(rendered(new MemberPage(List.of(), "next-token")));
+        
+        // when/then
+        mockMvc.perform(get("/app/").contextPath("/app"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("data-rows-url=\"/app/members/rows\"")))
+                .andExpect(content().string(containsString("data-page-url=\"/app/\"")));
+    }
+    
+    @Test
+    public void shouldSubscribeToUpdatesUnderContextPath() throws Exception {
+        // given
+        when(rowsCache.rows(null, MemberController.PAGE_SIZE)).thenReturn(rendered(new MemberPage(List.of(), null)));
+        
+        // when/then
+        mockMvc.perform(get("/app/").contextPath("/app"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("data-updates-url=\"/app/members/updates\"")))
+                .andExpect(content().string(containsString("data-first-page=\"true\"")));
+    }
+    
+    @Test
+    public void shouldFallBackToFirstPageForInvalidCursor() throws Exception {
+        // given
+        when(rowsCache.rows("garbage", MemberController.PAGE_SIZE)).thenThrow(new InvalidContinuationTokenException("Invalid continuation token"));
+        when(rowsCache.rows(null, MemberController.PAGE_SIZE)).thenReturn(rendered(new MemberPage(List.of(), null)));
+        
+        // when/then
+        mockMvc.perform(get("/").param("cursor", "garbage"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("index"))
+                .andExpect(model().attribute("members", List.of()));
+    }
+    
+    @Test
+    public void shouldServeCachedRowsForFollowingPage() throws Exception {
+        // given
+        MemberView member = new MemberView(3L, "Robert Johnson", "robert@example.com", "5555555555");
+        MemberRowsCache.RenderedRows rows = rendered(new MemberPage(List.of(member), "next-token"));
+        when(rowsCache.rows("token", MemberController.PAGE_SIZE)).thenReturn(rows);
+        
+        // when/then
+        mockMvc.perform(get("/members/rows").param("cursor", "token"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_HTML))
+                .andExpect(header().string(MemberController.NEXT_CURSOR_HEADER, "next-token"))
+                .andExpect(content().bytes(rows.bytes()));
+    }
+    
+    @Test
+    public void shouldOmitNextCursorOnLastPageOfRows() throws Exception {
+        // given
+        when(rowsCache.rows("token", MemberController.PAGE_SIZE)).thenReturn(rendered(new MemberPage(List.of(), null)));
+        
+        // when/then
+        mockMvc.perform(get("/members/rows").param("cursor", "token"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(MemberController.NEXT_CURSOR_HEADER));
+    }
+    
+    @Test
+    public void shouldStreamMemberUpdates() throws Exception {
+        // given
+        when(updateBroadcaster.subscribe()).thenReturn(new SseEmitter());
+        
+        // when/then
+        mockMvc.perform(get("/members/updates"))
+                .andExpect(status().isOk())
+                .andExpect(request().asyncStarted());
+        
+        verify(updateBroadcaster).subscribe();
     }
     
     @Test
@@ -92,6 +192,14 @@ public class MemberControllerTest {
                 .andExpect(flash().attributeExists("newMember"));
     }
     
+    private static MemberRowsCache.RenderedRows rendered(MemberPage page) {
+        StringBuilder html = new StringBuilder();
+        for (MemberView member : page.members()) {
+            html.append("<tr data-member-id=\"").append(member.id()).append("\"><td>").append(member.name()).append("</td></tr>");
+        }
+        return new MemberRowsCache.RenderedRows(page, html.toString(), html.toString().getBytes(StandardCharsets.UTF_8));
+    }
+    
     private Member createMember(Long id, String name, String email, String phoneNumber) {
         Member member = new Member();
         member.setId(id);
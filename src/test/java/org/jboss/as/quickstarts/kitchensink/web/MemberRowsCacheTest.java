@@ -0,0 +1,90 @@
+package org.jboss.as.quickstarts.kitchensink.web;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.jboss.as.quickstarts.kitchensink.data.MemberListProducer;
+import org.jboss.as.quickstarts.kitchensink.data.MemberListRefreshedEvent;
+import org.jboss.as.quickstarts.kitchensink.model.MemberPage;
+import org.jboss.as.quickstarts.kitchensink.model.MemberView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class MemberRowsCacheTest {
+
+    private final MemberListProducer memberListProducer = mock(MemberListProducer.class);
+    private SimpleMeterRegistry meterRegistry;
+    private MemberRowsCache rowsCache;
+
+    @BeforeEach
+    void setUp() {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        SpringTemplateEngine templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(resolver);
+        meterRegistry = new SimpleMeterRegistry();
+        rowsCache = new MemberRowsCache(memberListProducer, templateEngine, meterRegistry, 4);
+
+        MemberView john = new MemberView(1L, "John <Doe>", "john@example.com", "1234567890");
+        when(memberListProducer.getPage(null, 20)).thenReturn(new MemberPage(List.of(john), "next-token"));
+    }
+
+    @Test
+    public void shouldRenderOnlyTheRows() {
+        // when
+        MemberRowsCache.RenderedRows rows = rowsCache.rows(null, 20);
+
+        // then
+        assertThat(rows.html())
+                .contains("data-member-id=\"1\"")
+                .contains("<td>John &lt;Doe&gt;</td>")
+                .doesNotContain("<table")
+                .doesNotContain("<html");
+        assertThat(rows.bytes()).isEqualTo(rows.html().getBytes(StandardCharsets.UTF_8));
+        assertThat(rows.page().next()).isEqualTo("next-token");
+    }
+
+    @Test
+    public void shouldRenderOncePerSnapshotVersion() {
+        // given
+        when(memberListProducer.getVersion()).thenReturn(1L);
+        MemberRowsCache.RenderedRows first = rowsCache.rows(null, 20);
+
+        // when
+        MemberRowsCache.RenderedRows second = rowsCache.rows(null, 20);
+        when(memberListProducer.getVersion()).thenReturn(2L);
+        MemberRowsCache.RenderedRows third = rowsCache.rows(null, 20);
+
+        // then
+        assertThat(second).isSameAs(first);
+        assertThat(third).isNotSameAs(first);
+        verify(memberListProducer, times(2)).getPage(null, 20);
+        assertThat(meterRegistry.get("members.table.cache").tag("result", "hit").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("members.table.cache").tag("result", "miss").counter().count()).isEqualTo(2.0);
+        assertThat(meterRegistry.get("members.table.render").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldDropPagesWhenListIsRefreshed() {
+        // given
+        MemberRowsCache.RenderedRows first = rowsCache.rows(null, 20);
+
+        // when
+        rowsCache.onMemberListRefreshed(new MemberListRefreshedEvent(this, List.of()));
+
+        // then
+        assertThat(rowsCache.rows(null, 20)).isNotSameAs(first);
+    }
+}
@@ -0,0 +1,110 @@
+package org.jboss.as.quickstarts.kitchensink.web;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.jboss.as.quickstarts.kitchensink.model.Member;
+import org.jboss.as.quickstarts.kitchensink.service.MemberRegisteredEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MemberUpdateBroadcasterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private MemberUpdateBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        broadcaster = new MemberUpdateBroadcaster(meterRegistry, 2, 60_000, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.destroy();
+    }
+
+    @Test
+    public void shouldPushRegisteredMembersToEverySubscriber() throws Exception {
+        // given
+        GatedEmitter first = new GatedEmitter(10);
+        GatedEmitter second = new GatedEmitter(10);
+        broadcaster.subscribe(first);
+        broadcaster.subscribe(second);
+
+        // when
+        broadcaster.onMemberRegistered(registered(1L));
+        broadcaster.onMemberRegistered(registered(2L));
+
+        // then
+        assertThat(first.sent.tryAcquire(2, 5, TimeUnit.SECONDS)).isTrue();
+        assertThat(second.sent.tryAcquire(2, 5, TimeUnit.SECONDS)).isTrue();
+        assertThat(broadcaster.subscriberCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldEvictSubscriberThatFallsBehind() throws Exception {
+        // given: a page that never reads, stuck sending the first member, next to one that keeps up
+        GatedEmitter stalled = new GatedEmitter(0);
+        GatedEmitter healthy = new GatedEmitter(4);
+        broadcaster.subscribe(stalled);
+        broadcaster.subscribe(healthy);
+        broadcaster.onMemberRegistered(registered(1L));
+        assertThat(stalled.started.tryAcquire(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(healthy.sent.tryAcquire(5, TimeUnit.SECONDS)).isTrue();
+
+        // when: as many more members as the buffer holds, then one more
+        for (long id = 2; id <= 4; id++) {
+            broadcaster.onMemberRegistered(registered(id));
+            assertThat(healthy.sent.tryAcquire(5, TimeUnit.SECONDS)).isTrue();
+        }
+
+        // then
+        assertThat(broadcaster.subscriberCount()).isEqualTo(1);
+        assertThat(meterRegistry.get("members.updates.evicted").counter().count()).isEqualTo(1.0);
+        stalled.gate.release(Integer.MAX_VALUE / 2);
+        assertThat(stalled.completed.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private static MemberRegisteredEvent registered(Long id) {
+        Member member = new Member();
+        member.setId(id);
+        member.setName("Member " + id);
+        member.setEmail("member" + id + "@example.com");
+        member.setPhoneNumber("1234567890");
+        return new MemberRegisteredEvent(MemberUpdateBroadcasterTest.class, member);
+    }
+
+    /**
+     * Emitter whose sends wait for permits, standing in for a client reading at its own pace
+     */
+    private static class GatedEmitter extends SseEmitter {
+
+        final Semaphore gate;
+        final Semaphore started = new Semaphore(0);
+        final Semaphore sent = new Semaphore(0);
+        final CountDownLatch completed = new CountDownLatch(1);
+
+        GatedEmitter(int permits) {
+            this.gate = new Semaphore(permits);
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            started.release();
+            gate.acquireUninterruptibly();
+            sent.release();
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package org.jboss.as.quickstarts.kitchensink.web;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.jboss.as.quickstarts.kitchensink.data.deadline.QueryDeadline;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class QueryDeadlineFilterTest {
+
+    private final QueryDeadlineFilter filter = new QueryDeadlineFilter(1000, 2000, 5000, 4000, 100, 30000);
+
+    @AfterEach
+    void tearDown() {
+        filter.destroy();
+    }
+
+    @Test
+    public void shouldPickDeadlinePerEndpoint() {
+        // given
+        MockHttpServletRequest search = new MockHttpServletRequest("GET", "/api/members");
+        search.setParameter("name", "doe");
+
+        // when, then
+        assertThat(filter.timeoutFor(new MockHttpServletRequest("GET", "/api/members/42"))).isEqualTo(1000);
+        assertThat(filter.timeoutFor(new MockHttpServletRequest("GET", "/api/members/search"))).isEqualTo(2000);
+        assertThat(filter.timeoutFor(search)).isEqualTo(2000);
+        assertThat(filter.timeoutFor(new MockHttpServletRequest("GET", "/api/members"))).isEqualTo(5000);
+        assertThat(filter.timeoutFor(new MockHttpServletRequest("GET", "/"))).isEqualTo(5000);
+        assertThat(filter.timeoutFor(new MockHttpServletRequest("POST", "/api/members"))).isEqualTo(4000);
+    }
+
+    @Test
+    public void shouldLetClientsOverrideDeadlineWithinBounds() {
+        // given
+        MockHttpServletRequest shorter = new MockHttpServletRequest("GET", "/api/members");
+        shorter.addHeader(QueryDeadlineFilter.TIMEOUT_HEADER, "250");
+        MockHttpServletRequest longer = new MockHttpServletRequest("GET", "/api/members");
+        longer.addHeader(QueryDeadlineFilter.TIMEOUT_HEADER, "600000");
+        MockHttpServletRequest tiny = new MockHttpServletRequest("GET", "/api/members");
+        tiny.addHeader(QueryDeadlineFilter.TIMEOUT_HEADER, "1");
+        MockHttpServletRequest invalid = new MockHttpServletRequest("GET", "/api/members");
+        invalid.addHeader(QueryDeadlineFilter.TIMEOUT_HEADER, "soon");
+
+        // when, then
+        assertThat(filter.timeoutFor(shorter)).isEqualTo(250);
+        assertThat(filter.timeoutFor(longer)).isEqualTo(30000);
+        assertThat(filter.timeoutFor(tiny)).isEqualTo(100);
+        assertThat(filter.timeoutFor(invalid)).isEqualTo(5000);
+    }
+
+    @Test
+    public void shouldBindDeadlineWhileRequestIsServed() throws Exception {
+        // given
+        AtomicReference<QueryDeadline> seen = new AtomicReference<>();
+        MockFilterChain chain = recordingDeadline(seen);
+
+        // when
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/members"), new MockHttpServletResponse(), chain);
+
+        // then
+        assertThat(seen.get()).isNotNull();
+        assertThat(seen.get().remainingMillis()).isLessThanOrEqualTo(5000);
+        assertThat(QueryDeadline.current()).isNull();
+    }
+
+    @Test
+    public void shouldSkipOtherPaths() throws Exception {
+        // given
+        AtomicReference<QueryDeadline> seen = new AtomicReference<>();
+        MockFilterChain chain = recordingDeadline(seen);
+
+        // when
+        filter.doFilter(new MockHttpServletRequest("GET", "/actuator/health"), new MockHttpServletResponse(), chain);
+
+        // then
+        assertThat(seen.get()).isNull();
+    }
+
+    private static MockFilterChain recordingDeadline(AtomicReference<QueryDeadline> seen) {
+        return new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) {
+                seen.set(QueryDeadline.current());
+            }
+        });
+    }
+}